@@ -33,11 +33,21 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Stack;
 import java.util.Vector;
+import java.util.concurrent.ForkJoinTask;
 import java.util.regex.Pattern;
 
 import org.eclipse.core.resources.IContainer;
@@ -54,6 +64,8 @@ import org.eclipse.core.runtime.jobs.Job;
 import org.prop4j.Literal;
 import org.prop4j.Node;
 import org.prop4j.Not;
+import org.prop4j.solver.ISatSolver.SatResult;
+import org.prop4j.solver.PresenceConditionChecker;
 
 import antenna.preprocessor.v3.PPException;
 import antenna.preprocessor.v3.Preprocessor;
@@ -70,6 +82,7 @@ import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
 import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
 import de.ovgu.featureide.fm.core.editing.NodeCreator;
+import de.ovgu.featureide.fm.core.job.LongRunningExecutor;
 
 /**
  * Antenna: a purposely-simple Java preprocessor.
@@ -81,25 +94,118 @@ import de.ovgu.featureide.fm.core.editing.NodeCreator;
  */
 public class AntennaPreprocessor extends PPComposerExtensionClass {
 
-	/** antenna preprocessor used from external library */
-	private Preprocessor preprocessor;
+	/**
+	 * Comma separated list of the activated features, which are added as definitions to the preprocessor of each file. Set in
+	 * {@link #preprocessSourceFiles(List, boolean)}.
+	 */
+	private String defines;
 
 	private AntennaModelBuilder antennaModelBuilder;
 
 	/** pattern for replacing preprocessor commands like "//#if" */
 	static final Pattern replaceCommandPattern = Pattern.compile("//\\s*\\#(.+?)\\s");
 
+	/**
+	 * A builder marker that was found by a worker and is created afterwards by the build thread.
+	 */
+	private static final class BuilderMarker {
+
+		private final String message;
+		private final int lineNumber;
+		private final int severity;
+
+		public BuilderMarker(String message, int lineNumber, int severity) {
+			this.message = message;
+			this.lineNumber = lineNumber;
+			this.severity = severity;
+		}
+
+	}
+
+	/**
+	 * The state of a source file after the last full build.
+	 */
+	private static final class FileState {
+
+		private final long modificationStamp;
+		private final byte[] contentHash;
+		/** The features referenced in the directives of the file. */
+		private final Set<String> relevantFeatures;
+		/** The activated features among the relevant features. */
+		private final Set<String> selectedFeatures;
+		private final Set<String> usedFeatures;
+		private final List<BuilderMarker> markers;
+
+		public FileState(long modificationStamp, byte[] contentHash, Set<String> relevantFeatures, Set<String> selectedFeatures, Set<String> usedFeatures,
+				List<BuilderMarker> markers) {
+			this.modificationStamp = modificationStamp;
+			this.contentHash = contentHash;
+			this.relevantFeatures = relevantFeatures;
+			this.selectedFeatures = selectedFeatures;
+			this.usedFeatures = usedFeatures;
+			this.markers = markers;
+		}
+
+	}
+
+	/**
+	 * Collects the markers of a worker copy. {@code null} for the composer itself, which creates its markers directly.
+	 */
+	private final List<BuilderMarker> markers;
+
+	/**
+	 * The states of all source files after the last full build. Files whose content and selected relevant features did not change are not preprocessed again.
+	 */
+	private final Map<IFile, FileState> fileStates = new HashMap<>();
+
+	/**
+	 * Identifies the feature model for which the {@link #fileStates} were computed.
+	 */
+	private String fileStatesModel;
+
 	public AntennaPreprocessor() {
+		this(null);
+	}
+
+	private AntennaPreprocessor(List<BuilderMarker> markers) {
 		super(ANTENNA);
+		this.markers = markers;
 		nodereader.setIgnoreMissingFeatures(true);
 		nodereader.setIgnoreUnparsableSubExpressions(true);
 	}
 
+	/**
+	 * Creates a worker copy that checks a single file. The copy shares the build state of the given composer, but has its own stacks, node reader, and used
+	 * features, so several files can be checked in parallel.
+	 *
+	 * @param composer the composer that performs the build
+	 * @param markers collects the markers of the file, or {@code null} if the markers should be created directly
+	 */
+	private AntennaPreprocessor(AntennaPreprocessor composer, List<BuilderMarker> markers) {
+		this(markers);
+		featureProject = composer.featureProject;
+		featureModel = composer.featureModel;
+		presenceConditionChecker = composer.presenceConditionChecker;
+		voidFeatureModel = composer.voidFeatureModel;
+		activatedFeatures = composer.activatedFeatures;
+		featureList = composer.featureList;
+		patternIsConcreteFeature = composer.patternIsConcreteFeature;
+		patternIsAbstractFeature = composer.patternIsAbstractFeature;
+	}
+
+	@Override
+	protected void createBuilderMarker(IFile res, String message, int lineNumber, int severity) {
+		if (markers != null) {
+			markers.add(new BuilderMarker(message, lineNumber, severity));
+		} else {
+			super.createBuilderMarker(res, message, lineNumber, severity);
+		}
+	}
+
 	@Override
 	public boolean initialize(IFeatureProject project) {
 		super.initialize(project);
 		antennaModelBuilder = new AntennaModelBuilder(project);
-		preprocessor = new Preprocessor(new AntennaLogger(), new AntennaLineFilter());
 
 		final String projectSourcePath = project.getProjectSourcePath();
 		if ((projectSourcePath == null) || projectSourcePath.isEmpty()) {
@@ -128,22 +234,8 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 			return;
 		}
 
-		// generate comma separated string of activated features
-		final StringBuilder featureList = new StringBuilder();
-		for (final String feature : activatedFeatures) {
-			featureList.append(feature + ",");
-		}
-		final int length = featureList.length();
-		if (length > 0) {
-			featureList.deleteCharAt(length - 1);
-		}
-
 		// add source files
 		try {
-			// add activated features as definitions to preprocessor
-			preprocessor.clearDefines();
-			preprocessor.addDefines(featureList.toString());
-
 			// preprocess for all files in source folder
 			startPreprocessingSourceFiles(featureProject.getBuildFolder(), true);
 		} catch (final Exception e) {
@@ -254,8 +346,6 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 		try {
 			preprocessSourceFiles(sourceFolder, performFullBuild);
 			setModelMarkers();
-		} catch (final FileNotFoundException e) {
-			AntennaCorePlugin.getDefault().logError(e);
 		} catch (final CoreException e) {
 			AntennaCorePlugin.getDefault().logError(e);
 		} catch (final IOException e) {
@@ -264,63 +354,245 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 	}
 
 	/**
-	 * preprocess all files in folder
+	 * preprocess all files in folder<br> The files are checked and preprocessed in parallel by worker copies of this composer. Afterwards, the results are
+	 * applied to the workspace by the calling thread in the order of the files. In a full build, files whose content and selected relevant features did not
+	 * change since the last full build are skipped.
 	 *
 	 * @param sourceFolder folder with files to preprocess
 	 * @throws CoreException
-	 * @throws FileNotFoundException
 	 * @throws IOException
 	 */
-	private void preprocessSourceFiles(IFolder sourceFolder, boolean performFullBuild) throws CoreException, FileNotFoundException, IOException {
+	private void preprocessSourceFiles(IFolder sourceFolder, boolean performFullBuild) throws CoreException, IOException {
+		final List<IFile> files = new ArrayList<>();
+		collectSourceFiles(sourceFolder, files);
+		preprocessSourceFiles(files, performFullBuild);
+	}
+
+	/**
+	 * Preprocesses the given files. Must be called after {@link #prepareFullBuild(IFile)}.
+	 *
+	 * @param files the source files
+	 * @param performFullBuild whether the files are preprocessed or only checked
+	 * @throws CoreException
+	 * @throws IOException
+	 */
+	void preprocessSourceFiles(List<IFile> files, boolean performFullBuild) throws CoreException, IOException {
+		if (performFullBuild) {
+			// generate comma separated string of activated features
+			final StringBuilder featureList = new StringBuilder();
+			for (final String feature : activatedFeatures) {
+				featureList.append(feature + ",");
+			}
+			final int length = featureList.length();
+			if (length > 0) {
+				featureList.deleteCharAt(length - 1);
+			}
+
+			defines = featureList.toString();
+
+			// the states of the last build are only valid for the same feature model
+			final String model = featureModel + "|" + patternIsAbstractFeature + "|" + patternIsConcreteFeature;
+			if (!model.equals(fileStatesModel)) {
+				fileStates.clear();
+				fileStatesModel = model;
+			}
+		}
+
+		final Set<String> activatedFeatureSet = performFullBuild ? new HashSet<>(activatedFeatures) : null;
+		final List<SourceFileTask> sourceFileTasks = new ArrayList<>(files.size());
+		final List<ForkJoinTask<?>> tasks = new ArrayList<>(files.size());
+		for (final IFile file : files) {
+			FileState previousState = performFullBuild ? fileStates.get(file) : null;
+			if ((previousState != null) && !previousState.selectedFeatures.equals(getSelectedFeatures(previousState.relevantFeatures, activatedFeatureSet))) {
+				previousState = null;
+			}
+			final SourceFileTask sourceFileTask = new SourceFileTask(file, performFullBuild, activatedFeatureSet, previousState);
+			sourceFileTasks.add(sourceFileTask);
+			tasks.add(LongRunningExecutor.submit(sourceFileTask));
+		}
+		for (final ForkJoinTask<?> task : tasks) {
+			task.join();
+		}
+
+		// markers and files are only changed by the calling thread, which may hold the workspace lock
+		for (final SourceFileTask sourceFileTask : sourceFileTasks) {
+			sourceFileTask.apply();
+		}
+		if (performFullBuild) {
+			fileStates.keySet().retainAll(files);
+		}
+	}
+
+	private static void collectSourceFiles(IFolder sourceFolder, List<IFile> files) throws CoreException {
 		for (final IResource res : sourceFolder.members()) {
 			if (res instanceof IFolder) {
 				// for folders do recursively
-				preprocessSourceFiles((IFolder) res, performFullBuild);
+				collectSourceFiles((IFolder) res, files);
 			} else if (res instanceof IFile) {
-				// delete all existing builder markers
-				if (performFullBuild) {
-					featureProject.deleteBuilderMarkers(res, 0);
+				files.add((IFile) res);
+			}
+		}
+	}
+
+	private static Set<String> getSelectedFeatures(Set<String> relevantFeatures, Set<String> activatedFeatureSet) {
+		final Set<String> selectedFeatures = new HashSet<>();
+		for (final String feature : relevantFeatures) {
+			if (activatedFeatureSet.contains(feature)) {
+				selectedFeatures.add(feature);
+			}
+		}
+		return selectedFeatures;
+	}
+
+	/**
+	 * Returns all names in the preprocessor directives of the given lines. The result of the preprocessor only depends on the selection of these features.
+	 */
+	private static Set<String> getRelevantFeatures(List<String> lines) {
+		final Set<String> relevantFeatures = new HashSet<>();
+		for (final String line : lines) {
+			if (containsPreprocessorDirective(line, ".*")) {
+				for (final String linePart : line.replaceAll("\\s+#", "#").split(AntennaModelBuilder.OPERATORS, 0)) {
+					if (!linePart.isEmpty()) {
+						relevantFeatures.add(linePart);
+					}
 				}
+			}
+		}
+		return relevantFeatures;
+	}
 
-				// get all lines from file
-				final Vector<String> lines = loadStringsFromFile((IFile) res);
+	private static byte[] computeContentHash(List<String> lines) {
+		try {
+			final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			for (final String line : lines) {
+				digest.update(line.getBytes(StandardCharsets.UTF_8));
+				digest.update((byte) '\n');
+			}
+			return digest.digest();
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
 
-				// do checking and some stuff
-				processLinesOfFile(lines, (IFile) res);
+	/**
+	 * Checks and preprocesses a single file with its own worker copy of the composer and its own {@link Preprocessor}. The results are applied by
+	 * {@link #apply()} afterwards.
+	 */
+	private final class SourceFileTask implements Runnable {
+
+		private final IFile file;
+		private final boolean performFullBuild;
+		private final Set<String> activatedFeatureSet;
+		private final FileState previousState;
+
+		private final List<BuilderMarker> fileMarkers = new ArrayList<>();
+		private final AntennaPreprocessor worker;
+
+		private boolean unchanged = false;
+		private boolean changed = false;
+		private Vector<String> lines;
+		private byte[] contentHash;
+		private Set<String> relevantFeatures;
+
+		public SourceFileTask(IFile file, boolean performFullBuild, Set<String> activatedFeatureSet, FileState previousState) {
+			this.file = file;
+			this.performFullBuild = performFullBuild;
+			this.activatedFeatureSet = activatedFeatureSet;
+			this.previousState = previousState;
+			worker = new AntennaPreprocessor(AntennaPreprocessor.this, fileMarkers);
+		}
 
-				if (!performFullBuild) {
-					continue;
-				}
+		@Override
+		public void run() {
+			if ((previousState != null) && (previousState.modificationStamp == file.getModificationStamp())) {
+				unchanged = true;
+				return;
+			}
 
-				boolean changed = false;
+			// get all lines from file
+			lines = loadStringsFromFile(file);
+			if ((previousState != null) && Arrays.equals(previousState.contentHash, computeContentHash(lines))) {
+				unchanged = true;
+				return;
+			}
 
-				try {
-					// run antenna preprocessor
-					changed = preprocessor.preprocess(lines, ((IFile) res).getCharset());
-				} catch (final PPException e) {
-					final int lineNumber = e.getLineNumber();
-					featureProject.createBuilderMarker(res, e.getMessage().replace("Line #" + lineNumber + " :", "Antenna:"), Math.max(lineNumber, 0) + 1,
-							IMarker.SEVERITY_ERROR);
-					AntennaCorePlugin.getDefault().logError(e);
+			// do checking and some stuff
+			worker.processLinesOfFile(lines, file);
+
+			if (!performFullBuild) {
+				return;
+			}
+
+			try {
+				// run antenna preprocessor
+				final Preprocessor preprocessor = new Preprocessor(new AntennaLogger(), new AntennaLineFilter());
+				preprocessor.addDefines(defines);
+				changed = preprocessor.preprocess(lines, file.getCharset());
+			} catch (final PPException e) {
+				final int lineNumber = e.getLineNumber();
+				fileMarkers.add(new BuilderMarker(e.getMessage().replace("Line #" + lineNumber + " :", "Antenna:"), Math.max(lineNumber, 0) + 1,
+						IMarker.SEVERITY_ERROR));
+				AntennaCorePlugin.getDefault().logError(e);
+			} catch (CoreException | IOException e) {
+				AntennaCorePlugin.getDefault().logError(e);
+			}
+			contentHash = computeContentHash(lines);
+			relevantFeatures = getRelevantFeatures(lines);
+		}
+
+		/**
+		 * Creates the markers of the file, saves the preprocessed file, and records its state.
+		 */
+		public void apply() throws CoreException, IOException {
+			// delete all existing builder markers
+			if (performFullBuild) {
+				featureProject.deleteBuilderMarkers(file, 0);
+			}
+
+			if (unchanged) {
+				// markers of the last build are removed by the builder, so they are restored
+				createBuilderMarkers(previousState.markers);
+				usedFeatures.addAll(previousState.usedFeatures);
+				if (previousState.modificationStamp != file.getModificationStamp()) {
+					fileStates.put(file, new FileState(file.getModificationStamp(), previousState.contentHash, previousState.relevantFeatures,
+							previousState.selectedFeatures, previousState.usedFeatures, previousState.markers));
 				}
+				return;
+			}
 
-				// if preprocessor changed file: save & refresh
-				if (changed) {
-					FileOutputStream ostr = null;
-					try {
-						ostr = new FileOutputStream(res.getRawLocation().toOSString());
-						Preprocessor.saveStrings(lines, ostr, ((IFile) res).getCharset());
-					} finally {
-						if (ostr != null) {
-							ostr.close();
-						}
+			createBuilderMarkers(fileMarkers);
+			usedFeatures.addAll(worker.usedFeatures);
+
+			if (!performFullBuild) {
+				return;
+			}
+
+			// if preprocessor changed file: save & refresh
+			if (changed) {
+				FileOutputStream ostr = null;
+				try {
+					ostr = new FileOutputStream(file.getRawLocation().toOSString());
+					Preprocessor.saveStrings(lines, ostr, file.getCharset());
+				} finally {
+					if (ostr != null) {
+						ostr.close();
 					}
-					// use touch to support e.g. linux
-					res.touch(null);
-					res.refreshLocal(IResource.DEPTH_ZERO, null);
 				}
+				// use touch to support e.g. linux
+				file.touch(null);
+				file.refreshLocal(IResource.DEPTH_ZERO, null);
+			}
+
+			fileStates.put(file, new FileState(file.getModificationStamp(), contentHash, relevantFeatures,
+					getSelectedFeatures(relevantFeatures, activatedFeatureSet), new HashSet<>(worker.usedFeatures), fileMarkers));
+		}
+
+		private void createBuilderMarkers(List<BuilderMarker> markers) {
+			for (final BuilderMarker marker : markers) {
+				featureProject.createBuilderMarker(file, marker.message, marker.lineNumber, marker.severity);
 			}
 		}
+
 	}
 
 	/**
@@ -329,7 +601,7 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 	 * @param lines all lines of file
 	 * @param res file
 	 */
-	synchronized private void processLinesOfFile(Vector<String> lines, IFile res) {
+	private void processLinesOfFile(Vector<String> lines, IFile res) {
 		expressionStack = new Stack<Node>();
 
 		// count of if, ifelse and else to remove after processing of else from stack
@@ -555,7 +827,11 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 			featureList.deleteCharAt(length - 1);
 		}
 
-		featureModel = AdvancedNodeCreator.createNodes(configuration.getFeatureModel());
+		// configurations may be built in parallel, so the files are checked by a copy of this composer
+		final AntennaPreprocessor checker = new AntennaPreprocessor(this, null);
+		checker.featureModel = AdvancedNodeCreator.createNodes(configuration.getFeatureModel());
+		checker.presenceConditionChecker = new PresenceConditionChecker(checker.featureModel);
+		checker.voidFeatureModel = checker.presenceConditionChecker.isSatisfiableWithFeatureModel() == SatResult.FALSE;
 
 		// add source files
 		try {
@@ -563,7 +839,7 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 			final Preprocessor preprocessor = new Preprocessor(new AntennaLogger(), new AntennaLineFilter());
 			preprocessor.addDefines(featureList.toString());
 			// preprocess for all files in source folder
-			preprocessSourceFiles(folder, preprocessor, congurationName);
+			checker.preprocessSourceFiles(folder, preprocessor, congurationName);
 		} catch (CoreException | IOException | PPException e) {
 			AntennaCorePlugin.getDefault().logError(e);
 		}
@@ -586,16 +862,14 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 				final Vector<String> lines = loadStringsFromFile((IFile) res);
 
 				// do checking and some stuff
-				if (featureModel != null) {// TODO check why the FM is null when generating products
-					processLinesOfFile(lines, (IFile) res);
-				}
+				processLinesOfFile(lines, (IFile) res);
 				boolean changed = false;
 				try {
 					// run antenna preprocessor
 					changed = preprocessor.preprocess(lines, ((IFile) res).getCharset());
 
 				} catch (final PPException e) {
-					featureProject.createBuilderMarker(res, e.getMessage().replace("Line #" + e.getLineNumber() + " :", "Antenna:"), e.getLineNumber() + 1,
+					createBuilderMarker((IFile) res, e.getMessage().replace("Line #" + e.getLineNumber() + " :", "Antenna:"), e.getLineNumber() + 1,
 							IMarker.SEVERITY_ERROR);
 					AntennaCorePlugin.getDefault().logError(e);
 				}
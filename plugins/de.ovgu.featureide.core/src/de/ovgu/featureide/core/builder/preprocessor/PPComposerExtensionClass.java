@@ -42,13 +42,12 @@ import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
-import org.prop4j.And;
 import org.prop4j.Literal;
 import org.prop4j.Node;
 import org.prop4j.NodeReader;
 import org.prop4j.Not;
-import org.prop4j.SatSolver;
-import org.sat4j.specs.TimeoutException;
+import org.prop4j.solver.ISatSolver.SatResult;
+import org.prop4j.solver.PresenceConditionChecker;
 
 import de.ovgu.featureide.core.CorePlugin;
 import de.ovgu.featureide.core.builder.ComposerExtensionClass;
@@ -110,6 +109,12 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 	 */
 	protected Node featureModel;
 
+	/**
+	 * Checks the expressions of annotations against the {@link #featureModel}. Created in {@link #prepareFullBuild(IFile)}, so the feature model is only
+	 * loaded into the solver once per build.
+	 */
+	protected PresenceConditionChecker presenceConditionChecker;
+
 	/**
 	 * {@code true}, if the feature model is void, {@code false} otherwise
 	 */
@@ -214,11 +219,8 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 
 		// create expression of feature model
 		featureModel = AdvancedNodeCreator.createNodes(fm);
-		try {
-			voidFeatureModel = !new SatSolver(featureModel, 1000).isSatisfiable();
-		} catch (final TimeoutException e) {
-			voidFeatureModel = false;
-		}
+		presenceConditionChecker = new PresenceConditionChecker(featureModel);
+		voidFeatureModel = presenceConditionChecker.isSatisfiableWithFeatureModel() == SatResult.FALSE;
 
 		featureList = Functional.toList(FeatureUtils.extractFeatureNames(fm.getFeatures()));
 
@@ -231,51 +233,37 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 	 * @return the status of the annotation
 	 */
 	protected AnnotationStatus isContradictionOrTautology() {
-		final Node expression = expressionStack.peek();
-
-		Node nestedExpressions = null;
-		if (expressionStack.size() > 1) {
-			Node[] children = expressionStack.toArray(new Node[expressionStack.size()]);
-			children = Arrays.copyOfRange(children, 0, children.length - 1); // Exclude the topmost expression because it is examined separately.
-			nestedExpressions = new And(children);
-		}
-
-		try {
-			return isContradictionOrTautology(expression, featureModel, nestedExpressions);
-		} catch (final TimeoutException e) {
-			CorePlugin.getDefault().logError(e);
-			return AnnotationStatus.NORMAL;
-		}
+		// Ordered from bottom to top, so the examined expression is the last one and the nested expressions precede it.
+		final Node[] context = expressionStack.toArray(new Node[expressionStack.size()]);
+		return isContradictionOrTautology(context);
 	}
 
-	private AnnotationStatus isContradictionOrTautology(Node expression, Node featureModel, Node nestedExpressions) throws TimeoutException {
+	private AnnotationStatus isContradictionOrTautology(Node[] context) {
 		if (voidFeatureModel) {
 			return AnnotationStatus.VOID;
 		}
+		final Node expression = context[context.length - 1];
+		// only proven unsatisfiability marks an annotation, a query that timed out leaves it normal
 
 		/*
 		 * -SAT(expression)
 		 */
-		if (!new SatSolver(expression, 1000).isSatisfiable()) {
+		if (presenceConditionChecker.isSatisfiable(expression) == SatResult.FALSE) {
 			return AnnotationStatus.CONTRADICTION;
 		}
 
 		/*
 		 * -SAT(-expression)
 		 */
-		if (!new SatSolver(new Not(expression), 1000).isSatisfiable()) {
+		final Node negatedExpression = new Not(expression);
+		if (presenceConditionChecker.isSatisfiable(negatedExpression) == SatResult.FALSE) {
 			return AnnotationStatus.TAUTOLOGY;
 		}
 
-		Node context = featureModel;
-		if (nestedExpressions != null) {
-			context = new And(context, nestedExpressions);
-		}
-
 		/*
 		 * -SAT(FM & nestedExpressions & expression)
 		 */
-		if (!new SatSolver(new And(context, expression), 1000).isSatisfiable()) {
+		if (presenceConditionChecker.isSatisfiableWithFeatureModel(context) == SatResult.FALSE) {
 			return AnnotationStatus.DEAD;
 		}
 
@@ -283,7 +271,9 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 		 * TAUT(FM & nestedExpressions => expression) = -SAT(-(FM & nestedExpressions => expression)) = -SAT(-(-(FM & nestedExpressions) | expression)) =
 		 * -SAT(-(-FM | -nestedExpressions | expression)) = -SAT(FM & nestedExpressions & -expression)
 		 */
-		if (!new SatSolver(new And(context, new Not(expression)), 1000).isSatisfiable()) {
+		final Node[] negatedContext = Arrays.copyOf(context, context.length);
+		negatedContext[context.length - 1] = negatedExpression;
+		if (presenceConditionChecker.isSatisfiableWithFeatureModel(negatedContext) == SatResult.FALSE) {
 			return AnnotationStatus.SUPERFLUOUS;
 		}
 
@@ -334,7 +324,7 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 			break;
 		}
 
-		featureProject.createBuilderMarker(res, message, lineNumber, IMarker.SEVERITY_WARNING);
+		createBuilderMarker(res, message, lineNumber, IMarker.SEVERITY_WARNING);
 	}
 
 	/**
@@ -394,7 +384,7 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 		}
 
 		if ((matcherFeature != null) && matcherFeature.matches()) {
-			featureProject.createBuilderMarker(res, name + MESSAGE_ABSTRACT, lineNumber, IMarker.SEVERITY_WARNING);
+			createBuilderMarker(res, name + MESSAGE_ABSTRACT, lineNumber, IMarker.SEVERITY_WARNING);
 		} else {
 			Matcher matcherConreteFeature = null;
 			if (patternIsConcreteFeature != null) {
@@ -402,13 +392,26 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 			}
 
 			if ((matcherConreteFeature != null) && !matcherConreteFeature.matches()) {
-				featureProject.createBuilderMarker(res, name + MESSAGE_NOT_DEFINED, lineNumber, IMarker.SEVERITY_WARNING);
+				createBuilderMarker(res, name + MESSAGE_NOT_DEFINED, lineNumber, IMarker.SEVERITY_WARNING);
 				return false;
 			}
 		}
 		return true;
 	}
 
+	/**
+	 * Creates a builder marker for a preprocessor annotation. Subclasses that check files in parallel can override this method to collect the markers and create
+	 * them later.
+	 *
+	 * @param res file containing the annotation
+	 * @param message the message of the marker
+	 * @param lineNumber the line of the annotation
+	 * @param severity the severity of the marker
+	 */
+	protected void createBuilderMarker(IFile res, String message, int lineNumber, int severity) {
+		featureProject.createBuilderMarker(res, message, lineNumber, severity);
+	}
+
 	/**
 	 * Read all lines of a file into a vector.
 	 *
@@ -35,6 +35,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinTask;
 
 import org.prop4j.And;
 import org.prop4j.Equals;
@@ -44,7 +45,10 @@ import org.prop4j.Node;
 import org.prop4j.Not;
 import org.prop4j.Or;
 import org.prop4j.SatSolver;
+import org.prop4j.analyses.AbstractParallelAnalysis;
 import org.prop4j.analyses.FeatureModelAnalysis;
+import org.prop4j.analyses.IncrementalFeatureAnalysis;
+import org.prop4j.solver.SatInstance;
 import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
@@ -69,6 +73,8 @@ import de.ovgu.featureide.fm.core.explanations.fm.RedundantConstraintExplanation
 import de.ovgu.featureide.fm.core.explanations.fm.RedundantConstraintExplanationCreator;
 import de.ovgu.featureide.fm.core.functional.Functional;
 import de.ovgu.featureide.fm.core.functional.Functional.IFunction;
+import de.ovgu.featureide.fm.core.io.FeatureModelCache;
+import de.ovgu.featureide.fm.core.job.LongRunningExecutor;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
@@ -84,17 +90,20 @@ import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
 public class FeatureModelAnalyzer implements IEventListener {
 
 	/**
-	 * Remembers explanations for dead features.
+	 * Remembers explanations for dead features. The explanation maps are synchronized, because {@link #calculateExplanations(IMonitor)} may run in a
+	 * background job while single explanations are requested.
 	 */
-	private final Map<IFeature, DeadFeatureExplanation> deadFeatureExplanations = new HashMap<>();
+	private final Map<IFeature, DeadFeatureExplanation> deadFeatureExplanations = Collections.synchronizedMap(new HashMap<IFeature, DeadFeatureExplanation>());
 	/**
 	 * Remembers explanations for false-optional features.
 	 */
-	private final Map<IFeature, FalseOptionalFeatureExplanation> falseOptionalFeatureExplanations = new HashMap<>();
+	private final Map<IFeature, FalseOptionalFeatureExplanation> falseOptionalFeatureExplanations =
+		Collections.synchronizedMap(new HashMap<IFeature, FalseOptionalFeatureExplanation>());
 	/**
 	 * Remembers explanations for redundant constraints.
 	 */
-	private final Map<IConstraint, RedundantConstraintExplanation> redundantConstraintExplanations = new HashMap<>();
+	private final Map<IConstraint, RedundantConstraintExplanation> redundantConstraintExplanations =
+		Collections.synchronizedMap(new HashMap<IConstraint, RedundantConstraintExplanation>());
 	/**
 	 * Used for creating explanation creators.
 	 */
@@ -127,11 +136,25 @@ public class FeatureModelAnalyzer implements IEventListener {
 
 	private Boolean cachedValidity = null;
 
+	/**
+	 * Counts the changes of the feature model that invalidate its formula (see {@link #propertyChange(FeatureIDEEvent)}).
+	 */
+	private volatile int modelVersion = 0;
+	/**
+	 * The value of {@link #modelVersion} when the cached core, dead, and false-optional features were computed.
+	 */
+	private volatile int resultsVersion = -1;
+
 	private final IFeatureModel fm;
 	/**
 	 * The feature model as a formula in conjunctive normal form. Created lazily. Resets when the feature model changes.
 	 */
 	private Node cnf;
+	/**
+	 * The feature model as a formula over its features in preorder, if it was restored from a {@link FeatureModelCache}. Resets when the feature model
+	 * changes.
+	 */
+	private SatInstance cachedSatInstance;
 
 	/**
 	 * Defines whether features should be included into calculations. If features are not analyzed, then constraints a also NOT analyzed.
@@ -153,6 +176,11 @@ public class FeatureModelAnalyzer implements IEventListener {
 	public boolean calculateFOConstraints = true;
 
 	public boolean calculateDeadConstraints = true;
+	/**
+	 * Defines how many threads are used for the core, dead, and false-optional feature analysis and for {@link #calculateExplanations(IMonitor) calculating
+	 * explanations}. A value of 1 disables parallel analysis.
+	 */
+	public int numberOfThreads = AbstractParallelAnalysis.DEFAULT_NUMBER_OF_THREADS;
 	/**
 	 * Defines whether analysis should be performed automatically.
 	 */
@@ -167,6 +195,11 @@ public class FeatureModelAnalyzer implements IEventListener {
 
 	private FeatureDependencies dependencies;
 
+	/**
+	 * Keeps the solver and the results of the feature analysis between two calls of {@link #analyzeFeatureModel(IMonitor)}.
+	 */
+	private final IncrementalFeatureAnalysis incrementalAnalysis;
+
 	/**
 	 * Returns the cached value. Calculated on the first call and on each call of updateFeatureModel().
 	 *
@@ -185,12 +218,14 @@ public class FeatureModelAnalyzer implements IEventListener {
 
 	public FeatureModelAnalyzer(IFeatureModel fm) {
 		this.fm = fm;
+		incrementalAnalysis = new IncrementalFeatureAnalysis(fm);
 		fm.addListener(this);
 		clearExplanations();
 	}
 
 	public FeatureModelAnalyzer(FeatureModelAnalyzer oldAnalyzer, IFeatureModel newFM) {
 		fm = newFM;
+		incrementalAnalysis = new IncrementalFeatureAnalysis(fm);
 		fm.addListener(this);
 		clearExplanations();
 
@@ -201,6 +236,7 @@ public class FeatureModelAnalyzer implements IEventListener {
 		calculateRedundantConstraints = oldAnalyzer.calculateRedundantConstraints;
 		calculateTautologyConstraints = oldAnalyzer.calculateTautologyConstraints;
 		runCalculationAutomatically = oldAnalyzer.runCalculationAutomatically;
+		numberOfThreads = oldAnalyzer.numberOfThreads;
 	}
 
 	/**
@@ -595,6 +631,7 @@ public class FeatureModelAnalyzer implements IEventListener {
 	 */
 	public HashMap<Object, Object> analyzeFeatureModel(IMonitor monitor) {
 		this.monitor = monitor == null ? new NullMonitor() : monitor;
+		final int version = modelVersion;
 		final FeatureModelAnalysis analysis = new FeatureModelAnalysis(fm);
 		analysis.setCalculateFeatures(calculateFeatures);
 		analysis.setCalculateConstraints(calculateConstraints);
@@ -602,11 +639,15 @@ public class FeatureModelAnalyzer implements IEventListener {
 		analysis.setCalculateTautologyConstraints(calculateTautologyConstraints);
 		analysis.setCalculateDeadConstraints(calculateDeadConstraints);
 		analysis.setCalculateFOConstraints(calculateFOConstraints);
+		analysis.setNumberOfThreads(numberOfThreads);
+		analysis.setIncrementalAnalysis(incrementalAnalysis);
+		analysis.setSatInstance(cachedSatInstance);
 		final HashMap<Object, Object> newAttributes = LongRunningWrapper.runMethod(analysis, this.monitor);
 		cachedValidity = analysis.isValid();
 		cachedCoreFeatures = analysis.getCoreFeatures();
 		cachedDeadFeatures = analysis.getDeadFeatures();
 		cachedFalseOptionalFeatures = analysis.getFalseOptionalFeatures();
+		resultsVersion = version;
 		clearExplanations();
 		return newAttributes;
 	}
@@ -624,6 +665,7 @@ public class FeatureModelAnalyzer implements IEventListener {
 		analysis.setCalculateTautologyConstraints(calculateTautologyConstraints);
 		analysis.setCalculateDeadConstraints(calculateDeadConstraints);
 		analysis.setCalculateFOConstraints(calculateFOConstraints);
+		analysis.setSatInstance(cachedSatInstance);
 		analysis.updateConstraints();
 		cachedValidity = analysis.isValid();
 	}
@@ -638,14 +680,19 @@ public class FeatureModelAnalyzer implements IEventListener {
 	}
 
 	public void updateFeatures() {
+		final int version = modelVersion;
 		final FeatureModelAnalysis analysis = new FeatureModelAnalysis(fm);
 		analysis.setCalculateFeatures(true);
 		analysis.setCalculateConstraints(false);
+		analysis.setNumberOfThreads(numberOfThreads);
+		analysis.setIncrementalAnalysis(incrementalAnalysis);
+		analysis.setSatInstance(cachedSatInstance);
 		analysis.updateFeatures();
 		cachedValidity = analysis.isValid();
 		cachedCoreFeatures = analysis.getCoreFeatures();
 		cachedDeadFeatures = analysis.getDeadFeatures();
 		cachedFalseOptionalFeatures = analysis.getFalseOptionalFeatures();
+		resultsVersion = version;
 	}
 
 	/**
@@ -812,16 +859,52 @@ public class FeatureModelAnalyzer implements IEventListener {
 	}
 
 	/**
-	 * Listens to feature model changes. Resets its formula if necessary.
+	 * @return the validity of the feature model computed by the last analysis or {@code null} if it was not computed yet
+	 */
+	public Boolean getCachedValidity() {
+		return cachedValidity;
+	}
+
+	/**
+	 * @return {@code true} if the cached validity, core, dead, and false-optional features were computed for the current state of the feature model, i.e.,
+	 *         the feature model did not change since the last analysis
+	 */
+	public boolean hasCurrentResults() {
+		return (cachedValidity != null) && (resultsVersion == modelVersion);
+	}
+
+	/**
+	 * Sets the results of a previous analysis for the current state of the feature model, e.g., when the feature model was restored from a
+	 * {@link FeatureModelCache}.
+	 *
+	 * @param valid whether the feature model is valid
+	 * @param coreFeatures the core features
+	 * @param deadFeatures the dead features
+	 * @param falseOptionalFeatures the false-optional features
+	 */
+	public void setCachedResults(boolean valid, List<IFeature> coreFeatures, List<IFeature> deadFeatures, List<IFeature> falseOptionalFeatures) {
+		cachedValidity = valid;
+		cachedCoreFeatures = coreFeatures;
+		cachedDeadFeatures = deadFeatures;
+		cachedFalseOptionalFeatures = falseOptionalFeatures;
+		resultsVersion = modelVersion;
+	}
+
+	/**
+	 * Listens to feature model changes. Resets its formula if necessary and marks the cached analysis results as outdated.
 	 */
 	@Override
 	public void propertyChange(FeatureIDEEvent event) {
 		switch (event.getEventType()) {
-		case ALL_FEATURES_CHANGED_NAME_TYPE: // Required because feature names are used as variable names.
-		case CHILDREN_CHANGED:
-		case CONSTRAINT_ADD:
+		case CONSTRAINT_ADD: // Constraint changes are determined and handled incrementally by the next analysis.
 		case CONSTRAINT_DELETE:
 		case CONSTRAINT_MODIFY:
+			cnf = null;
+			cachedSatInstance = null;
+			modelVersion++;
+			break;
+		case ALL_FEATURES_CHANGED_NAME_TYPE: // Required because feature names are used as variable names.
+		case CHILDREN_CHANGED:
 		case FEATURE_ADD:
 		case FEATURE_ADD_ABOVE:
 		case FEATURE_DELETE:
@@ -835,7 +918,10 @@ public class FeatureModelAnalyzer implements IEventListener {
 		case MODEL_DATA_OVERRIDDEN:
 		case PARENT_CHANGED:
 		case STRUCTURE_CHANGED:
+			incrementalAnalysis.reset();
 			cnf = null;
+			cachedSatInstance = null;
+			modelVersion++;
 			break;
 		default:
 			break;
@@ -864,7 +950,26 @@ public class FeatureModelAnalyzer implements IEventListener {
 	 * @return the feature model as a formula in conjunctive normal form; not null
 	 */
 	private Node createCnf() {
-		return AdvancedNodeCreator.createRegularCNF(fm);
+		final SatInstance satInstance = cachedSatInstance;
+		return (satInstance != null) ? satInstance.getCnf() : AdvancedNodeCreator.createRegularCNF(fm);
+	}
+
+	/**
+	 * @return the formula restored from a {@link FeatureModelCache} or {@code null} if there is none for the current state of the feature model
+	 */
+	public SatInstance getCachedSatInstance() {
+		return cachedSatInstance;
+	}
+
+	/**
+	 * Sets the formula of the current state of the feature model, e.g., when the feature model was restored from a {@link FeatureModelCache}. It is used
+	 * instead of creating the CNF from the feature model until the feature model changes.
+	 *
+	 * @param satInstance the formula with the features in preorder as variables
+	 */
+	public void setCachedSatInstance(SatInstance satInstance) {
+		cachedSatInstance = satInstance;
+		cnf = null;
 	}
 
 	/**
@@ -1059,6 +1164,135 @@ public class FeatureModelAnalyzer implements IEventListener {
 		redundantConstraintExplanations.put(constraint, creator.getExplanation());
 	}
 
+	/**
+	 * <p> Calculates and remembers the explanations for all dead features, false-optional features, and redundant constraints found by the last analysis.
+	 * Defects that have already been explained are skipped. </p>
+	 *
+	 * <p> The defects are distributed over {@link #numberOfThreads} workers on the shared {@link LongRunningExecutor} pool. Each worker uses its own
+	 * explanation creators, so the oracle of each creator is built once per worker and then reused for all defects of that worker. </p>
+	 *
+	 * @param monitor the monitor; may be null
+	 */
+	public void calculateExplanations(IMonitor monitor) {
+		if (monitor == null) {
+			monitor = new NullMonitor();
+		}
+		final List<IFeature> deadFeatures = new ArrayList<>();
+		for (final IFeature feature : getCachedDeadFeatures()) {
+			if (!deadFeatureExplanations.containsKey(feature)) {
+				deadFeatures.add(feature);
+			}
+		}
+		final List<IFeature> falseOptionalFeatures = new ArrayList<>();
+		for (final IFeature feature : getCachedFalseOptionalFeatures()) {
+			if (!falseOptionalFeatureExplanations.containsKey(feature)) {
+				falseOptionalFeatures.add(feature);
+			}
+		}
+		final List<IConstraint> redundantConstraints = new ArrayList<>();
+		for (final IConstraint constraint : fm.getConstraints()) {
+			switch (constraint.getConstraintAttribute()) {
+			case REDUNDANT:
+			case IMPLICIT:
+				if (!redundantConstraintExplanations.containsKey(constraint)) {
+					redundantConstraints.add(constraint);
+				}
+				break;
+			default:
+				break;
+			}
+		}
+
+		final int numberOfDefects = deadFeatures.size() + falseOptionalFeatures.size() + redundantConstraints.size();
+		monitor.setRemainingWork(numberOfDefects);
+		final int numberOfWorkers = Math.max(1, Math.min(numberOfThreads, numberOfDefects));
+		final List<ExplanationWorker> workers = new ArrayList<>(numberOfWorkers);
+		final List<ForkJoinTask<?>> tasks = new ArrayList<>(numberOfWorkers);
+		for (int i = 0; i < numberOfWorkers; i++) {
+			final ExplanationWorker worker =
+				new ExplanationWorker(i, numberOfWorkers, monitor, deadFeatures, falseOptionalFeatures, redundantConstraints);
+			workers.add(worker);
+			tasks.add(LongRunningExecutor.submit(worker));
+		}
+		for (final ForkJoinTask<?> task : tasks) {
+			task.join();
+		}
+		for (final ExplanationWorker worker : workers) {
+			deadFeatureExplanations.putAll(worker.deadFeatureResults);
+			falseOptionalFeatureExplanations.putAll(worker.falseOptionalFeatureResults);
+			redundantConstraintExplanations.putAll(worker.redundantConstraintResults);
+		}
+	}
+
+	/**
+	 * Explains every n-th defect of each kind, starting at a fixed offset. The results are merged by {@link FeatureModelAnalyzer#calculateExplanations(IMonitor)}
+	 * after all workers have finished.
+	 */
+	private final class ExplanationWorker implements Runnable {
+
+		private final int offset;
+		private final int stride;
+		private final IMonitor monitor;
+
+		private final List<IFeature> deadFeatures;
+		private final List<IFeature> falseOptionalFeatures;
+		private final List<IConstraint> redundantConstraints;
+
+		private final Map<IFeature, DeadFeatureExplanation> deadFeatureResults = new HashMap<>();
+		private final Map<IFeature, FalseOptionalFeatureExplanation> falseOptionalFeatureResults = new HashMap<>();
+		private final Map<IConstraint, RedundantConstraintExplanation> redundantConstraintResults = new HashMap<>();
+
+		private ExplanationWorker(int offset, int stride, IMonitor monitor, List<IFeature> deadFeatures, List<IFeature> falseOptionalFeatures,
+				List<IConstraint> redundantConstraints) {
+			this.offset = offset;
+			this.stride = stride;
+			this.monitor = monitor;
+			this.deadFeatures = deadFeatures;
+			this.falseOptionalFeatures = falseOptionalFeatures;
+			this.redundantConstraints = redundantConstraints;
+		}
+
+		@Override
+		public void run() {
+			if (offset < deadFeatures.size()) {
+				final DeadFeatureExplanationCreator creator = explanationCreatorFactory.getDeadFeatureExplanationCreator();
+				creator.setFeatureModel(fm);
+				for (int i = offset; i < deadFeatures.size(); i += stride) {
+					final IFeature feature = deadFeatures.get(i);
+					creator.setSubject(feature);
+					deadFeatureResults.put(feature, creator.getExplanation());
+					worked();
+				}
+			}
+			if (offset < falseOptionalFeatures.size()) {
+				final FalseOptionalFeatureExplanationCreator creator = explanationCreatorFactory.getFalseOptionalFeatureExplanationCreator();
+				creator.setFeatureModel(fm);
+				for (int i = offset; i < falseOptionalFeatures.size(); i += stride) {
+					final IFeature feature = falseOptionalFeatures.get(i);
+					creator.setSubject(feature);
+					falseOptionalFeatureResults.put(feature, creator.getExplanation());
+					worked();
+				}
+			}
+			if (offset < redundantConstraints.size()) {
+				final RedundantConstraintExplanationCreator creator = explanationCreatorFactory.getRedundantConstraintExplanationCreator();
+				creator.setFeatureModel(fm);
+				for (int i = offset; i < redundantConstraints.size(); i += stride) {
+					final IConstraint constraint = redundantConstraints.get(i);
+					creator.setSubject(constraint);
+					redundantConstraintResults.put(constraint, creator.getExplanation());
+					worked();
+				}
+			}
+		}
+
+		private void worked() {
+			synchronized (monitor) {
+				monitor.step();
+			}
+		}
+	}
+
 	/**
 	 * Clears all explanations.
 	 */
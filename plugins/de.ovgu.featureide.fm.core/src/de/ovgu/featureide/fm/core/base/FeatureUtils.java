@@ -53,6 +53,7 @@ import de.ovgu.featureide.fm.core.IFeatureModelLayout;
 import de.ovgu.featureide.fm.core.IGraphicItem.GraphicItem;
 import de.ovgu.featureide.fm.core.Operator;
 import de.ovgu.featureide.fm.core.RenamingsManager;
+import de.ovgu.featureide.fm.core.base.impl.ArrayFeatureModel;
 import de.ovgu.featureide.fm.core.base.impl.Constraint;
 import de.ovgu.featureide.fm.core.conf.IFeatureGraph;
 import de.ovgu.featureide.fm.core.filter.ConcreteFeatureFilter;
@@ -554,6 +555,16 @@ public final class FeatureUtils {
 	public static final List<String> getFeatureNamesPreorder(IFeatureModel featureModel) {
 		requireNonNull(featureModel);
 
+		if (featureModel instanceof ArrayFeatureModel) {
+			final ArrayFeatureModel arrayFeatureModel = (ArrayFeatureModel) featureModel;
+			final int[] preOrder = arrayFeatureModel.getPreOrder();
+			final List<String> names = new ArrayList<>(preOrder.length);
+			for (final int index : preOrder) {
+				names.add(arrayFeatureModel.getFeatureName(index));
+			}
+			return names;
+		}
+
 		return Functional.toList(FeatureUtils.extractFeatureNames(featureModel.getStructure().getFeaturesPreorder()));
 	}
 
@@ -115,6 +115,23 @@ public abstract class AFeature extends AFeatureModelElement implements IFeature
 		propertyContainer = createPropertyContainer();
 	}
 
+	/**
+	 * Constructs a new instance of <code>AFeature</code> with the name <code>name</code> and the given internal identifier (see
+	 * {@link AFeatureModelElement#AFeatureModelElement(IFeatureModel, long)}).
+	 *
+	 * @param featureModel in which the new instance feature should be part of
+	 * @param name the name of the feature.
+	 * @param id the internal identifier of the feature
+	 */
+	protected AFeature(IFeatureModel featureModel, String name, long id) {
+		super(featureModel, id);
+		this.name = name;
+
+		property = createProperty();
+		structure = createStructure();
+		propertyContainer = createPropertyContainer();
+	}
+
 	protected IPropertyContainer createPropertyContainer() {
 		return new MapPropertyContainer();
 	}
@@ -48,6 +48,18 @@ public abstract class AFeatureModelElement implements IFeatureModelElement {
 		name = (oldElement.name == null) ? null : new String(oldElement.name);
 	}
 
+	/**
+	 * Constructs an element with a given internal identifier, e.g., for elements that are recreated on demand from the data of their feature model.
+	 */
+	protected AFeatureModelElement(IFeatureModel featureModel, long id) {
+		if (featureModel == null) {
+			throw new RuntimeException();
+		}
+		this.id = id;
+		this.featureModel = featureModel;
+		name = null;
+	}
+
 	public AFeatureModelElement(IFeatureModel featureModel) {
 		if (featureModel == null) {
 			throw new RuntimeException();
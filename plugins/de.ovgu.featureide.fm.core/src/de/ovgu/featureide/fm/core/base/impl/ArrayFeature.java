@@ -0,0 +1,104 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.base.impl;
+
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureProperty;
+import de.ovgu.featureide.fm.core.base.IFeatureStructure;
+import de.ovgu.featureide.fm.core.base.IPropertyContainer;
+
+/**
+ * View on a feature of an {@link ArrayFeatureModel}. Name, structure, description, and custom properties are stored in the feature model, only the feature
+ * status and the listeners are stored in the view itself.
+ *
+ * @author FeatureIDE Team
+ */
+public class ArrayFeature extends Feature {
+
+	private final int index;
+
+	/**
+	 * Creates a new feature and reserves an index for it in the given feature model. The feature is not added to the feature table.
+	 *
+	 * @param featureModel an {@link ArrayFeatureModel}
+	 * @param name the name of the feature
+	 */
+	public ArrayFeature(IFeatureModel featureModel, String name) {
+		this((ArrayFeatureModel) featureModel, ((ArrayFeatureModel) featureModel).allocate(name));
+	}
+
+	/**
+	 * Creates the view for a feature that already has an index.
+	 */
+	ArrayFeature(ArrayFeatureModel featureModel, int index) {
+		super(featureModel, featureModel.getFeatureName(index), featureModel.getElementId(index));
+		this.index = index;
+		featureModel.setView(index, this);
+	}
+
+	@Override
+	protected IFeatureProperty createProperty() {
+		return new ArrayFeatureProperty(this);
+	}
+
+	@Override
+	protected IFeatureStructure createStructure() {
+		return new ArrayFeatureStructure(this);
+	}
+
+	@Override
+	protected IPropertyContainer createPropertyContainer() {
+		return new ArrayPropertyContainer(this);
+	}
+
+	/**
+	 * Copies this feature to a new index of the given {@link ArrayFeatureModel} (or of its own feature model). The new feature is neither added to the feature
+	 * table nor to the tree and it always uses its own structure.
+	 */
+	@Override
+	public IFeature clone(IFeatureModel newFeatureModel, IFeatureStructure newStructure) {
+		final ArrayFeatureModel model = (ArrayFeatureModel) featureModel;
+		final ArrayFeatureModel newModel = (newFeatureModel == null) ? model : (ArrayFeatureModel) newFeatureModel;
+		final ArrayFeature newFeature = newModel.getFeature(newModel.copyFeature(model, index));
+		newFeature.getProperty().setFeatureStatus(property.getFeatureStatus(), false);
+		return newFeature;
+	}
+
+	@Override
+	public ArrayFeatureStructure getStructure() {
+		return (ArrayFeatureStructure) structure;
+	}
+
+	@Override
+	public void setName(String name) {
+		((ArrayFeatureModel) featureModel).rename(index, name);
+		super.setName(name);
+	}
+
+	/**
+	 * @return the index of this feature in its {@link ArrayFeatureModel}
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+}
@@ -0,0 +1,829 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.base.impl;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Hashtable;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelStructure;
+import de.ovgu.featureide.fm.core.base.IFeatureStructure;
+
+/**
+ * Feature model for very large models that stores the feature tree in primitive arrays.</br> Each feature is identified by a dense index. For each index, a
+ * record of ints (parent, first child, last child, next sibling, number of children, flags, and element id) is stored. Names and descriptions are kept in
+ * object arrays and names are looked up by an open addressing hash table of indices. Thus, the model does not need any objects per feature.</br>
+ * {@link IFeature} and {@link IFeatureStructure} instances are only views on an index and are created on demand (see {@link #getFeature(int)}). Features
+ * created by {@link ArrayFeatureModelFactory} get their index immediately. The index based methods of this class can be used to build and traverse a model
+ * without creating any views.</br> All arrays are split into chunks that are shared copy-on-write between a model and its clones (see
+ * {@link SharedIntArray}). Hence, {@link #clone()} does not copy any feature and each subsequent modification of either model only copies the affected chunks.
+ * Views are not shared, but created on demand in each model with the same element id. All features of this model must be created by
+ * {@link ArrayFeatureModelFactory}.
+ *
+ * @author FeatureIDE Team
+ */
+public class ArrayFeatureModel extends FeatureModel {
+
+	public static final int NONE = -1;
+
+	public static final int GROUP_AND = 0;
+	public static final int GROUP_OR = 1;
+	public static final int GROUP_ALTERNATIVE = 2;
+
+	static final int FLAG_AND = 1;
+	static final int FLAG_MULTIPLE = 2;
+	static final int FLAG_MANDATORY = 4;
+	static final int FLAG_ABSTRACT = 8;
+	static final int FLAG_HIDDEN = 16;
+	/**
+	 * Set if the feature is part of the child list of its parent. The parent of a feature can be set independently of the child list (as in
+	 * {@link FeatureStructure}).
+	 */
+	static final int FLAG_LINKED = 32;
+	static final int FLAG_REGISTERED = 64;
+	static final int FLAG_HAS_ID = 128;
+
+	private static final int PARENT = 0;
+	private static final int FIRST_CHILD = 1;
+	private static final int LAST_CHILD = 2;
+	private static final int NEXT_SIBLING = 3;
+	private static final int CHILD_COUNT = 4;
+	private static final int FLAGS = 5;
+	private static final int ID_HIGH = 6;
+	private static final int ID_LOW = 7;
+	private static final int RECORD_SHIFT = 3;
+
+	private static final int INITIAL_NAME_TABLE_CAPACITY = 64;
+
+	// The fields are initialized lazily, because the constructor of the super class may already add features.
+	private int size;
+	private int numberOfRegisteredFeatures;
+
+	private SharedIntArray records;
+	private SharedArray<String> names;
+	private SharedArray<String> descriptions;
+	private SharedArray<MapPropertyContainer> customProperties;
+
+	/**
+	 * Hash table of feature names. Each entry contains the index of the feature plus one or 0 for empty entries.
+	 */
+	private SharedIntArray nameTable;
+	private int nameTableCapacity;
+
+	/**
+	 * The views of this model, which are never shared with a clone.
+	 */
+	private SharedArray<ArrayFeature> features;
+
+	public ArrayFeatureModel(String factoryID) {
+		super(factoryID);
+	}
+
+	protected ArrayFeatureModel(ArrayFeatureModel oldFeatureModel, IFeature newRoot) {
+		super(oldFeatureModel, newRoot);
+	}
+
+	@Override
+	protected IFeatureModelStructure createStructure() {
+		return new ArrayFeatureModelStructure(this);
+	}
+
+	private void initialize() {
+		if (records == null) {
+			records = new SharedIntArray();
+			names = new SharedArray<>();
+			descriptions = new SharedArray<>();
+			customProperties = new SharedArray<>();
+			nameTable = new SharedIntArray();
+			nameTableCapacity = INITIAL_NAME_TABLE_CAPACITY;
+			features = new SharedArray<>();
+		}
+	}
+
+	/**
+	 * Shares all arrays of another model with this (empty) model.
+	 */
+	private void share(ArrayFeatureModel source) {
+		size = source.size;
+		numberOfRegisteredFeatures = source.numberOfRegisteredFeatures;
+		records = new SharedIntArray(source.records);
+		names = new SharedArray<>(source.names);
+		descriptions = new SharedArray<>(source.descriptions);
+		customProperties = new SharedArray<>(source.customProperties);
+		nameTable = new SharedIntArray(source.nameTable);
+		nameTableCapacity = source.nameTableCapacity;
+		features = new SharedArray<>();
+	}
+
+	private int get(int index, int field) {
+		return records.get((index << RECORD_SHIFT) + field);
+	}
+
+	private void set(int index, int field, int value) {
+		records.set((index << RECORD_SHIFT) + field, value);
+	}
+
+	/**
+	 * Reserves a new index for a feature without adding it to the feature table.
+	 *
+	 * @param name the name of the feature
+	 * @return the new index
+	 */
+	int allocate(String name) {
+		initialize();
+		final int index = size++;
+		names.set(index, name);
+		set(index, PARENT, NONE);
+		set(index, FIRST_CHILD, NONE);
+		set(index, LAST_CHILD, NONE);
+		set(index, NEXT_SIBLING, NONE);
+		set(index, CHILD_COUNT, 0);
+		set(index, FLAGS, FLAG_AND);
+		return index;
+	}
+
+	/**
+	 * Returns the element id of the views for a feature index. The id is stored with the feature, such that views in a clone are equal to the views in this
+	 * model.
+	 */
+	long getElementId(int index) {
+		if (getFlag(index, FLAG_HAS_ID)) {
+			return ((long) get(index, ID_HIGH) << 32) | (get(index, ID_LOW) & 0xFFFFFFFFL);
+		}
+		final long id = getNextElementId();
+		set(index, ID_HIGH, (int) (id >>> 32));
+		set(index, ID_LOW, (int) id);
+		setFlag(index, FLAG_HAS_ID, true);
+		return id;
+	}
+
+	void setView(int index, ArrayFeature feature) {
+		features.set(index, feature);
+	}
+
+	String getDescription(int index) {
+		final String description = descriptions.get(index);
+		return description == null ? "" : description;
+	}
+
+	void setDescription(int index, String description) {
+		if (!description.equals(getDescription(index))) {
+			descriptions.set(index, description.isEmpty() ? null : description);
+		}
+	}
+
+	/**
+	 * @return the custom properties of a feature or {@code null}. The returned container must not be modified, because it may be shared with a clone.
+	 */
+	MapPropertyContainer getCustomProperties(int index) {
+		return customProperties.get(index);
+	}
+
+	void setCustomProperties(int index, MapPropertyContainer properties) {
+		customProperties.set(index, properties);
+	}
+
+	// name table
+
+	private static int hash(String name) {
+		final int h = name.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	private int findEntry(String name) {
+		final int mask = nameTableCapacity - 1;
+		int entry = hash(name) & mask;
+		while (true) {
+			final int value = nameTable.get(entry);
+			if ((value == 0) || names.get(value - 1).equals(name)) {
+				return entry;
+			}
+			entry = (entry + 1) & mask;
+		}
+	}
+
+	private boolean register(int index) {
+		if (getFlag(index, FLAG_REGISTERED)) {
+			return false;
+		}
+		final int entry = findEntry(names.get(index));
+		if (nameTable.get(entry) != 0) {
+			return false;
+		}
+		nameTable.set(entry, index + 1);
+		setFlag(index, FLAG_REGISTERED, true);
+		numberOfRegisteredFeatures++;
+		if ((numberOfRegisteredFeatures << 1) > nameTableCapacity) {
+			rehash(nameTableCapacity << 1);
+		}
+		return true;
+	}
+
+	private void unregister(int index) {
+		if (!getFlag(index, FLAG_REGISTERED)) {
+			return;
+		}
+		final int mask = nameTableCapacity - 1;
+		int hole = findEntry(names.get(index));
+		// backward shift deletion, such that no tombstones are needed
+		for (int entry = (hole + 1) & mask; nameTable.get(entry) != 0; entry = (entry + 1) & mask) {
+			final int home = hash(names.get(nameTable.get(entry) - 1)) & mask;
+			if (((entry - home) & mask) >= ((entry - hole) & mask)) {
+				nameTable.set(hole, nameTable.get(entry));
+				hole = entry;
+			}
+		}
+		nameTable.set(hole, 0);
+		setFlag(index, FLAG_REGISTERED, false);
+		numberOfRegisteredFeatures--;
+	}
+
+	private void rehash(int capacity) {
+		nameTable = new SharedIntArray();
+		nameTableCapacity = capacity;
+		for (int i = 0; i < size; i++) {
+			if (getFlag(i, FLAG_REGISTERED)) {
+				nameTable.set(findEntry(names.get(i)), i + 1);
+			}
+		}
+	}
+
+	void rename(int index, String name) {
+		if (getFlag(index, FLAG_REGISTERED)) {
+			unregister(index);
+			names.set(index, name);
+			register(index);
+		} else {
+			names.set(index, name);
+		}
+	}
+
+	// tree
+
+	/**
+	 * Appends a feature to the children of a parent or inserts it at the given position. If the child is already part of a child list, it is removed from
+	 * this list first.
+	 */
+	void link(int parent, int child, int position) {
+		unlink(child);
+		if ((position < 0) || (position >= get(parent, CHILD_COUNT))) {
+			final int lastChild = get(parent, LAST_CHILD);
+			if (lastChild == NONE) {
+				set(parent, FIRST_CHILD, child);
+			} else {
+				set(lastChild, NEXT_SIBLING, child);
+			}
+			set(parent, LAST_CHILD, child);
+		} else if (position == 0) {
+			set(child, NEXT_SIBLING, get(parent, FIRST_CHILD));
+			set(parent, FIRST_CHILD, child);
+		} else {
+			final int previous = getChildIndex(parent, position - 1);
+			set(child, NEXT_SIBLING, get(previous, NEXT_SIBLING));
+			set(previous, NEXT_SIBLING, child);
+		}
+		set(parent, CHILD_COUNT, get(parent, CHILD_COUNT) + 1);
+		set(child, PARENT, parent);
+		setFlag(child, FLAG_LINKED, true);
+	}
+
+	/**
+	 * Removes a feature from the child list of its parent and resets its parent.
+	 */
+	void unlink(int child) {
+		final int parent = get(child, PARENT);
+		if (getFlag(child, FLAG_LINKED)) {
+			int previous = NONE;
+			for (int current = get(parent, FIRST_CHILD); current != child; current = get(current, NEXT_SIBLING)) {
+				previous = current;
+			}
+			if (previous == NONE) {
+				set(parent, FIRST_CHILD, get(child, NEXT_SIBLING));
+			} else {
+				set(previous, NEXT_SIBLING, get(child, NEXT_SIBLING));
+			}
+			if (get(parent, LAST_CHILD) == child) {
+				set(parent, LAST_CHILD, previous);
+			}
+			set(parent, CHILD_COUNT, get(parent, CHILD_COUNT) - 1);
+			set(child, NEXT_SIBLING, NONE);
+			setFlag(child, FLAG_LINKED, false);
+		}
+		if (parent != NONE) {
+			set(child, PARENT, NONE);
+		}
+	}
+
+	/**
+	 * Sets the parent of a feature without adding it to the child list of the parent.
+	 */
+	void setParentIndex(int child, int parent) {
+		if (get(child, PARENT) != parent) {
+			unlink(child);
+			set(child, PARENT, parent);
+		}
+	}
+
+	boolean isLinked(int index) {
+		return getFlag(index, FLAG_LINKED);
+	}
+
+	boolean getFlag(int index, int flag) {
+		return (get(index, FLAGS) & flag) != 0;
+	}
+
+	void setFlag(int index, int flag, boolean value) {
+		final int flags = get(index, FLAGS);
+		final int newFlags = value ? (flags | flag) : (flags & ~flag);
+		// avoid copying a shared chunk if nothing changes
+		if (flags != newFlags) {
+			set(index, FLAGS, newFlags);
+		}
+	}
+
+	/**
+	 * Copies the subtree of a feature from another model into this model. If this model is empty and the root of the source model is copied, all arrays are
+	 * shared instead (including features that are registered, but not part of the tree).
+	 *
+	 * @return the index of the copied feature in this model
+	 */
+	int copySubtree(ArrayFeatureModel source, int sourceIndex) {
+		if ((size == 0) && (sourceIndex == source.getRootIndex())) {
+			share(source);
+			return sourceIndex;
+		}
+		final int index = copyFeature(source, sourceIndex);
+		register(index);
+		for (int child = source.get(sourceIndex, FIRST_CHILD); child != NONE; child = source.get(child, NEXT_SIBLING)) {
+			link(index, copySubtree(source, child), NONE);
+		}
+		return index;
+	}
+
+	/**
+	 * Copies the name, flags, element id, description, and custom properties of a feature to a new index in this model. The new feature is neither
+	 * registered nor linked.
+	 *
+	 * @return the new index
+	 */
+	int copyFeature(ArrayFeatureModel source, int sourceIndex) {
+		final int index = allocate(source.names.get(sourceIndex));
+		set(index, FLAGS, source.get(sourceIndex, FLAGS) & ~(FLAG_LINKED | FLAG_REGISTERED));
+		set(index, ID_HIGH, source.get(sourceIndex, ID_HIGH));
+		set(index, ID_LOW, source.get(sourceIndex, ID_LOW));
+		final String description = source.descriptions.get(sourceIndex);
+		if (description != null) {
+			descriptions.set(index, description);
+		}
+		final MapPropertyContainer properties = source.customProperties.get(sourceIndex);
+		if (properties != null) {
+			customProperties.set(index, properties);
+		}
+		return index;
+	}
+
+	// index based access
+
+	/**
+	 * Adds a new feature without creating a view.
+	 *
+	 * @param name the name of the feature
+	 * @param parent the index of the parent feature or {@link #NONE} for the root feature
+	 * @return the index of the new feature or {@link #NONE} if a feature with this name already exists
+	 */
+	public int addFeature(String name, int parent) {
+		if (getFeatureIndex(name) != NONE) {
+			return NONE;
+		}
+		final int index = allocate(name);
+		register(index);
+		if (parent == NONE) {
+			structure.setRoot(getFeature(index).getStructure());
+		} else {
+			link(parent, index, NONE);
+		}
+		return index;
+	}
+
+	/**
+	 * @return the index of the feature with the given name or {@link #NONE}
+	 */
+	public int getFeatureIndex(CharSequence name) {
+		if (records == null) {
+			return NONE;
+		}
+		return nameTable.get(findEntry(name.toString())) - 1;
+	}
+
+	/**
+	 * Returns the view for a feature index. The view is created if it does not exist yet.
+	 *
+	 * @param index the index of the feature
+	 * @return the feature (not {@code null})
+	 */
+	public ArrayFeature getFeature(int index) {
+		checkIndex(index);
+		final ArrayFeature feature = features.get(index);
+		return feature == null ? new ArrayFeature(this, index) : feature;
+	}
+
+	/**
+	 * @return the index of the root feature or {@link #NONE}
+	 */
+	public int getRootIndex() {
+		final IFeatureStructure root = structure.getRoot();
+		return root == null ? NONE : ((ArrayFeatureStructure) root).getIndex();
+	}
+
+	public String getFeatureName(int index) {
+		checkIndex(index);
+		return names.get(index);
+	}
+
+	public int getParentIndex(int index) {
+		checkIndex(index);
+		return get(index, PARENT);
+	}
+
+	public int getFirstChildIndex(int index) {
+		checkIndex(index);
+		return get(index, FIRST_CHILD);
+	}
+
+	public int getLastChildIndex(int index) {
+		checkIndex(index);
+		return get(index, LAST_CHILD);
+	}
+
+	public int getNextSiblingIndex(int index) {
+		checkIndex(index);
+		return get(index, NEXT_SIBLING);
+	}
+
+	public int getChildrenCount(int index) {
+		checkIndex(index);
+		return get(index, CHILD_COUNT);
+	}
+
+	int getChildIndex(int parent, int position) {
+		int child = get(parent, FIRST_CHILD);
+		for (int i = 0; i < position; i++) {
+			child = get(child, NEXT_SIBLING);
+		}
+		return child;
+	}
+
+	/**
+	 * @return {@link #GROUP_AND}, {@link #GROUP_OR}, or {@link #GROUP_ALTERNATIVE}
+	 */
+	public int getGroupType(int index) {
+		checkIndex(index);
+		if (getFlag(index, FLAG_AND) || (get(index, CHILD_COUNT) <= 1)) {
+			return GROUP_AND;
+		}
+		return getFlag(index, FLAG_MULTIPLE) ? GROUP_OR : GROUP_ALTERNATIVE;
+	}
+
+	/**
+	 * Sets the group type of a feature. In contrast to {@link IFeatureStructure#changeToAnd()} no events are fired.
+	 */
+	public void setGroupType(int index, int groupType) {
+		checkIndex(index);
+		switch (groupType) {
+		case GROUP_AND:
+			setFlag(index, FLAG_AND, true);
+			setFlag(index, FLAG_MULTIPLE, false);
+			break;
+		case GROUP_OR:
+			setFlag(index, FLAG_AND, false);
+			setFlag(index, FLAG_MULTIPLE, true);
+			break;
+		case GROUP_ALTERNATIVE:
+			setFlag(index, FLAG_AND, false);
+			setFlag(index, FLAG_MULTIPLE, false);
+			break;
+		default:
+			throw new IllegalArgumentException(String.valueOf(groupType));
+		}
+	}
+
+	public boolean isMandatory(int index) {
+		checkIndex(index);
+		final int parent = get(index, PARENT);
+		return (parent == NONE) || (getGroupType(parent) != GROUP_AND) || getFlag(index, FLAG_MANDATORY);
+	}
+
+	public void setMandatory(int index, boolean mandatory) {
+		checkIndex(index);
+		setFlag(index, FLAG_MANDATORY, mandatory);
+	}
+
+	public boolean isAbstract(int index) {
+		checkIndex(index);
+		return getFlag(index, FLAG_ABSTRACT);
+	}
+
+	public void setAbstract(int index, boolean value) {
+		checkIndex(index);
+		setFlag(index, FLAG_ABSTRACT, value);
+	}
+
+	public boolean isHidden(int index) {
+		checkIndex(index);
+		return getFlag(index, FLAG_HIDDEN);
+	}
+
+	public void setHidden(int index, boolean hidden) {
+		checkIndex(index);
+		setFlag(index, FLAG_HIDDEN, hidden);
+	}
+
+	/**
+	 * @return the indices of all features below the root feature in pre-order
+	 */
+	public int[] getPreOrder() {
+		final int root = getRootIndex();
+		if (root == NONE) {
+			return new int[0];
+		}
+		int[] preOrder = new int[numberOfRegisteredFeatures];
+		int count = 0;
+		int current = root;
+		while (current != NONE) {
+			if (count == preOrder.length) {
+				preOrder = Arrays.copyOf(preOrder, count + 1);
+			}
+			preOrder[count++] = current;
+			if (get(current, FIRST_CHILD) != NONE) {
+				current = get(current, FIRST_CHILD);
+			} else {
+				while ((current != root) && (get(current, NEXT_SIBLING) == NONE)) {
+					current = get(current, PARENT);
+				}
+				current = (current == root) ? NONE : get(current, NEXT_SIBLING);
+			}
+		}
+		return count == preOrder.length ? preOrder : Arrays.copyOf(preOrder, count);
+	}
+
+	private void checkIndex(int index) {
+		if ((index < 0) || (index >= size)) {
+			throw new IndexOutOfBoundsException(String.valueOf(index));
+		}
+	}
+
+	private int getIndex(IFeature feature) {
+		if (!(feature instanceof ArrayFeature) || (feature.getFeatureModel() != this)) {
+			throw new IllegalArgumentException("Feature " + feature + " was not created by " + ArrayFeatureModelFactory.class.getSimpleName()
+				+ " for this model");
+		}
+		return ((ArrayFeature) feature).getIndex();
+	}
+
+	// IFeatureModel
+
+	@Override
+	public boolean addFeature(IFeature feature) {
+		return register(getIndex(feature));
+	}
+
+	@Override
+	public IFeatureModel clone(IFeature newRoot) {
+		return new ArrayFeatureModel(this, newRoot);
+	}
+
+	/**
+	 * Creates a copy that shares all features with this model until either model is modified.
+	 */
+	@Override
+	public ArrayFeatureModel clone() {
+		return new ArrayFeatureModel(this, null);
+	}
+
+	@Override
+	public void createDefaultValues(CharSequence projectName) {
+		String rootName = getValidJavaIdentifier(projectName);
+		if (rootName.isEmpty()) {
+			rootName = "Root";
+		}
+		if (numberOfRegisteredFeatures == 0) {
+			addFeature(rootName, NONE);
+		}
+		final int root = getRootIndex();
+		addFeature("Base", root);
+		setAbstract(root, true);
+	}
+
+	@Override
+	public boolean deleteFeature(IFeature feature) {
+		// the root can not be deleted
+		if (feature.equals(structure.getRoot().getFeature())) {
+			return false;
+		}
+
+		// check if it exists
+		final int index = getFeatureIndex(feature.getName());
+		if ((index == NONE) || (index != getIndex(feature))) {
+			return false;
+		}
+
+		// use the group type of the feature to delete
+		final int parent = get(index, PARENT);
+		if (get(parent, CHILD_COUNT) == 1) {
+			setGroupType(parent, getGroupType(index));
+		}
+
+		// add children to parent
+		int position = 0;
+		for (int child = get(parent, FIRST_CHILD); child != index; child = get(child, NEXT_SIBLING)) {
+			position++;
+		}
+		while (get(index, LAST_CHILD) != NONE) {
+			link(parent, get(index, LAST_CHILD), position);
+		}
+
+		// delete feature
+		getFeature(parent).getStructure().removeChild(feature.getStructure());
+		unregister(index);
+		featureOrderList.remove(feature.getName());
+		return true;
+	}
+
+	@Override
+	public void deleteFeatureFromTable(IFeature feature) {
+		final int index = getFeatureIndex(feature.getName());
+		if (index != NONE) {
+			unregister(index);
+		}
+	}
+
+	@Override
+	public IFeature getFeature(CharSequence name) {
+		final int index = getFeatureIndex(name);
+		return index == NONE ? null : getFeature(index);
+	}
+
+	@Override
+	public Collection<IFeature> getFeatures() {
+		return new AbstractCollection<IFeature>() {
+
+			@Override
+			public Iterator<IFeature> iterator() {
+				return new FeatureIterator();
+			}
+
+			@Override
+			public int size() {
+				return numberOfRegisteredFeatures;
+			}
+		};
+	}
+
+	@Override
+	public int getNumberOfFeatures() {
+		return numberOfRegisteredFeatures;
+	}
+
+	@Override
+	public Map<String, IFeature> getFeatureTable() {
+		return new AbstractMap<String, IFeature>() {
+
+			@Override
+			public IFeature get(Object key) {
+				return (key instanceof CharSequence) ? ArrayFeatureModel.this.getFeature((CharSequence) key) : null;
+			}
+
+			@Override
+			public boolean containsKey(Object key) {
+				return (key instanceof CharSequence) && (getFeatureIndex((CharSequence) key) != NONE);
+			}
+
+			@Override
+			public int size() {
+				return numberOfRegisteredFeatures;
+			}
+
+			@Override
+			public Set<Entry<String, IFeature>> entrySet() {
+				return new AbstractSet<Entry<String, IFeature>>() {
+
+					@Override
+					public Iterator<Entry<String, IFeature>> iterator() {
+						final FeatureIterator featureIterator = new FeatureIterator();
+						return new Iterator<Entry<String, IFeature>>() {
+
+							@Override
+							public boolean hasNext() {
+								return featureIterator.hasNext();
+							}
+
+							@Override
+							public Entry<String, IFeature> next() {
+								final IFeature feature = featureIterator.next();
+								return new SimpleImmutableEntry<>(feature.getName(), feature);
+							}
+
+							@Override
+							public void remove() {
+								throw new UnsupportedOperationException();
+							}
+						};
+					}
+
+					@Override
+					public int size() {
+						return numberOfRegisteredFeatures;
+					}
+				};
+			}
+		};
+	}
+
+	@Override
+	public void setFeatureTable(Hashtable<String, IFeature> featureTable) {
+		for (int i = 0; i < size; i++) {
+			unregister(i);
+		}
+		for (final IFeature feature : featureTable.values()) {
+			addFeature(feature);
+		}
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		size = 0;
+		numberOfRegisteredFeatures = 0;
+		records = null;
+		names = null;
+		descriptions = null;
+		customProperties = null;
+		nameTable = null;
+		features = null;
+	}
+
+	/**
+	 * Iterates over the views of all features in the feature table.
+	 */
+	private class FeatureIterator implements Iterator<IFeature> {
+
+		private int next = findNext(0);
+
+		private int findNext(int start) {
+			for (int i = start; i < size; i++) {
+				if (getFlag(i, FLAG_REGISTERED)) {
+					return i;
+				}
+			}
+			return size;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next < size;
+		}
+
+		@Override
+		public IFeature next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			final IFeature feature = getFeature(next);
+			next = findNext(next + 1);
+			return feature;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+}
@@ -0,0 +1,63 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.base.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelStructure;
+
+/**
+ * Structure of an {@link ArrayFeatureModel}. Traverses the feature tree on the arrays of the feature model.
+ *
+ * @author FeatureIDE Team
+ */
+public class ArrayFeatureModelStructure extends FeatureModelStructure {
+
+	protected ArrayFeatureModelStructure(ArrayFeatureModelStructure oldStructure, IFeatureModel correspondingFeatureModel) {
+		super(oldStructure, correspondingFeatureModel);
+	}
+
+	public ArrayFeatureModelStructure(ArrayFeatureModel correspondingFeatureModel) {
+		super(correspondingFeatureModel);
+	}
+
+	@Override
+	public IFeatureModelStructure clone(IFeatureModel newFeatureNodel) {
+		return new ArrayFeatureModelStructure(this, newFeatureNodel);
+	}
+
+	@Override
+	public Collection<IFeature> getFeaturesPreorder() {
+		final ArrayFeatureModel featureModel = (ArrayFeatureModel) correspondingFeatureModel;
+		final int[] preOrder = featureModel.getPreOrder();
+		final List<IFeature> preorderFeatures = new ArrayList<>(preOrder.length);
+		for (final int index : preOrder) {
+			preorderFeatures.add(featureModel.getFeature(index));
+		}
+		return Collections.unmodifiableCollection(preorderFeatures);
+	}
+
+}
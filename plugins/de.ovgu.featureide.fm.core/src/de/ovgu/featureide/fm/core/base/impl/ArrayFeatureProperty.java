@@ -0,0 +1,63 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.base.impl;
+
+import javax.annotation.Nonnull;
+
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureProperty;
+
+/**
+ * Property of an {@link ArrayFeature}. The description is stored in the {@link ArrayFeatureModel}, such that it is shared with clones of the model.
+ *
+ * @author FeatureIDE Team
+ */
+public class ArrayFeatureProperty extends FeatureProperty {
+
+	protected ArrayFeatureProperty(ArrayFeatureProperty oldProperty, ArrayFeature correspondingFeature) {
+		super(oldProperty, correspondingFeature);
+	}
+
+	public ArrayFeatureProperty(ArrayFeature correspondingFeature) {
+		super(correspondingFeature);
+	}
+
+	private ArrayFeature getArrayFeature() {
+		return (ArrayFeature) correspondingFeature;
+	}
+
+	@Override
+	public IFeatureProperty clone(IFeature newFeature) {
+		return new ArrayFeatureProperty(this, (ArrayFeature) newFeature);
+	}
+
+	@Override
+	@Nonnull
+	public String getDescription() {
+		return ((ArrayFeatureModel) getArrayFeature().getFeatureModel()).getDescription(getArrayFeature().getIndex());
+	}
+
+	@Override
+	public void setDescription(@Nonnull CharSequence description) {
+		((ArrayFeatureModel) getArrayFeature().getFeatureModel()).setDescription(getArrayFeature().getIndex(), description.toString());
+	}
+
+}
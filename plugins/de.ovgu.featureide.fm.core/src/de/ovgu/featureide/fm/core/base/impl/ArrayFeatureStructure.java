@@ -0,0 +1,488 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.base.impl;
+
+import static de.ovgu.featureide.fm.core.base.impl.ArrayFeatureModel.FLAG_ABSTRACT;
+import static de.ovgu.featureide.fm.core.base.impl.ArrayFeatureModel.FLAG_AND;
+import static de.ovgu.featureide.fm.core.base.impl.ArrayFeatureModel.FLAG_HIDDEN;
+import static de.ovgu.featureide.fm.core.base.impl.ArrayFeatureModel.FLAG_MANDATORY;
+import static de.ovgu.featureide.fm.core.base.impl.ArrayFeatureModel.FLAG_MULTIPLE;
+import static de.ovgu.featureide.fm.core.base.impl.ArrayFeatureModel.GROUP_AND;
+import static de.ovgu.featureide.fm.core.base.impl.ArrayFeatureModel.NONE;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureStructure;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent.EventType;
+
+/**
+ * View on the structural information of a feature in an {@link ArrayFeatureModel}. Behaves like {@link FeatureStructure}, but {@link #getChildren()} returns
+ * a copy of the current child list.
+ *
+ * @author FeatureIDE Team
+ */
+public class ArrayFeatureStructure implements IFeatureStructure {
+
+	protected final ArrayFeature correspondingFeature;
+
+	protected List<IConstraint> partOfConstraints = Collections.emptyList();
+
+	public ArrayFeatureStructure(ArrayFeature correspondingFeature) {
+		this.correspondingFeature = correspondingFeature;
+	}
+
+	private ArrayFeatureModel getModel() {
+		return (ArrayFeatureModel) correspondingFeature.getFeatureModel();
+	}
+
+	/**
+	 * @return the index of the corresponding feature
+	 */
+	public int getIndex() {
+		return correspondingFeature.getIndex();
+	}
+
+	private ArrayFeatureStructure getView(int index) {
+		return index == NONE ? null : getModel().getFeature(index).getStructure();
+	}
+
+	/**
+	 * @return the index of the given structure or {@link ArrayFeatureModel#NONE} if it does not belong to the same feature model
+	 */
+	private int getIndex(IFeatureStructure structure) {
+		if ((structure instanceof ArrayFeatureStructure) && (((ArrayFeatureStructure) structure).getModel() == getModel())) {
+			return ((ArrayFeatureStructure) structure).getIndex();
+		}
+		return NONE;
+	}
+
+	private int checkIndex(IFeatureStructure structure) {
+		final int index = getIndex(structure);
+		if (index == NONE) {
+			throw new IllegalArgumentException("Structure " + structure + " does not belong to the feature model of " + correspondingFeature);
+		}
+		return index;
+	}
+
+	private boolean isChild(int child) {
+		return (child != NONE) && getModel().isLinked(child) && (getModel().getParentIndex(child) == getIndex());
+	}
+
+	private boolean getFlag(int flag) {
+		return getModel().getFlag(getIndex(), flag);
+	}
+
+	private void setFlag(int flag, boolean value) {
+		getModel().setFlag(getIndex(), flag, value);
+	}
+
+	@Override
+	public void addChild(IFeatureStructure newChild) {
+		getModel().link(getIndex(), checkIndex(newChild), NONE);
+		fireChildrenChanged();
+	}
+
+	@Override
+	public void addChildAtPosition(int index, IFeatureStructure newChild) {
+		getModel().link(getIndex(), checkIndex(newChild), index);
+	}
+
+	@Override
+	public void changeToAlternative() {
+		if (getChildrenCount() <= 1) {
+			return;
+		}
+		setFlag(FLAG_AND, false);
+		setFlag(FLAG_MULTIPLE, false);
+		fireChildrenChanged();
+	}
+
+	@Override
+	public void changeToAnd() {
+		setFlag(FLAG_AND, true);
+		setFlag(FLAG_MULTIPLE, false);
+		fireChildrenChanged();
+	}
+
+	@Override
+	public void changeToOr() {
+		if (getChildrenCount() <= 1) {
+			return;
+		}
+		setFlag(FLAG_AND, false);
+		setFlag(FLAG_MULTIPLE, true);
+		fireChildrenChanged();
+	}
+
+	/**
+	 * Copies the subtree into another {@link ArrayFeatureModel}. Only the view for the root of the subtree is created. If the whole tree is copied into an
+	 * empty model, the arrays of both models are shared (see {@link ArrayFeatureModel#clone()}).
+	 */
+	@Override
+	public IFeatureStructure cloneSubtree(IFeatureModel newFeatureModel) {
+		if (!(newFeatureModel instanceof ArrayFeatureModel)) {
+			throw new UnsupportedOperationException("Subtrees can only be copied into another " + ArrayFeatureModel.class.getSimpleName());
+		}
+		final ArrayFeatureModel newArrayFeatureModel = (ArrayFeatureModel) newFeatureModel;
+		return newArrayFeatureModel.getFeature(newArrayFeatureModel.copySubtree(getModel(), getIndex())).getStructure();
+	}
+
+	protected void fireAttributeChanged() {
+		final FeatureIDEEvent event = new FeatureIDEEvent(this, EventType.ATTRIBUTE_CHANGED);
+		correspondingFeature.fireEvent(event);
+	}
+
+	protected void fireChildrenChanged() {
+		final FeatureIDEEvent event = new FeatureIDEEvent(this, EventType.GROUP_TYPE_CHANGED, Boolean.FALSE, Boolean.TRUE);
+		correspondingFeature.fireEvent(event);
+	}
+
+	protected void fireHiddenChanged() {
+		final FeatureIDEEvent event = new FeatureIDEEvent(this, EventType.HIDDEN_CHANGED, Boolean.FALSE, Boolean.TRUE);
+		correspondingFeature.fireEvent(event);
+	}
+
+	protected void fireMandatoryChanged() {
+		final FeatureIDEEvent event = new FeatureIDEEvent(this, EventType.MANDATORY_CHANGED, Boolean.FALSE, Boolean.TRUE);
+		correspondingFeature.fireEvent(event);
+	}
+
+	@Override
+	public int getChildIndex(IFeatureStructure feature) {
+		final int child = getIndex(feature);
+		if (!isChild(child)) {
+			return -1;
+		}
+		final ArrayFeatureModel model = getModel();
+		int position = 0;
+		for (int current = model.getFirstChildIndex(getIndex()); current != child; current = model.getNextSiblingIndex(current)) {
+			position++;
+		}
+		return position;
+	}
+
+	@Override
+	public List<IFeatureStructure> getChildren() {
+		final ArrayFeatureModel model = getModel();
+		final List<IFeatureStructure> children = new ArrayList<>(getChildrenCount());
+		for (int child = model.getFirstChildIndex(getIndex()); child != NONE; child = model.getNextSiblingIndex(child)) {
+			children.add(getView(child));
+		}
+		return children;
+	}
+
+	@Override
+	public boolean hasVisibleChildren(boolean showHiddenFeature) {
+		final ArrayFeatureModel model = getModel();
+		for (int child = model.getFirstChildIndex(getIndex()); child != NONE; child = model.getNextSiblingIndex(child)) {
+			if (showHiddenFeature || !hasHiddenParent(model, child)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public int getChildrenCount() {
+		return getModel().getChildrenCount(getIndex());
+	}
+
+	@Override
+	public IFeature getFeature() {
+		return correspondingFeature;
+	}
+
+	@Override
+	public IFeatureStructure getFirstChild() {
+		return getView(getModel().getFirstChildIndex(getIndex()));
+	}
+
+	@Override
+	public IFeatureStructure getLastChild() {
+		return getView(getModel().getLastChildIndex(getIndex()));
+	}
+
+	@Override
+	public IFeatureStructure getParent() {
+		return getView(getModel().getParentIndex(getIndex()));
+	}
+
+	@Override
+	public Collection<IConstraint> getRelevantConstraints() {
+		return partOfConstraints;
+	}
+
+	@Override
+	public boolean hasChildren() {
+		return getChildrenCount() > 0;
+	}
+
+	@Override
+	public boolean hasHiddenParent() {
+		return hasHiddenParent(getModel(), getIndex());
+	}
+
+	private static boolean hasHiddenParent(ArrayFeatureModel model, int index) {
+		if (model.isHidden(index)) {
+			return true;
+		}
+		int parent = model.getParentIndex(index);
+		if (parent == NONE) {
+			return false;
+		}
+		while (model.getParentIndex(parent) != NONE) {
+			if (model.isHidden(parent)) {
+				return true;
+			}
+			parent = model.getParentIndex(parent);
+		}
+		return false;
+	}
+
+	/**
+	 * Returns true if the rule can be writen in a format like 'Ab [Cd] Ef :: Gh'.
+	 */
+	@Override
+	public boolean hasInlineRule() {
+		return (getChildrenCount() > 1) && getFlag(FLAG_AND) && isMandatory() && !getFlag(FLAG_MULTIPLE);
+	}
+
+	@Override
+	public boolean isAbstract() {
+		return getFlag(FLAG_ABSTRACT);
+	}
+
+	@Override
+	public boolean isAlternative() {
+		return !getFlag(FLAG_AND) && !getFlag(FLAG_MULTIPLE) && (getChildrenCount() > 1);
+	}
+
+	@Override
+	public boolean isAncestorOf(IFeatureStructure parent) {
+		final int parentIndex = getIndex(parent);
+		if (parentIndex == NONE) {
+			return false;
+		}
+		final ArrayFeatureModel model = getModel();
+		for (int current = model.getParentIndex(getIndex()); current != NONE; current = model.getParentIndex(current)) {
+			if (current == parentIndex) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean isAnd() {
+		return getFlag(FLAG_AND) || (getChildrenCount() <= 1);
+	}
+
+	@Override
+	public boolean isANDPossible() {
+		final ArrayFeatureModel model = getModel();
+		final int parent = model.getParentIndex(getIndex());
+		if ((parent == NONE) || (model.getGroupType(parent) == GROUP_AND)) {
+			return false;
+		}
+		for (int child = model.getFirstChildIndex(getIndex()); child != NONE; child = model.getNextSiblingIndex(child)) {
+			if (model.getGroupType(child) == GROUP_AND) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean isConcrete() {
+		return !getFlag(FLAG_ABSTRACT);
+	}
+
+	@Override
+	public boolean isFirstChild(IFeatureStructure child) {
+		final int childIndex = getIndex(child);
+		return (childIndex != NONE) && (getModel().getFirstChildIndex(getIndex()) == childIndex);
+	}
+
+	@Override
+	public boolean isHidden() {
+		return getFlag(FLAG_HIDDEN);
+	}
+
+	@Override
+	public boolean isMandatory() {
+		return getModel().isMandatory(getIndex());
+	}
+
+	@Override
+	public boolean isMandatorySet() {
+		return getFlag(FLAG_MANDATORY);
+	}
+
+	@Override
+	public boolean isMultiple() {
+		return getFlag(FLAG_MULTIPLE) && (getChildrenCount() > 1);
+	}
+
+	@Override
+	public boolean isOr() {
+		return !getFlag(FLAG_AND) && getFlag(FLAG_MULTIPLE) && (getChildrenCount() > 1);
+	}
+
+	@Override
+	public boolean isRoot() {
+		return getModel().getParentIndex(getIndex()) == NONE;
+	}
+
+	@Override
+	public void removeChild(IFeatureStructure child) {
+		final int childIndex = getIndex(child);
+		if (!isChild(childIndex)) {
+			throw new NoSuchElementException();
+		}
+		getModel().unlink(childIndex);
+		fireChildrenChanged();
+	}
+
+	@Override
+	public IFeatureStructure removeLastChild() {
+		final int child = getModel().getLastChildIndex(getIndex());
+		if (child == NONE) {
+			throw new NoSuchElementException();
+		}
+		getModel().unlink(child);
+		fireChildrenChanged();
+		return getView(child);
+	}
+
+	@Override
+	public void replaceChild(IFeatureStructure oldChild, IFeatureStructure newChild) {
+		final int position = getChildIndex(oldChild);
+		if (position < 0) {
+			throw new IndexOutOfBoundsException(String.valueOf(position));
+		}
+		final int newChildIndex = checkIndex(newChild);
+		getModel().unlink(getIndex(oldChild));
+		getModel().link(getIndex(), newChildIndex, position);
+		fireChildrenChanged();
+	}
+
+	@Override
+	public void setAbstract(boolean value) {
+		setFlag(FLAG_ABSTRACT, value);
+		fireAttributeChanged();
+	}
+
+	@Override
+	public void setAlternative() {
+		setFlag(FLAG_AND, false);
+		setFlag(FLAG_MULTIPLE, false);
+	}
+
+	@Override
+	public void setAnd() {
+		setFlag(FLAG_AND, true);
+	}
+
+	@Override
+	public void setAND(boolean and) {
+		setFlag(FLAG_AND, and);
+		fireChildrenChanged();
+	}
+
+	@Override
+	public void setChildren(List<IFeatureStructure> children) {
+		final ArrayFeatureModel model = getModel();
+		while (model.getLastChildIndex(getIndex()) != NONE) {
+			model.unlink(model.getLastChildIndex(getIndex()));
+		}
+		for (final IFeatureStructure child : children) {
+			model.link(getIndex(), checkIndex(child), NONE);
+		}
+		fireChildrenChanged();
+	}
+
+	@Override
+	public void setHidden(boolean hid) {
+		setFlag(FLAG_HIDDEN, hid);
+		fireHiddenChanged();
+	}
+
+	@Override
+	public void setMandatory(boolean mandatory) {
+		setFlag(FLAG_MANDATORY, mandatory);
+		fireMandatoryChanged();
+	}
+
+	@Override
+	public void setMultiple(boolean multiple) {
+		setFlag(FLAG_MULTIPLE, multiple);
+		fireChildrenChanged();
+	}
+
+	@Override
+	public void setOr() {
+		setFlag(FLAG_AND, false);
+		setFlag(FLAG_MULTIPLE, true);
+	}
+
+	@Override
+	public void setParent(IFeatureStructure newParent) {
+		getModel().setParentIndex(getIndex(), newParent == null ? NONE : checkIndex(newParent));
+	}
+
+	@Override
+	public void setRelevantConstraints() {
+		final List<IConstraint> constraintList = new LinkedList<>();
+		for (final IConstraint constraint : correspondingFeature.getFeatureModel().getConstraints()) {
+			for (final IFeature f : constraint.getContainedFeatures()) {
+				if (f.getName().equals(correspondingFeature.getName())) {
+					constraintList.add(constraint);
+					break;
+				}
+			}
+		}
+		partOfConstraints = constraintList;
+	}
+
+	@Override
+	public void setRelevantConstraints(List<IConstraint> constraints) {
+		partOfConstraints = constraints;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder("FeatureStructure=(");
+		FeatureUtils.print(getFeature(), sb);
+		sb.append(")");
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,122 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.base.impl;
+
+import java.util.Collections;
+import java.util.Set;
+
+import de.ovgu.featureide.fm.core.base.IPropertyContainer;
+
+/**
+ * Custom properties of an {@link ArrayFeature}. The properties are stored in the {@link ArrayFeatureModel} in a {@link MapPropertyContainer} that may be shared
+ * with clones of the model. Therefore, each modification replaces the stored container by a modified copy.
+ *
+ * @author FeatureIDE Team
+ */
+public class ArrayPropertyContainer implements IPropertyContainer {
+
+	private static final MapPropertyContainer EMPTY = new MapPropertyContainer();
+
+	private final ArrayFeature feature;
+
+	public ArrayPropertyContainer(ArrayFeature feature) {
+		this.feature = feature;
+	}
+
+	private ArrayFeatureModel getModel() {
+		return (ArrayFeatureModel) feature.getFeatureModel();
+	}
+
+	private MapPropertyContainer getProperties() {
+		final MapPropertyContainer properties = getModel().getCustomProperties(feature.getIndex());
+		return properties == null ? EMPTY : properties;
+	}
+
+	/**
+	 * @return a modifiable copy of the current properties, which has to be stored by {@link #setProperties(MapPropertyContainer)}
+	 */
+	private MapPropertyContainer copyProperties() {
+		final MapPropertyContainer properties = getProperties();
+		final MapPropertyContainer copy = new MapPropertyContainer();
+		for (final String key : properties.keySet()) {
+			copy.set(key, properties.getDataType(key), properties.get(key));
+		}
+		return copy;
+	}
+
+	private void setProperties(MapPropertyContainer properties) {
+		getModel().setCustomProperties(feature.getIndex(), properties.keySet().isEmpty() ? null : properties);
+	}
+
+	@Override
+	public <T> T get(String key, T defaultValue) {
+		return getProperties().get(key, defaultValue);
+	}
+
+	@Override
+	public Type getDataType(String key) throws NoSuchPropertyException {
+		return getProperties().getDataType(key);
+	}
+
+	@Override
+	public <T> T get(String key) throws NoSuchPropertyException {
+		return getProperties().get(key);
+	}
+
+	@Override
+	public boolean has(String key) {
+		return getProperties().has(key);
+	}
+
+	@Override
+	public Set<String> keySet() {
+		return Collections.unmodifiableSet(getProperties().keySet());
+	}
+
+	@Override
+	public Set<Entry<String, Type, Object>> entrySet() {
+		return getProperties().entrySet();
+	}
+
+	@Override
+	public void setEntrySet(Set<Entry<String, Type, Object>> entries) {
+		final MapPropertyContainer properties = new MapPropertyContainer();
+		for (final Entry<String, Type, Object> entry : entries) {
+			properties.set(entry.getKey(), entry.getType(), MapPropertyContainer.copyObject(entry.getType(), entry.getValue()));
+		}
+		setProperties(properties);
+	}
+
+	@Override
+	public void remove(String key) throws NoSuchPropertyException {
+		final MapPropertyContainer properties = copyProperties();
+		properties.remove(key);
+		setProperties(properties);
+	}
+
+	@Override
+	public <T> void set(String key, Type type, T value) {
+		final MapPropertyContainer properties = copyProperties();
+		properties.set(key, type, value);
+		setProperties(properties);
+	}
+
+}
@@ -40,7 +40,8 @@ public final class FMFactoryManager extends ExtensionManager<IFeatureModelFactor
 	public static IFactoryWorkspaceProvider factoryWorkspaceProvider = new CoreFactoryWorkspaceProvider();
 
 	private FMFactoryManager() {
-		setExtensionLoaderInternal(new CoreExtensionLoader<IFeatureModelFactory>(DefaultFeatureModelFactory.class, ExtendedFeatureModelFactory.class));
+		setExtensionLoaderInternal(new CoreExtensionLoader<IFeatureModelFactory>(DefaultFeatureModelFactory.class, ExtendedFeatureModelFactory.class,
+			ArrayFeatureModelFactory.class));
 	}
 
 	private static FMFactoryManager instance = new FMFactoryManager();
@@ -60,7 +61,8 @@ public final class FMFactoryManager extends ExtensionManager<IFeatureModelFactor
 	/**
 	 * Returns a specific factory associated with the string <b>id</b>. By default, the following factories are available: <ul>
 	 * <li><b>de.ovgu.featureide.fm.core.DefaultFeatureModelFactory</b>: An instance of {@link DefaultFeatureModelFactory}</li>
-	 * <li><b>de.ovgu.featureide.fm.core.ExtendedFeatureModelFactory</b>: An instance of {@link ExtendedFeatureModelFactory}</li> </ul>
+	 * <li><b>de.ovgu.featureide.fm.core.ExtendedFeatureModelFactory</b>: An instance of {@link ExtendedFeatureModelFactory}</li>
+	 * <li><b>de.ovgu.featureide.fm.core.ArrayFeatureModelFactory</b>: An instance of {@link ArrayFeatureModelFactory}</li> </ul>
 	 *
 	 * @param id the (unique) identifier for an instance of {@link IFeatureModelFactory} to be returned
 	 * @return Returns Instance of feature model factory associated with <b>id</b>, or throws <b<>RuntimeException</b> in case <b>id</b> is not known
@@ -112,6 +112,13 @@ public class Feature extends AFeature {
 		super(featureModel, name);
 	}
 
+	/**
+	 * Constructs a new instance of <code>Feature</code> with a given internal identifier (see {@link AFeature#AFeature(IFeatureModel, String, long)}).
+	 */
+	protected Feature(IFeatureModel featureModel, String name, long id) {
+		super(featureModel, name, id);
+	}
+
 	@Override
 	protected IFeatureProperty createProperty() {
 		return new FeatureProperty(this);
@@ -136,7 +136,7 @@ public class FeatureModel implements IFeatureModel {
 		} else {
 			structure.setRoot(newRoot.getStructure().cloneSubtree(this));
 			for (final IConstraint constraint : oldFeatureModel.constraints) {
-				if (featureTable.keySet().containsAll(Functional.mapToStringList(constraint.getContainedFeatures()))) {
+				if (getFeatureTable().keySet().containsAll(Functional.mapToStringList(constraint.getContainedFeatures()))) {
 					constraints.add(constraint.clone(this));
 				}
 			}
@@ -469,7 +469,8 @@ public class FeatureModel implements IFeatureModel {
 			sb.append("Feature model without root feature.");
 		}
 		final StringBuilder features = new StringBuilder();
-		final String[] feat = featureTable.keySet().toArray(new String[featureTable.keySet().size()]);
+		final Collection<String> featureNames = getFeatureTable().keySet();
+		final String[] feat = featureNames.toArray(new String[featureNames.size()]);
 		for (int i = 0; i < feat.length; i++) {
 			features.append(feat[i]);
 			if ((i + 1) < feat.length) {
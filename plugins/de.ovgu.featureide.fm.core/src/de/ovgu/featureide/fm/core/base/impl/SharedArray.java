@@ -0,0 +1,92 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.base.impl;
+
+import static de.ovgu.featureide.fm.core.base.impl.SharedIntArray.CHUNK_BITS;
+import static de.ovgu.featureide.fm.core.base.impl.SharedIntArray.CHUNK_MASK;
+
+import java.util.Arrays;
+
+/**
+ * Growable object array with chunks that can be shared between copies (see {@link SharedIntArray}). Entries that were never set are {@code null}. The stored
+ * objects themselves are shared as well, so they should be immutable. Copying and modifying are synchronized as in {@link SharedIntArray}.
+ *
+ * @author FeatureIDE Team
+ */
+final class SharedArray<T> {
+
+	private Object[][] chunks;
+	private boolean[] owned;
+
+	SharedArray() {
+		chunks = new Object[0][];
+		owned = new boolean[0];
+	}
+
+	/**
+	 * Creates a copy that shares all chunks with the given array. Afterwards, neither array owns any chunk.
+	 */
+	SharedArray(SharedArray<T> other) {
+		synchronized (other) {
+			chunks = other.chunks.clone();
+			owned = new boolean[chunks.length];
+			Arrays.fill(other.owned, false);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	T get(int index) {
+		final int chunkIndex = index >>> CHUNK_BITS;
+		if (chunkIndex >= chunks.length) {
+			return null;
+		}
+		final Object[] chunk = chunks[chunkIndex];
+		final int offset = index & CHUNK_MASK;
+		return ((chunk == null) || (offset >= chunk.length)) ? null : (T) chunk[offset];
+	}
+
+	synchronized void set(int index, T value) {
+		final int offset = index & CHUNK_MASK;
+		getWritableChunk(index >>> CHUNK_BITS, offset)[offset] = value;
+	}
+
+	private Object[] getWritableChunk(int chunkIndex, int offset) {
+		if (chunkIndex >= chunks.length) {
+			final int newLength = Math.max(chunkIndex + 1, chunks.length << 1);
+			chunks = Arrays.copyOf(chunks, newLength);
+			owned = Arrays.copyOf(owned, newLength);
+		}
+		Object[] chunk = chunks[chunkIndex];
+		if (chunk == null) {
+			chunk = new Object[SharedIntArray.getChunkLength(offset, 0)];
+		} else if (offset >= chunk.length) {
+			chunk = Arrays.copyOf(chunk, SharedIntArray.getChunkLength(offset, chunk.length));
+		} else if (!owned[chunkIndex]) {
+			chunk = chunk.clone();
+		} else {
+			return chunk;
+		}
+		chunks[chunkIndex] = chunk;
+		owned[chunkIndex] = true;
+		return chunk;
+	}
+
+}
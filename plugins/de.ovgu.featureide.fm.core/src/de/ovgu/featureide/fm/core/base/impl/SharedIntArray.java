@@ -0,0 +1,107 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.base.impl;
+
+import java.util.Arrays;
+
+/**
+ * Growable int array that is split into chunks, which can be shared between copies. A copy only duplicates the chunk table. Before a chunk is modified, it is
+ * copied, unless it is owned by this array. Thus, copying costs O(size / chunk size) and each modification at most O(chunk size).</br> Entries that were
+ * never set are 0.</br> Copying revokes the ownership of the source array. Therefore, copying and modifying are synchronized on the source array, such that an
+ * array can be copied while another thread modifies it. Reading while another thread modifies the same array is not safe.
+ *
+ * @author FeatureIDE Team
+ */
+final class SharedIntArray {
+
+	static final int CHUNK_BITS = 10;
+	static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+	static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	private static final int MIN_CHUNK_SIZE = 16;
+
+	private int[][] chunks;
+	private boolean[] owned;
+
+	SharedIntArray() {
+		chunks = new int[0][];
+		owned = new boolean[0];
+	}
+
+	/**
+	 * Creates a copy that shares all chunks with the given array. Afterwards, neither array owns any chunk.
+	 */
+	SharedIntArray(SharedIntArray other) {
+		synchronized (other) {
+			chunks = other.chunks.clone();
+			owned = new boolean[chunks.length];
+			Arrays.fill(other.owned, false);
+		}
+	}
+
+	int get(int index) {
+		final int chunkIndex = index >>> CHUNK_BITS;
+		if (chunkIndex >= chunks.length) {
+			return 0;
+		}
+		final int[] chunk = chunks[chunkIndex];
+		final int offset = index & CHUNK_MASK;
+		return ((chunk == null) || (offset >= chunk.length)) ? 0 : chunk[offset];
+	}
+
+	synchronized void set(int index, int value) {
+		final int offset = index & CHUNK_MASK;
+		getWritableChunk(index >>> CHUNK_BITS, offset)[offset] = value;
+	}
+
+	private int[] getWritableChunk(int chunkIndex, int offset) {
+		if (chunkIndex >= chunks.length) {
+			final int newLength = Math.max(chunkIndex + 1, chunks.length << 1);
+			chunks = Arrays.copyOf(chunks, newLength);
+			owned = Arrays.copyOf(owned, newLength);
+		}
+		int[] chunk = chunks[chunkIndex];
+		if (chunk == null) {
+			chunk = new int[getChunkLength(offset, 0)];
+		} else if (offset >= chunk.length) {
+			chunk = Arrays.copyOf(chunk, getChunkLength(offset, chunk.length));
+		} else if (!owned[chunkIndex]) {
+			chunk = chunk.clone();
+		} else {
+			return chunk;
+		}
+		chunks[chunkIndex] = chunk;
+		owned[chunkIndex] = true;
+		return chunk;
+	}
+
+	/**
+	 * Chunks start small and grow up to {@link #CHUNK_SIZE}, such that small models do not need much memory.
+	 */
+	static int getChunkLength(int offset, int currentLength) {
+		int length = Math.max(MIN_CHUNK_SIZE, currentLength << 1);
+		while (length <= offset) {
+			length <<= 1;
+		}
+		return Math.min(length, CHUNK_SIZE);
+	}
+
+}
@@ -42,6 +42,15 @@ public interface IFeatureGraph extends Serializable {
 
 	byte getValueInternal(int fromIndex, int toIndex, boolean fromSelected);
 
+	/**
+	 * Returns the next feature that is connected to a given feature. Allows to iterate over all neighbors of a feature without testing each feature.
+	 *
+	 * @param fromIndex the index of the feature
+	 * @param toIndex the smallest index to consider
+	 * @return the smallest index greater or equal to {@code toIndex} of a feature with an edge from {@code fromIndex} or {@code -1} if there is no such feature
+	 */
+	int getNextNeighbor(int fromIndex, int toIndex);
+
 	int getFeatureIndex(String name);
 
 }
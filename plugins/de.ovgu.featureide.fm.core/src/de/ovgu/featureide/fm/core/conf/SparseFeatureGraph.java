@@ -0,0 +1,296 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.conf;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.prop4j.solver.SatInstance;
+
+/**
+ * Feature graph that only stores existing edges.</br> For each feature, the edges are kept in a sorted int array, which packs the index of the target
+ * feature and the edge value into a single int (upper 24 bits: target index, lower 8 bits: edge). Thus, the memory consumption is linear in the number of
+ * edges instead of quadratic in the number of features as for {@link MatrixFeatureGraph}.</br> Edges of different features can be modified concurrently.
+ *
+ * @author FeatureIDE Team
+ */
+public class SparseFeatureGraph extends AFeatureGraph {
+
+	private static final long serialVersionUID = -2185296410862287354L;
+
+	private static final int EDGE_BITS = 8;
+	private static final int EDGE_MASK = 0xff;
+
+	/**
+	 * The maximal number of features.
+	 */
+	public static final int MAX_SIZE = 1 << (Integer.SIZE - EDGE_BITS - 1);
+
+	/**
+	 * Sorted edges of a feature.
+	 */
+	private static final class Neighbors implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private int[] entries;
+		private int size;
+
+		public Neighbors(int[] entries, int size) {
+			this.entries = entries;
+			this.size = size;
+		}
+
+		private int find(int to) {
+			int low = 0;
+			int high = size - 1;
+			while (low <= high) {
+				final int middle = (low + high) >>> 1;
+				final int middleTo = entries[middle] >>> EDGE_BITS;
+				if (middleTo < to) {
+					low = middle + 1;
+				} else if (middleTo > to) {
+					high = middle - 1;
+				} else {
+					return middle;
+				}
+			}
+			return -(low + 1);
+		}
+
+		public synchronized byte get(int to) {
+			final int position = find(to);
+			return position < 0 ? EDGE_NONE : (byte) (entries[position] & EDGE_MASK);
+		}
+
+		public synchronized int next(int to) {
+			final int position = find(to);
+			if (position >= 0) {
+				return to;
+			}
+			final int insertionPoint = -(position + 1);
+			return insertionPoint < size ? entries[insertionPoint] >>> EDGE_BITS : -1;
+		}
+
+		public synchronized boolean merge(int to, byte edgeType) {
+			final int position = find(to);
+			if (position >= 0) {
+				final byte oldValue = (byte) (entries[position] & EDGE_MASK);
+				final byte newValue = mergeEdge(oldValue, edgeType);
+				if (newValue == EDGE_NONE) {
+					System.arraycopy(entries, position + 1, entries, position, size - position - 1);
+					size--;
+				} else {
+					entries[position] = pack(to, newValue);
+				}
+				return oldValue != newValue;
+			} else {
+				final byte newValue = mergeEdge(EDGE_NONE, edgeType);
+				if (newValue == EDGE_NONE) {
+					return false;
+				}
+				final int insertionPoint = -(position + 1);
+				if (size == entries.length) {
+					entries = Arrays.copyOf(entries, Math.max(4, size + (size >> 1)));
+				}
+				System.arraycopy(entries, insertionPoint, entries, insertionPoint + 1, size - insertionPoint);
+				entries[insertionPoint] = pack(to, newValue);
+				size++;
+				return true;
+			}
+		}
+
+		public synchronized int[] toArray() {
+			return Arrays.copyOf(entries, size);
+		}
+
+	}
+
+	private Neighbors[] adjacency;
+
+	public SparseFeatureGraph(SatInstance satInstance, int[] index) {
+		super(satInstance, index);
+		if (size > MAX_SIZE) {
+			throw new IllegalArgumentException("Too many features (" + size + ")");
+		}
+		adjacency = new Neighbors[size];
+		for (int i = 0; i < size; i++) {
+			adjacency[i] = new Neighbors(new int[0], 0);
+		}
+	}
+
+	public SparseFeatureGraph() {
+		super();
+	}
+
+	/**
+	 * Packs the index of the target feature and the edge value into a single int.
+	 *
+	 * @param to the target feature
+	 * @param edge the edge value
+	 * @return the packed edge
+	 *
+	 * @see #create(int[], int[][])
+	 */
+	public static int pack(int to, byte edge) {
+		return (to << EDGE_BITS) | (edge & EDGE_MASK);
+	}
+
+	/**
+	 * Returns the index of the target feature of a packed edge.
+	 *
+	 * @param entry the packed edge
+	 * @return the target feature
+	 *
+	 * @see #getNeighbors(int)
+	 */
+	public static int getTarget(int entry) {
+		return entry >>> EDGE_BITS;
+	}
+
+	/**
+	 * Returns the value of a packed edge.
+	 *
+	 * @param entry the packed edge
+	 * @return the edge value
+	 *
+	 * @see #getNeighbors(int)
+	 */
+	public static byte getEdgeValue(int entry) {
+		return (byte) (entry & EDGE_MASK);
+	}
+
+	/**
+	 * Returns all edges of a feature sorted by the index of their target feature.
+	 *
+	 * @param fromIndex the feature
+	 * @return a copy of the packed edges (see {@link #getTarget(int)} and {@link #getEdgeValue(int)})
+	 */
+	public int[] getNeighbors(int fromIndex) {
+		return adjacency[fromIndex].toArray();
+	}
+
+	/**
+	 * Replaces all edges of a feature.
+	 *
+	 * @param fromIndex the feature
+	 * @param entries the packed edges sorted by the index of their target feature
+	 */
+	private void setNeighbors(int fromIndex, int[] entries) {
+		adjacency[fromIndex] = new Neighbors(entries, entries.length);
+	}
+
+	/**
+	 * Creates a graph from the packed edges of each feature.
+	 *
+	 * @param index the mapping of variables to features
+	 * @param neighbors the packed edges of each feature sorted by the index of their target feature
+	 * @return a new graph without a {@link SatInstance}
+	 */
+	public static SparseFeatureGraph create(int[] index, int[][] neighbors) {
+		final SparseFeatureGraph featureGraph = new SparseFeatureGraph(null, index);
+		if (neighbors.length != featureGraph.size) {
+			throw new IllegalArgumentException("Expected " + featureGraph.size + " features but found " + neighbors.length);
+		}
+		for (int i = 0; i < neighbors.length; i++) {
+			int lastTarget = -1;
+			for (final int entry : neighbors[i]) {
+				final int target = getTarget(entry);
+				if ((target <= lastTarget) || (target >= featureGraph.size) || (target == i)) {
+					throw new IllegalArgumentException("Invalid edge from " + i + " to " + target);
+				}
+				lastTarget = target;
+			}
+			featureGraph.setNeighbors(i, neighbors[i]);
+		}
+		return featureGraph;
+	}
+
+	public int getNumberOfEdges() {
+		int numberOfEdges = 0;
+		for (final Neighbors neighbors : adjacency) {
+			synchronized (neighbors) {
+				numberOfEdges += neighbors.size;
+			}
+		}
+		return numberOfEdges;
+	}
+
+	@Override
+	public void copyValues(IFeatureGraph otherGraph) {
+		super.copyValues(otherGraph);
+		adjacency = new Neighbors[size];
+		if (otherGraph instanceof SparseFeatureGraph) {
+			final SparseFeatureGraph sparseGraph = (SparseFeatureGraph) otherGraph;
+			for (int i = 0; i < size; i++) {
+				final int[] entries = sparseGraph.getNeighbors(i);
+				adjacency[i] = new Neighbors(entries, entries.length);
+			}
+		} else {
+			for (int i = 0; i < size; i++) {
+				int[] entries = new int[4];
+				int count = 0;
+				for (int j = otherGraph.getNextNeighbor(i, 0); j >= 0; j = otherGraph.getNextNeighbor(i, j + 1)) {
+					if (count == entries.length) {
+						entries = Arrays.copyOf(entries, count << 1);
+					}
+					entries[count++] = pack(j, otherGraph.getEdge(i, j));
+				}
+				adjacency[i] = new Neighbors(entries, count);
+			}
+		}
+	}
+
+	@Override
+	public boolean setEdge(int from, int to, byte edgeType) {
+		if (from == to) {
+			return false;
+		}
+		return adjacency[from].merge(to, edgeType);
+	}
+
+	@Override
+	public byte getEdge(int fromIndex, int toIndex) {
+		return adjacency[fromIndex].get(toIndex);
+	}
+
+	@Override
+	public byte getValue(int fromIndex, int toIndex, boolean fromSelected) {
+		final byte edge = adjacency[fromIndex].get(toIndex);
+		return (byte) (((fromSelected ? (edge >>> 4) : edge)) & 0x0000000f);
+	}
+
+	@Override
+	public byte getValueInternal(int fromIndex, int toIndex, boolean fromSelected) {
+		final int internalFrom = index[fromIndex];
+		final int internalTo = index[toIndex];
+		if ((internalFrom < 0) || (internalTo < 0)) {
+			return -1;
+		}
+		return getValue(internalFrom, internalTo, fromSelected);
+	}
+
+	@Override
+	public int getNextNeighbor(int fromIndex, int toIndex) {
+		return adjacency[fromIndex].next(toIndex);
+	}
+
+}
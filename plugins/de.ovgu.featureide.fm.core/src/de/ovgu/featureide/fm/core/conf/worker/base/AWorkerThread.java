@@ -58,7 +58,7 @@ public abstract class AWorkerThread<T> implements Runnable {
 	@Override
 	public final void run() {
 		if (beforeWork()) {
-			for (T object = masterThread.objects.poll(); object != null; object = masterThread.objects.poll()) {
+			for (T object = masterThread.objects.poll(); (object != null) && !masterThread.isStopped(); object = masterThread.objects.poll()) {
 				work(object);
 				masterThread.workMonitor.step();
 			}
@@ -23,13 +23,23 @@ package de.ovgu.featureide.fm.core.conf.worker.base;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.job.LongRunningExecutor;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
 import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
 import de.ovgu.featureide.fm.core.job.monitor.SyncMonitor;
 
+/**
+ * Distributes the objects of a worker to several workers, which are executed by the shared {@link LongRunningExecutor}.
+ *
+ * @author Sebastian Krieter
+ */
 final class MasterThread<T> {
 
 	final ConcurrentLinkedQueue<T> objects = new ConcurrentLinkedQueue<>();
@@ -37,10 +47,12 @@ final class MasterThread<T> {
 
 	private final AWorkerThread<T> factory;
 
-	private List<Thread> threads = Collections.emptyList();
+	private List<Future<?>> tasks = Collections.emptyList();
 	private List<AWorkerThread<T>> workers = Collections.emptyList();
 	private int initialized = 0;
 
+	private volatile boolean stopped = false;
+
 	MasterThread(AWorkerThread<T> factory, IMonitor workMonitor) {
 		this.factory = factory;
 		this.workMonitor = (workMonitor != null) ? new SyncMonitor(workMonitor) : new NullMonitor();
@@ -49,22 +61,12 @@ final class MasterThread<T> {
 	private void init(int numberOfThreads) {
 		if (numberOfThreads < 1) {
 			throw new IndexOutOfBoundsException("Number of threads must be greater than 0 (was " + numberOfThreads + ").");
-		} else if (initialized == numberOfThreads) {
-			threads.clear();
-			for (final AWorkerThread<T> worker : workers) {
-				threads.add(new Thread(worker));
-			}
-		} else {
-			threads = new ArrayList<>(numberOfThreads);
+		} else if (initialized != numberOfThreads) {
 			workers = new ArrayList<>(numberOfThreads);
-
 			workers.add(factory);
 			for (int i = 1; i < numberOfThreads; i++) {
 				workers.add(factory.newThread());
 			}
-			for (final AWorkerThread<T> worker : workers) {
-				threads.add(new Thread(worker));
-			}
 			initialized = numberOfThreads;
 		}
 	}
@@ -75,13 +77,25 @@ final class MasterThread<T> {
 
 	void start(int numberOfThreads) {
 		init(numberOfThreads);
+		stopped = false;
 
-		for (final Thread thread : threads) {
-			thread.start();
+		final List<Future<?>> currentTasks = new ArrayList<>(workers.size());
+		for (final AWorkerThread<T> worker : workers) {
+			currentTasks.add(LongRunningExecutor.submit(worker));
 		}
+		tasks = currentTasks;
 		try {
-			for (final Thread thread : threads) {
-				thread.join();
+			for (final Future<?> task : currentTasks) {
+				try {
+					task.get();
+				} catch (final CancellationException e) {
+					continue;
+				} catch (final ExecutionException e) {
+					stop();
+					if (!(e.getCause() instanceof MethodCancelException)) {
+						Logger.logError(e.getCause());
+					}
+				}
 			}
 		} catch (final InterruptedException e) {
 			Logger.logError(e);
@@ -89,10 +103,18 @@ final class MasterThread<T> {
 		}
 	}
 
-	@SuppressWarnings("deprecation")
+	boolean isStopped() {
+		return stopped;
+	}
+
+	/**
+	 * Stops all workers cooperatively. Remaining objects are discarded and each worker finishes after processing its current object.
+	 */
 	void stop() {
-		for (final Thread thread : threads) {
-			thread.stop();
+		stopped = true;
+		objects.clear();
+		for (final Future<?> task : tasks) {
+			task.cancel(false);
 		}
 	}
 
@@ -20,6 +20,8 @@
  */
 package de.ovgu.featureide.fm.core.configuration;
 
+import java.math.BigInteger;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -35,10 +37,14 @@ import org.prop4j.analyses.AbstractAnalysis;
 import org.prop4j.analyses.ConditionallyCoreDeadAnalysis;
 import org.prop4j.analyses.CountSolutionAnalysis;
 import org.prop4j.analyses.CoverAnalysis;
+import org.prop4j.analyses.EnumerateSolutionsAnalysis;
 import org.prop4j.analyses.GetSolutionAnalysis;
 import org.prop4j.analyses.RedundantAnalysis;
 import org.prop4j.analyses.ResolveAnalysis;
 import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.DDNNF;
+import org.prop4j.solver.DDNNFCompiler;
+import org.prop4j.solver.ISatSolver;
 import org.prop4j.solver.ISatSolver.SatResult;
 import org.prop4j.solver.SatInstance;
 import org.sat4j.specs.ContradictionException;
@@ -56,7 +62,13 @@ import de.ovgu.featureide.fm.core.filter.base.IFilter;
 import de.ovgu.featureide.fm.core.filter.base.InverseFilter;
 import de.ovgu.featureide.fm.core.filter.base.OrFilter;
 import de.ovgu.featureide.fm.core.functional.Functional;
+import de.ovgu.featureide.fm.core.functional.Functional.IConsumer;
+import de.ovgu.featureide.fm.core.io.DDNNFFormat;
+import de.ovgu.featureide.fm.core.io.FileSystem;
+import de.ovgu.featureide.fm.core.io.SolutionListWriter;
+import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
 import de.ovgu.featureide.fm.core.job.IRunner;
+import de.ovgu.featureide.fm.core.job.LongRunningExecutor;
 import de.ovgu.featureide.fm.core.job.LongRunningMethod;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
@@ -126,31 +138,47 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 				return false;
 			}
 
-			final BasicSolver solver;
-			try {
-				solver = new BasicSolver(rootNode);
-			} catch (final ContradictionException e) {
-				Logger.logError(e);
-				return false;
-			}
-
+			final ArrayList<Integer> literals = new ArrayList<>();
 			Iterable<SelectableFeature> features = getFeatures();
 			features = includeHiddenFeatures ? features : Functional.filter(features, visibleFilter);
 			features = includeUndefinedFeatures ? features : Functional.filter(features, selectedFilter);
 			for (final SelectableFeature feature : features) {
 				final int variable = rootNode.getVariable(feature.getFeature().getName());
-				solver.assignmentPush((feature.getSelection() == Selection.SELECTED) ? variable : -variable);
+				literals.add((feature.getSelection() == Selection.SELECTED) ? variable : -variable);
 			}
 
-			final SatResult satResult = solver.isSatisfiable();
-			switch (satResult) {
-			case FALSE:
-			case TIMEOUT:
-				return false;
-			case TRUE:
-				return true;
-			default:
-				throw new AssertionError(satResult);
+			final DDNNF compiledNode = compiledRootNode;
+			if (compiledNode != null) {
+				final int[] assumptions = new int[literals.size()];
+				for (int i = 0; i < assumptions.length; i++) {
+					assumptions[i] = literals.get(i);
+				}
+				return compiledNode.isSatisfiable(assumptions);
+			}
+
+			synchronized (incrementalSolver) {
+				final ISatSolver solver = incrementalSolver.getSolver();
+				if (solver == null) {
+					return false;
+				}
+				try {
+					for (final Integer literal : literals) {
+						solver.assignmentPush(literal);
+					}
+
+					final SatResult satResult = solver.isSatisfiable();
+					switch (satResult) {
+					case FALSE:
+					case TIMEOUT:
+						return false;
+					case TRUE:
+						return true;
+					default:
+						throw new AssertionError(satResult);
+					}
+				} finally {
+					solver.assignmentClear(0);
+				}
 			}
 		}
 	}
@@ -171,20 +199,33 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 				feature.setManual(Selection.UNDEFINED);
 			}
 
-			final int[] manualFeatures = LongRunningWrapper.runMethod(new ResolveAnalysis(rootNode, rootNode.convertToInt(oldManualSelected)));
-			for (final int feature : manualFeatures) {
-				configuration.getSelectablefeature((String) rootNode.getVariableObject(feature))
-						.setManual(feature > 0 ? Selection.SELECTED : Selection.UNSELECTED);
+			synchronized (incrementalSolver) {
+				final ISatSolver solver = incrementalSolver.getSolver();
+				if (solver == null) {
+					return null;
+				}
+				final int[] manualFeatures = LongRunningWrapper.runMethod(new ResolveAnalysis(solver, rootNode.convertToInt(oldManualSelected)));
+				if (manualFeatures == null) {
+					return null;
+				}
+				for (final int feature : manualFeatures) {
+					configuration.getSelectablefeature((String) rootNode.getVariableObject(feature))
+							.setManual(feature > 0 ? Selection.SELECTED : Selection.UNSELECTED);
+				}
+				setToAutomatic(manualFeatures, new ConditionallyCoreDeadAnalysis(solver));
+				setToAutomatic(manualFeatures, new RedundantAnalysis(solver));
 			}
-			setToAutomatic(manualFeatures, new ConditionallyCoreDeadAnalysis(rootNode));
-			setToAutomatic(manualFeatures, new RedundantAnalysis(rootNode));
 
 			return null;
 		}
 
 		private void setToAutomatic(final int[] manualFeatures, final AbstractAnalysis<int[]> analysis) {
 			analysis.setAssumptions(manualFeatures);
-			for (final int feature : LongRunningWrapper.runMethod(analysis)) {
+			final int[] result = LongRunningWrapper.runMethod(analysis);
+			if (result == null) {
+				return;
+			}
+			for (final int feature : result) {
 				configuration.setAutomatic(configuration.getSelectablefeature((String) rootNode.getVariableObject(feature)),
 						feature > 0 ? Selection.SELECTED : Selection.UNSELECTED);
 			}
@@ -215,6 +256,12 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 				definedFeatures.add(getLiteral(feature));
 			}
 
+			final DDNNF compiledNode = compiledRootNode;
+			if (includeHiddenFeatures && (compiledNode != null)) {
+				final BigInteger count = compiledNode.count(rootNode.convertToInt(definedFeatures));
+				return (count.bitLength() < Long.SIZE) ? count.longValue() : Long.MAX_VALUE;
+			}
+
 			final SatInstance node = includeHiddenFeatures ? rootNode : rootNodeWithoutHidden;
 			final CountSolutionAnalysis analysis = new CountSolutionAnalysis(node, timeout);
 			analysis.setAssumptions(node.convertToInt(definedFeatures));
@@ -339,6 +386,75 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		}
 	}
 
+	/**
+	 * Passes all solutions that agree with the current selection to a sink without storing them.
+	 */
+	public class EnumerateSolutionsMethod implements LongRunningMethod<EnumerateSolutionsAnalysis.Result> {
+
+		private final long max;
+		private final IConsumer<int[]> sink;
+
+		public EnumerateSolutionsMethod(long max, IConsumer<int[]> sink) {
+			this.max = max;
+			this.sink = sink;
+		}
+
+		@Override
+		public EnumerateSolutionsAnalysis.Result execute(IMonitor monitor) throws Exception {
+			if (rootNode == null) {
+				return new EnumerateSolutionsAnalysis.Result(0, false);
+			}
+
+			final List<Literal> definedFeatures = new ArrayList<>();
+			for (final SelectableFeature feature : getFeatures(selectedFilter)) {
+				definedFeatures.add(getLiteral(feature));
+			}
+
+			// copy the shared solver, such that it is not blocked during the enumeration
+			final ISatSolver solver;
+			synchronized (incrementalSolver) {
+				final ISatSolver sharedSolver = incrementalSolver.getSolver();
+				if (sharedSolver == null) {
+					return new EnumerateSolutionsAnalysis.Result(0, false);
+				}
+				solver = sharedSolver.clone();
+			}
+			final EnumerateSolutionsAnalysis analysis = new EnumerateSolutionsAnalysis(solver, sink);
+			analysis.setCopySolver(false);
+			analysis.setMaxSolutions(max);
+			analysis.setAssumptions(rootNode.convertToInt(definedFeatures));
+			return analysis.execute(monitor);
+		}
+	}
+
+	/**
+	 * Writes all solutions that agree with the current selection to a file (see {@link SolutionListWriter}).
+	 */
+	public class WriteSolutionsMethod implements LongRunningMethod<EnumerateSolutionsAnalysis.Result> {
+
+		private final long max;
+		private final Path path;
+
+		public WriteSolutionsMethod(long max, Path path) {
+			this.max = max;
+			this.path = path;
+		}
+
+		@Override
+		public EnumerateSolutionsAnalysis.Result execute(IMonitor monitor) throws Exception {
+			if (rootNode == null) {
+				return new EnumerateSolutionsAnalysis.Result(0, false);
+			}
+			final List<String> variableNames = new ArrayList<>(rootNode.getNumberOfVariables());
+			for (int i = 1; i <= rootNode.getNumberOfVariables(); i++) {
+				variableNames.add(String.valueOf(rootNode.getVariableObject(i)));
+			}
+			try (final SolutionListWriter writer = new SolutionListWriter(path, variableNames)) {
+				return new EnumerateSolutionsMethod(max, writer).execute(monitor);
+			}
+		}
+	}
+
 	/**
 	 * Creates solutions to cover the given features.
 	 *
@@ -509,6 +625,8 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 
 			final IRunner<Node> buildThread1 = LongRunningWrapper.getThread(nodeCreator1);
 			final IRunner<Node> buildThread2 = LongRunningWrapper.getThread(nodeCreator2);
+			buildThread1.setPriority(LongRunningExecutor.PRIORITY_INTERACTIVE);
+			buildThread2.setPriority(LongRunningExecutor.PRIORITY_INTERACTIVE);
 
 			buildThread1.schedule();
 			buildThread2.schedule();
@@ -523,13 +641,74 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			final Iterable<IFeature> features = featureModel.getFeatures();
 			rootNodeWithoutHidden =
 				new SatInstance(buildThread1.getResults(), Functional.mapToList(features, new InverseFilter<>(filter1), FeatureUtils.GET_FEATURE_NAME));
-			rootNode = new SatInstance(buildThread2.getResults(),
+			final SatInstance newRootNode = new SatInstance(buildThread2.getResults(),
 					Functional.mapToList(features, filter2 == null ? null : new InverseFilter<>(filter2), FeatureUtils.GET_FEATURE_NAME));
+			incrementalSolver = new IncrementalSolver(newRootNode);
+			compiledRootNode = null;
+			rootNode = newRootNode;
 			return null;
 		}
 
 	}
 
+	/**
+	 * Compiles the feature model into a {@link DDNNF}. Afterwards, validity checks, propagation, and counting are answered by the compiled formula instead of a
+	 * satisfiability solver.
+	 */
+	public class CompileMethod implements LongRunningMethod<DDNNF> {
+
+		private final Path cacheFile;
+		private final long timeout;
+
+		/**
+		 * @param cacheFile a file to load the compiled formula from and to store it to (may be {@code null})
+		 * @param timeout the maximal time for the compilation in milliseconds (0 for no timeout)
+		 */
+		public CompileMethod(Path cacheFile, long timeout) {
+			this.cacheFile = cacheFile;
+			this.timeout = timeout;
+		}
+
+		/**
+		 * @return the compiled formula or {@code null} if the feature model is not loaded or the compilation exceeded the timeout
+		 */
+		@Override
+		public DDNNF execute(IMonitor monitor) throws Exception {
+			final SatInstance satInstance = rootNode;
+			if (satInstance == null) {
+				return null;
+			}
+			DDNNF compiledNode = compiledRootNode;
+			if (compiledNode == null) {
+				final String checksum = DDNNFCompiler.computeChecksum(satInstance);
+				if ((cacheFile != null) && FileSystem.exists(cacheFile)) {
+					final DDNNF cachedNode = new DDNNF();
+					if (!SimpleFileHandler.load(cacheFile, cachedNode, new DDNNFFormat()).containsError() && cachedNode.getChecksum().equals(checksum)
+						&& (cachedNode.getNumberOfVariables() == satInstance.getNumberOfVariables())) {
+						compiledNode = cachedNode;
+					}
+				}
+				if (compiledNode == null) {
+					final DDNNFCompiler compiler = new DDNNFCompiler(satInstance);
+					compiler.setTimeout(timeout);
+					compiledNode = compiler.execute(monitor);
+					if (compiledNode == null) {
+						return null;
+					}
+					if (cacheFile != null) {
+						SimpleFileHandler.save(cacheFile, compiledNode, new DDNNFFormat());
+					}
+				}
+				// the feature model may have been reloaded in the meantime
+				if (rootNode == satInstance) {
+					compiledRootNode = compiledNode;
+				}
+			}
+			return compiledNode;
+		}
+
+	}
+
 	public class UpdateMethod implements LongRunningMethod<Void> {
 
 		private final boolean redundantManual;
@@ -568,10 +747,24 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			workMonitor.setRemainingWork(manualLiterals.size() + 1);
 			Collections.reverse(manualLiterals);
 
-			final ConditionallyCoreDeadAnalysis analysis = new ConditionallyCoreDeadAnalysis(rootNode);
 			final int[] intLiterals = rootNode.convertToInt(manualLiterals);
-			analysis.setAssumptions(intLiterals);
-			final int[] impliedFeatures = LongRunningWrapper.runMethod(analysis, workMonitor.subTask(1));
+			final int[] impliedFeatures;
+			final DDNNF compiledNode = compiledRootNode;
+			if (compiledNode != null) {
+				impliedFeatures = compiledNode.getImpliedLiterals(intLiterals);
+				workMonitor.worked();
+			} else {
+				synchronized (incrementalSolver) {
+					final ISatSolver solver = incrementalSolver.getSolver();
+					if (solver != null) {
+						final ConditionallyCoreDeadAnalysis analysis = new ConditionallyCoreDeadAnalysis(solver);
+						analysis.setAssumptions(intLiterals);
+						impliedFeatures = LongRunningWrapper.runMethod(analysis, workMonitor.subTask(1));
+					} else {
+						impliedFeatures = null;
+					}
+				}
+			}
 
 			// if there is a contradiction within the configuration
 			if (impliedFeatures == null) {
@@ -592,48 +785,105 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			}
 
 			if (redundantManual) {
-				computeRedundantManual(workMonitor, intLiterals);
+				if (compiledNode != null) {
+					computeRedundantManualCompiled(workMonitor, compiledNode, intLiterals);
+				} else {
+					computeRedundantManual(workMonitor, intLiterals);
+				}
 			}
 			return null;
 		}
 
-		private void computeRedundantManual(IMonitor workMonitor, final int[] intLiterals) {
-			final BasicSolver solver;
-			try {
-				solver = new BasicSolver(rootNode);
-			} catch (final ContradictionException e) {
-				Logger.logError(e);
-				return;
+		private void computeRedundantManualCompiled(IMonitor workMonitor, DDNNF compiledNode, final int[] intLiterals) {
+			final int[] assumptions = Arrays.copyOf(intLiterals, intLiterals.length);
+			for (int i = 0; i < assumptions.length; i++) {
+				final int oLiteral = assumptions[i];
+				final SelectableFeature feature = configuration.getSelectablefeature((String) rootNode.getVariableObject(oLiteral));
+				assumptions[i] = -oLiteral;
+				if (!compiledNode.isSatisfiable(assumptions)) {
+					configuration.setAutomatic(feature, oLiteral > 0 ? Selection.SELECTED : Selection.UNSELECTED);
+					assumptions[i] = 0;
+				} else {
+					assumptions[i] = oLiteral;
+				}
+				workMonitor.invoke(feature);
+				workMonitor.worked();
 			}
+		}
+
+		private void computeRedundantManual(IMonitor workMonitor, final int[] intLiterals) {
+			synchronized (incrementalSolver) {
+				final ISatSolver solver = incrementalSolver.getSolver();
+				if (solver == null) {
+					return;
+				}
 
-			for (final int feature : intLiterals) {
-				solver.assignmentPush(feature);
+				for (final int feature : intLiterals) {
+					solver.assignmentPush(feature);
+				}
+
+				try {
+					int literalCount = intLiterals.length;
+					final IVecInt assignment = solver.getAssignment();
+					for (int i = 0; i < assignment.size(); i++) {
+						final int oLiteral = intLiterals[i];
+						final SelectableFeature feature = configuration.getSelectablefeature((String) rootNode.getVariableObject(oLiteral));
+						assignment.set(i, -oLiteral);
+						final SatResult satResult = solver.isSatisfiable();
+						switch (satResult) {
+						case FALSE:
+							configuration.setAutomatic(feature, oLiteral > 0 ? Selection.SELECTED : Selection.UNSELECTED);
+							workMonitor.invoke(feature);
+							intLiterals[i] = intLiterals[--literalCount];
+							assignment.delete(i--);
+							break;
+						case TIMEOUT:
+						case TRUE:
+							assignment.set(i, oLiteral);
+							workMonitor.invoke(feature);
+							break;
+						default:
+							throw new AssertionError(satResult);
+						}
+						workMonitor.worked();
+					}
+				} finally {
+					solver.assignmentClear(0);
+				}
 			}
+		}
 
-			int literalCount = intLiterals.length;
-			final IVecInt assignment = solver.getAssignment();
-			for (int i = 0; i < assignment.size(); i++) {
-				final int oLiteral = intLiterals[i];
-				final SelectableFeature feature = configuration.getSelectablefeature((String) rootNode.getVariableObject(oLiteral));
-				assignment.set(i, -oLiteral);
-				final SatResult satResult = solver.isSatisfiable();
-				switch (satResult) {
-				case FALSE:
-					configuration.setAutomatic(feature, oLiteral > 0 ? Selection.SELECTED : Selection.UNSELECTED);
-					workMonitor.invoke(feature);
-					intLiterals[i] = intLiterals[--literalCount];
-					assignment.delete(i--);
-					break;
-				case TIMEOUT:
-				case TRUE:
-					assignment.set(i, oLiteral);
-					workMonitor.invoke(feature);
-					break;
-				default:
-					throw new AssertionError(satResult);
+	}
+
+	/**
+	 * A solver for the CNF of the feature model that is created once and reused by all calls of a propagator and its clones. Selections are only passed as
+	 * assumptions, so the learned clauses stay valid as long as the feature model does not change.</br> All access must be synchronized on this object and the
+	 * assignment must be cleared afterwards.
+	 */
+	private static final class IncrementalSolver {
+
+		private final SatInstance satInstance;
+
+		private ISatSolver solver = null;
+		private boolean contradiction = false;
+
+		public IncrementalSolver(SatInstance satInstance) {
+			this.satInstance = satInstance;
+		}
+
+		/**
+		 * @return the solver or {@code null} if the feature model is void
+		 */
+		public ISatSolver getSolver() {
+			if ((solver == null) && !contradiction) {
+				try {
+					solver = new BasicSolver(satInstance);
+				} catch (final ContradictionException e) {
+					Logger.logError(e);
+					contradiction = true;
 				}
-				workMonitor.worked();
 			}
+			return solver;
 		}
 
 	}
@@ -642,6 +892,10 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 
 	private SatInstance rootNode = null, rootNodeWithoutHidden = null;
 
+	private IncrementalSolver incrementalSolver = null;
+
+	private volatile DDNNF compiledRootNode = null;
+
 	/**
 	 * This method creates a clone of the given {@link ConfigurationPropagator}
 	 *
@@ -660,6 +914,8 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		if (propagator.isLoaded()) {
 			rootNode = propagator.rootNode;
 			rootNodeWithoutHidden = propagator.rootNodeWithoutHidden;
+			compiledRootNode = propagator.compiledRootNode;
+			incrementalSolver = propagator.incrementalSolver;
 		}
 	}
 
@@ -693,6 +949,26 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		return new GetSolutionsMethod(max);
 	}
 
+	/**
+	 * Enumerates solutions with bounded memory. Each solution contains one literal per variable of the feature model.
+	 *
+	 * @param max the maximum number of solutions or a negative value for all solutions
+	 * @param sink receives each solution as soon as it is found
+	 */
+	public EnumerateSolutionsMethod enumerateSolutions(long max, IConsumer<int[]> sink) {
+		return new EnumerateSolutionsMethod(max, sink);
+	}
+
+	/**
+	 * Enumerates solutions and writes them to a file in a compact binary format.
+	 *
+	 * @param max the maximum number of solutions or a negative value for all solutions
+	 * @param path the file to write to
+	 */
+	public WriteSolutionsMethod writeSolutions(long max, Path path) {
+		return new WriteSolutionsMethod(max, path);
+	}
+
 	@Override
 	public boolean isLoaded() {
 		return rootNode != null;
@@ -726,6 +1002,30 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		return new LoadMethod();
 	}
 
+	/**
+	 * Compiles the loaded feature model into a {@link DDNNF} that is used by all subsequent validity checks, updates, and counts (including hidden features).
+	 *
+	 * @param cacheFile a file next to the feature model that stores the compiled formula between sessions (may be {@code null})
+	 */
+	public CompileMethod compile(Path cacheFile) {
+		return new CompileMethod(cacheFile, 0);
+	}
+
+	/**
+	 * Compiles the loaded feature model into a {@link DDNNF}, unless the compilation takes longer than the given timeout. In this case, the satisfiability
+	 * solver is used further on.
+	 *
+	 * @param cacheFile a file next to the feature model that stores the compiled formula between sessions (may be {@code null})
+	 * @param timeout the maximal time for the compilation in milliseconds
+	 */
+	public CompileMethod compile(Path cacheFile, long timeout) {
+		return new CompileMethod(cacheFile, timeout);
+	}
+
+	public boolean isCompiled() {
+		return compiledRootNode != null;
+	}
+
 	/**
 	 * Counts the number of possible solutions.
 	 *
@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
@@ -33,6 +34,9 @@ import org.prop4j.Literal;
 import org.prop4j.Node;
 import org.prop4j.Not;
 import org.prop4j.Or;
+import org.prop4j.TseitinTransformer;
+import org.prop4j.solver.ClauseList;
+import org.prop4j.solver.SatInstance;
 
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IConstraint;
@@ -103,6 +107,15 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 
 	private boolean optionalRoot = false;
 
+	/**
+	 * The maximum number of clauses the distributive transformation may create for a single constraint. Larger constraints are transformed by the
+	 * {@link TseitinTransformer Tseitin transformation}, which introduces auxiliary variables.
+	 */
+	private int maxNumberOfClauses = TseitinTransformer.DEFAULT_MAX_NUMBER_OF_CLAUSES;
+
+	/** Shares auxiliary variables between the constraints of one formula. */
+	private TseitinTransformer cnfTransformer = null;
+
 	private IFeatureModel featureModel = null;
 
 	private Collection<String> excludedFeatureNames = null;
@@ -173,6 +186,8 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 	 * @return the transformed node
 	 */
 	public Node createConstraintNode(IConstraint constraint, boolean positive) {
+		// the clauses of a single constraint define all of their auxiliary variables, so they can be added and removed independently
+		cnfTransformer = null;
 		final List<Node> clauses = createConstraintNodes(constraint, new LinkedList<Node>(), positive);
 		if ((cnfType != CNFType.Regular) && (clauses.size() == 1)) {
 			return clauses.get(0);
@@ -209,7 +224,7 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 			if (!positive) {
 				clause = new Not(clause);
 			}
-			final Node cnfNode = clause.toCNF();
+			final Node cnfNode = toCNF(clause);
 			if (cnfNode instanceof And) {
 				for (final Node andChild : cnfNode.getChildren()) {
 					clause = compact || (andChild instanceof Or) ? andChild : new Or(andChild);
@@ -235,6 +250,7 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 	}
 
 	public Node createNodes(IMonitor monitor) {
+		cnfTransformer = null;
 		if (featureModel == null) {
 			final Or emptyNode = includeBooleanValues ? new Or(new Literal(NodeCreator.varTrue), new Literal(NodeCreator.varFalse, false)) : new Or();
 			switch (cnfType) {
@@ -254,6 +270,155 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 		return newFormula;
 	}
 
+	public SatInstance createSatInstance() {
+		return createSatInstance(new NullMonitor());
+	}
+
+	/**
+	 * Creates the CNF of the feature model as {@link SatInstance}. The clauses are written directly into a {@link ClauseList}, so no {@link Node nodes} are
+	 * created for the feature tree. The variables are the features in preorder, followed by variables that only appear in constraints and, if
+	 * {@link #includeBooleanValues} is set, the literals <b>True</b> and <b>False</b>.</br> Falls back to {@link #createNodes(IMonitor)} if features are
+	 * excluded, if the trace model is recorded, or if no CNF is requested.
+	 *
+	 * @param monitor the monitor
+	 * @return the instance; its formula is created on demand by {@link SatInstance#getCnf()}
+	 */
+	public SatInstance createSatInstance(IMonitor monitor) {
+		final List<Object> variables = new ArrayList<>();
+		final HashMap<Object, Integer> variableIndexes = new HashMap<>();
+		if (featureModel != null) {
+			for (final String featureName : FeatureUtils.getFeatureNamesPreorder(featureModel)) {
+				if ((excludedFeatureNames == null) || !excludedFeatureNames.contains(featureName)) {
+					getVariableIndex(useOldNames ? featureModel.getRenamingsManager().getOldName(featureName) : featureName, variables, variableIndexes);
+				}
+			}
+		}
+
+		if ((featureModel == null) || (cnfType == CNFType.None) || ((excludedFeatureNames != null) && !excludedFeatureNames.isEmpty())
+			|| isRecordingTraceModel()) {
+			final Node cnf = createNodes(monitor);
+			if (includeBooleanValues) {
+				getVariableIndex(NodeCreator.varTrue, variables, variableIndexes);
+				getVariableIndex(NodeCreator.varFalse, variables, variableIndexes);
+			}
+			return new SatInstance(cnf, variables);
+		}
+
+		cnfTransformer = null;
+		monitor.setRemainingWork(2);
+		monitor.setTaskName("Creating Formula");
+		final int numberOfFeatures = variables.size();
+		final ClauseList clauses = new ClauseList(numberOfFeatures << 1, numberOfFeatures << 2);
+		if ((modelType == ModelType.All) || (modelType == ModelType.OnlyStructure)) {
+			createStructuralClauses(clauses, variables, variableIndexes);
+		}
+		monitor.step();
+		if ((modelType == ModelType.All) || (modelType == ModelType.OnlyConstraints)) {
+			for (final IConstraint constraint : featureModel.getConstraints()) {
+				final Node cnfNode = toCNF(constraint.getNode());
+				if (cnfNode instanceof And) {
+					for (final Node andChild : cnfNode.getChildren()) {
+						addClause(andChild, clauses, variables, variableIndexes);
+					}
+				} else {
+					addClause(cnfNode, clauses, variables, variableIndexes);
+				}
+			}
+		}
+		if (includeBooleanValues) {
+			clauses.add(getVariableIndex(NodeCreator.varTrue, variables, variableIndexes));
+			clauses.add(-getVariableIndex(NodeCreator.varFalse, variables, variableIndexes));
+		}
+		monitor.step();
+
+		return new SatInstance(clauses, variables);
+	}
+
+	private static int getVariableIndex(Object variable, List<Object> variables, HashMap<Object, Integer> variableIndexes) {
+		final Integer index = variableIndexes.get(variable);
+		if (index != null) {
+			return index;
+		}
+		variables.add(variable);
+		variableIndexes.put(variable, variables.size());
+		return variables.size();
+	}
+
+	private static void addClause(Node clause, ClauseList clauses, List<Object> variables, HashMap<Object, Integer> variableIndexes) {
+		if (clause instanceof Literal) {
+			final Literal literal = (Literal) clause;
+			final int index = getVariableIndex(literal.var, variables, variableIndexes);
+			clauses.addLiteral(literal.positive ? index : -index);
+		} else {
+			for (final Node child : clause.getChildren()) {
+				final Literal literal = (Literal) child;
+				final int index = getVariableIndex(literal.var, variables, variableIndexes);
+				clauses.addLiteral(literal.positive ? index : -index);
+			}
+		}
+		clauses.endClause();
+	}
+
+	/**
+	 * Creates the same clauses as {@link #createStructuralNodes()} in the same order.
+	 */
+	private void createStructuralClauses(ClauseList clauses, List<Object> variables, HashMap<Object, Integer> variableIndexes) {
+		final IFeature root = FeatureUtils.getRoot(featureModel);
+		if (root == null) {
+			return;
+		}
+		if (!optionalRoot) {
+			clauses.add(getVariableIndex(getVariable(root), variables, variableIndexes));
+		}
+
+		for (final IFeature feature : featureModel.getFeatures()) {
+			final IFeatureStructure structure = feature.getStructure();
+			if (!structure.hasChildren()) {
+				continue;
+			}
+			final int parent = getVariableIndex(getVariable(feature), variables, variableIndexes);
+			final List<IFeatureStructure> children = structure.getChildren();
+			final int[] childIndexes = new int[children.size()];
+			int i = 0;
+			for (final IFeatureStructure child : children) {
+				final int childIndex = getVariableIndex(getVariable(child.getFeature()), variables, variableIndexes);
+				childIndexes[i++] = childIndex;
+				clauses.add(parent, -childIndex);
+			}
+
+			if (structure.isAnd()) {
+				i = 0;
+				for (final IFeatureStructure child : children) {
+					if (child.isMandatory()) {
+						clauses.add(childIndexes[i], -parent);
+					}
+					i++;
+				}
+			} else if (structure.isOr() || structure.isAlternative()) {
+				for (final int childIndex : childIndexes) {
+					clauses.addLiteral(childIndex);
+				}
+				clauses.addLiteral(-parent);
+				clauses.endClause();
+
+				if (!structure.isOr()) {
+					for (int j = 0; j < childIndexes.length; j++) {
+						for (int k = j + 1; k < childIndexes.length; k++) {
+							clauses.add(-childIndexes[j], -childIndexes[k]);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private Node toCNF(Node node) {
+		if (cnfTransformer == null) {
+			cnfTransformer = new TseitinTransformer(maxNumberOfClauses);
+		}
+		return cnfTransformer.toCNF(node);
+	}
+
 	private Node[] createFormula(IMonitor monitor) {
 		monitor.setTaskName("Creating Formula");
 		monitor.setRemainingWork(2);
@@ -488,6 +653,24 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 		this.modelType = modelType;
 	}
 
+	/**
+	 * {@link #maxNumberOfClauses}
+	 *
+	 * @return the currently set value
+	 */
+	public int getMaxNumberOfClauses() {
+		return maxNumberOfClauses;
+	}
+
+	/**
+	 * {@link #maxNumberOfClauses}
+	 *
+	 * @param maxNumberOfClauses the value to set; 0 to always use the Tseitin transformation; {@link Integer#MAX_VALUE} to never use it
+	 */
+	public void setMaxNumberOfClauses(int maxNumberOfClauses) {
+		this.maxNumberOfClauses = maxNumberOfClauses;
+	}
+
 	public boolean optionalRoot() {
 		return optionalRoot;
 	}
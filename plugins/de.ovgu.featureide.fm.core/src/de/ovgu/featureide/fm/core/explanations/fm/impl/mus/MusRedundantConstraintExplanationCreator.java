@@ -20,7 +20,10 @@
  */
 package de.ovgu.featureide.fm.core.explanations.fm.impl.mus;
 
+import org.prop4j.And;
+import org.prop4j.Literal;
 import org.prop4j.Node;
+import org.prop4j.Or;
 import org.prop4j.explain.solvers.MusExtractor;
 import org.prop4j.explain.solvers.SatSolverFactory;
 
@@ -32,7 +35,11 @@ import de.ovgu.featureide.fm.core.explanations.fm.RedundantConstraintExplanation
 import de.ovgu.featureide.fm.core.explanations.fm.RedundantConstraintExplanationCreator;
 
 /**
- * Implementation of {@link RedundantConstraintExplanationCreator} using a {@link MusExtractor MUS extractor}.
+ * <p> Implementation of {@link RedundantConstraintExplanationCreator} using a {@link MusExtractor MUS extractor}. </p>
+ *
+ * <p> All constraints are added to the oracle only once. Each of their clauses is guarded by a selector variable, which is the constraint itself. The
+ * selectors are assumed to be true by default. When explaining a constraint, its selector is assumed to be false instead, which disables its clauses without
+ * removing them. Thus, the same incremental oracle is reused for all redundant constraints of the feature model. </p>
  *
  * @author Timo G&uuml;nther
  */
@@ -61,8 +68,7 @@ public class MusRedundantConstraintExplanationCreator extends MusFeatureModelExp
 	/**
 	 * {@inheritDoc}
 	 *
-	 * <p> Does not include any of the constraints. The constraints are only added later during explaining. This is faster than creating the complete CNF and
-	 * repeatedly removing the redundant constraints from it. </p>
+	 * <p> Does not include any of the constraints. The constraints are added separately with their selectors when creating the oracle. </p>
 	 */
 	@Override
 	protected AdvancedNodeCreator createNodeCreator() {
@@ -72,16 +78,37 @@ public class MusRedundantConstraintExplanationCreator extends MusFeatureModelExp
 	}
 
 	/**
-	 * Adds the given constraint to the oracle.
+	 * {@inheritDoc}
+	 *
+	 * <p> Adds each constraint guarded by its selector and assumes all selectors to be true. </p>
+	 */
+	@Override
+	protected MusExtractor createOracle() {
+		final MusExtractor oracle = super.createOracle();
+		for (final IConstraint constraint : getFeatureModel().getConstraints()) {
+			oracle.addFormula(createSelectedConstraintNode(constraint));
+			oracle.addAssumption(constraint, true);
+		}
+		return oracle;
+	}
+
+	/**
+	 * Returns the clauses of the given constraint, each extended by the negated selector of the constraint.
 	 *
-	 * @param constraint constraint to add
-	 * @param negated whether the constraint should be negated before being added
-	 * @return amount of clauses added
+	 * @param constraint constraint to transform
+	 * @return the guarded clauses
 	 */
-	private int addConstraint(IConstraint constraint, boolean negated) {
-		final AdvancedNodeCreator nc = getNodeCreator();
-		final Node constraintNode = nc.createConstraintNode(constraint, negated);
-		return getOracle().addFormula(constraintNode);
+	private Node createSelectedConstraintNode(IConstraint constraint) {
+		final Node[] clauses = getNodeCreator().createConstraintNode(constraint, true).getChildren();
+		final Node[] selectedClauses = new Node[clauses.length];
+		for (int i = 0; i < clauses.length; i++) {
+			final Node[] literals = clauses[i].getChildren();
+			final Node[] selectedLiterals = new Node[literals.length + 1];
+			System.arraycopy(literals, 0, selectedLiterals, 0, literals.length);
+			selectedLiterals[literals.length] = new Literal(constraint, false);
+			selectedClauses[i] = new Or(selectedLiterals);
+		}
+		return new And(selectedClauses);
 	}
 
 	@Override
@@ -89,25 +116,19 @@ public class MusRedundantConstraintExplanationCreator extends MusFeatureModelExp
 		final RedundantConstraintExplanation explanation;
 		final MusExtractor oracle = getOracle();
 		oracle.push();
-		int constraintClauseCount = 0;
+		redundantConstraintClauseCount = 0;
 		try {
-			// Add each constraint but the redundant one.
-			for (final IConstraint constraint : getFeatureModel().getConstraints()) {
-				if (constraint == getSubject()) {
-					continue;
-				}
-				constraintClauseCount += addConstraint(constraint, true);
-			}
+			// Disable the redundant constraint.
+			oracle.addAssumption(getSubject(), false);
 
 			// Add the negated redundant constraint.
-			redundantConstraintClauseCount = addConstraint(getSubject(), false);
-			constraintClauseCount += redundantConstraintClauseCount;
+			redundantConstraintClauseCount = oracle.addFormula(getNodeCreator().createConstraintNode(getSubject(), false));
 
 			// Get the explanation.
 			explanation = getExplanation(oracle.getAllMinimalUnsatisfiableSubsetIndexes());
 		} finally {
 			oracle.pop();
-			getTraceModel().removeTraces(constraintClauseCount);
+			getTraceModel().removeTraces(redundantConstraintClauseCount);
 		}
 		return explanation;
 	}
@@ -0,0 +1,192 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io;
+
+import java.util.regex.Pattern;
+
+import org.prop4j.solver.DDNNF;
+
+import de.ovgu.featureide.fm.core.PluginID;
+
+/**
+ * Reads / Writes a {@link DDNNF} in the NNF format of the c2d compiler. The checksum of the compiled CNF is stored in a comment line.
+ *
+ * @author FeatureIDE Team
+ */
+public class DDNNFFormat extends APersistentFormat<DDNNF> {
+
+	public static final String ID = PluginID.PLUGIN_ID + ".format.nnf." + DDNNFFormat.class.getSimpleName();
+
+	private static final String CHECKSUM_PREFIX = "c checksum ";
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+	@Override
+	public ProblemList read(DDNNF object, CharSequence source) {
+		final ProblemList problems = new ProblemList();
+		int lineNumber = 0;
+		try {
+			String checksum = "";
+			int numberOfNodes = -1, numberOfVariables = 0, nodeIndex = 0;
+			int[] types = null, values = null;
+			int[][] children = null;
+			for (final String line : source.toString().split("\\r?\\n")) {
+				lineNumber++;
+				final String trimmedLine = line.trim();
+				if (trimmedLine.isEmpty()) {
+					continue;
+				}
+				if (trimmedLine.startsWith(CHECKSUM_PREFIX)) {
+					checksum = trimmedLine.substring(CHECKSUM_PREFIX.length()).trim();
+					continue;
+				}
+				final String[] tokens = WHITESPACE.split(trimmedLine);
+				switch (tokens[0]) {
+				case "c":
+					break;
+				case "nnf":
+					numberOfNodes = Integer.parseInt(tokens[1]);
+					numberOfVariables = Integer.parseInt(tokens[3]);
+					types = new int[numberOfNodes];
+					values = new int[numberOfNodes];
+					children = new int[numberOfNodes][];
+					break;
+				case "L":
+					checkNode(nodeIndex, numberOfNodes);
+					types[nodeIndex] = DDNNF.LITERAL;
+					values[nodeIndex] = Integer.parseInt(tokens[1]);
+					children[nodeIndex++] = new int[0];
+					break;
+				case "A":
+					checkNode(nodeIndex, numberOfNodes);
+					types[nodeIndex] = DDNNF.AND;
+					children[nodeIndex++] = parseChildren(tokens, 1);
+					break;
+				case "O":
+					checkNode(nodeIndex, numberOfNodes);
+					types[nodeIndex] = DDNNF.OR;
+					values[nodeIndex] = Integer.parseInt(tokens[1]);
+					children[nodeIndex++] = parseChildren(tokens, 2);
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown node type " + tokens[0]);
+				}
+			}
+			if (nodeIndex != numberOfNodes) {
+				throw new IllegalArgumentException("Expected " + numberOfNodes + " nodes but found " + nodeIndex);
+			}
+			object.copyValues(new DDNNF(numberOfVariables, checksum, types, values, children));
+		} catch (final RuntimeException e) {
+			problems.add(new Problem(e, lineNumber));
+		}
+		return problems;
+	}
+
+	private static void checkNode(int nodeIndex, int numberOfNodes) {
+		if (numberOfNodes < 0) {
+			throw new IllegalArgumentException("Missing header");
+		}
+		if (nodeIndex >= numberOfNodes) {
+			throw new IllegalArgumentException("Too many nodes");
+		}
+	}
+
+	private static int[] parseChildren(String[] tokens, int countIndex) {
+		final int[] nodeChildren = new int[Integer.parseInt(tokens[countIndex])];
+		for (int i = 0; i < nodeChildren.length; i++) {
+			nodeChildren[i] = Integer.parseInt(tokens[countIndex + 1 + i]);
+		}
+		return nodeChildren;
+	}
+
+	@Override
+	public String write(DDNNF object) {
+		final StringBuilder sb = new StringBuilder();
+		sb.append(CHECKSUM_PREFIX);
+		sb.append(object.getChecksum());
+		sb.append('\n');
+		sb.append("nnf ");
+		sb.append(object.getNumberOfNodes());
+		sb.append(' ');
+		sb.append(object.getNumberOfEdges());
+		sb.append(' ');
+		sb.append(object.getNumberOfVariables());
+		sb.append('\n');
+		for (int i = 0; i < object.getNumberOfNodes(); i++) {
+			final int[] nodeChildren = object.getChildren(i);
+			switch (object.getType(i)) {
+			case DDNNF.LITERAL:
+				sb.append("L ");
+				sb.append(object.getValue(i));
+				break;
+			case DDNNF.AND:
+				sb.append('A');
+				break;
+			case DDNNF.OR:
+				sb.append("O ");
+				sb.append(object.getValue(i));
+				break;
+			default:
+				throw new AssertionError(object.getType(i));
+			}
+			if (object.getType(i) != DDNNF.LITERAL) {
+				sb.append(' ');
+				sb.append(nodeChildren.length);
+				for (final int child : nodeChildren) {
+					sb.append(' ');
+					sb.append(child);
+				}
+			}
+			sb.append('\n');
+		}
+		return sb.toString();
+	}
+
+	@Override
+	public String getSuffix() {
+		return "nnf";
+	}
+
+	@Override
+	public DDNNFFormat getInstance() {
+		return this;
+	}
+
+	@Override
+	public boolean supportsRead() {
+		return true;
+	}
+
+	@Override
+	public boolean supportsWrite() {
+		return true;
+	}
+
+	@Override
+	public String getId() {
+		return ID;
+	}
+
+	@Override
+	public String getName() {
+		return "d-DNNF";
+	}
+
+}
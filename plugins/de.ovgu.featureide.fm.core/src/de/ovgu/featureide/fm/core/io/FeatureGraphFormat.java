@@ -20,19 +20,28 @@
  */
 package de.ovgu.featureide.fm.core.io;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.nio.charset.Charset;
-
-import de.ovgu.featureide.fm.core.Logger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.prop4j.solver.ClauseList;
+import org.prop4j.solver.SatInstance;
+
 import de.ovgu.featureide.fm.core.PluginID;
 import de.ovgu.featureide.fm.core.conf.IFeatureGraph;
+import de.ovgu.featureide.fm.core.conf.SparseFeatureGraph;
 
 /**
- * Reads / Writes a feature graph.
+ * Reads / Writes a feature graph.</br> The graph is stored as text. Only existing edges are written, one line per feature:
+ *
+ * <pre>
+ * fg &lt;number of variables&gt; &lt;number of features&gt;
+ * i &lt;feature index of each variable (-1 core, -2 dead)&gt;
+ * v &lt;name of a variable&gt;
+ * e &lt;target&gt; &lt;edge&gt; &lt;target&gt; &lt;edge&gt; ...
+ * </pre>
+ *
+ * The read graph is a {@link SparseFeatureGraph}. Its {@link SatInstance} only contains the variables, not the clauses.
  *
  * @author Sebastian Krieter
  */
@@ -40,29 +49,120 @@ public class FeatureGraphFormat extends APersistentFormat<IFeatureGraph> impleme
 
 	public static final String ID = PluginID.PLUGIN_ID + ".format.fg." + FeatureGraphFormat.class.getSimpleName();
 
+	private static final String VARIABLE_PREFIX = "v ";
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
 	@Override
 	public ProblemList read(IFeatureGraph object, CharSequence source) {
 		final ProblemList problems = new ProblemList();
-		try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(source.toString().getBytes(Charset.forName("UTF-8"))))) {
-			final IFeatureGraph featureGraph = (IFeatureGraph) in.readObject();
+		int lineNumber = 0;
+		try {
+			int[] index = null;
+			int[][] neighbors = null;
+			int featureIndex = 0;
+			final List<String> variableNames = new ArrayList<>();
+			for (final String line : source.toString().split("\\r?\\n")) {
+				lineNumber++;
+				final String trimmedLine = line.trim();
+				if (trimmedLine.isEmpty()) {
+					continue;
+				}
+				if (trimmedLine.startsWith(VARIABLE_PREFIX)) {
+					variableNames.add(trimmedLine.substring(VARIABLE_PREFIX.length()));
+					continue;
+				}
+				final String[] tokens = WHITESPACE.split(trimmedLine);
+				switch (tokens[0]) {
+				case "fg":
+					index = new int[Integer.parseInt(tokens[1])];
+					neighbors = new int[Integer.parseInt(tokens[2])][];
+					break;
+				case "i":
+					checkHeader(index);
+					if ((tokens.length - 1) != index.length) {
+						throw new IllegalArgumentException("Expected " + index.length + " variables but found " + (tokens.length - 1));
+					}
+					for (int i = 0; i < index.length; i++) {
+						index[i] = Integer.parseInt(tokens[i + 1]);
+					}
+					break;
+				case "e":
+					checkHeader(index);
+					if (featureIndex >= neighbors.length) {
+						throw new IllegalArgumentException("Too many features");
+					}
+					if ((tokens.length % 2) == 0) {
+						throw new IllegalArgumentException("Missing edge value");
+					}
+					final int[] entries = new int[(tokens.length - 1) >> 1];
+					for (int i = 0; i < entries.length; i++) {
+						final int target = Integer.parseInt(tokens[(2 * i) + 1]);
+						entries[i] = SparseFeatureGraph.pack(target, (byte) Integer.parseInt(tokens[(2 * i) + 2]));
+					}
+					neighbors[featureIndex++] = entries;
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown line type " + tokens[0]);
+				}
+			}
+			checkHeader(index);
+			if (featureIndex != neighbors.length) {
+				throw new IllegalArgumentException("Expected " + neighbors.length + " features but found " + featureIndex);
+			}
+			final SparseFeatureGraph featureGraph = SparseFeatureGraph.create(index, neighbors);
+			if (!variableNames.isEmpty()) {
+				if (variableNames.size() != index.length) {
+					throw new IllegalArgumentException("Expected " + index.length + " variable names but found " + variableNames.size());
+				}
+				featureGraph.setSatInstance(new SatInstance(new ClauseList(), variableNames));
+			}
 			object.copyValues(featureGraph);
-		} catch (IOException | ClassNotFoundException e) {
-			problems.add(new Problem(e));
+		} catch (final RuntimeException e) {
+			problems.add(new Problem(e, lineNumber));
 		}
 		return problems;
 	}
 
+	private static void checkHeader(int[] index) {
+		if (index == null) {
+			throw new IllegalArgumentException("Missing header");
+		}
+	}
+
 	@Override
 	public String write(IFeatureGraph object) {
-		final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-		String ret = null;
-		try (final ObjectOutputStream out = new ObjectOutputStream(byteArrayOutputStream)) {
-			out.writeObject(object);
-			ret = byteArrayOutputStream.toString("UTF-8");
-		} catch (final IOException e) {
-			Logger.logError(e);
+		final int[] index = object.getIndex();
+		final int size = object.getSize();
+		final StringBuilder sb = new StringBuilder();
+		sb.append("fg ");
+		sb.append(index.length);
+		sb.append(' ');
+		sb.append(size);
+		sb.append("\ni");
+		for (final int featureIndex : index) {
+			sb.append(' ');
+			sb.append(featureIndex);
+		}
+		sb.append('\n');
+		final SatInstance satInstance = object.getSatInstance();
+		if (satInstance != null) {
+			for (int i = 1; i <= index.length; i++) {
+				sb.append(VARIABLE_PREFIX);
+				sb.append(satInstance.getVariableObject(i));
+				sb.append('\n');
+			}
+		}
+		for (int i = 0; i < size; i++) {
+			sb.append('e');
+			for (int j = object.getNextNeighbor(i, 0); j >= 0; j = object.getNextNeighbor(i, j + 1)) {
+				sb.append(' ');
+				sb.append(j);
+				sb.append(' ');
+				sb.append(object.getEdge(i, j) & 0xff);
+			}
+			sb.append('\n');
 		}
-		return ret;
+		return sb.toString();
 	}
 
 	@Override
@@ -0,0 +1,721 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.CheckForNull;
+
+import org.prop4j.And;
+import org.prop4j.AtLeast;
+import org.prop4j.AtMost;
+import org.prop4j.Choose;
+import org.prop4j.Equals;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+import org.prop4j.solver.ClauseList;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelFactory;
+import de.ovgu.featureide.fm.core.base.IFeatureStructure;
+import de.ovgu.featureide.fm.core.base.IPropertyContainer.Entry;
+import de.ovgu.featureide.fm.core.base.IPropertyContainer.Type;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+
+/**
+ * Binary cache for a feature model file. Stores the parsed feature model, its CNF as a flat clause list, and the results of the last analysis. A cache
+ * belongs to the content it was created from, which is identified by {@link #computeHash(CharSequence)}.</br> The file starts with a header (magic number,
+ * version, content hash, and a table with the offset and length of each section). {@link #open(Path, long)} maps the file into memory and only checks this
+ * header. The sections are decoded on first access.
+ *
+ * @author FeatureIDE Team
+ */
+public class FeatureModelCache {
+
+	public static final String SUFFIX = "cache";
+
+	public static final String RESULT_VALID = "valid";
+	public static final String RESULT_CORE_FEATURES = "core";
+	public static final String RESULT_DEAD_FEATURES = "dead";
+	public static final String RESULT_FALSE_OPTIONAL_FEATURES = "falseOptional";
+
+	static final int MAGIC_NUMBER = 0x4649444d;
+	static final int VERSION = 3;
+
+	private static final int SECTION_MODEL = 0;
+	private static final int SECTION_VARIABLES = 1;
+	private static final int SECTION_CLAUSES = 2;
+	private static final int SECTION_RESULTS = 3;
+	private static final int NUMBER_OF_SECTIONS = 4;
+
+	private static final int HEADER_SIZE = 16 + (8 * NUMBER_OF_SECTIONS);
+
+	private static final int FLAG_MANDATORY = 1;
+	private static final int FLAG_ABSTRACT = 2;
+	private static final int FLAG_HIDDEN = 4;
+	private static final int FLAG_AND = 8;
+	private static final int FLAG_OR = 16;
+	private static final int FLAG_ALTERNATIVE = 32;
+
+	private static final int CALCULATE_AUTO = 1;
+	private static final int CALCULATE_FEATURES = 2;
+	private static final int CALCULATE_CONSTRAINTS = 4;
+	private static final int CALCULATE_REDUNDANT = 8;
+	private static final int CALCULATE_TAUTOLOGY = 16;
+
+	private static final byte NODE_LITERAL = 0;
+	private static final byte NODE_AND = 1;
+	private static final byte NODE_OR = 2;
+	private static final byte NODE_NOT = 3;
+	private static final byte NODE_IMPLIES = 4;
+	private static final byte NODE_EQUALS = 5;
+	private static final byte NODE_AT_MOST = 6;
+	private static final byte NODE_AT_LEAST = 7;
+	private static final byte NODE_CHOOSE = 8;
+
+	private static final Charset CHARSET = Charset.forName("UTF-8");
+
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	/**
+	 * Computes the hash of a file content that identifies a cache (64-bit FNV-1a over all characters).
+	 *
+	 * @param content the content of a feature model file
+	 * @return the hash value
+	 */
+	public static long computeHash(CharSequence content) {
+		long hash = FNV_OFFSET_BASIS;
+		for (int i = 0; i < content.length(); i++) {
+			final char c = content.charAt(i);
+			hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+			hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+		}
+		return hash;
+	}
+
+	/**
+	 * Opens a cache file. Only the header is read, the content is decoded on demand.
+	 *
+	 * @param path the cache file
+	 * @param contentHash the hash of the current content of the feature model file
+	 * @return the cache or {@code null} if the file does not exist, has an unknown version, or belongs to a different content
+	 * @throws IOException if the file cannot be read
+	 */
+	@CheckForNull
+	public static FeatureModelCache open(Path path, long contentHash) throws IOException {
+		if (!Files.isRegularFile(path)) {
+			return null;
+		}
+		final ByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			final long size = channel.size();
+			if ((size < HEADER_SIZE) || (size > Integer.MAX_VALUE)) {
+				return null;
+			}
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		}
+		if ((buffer.getInt(0) != MAGIC_NUMBER) || (buffer.getInt(4) != VERSION) || (buffer.getLong(8) != contentHash)) {
+			return null;
+		}
+		final int[] sectionOffsets = new int[NUMBER_OF_SECTIONS];
+		final int[] sectionLengths = new int[NUMBER_OF_SECTIONS];
+		for (int i = 0; i < NUMBER_OF_SECTIONS; i++) {
+			final int offset = buffer.getInt(16 + (8 * i));
+			final int length = buffer.getInt(20 + (8 * i));
+			if ((offset < HEADER_SIZE) || (length < 0) || (offset > (buffer.capacity() - length))) {
+				return null;
+			}
+			sectionOffsets[i] = offset;
+			sectionLengths[i] = length;
+		}
+		return new FeatureModelCache(buffer, contentHash, sectionOffsets, sectionLengths);
+	}
+
+	/**
+	 * Writes a cache file. The variables of the CNF and the analysis results are the features of the model in preorder (see {@link #getVariables()}).
+	 *
+	 * @param path the cache file
+	 * @param contentHash the hash of the content the feature model was read from
+	 * @param featureModel the feature model
+	 * @param cnf the feature model as formula in conjunctive normal form (without the literals <b>True</b> and <b>False</b>); the clauses are not stored if
+	 *        the formula contains variables that are no features
+	 * @param analysisResults results of an analysis as variable indexes (starting at 1) mapped to a name; may be empty
+	 * @throws IOException if the file cannot be written
+	 * @throws IllegalArgumentException if the feature model or the CNF contain elements that cannot be stored
+	 */
+	public static void write(Path path, long contentHash, IFeatureModel featureModel, Node cnf, Map<String, int[]> analysisResults) throws IOException {
+		final List<String> variables = FeatureUtils.getFeatureNamesPreorder(featureModel);
+		final byte[][] sections = new byte[NUMBER_OF_SECTIONS][];
+		sections[SECTION_MODEL] = writeModel(featureModel);
+		sections[SECTION_VARIABLES] = writeVariables(variables);
+		sections[SECTION_CLAUSES] = writeClauses(cnf, variables);
+		sections[SECTION_RESULTS] = writeResults(analysisResults);
+
+		final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(MAGIC_NUMBER);
+		header.putInt(VERSION);
+		header.putLong(contentHash);
+		int offset = HEADER_SIZE;
+		for (final byte[] section : sections) {
+			header.putInt(offset);
+			header.putInt(section.length);
+			offset += section.length;
+		}
+
+		final Path parent = path.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		final Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			header.flip();
+			while (header.hasRemaining()) {
+				channel.write(header);
+			}
+			for (final byte[] section : sections) {
+				final ByteBuffer sectionBuffer = ByteBuffer.wrap(section);
+				while (sectionBuffer.hasRemaining()) {
+					channel.write(sectionBuffer);
+				}
+			}
+		}
+		Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	private static byte[] writeModel(IFeatureModel featureModel) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream out = new DataOutputStream(bytes);
+
+		final List<IFeature> features = new ArrayList<>();
+		final IFeature root = FeatureUtils.getRoot(featureModel);
+		if (root != null) {
+			collectPreorder(root.getStructure(), features);
+		}
+		final Map<IFeature, Integer> indexes = new HashMap<>();
+		out.writeInt(features.size());
+		for (final IFeature feature : features) {
+			indexes.put(feature, indexes.size());
+			final IFeatureStructure structure = feature.getStructure();
+			final IFeatureStructure parent = structure.getParent();
+			writeString(out, feature.getName());
+			out.writeInt(parent == null ? -1 : indexes.get(parent.getFeature()));
+			int flags = 0;
+			flags |= structure.isMandatory() ? FLAG_MANDATORY : 0;
+			flags |= structure.isAbstract() ? FLAG_ABSTRACT : 0;
+			flags |= structure.isHidden() ? FLAG_HIDDEN : 0;
+			flags |= structure.isAnd() ? FLAG_AND : 0;
+			flags |= structure.isOr() ? FLAG_OR : 0;
+			flags |= structure.isAlternative() ? FLAG_ALTERNATIVE : 0;
+			out.writeInt(flags);
+			writeString(out, feature.getProperty().getDescription());
+			final Set<Entry<String, Type, Object>> properties = feature.getCustomProperties().entrySet();
+			out.writeInt(properties.size());
+			for (final Entry<String, Type, Object> property : properties) {
+				writeString(out, property.getKey());
+				writeValue(out, property.getType(), property.getValue());
+			}
+		}
+
+		out.writeInt(featureModel.getConstraintCount());
+		for (final IConstraint constraint : featureModel.getConstraints()) {
+			writeString(out, constraint.getDescription());
+			writeNode(out, constraint.getNode());
+		}
+
+		final List<String> comments = new ArrayList<>();
+		for (final String comment : featureModel.getProperty().getComments()) {
+			comments.add(comment);
+		}
+		writeStrings(out, comments);
+
+		final FeatureModelAnalyzer analyser = featureModel.getAnalyser();
+		int calculations = 0;
+		calculations |= analyser.runCalculationAutomatically ? CALCULATE_AUTO : 0;
+		calculations |= analyser.calculateFeatures ? CALCULATE_FEATURES : 0;
+		calculations |= analyser.calculateConstraints ? CALCULATE_CONSTRAINTS : 0;
+		calculations |= analyser.calculateRedundantConstraints ? CALCULATE_REDUNDANT : 0;
+		calculations |= analyser.calculateTautologyConstraints ? CALCULATE_TAUTOLOGY : 0;
+		out.writeInt(calculations);
+
+		out.writeBoolean(featureModel.isFeatureOrderUserDefined());
+		writeStrings(out, featureModel.getFeatureOrderList());
+
+		return toPaddedArray(out, bytes);
+	}
+
+	private static void collectPreorder(IFeatureStructure structure, List<IFeature> features) {
+		features.add(structure.getFeature());
+		for (final IFeatureStructure child : structure.getChildren()) {
+			collectPreorder(child, features);
+		}
+	}
+
+	private static void writeNode(DataOutputStream out, Node node) throws IOException {
+		if (node instanceof Literal) {
+			final Literal literal = (Literal) node;
+			if (!(literal.var instanceof String)) {
+				throw new IllegalArgumentException("Unsupported variable " + literal.var);
+			}
+			out.writeByte(NODE_LITERAL);
+			out.writeBoolean(literal.positive);
+			writeString(out, (String) literal.var);
+			return;
+		}
+		if (node instanceof And) {
+			out.writeByte(NODE_AND);
+		} else if (node instanceof Or) {
+			out.writeByte(NODE_OR);
+		} else if (node instanceof Not) {
+			out.writeByte(NODE_NOT);
+		} else if (node instanceof Implies) {
+			out.writeByte(NODE_IMPLIES);
+		} else if (node instanceof Equals) {
+			out.writeByte(NODE_EQUALS);
+		} else if (node instanceof AtMost) {
+			out.writeByte(NODE_AT_MOST);
+			out.writeInt(((AtMost) node).max);
+		} else if (node instanceof AtLeast) {
+			out.writeByte(NODE_AT_LEAST);
+			out.writeInt(((AtLeast) node).min);
+		} else if (node instanceof Choose) {
+			out.writeByte(NODE_CHOOSE);
+			out.writeInt(((Choose) node).n);
+		} else {
+			throw new IllegalArgumentException("Unsupported node type " + node.getClass().getSimpleName());
+		}
+		final Node[] children = node.getChildren();
+		out.writeInt(children.length);
+		for (final Node child : children) {
+			writeNode(out, child);
+		}
+	}
+
+	private static void writeValue(DataOutputStream out, Type type, Object value) throws IOException {
+		out.writeByte(type.ordinal());
+		switch (type) {
+		case BOOLEAN:
+			out.writeBoolean((Boolean) value);
+			break;
+		case BYTE:
+			out.writeByte((Byte) value);
+			break;
+		case CHAR:
+			out.writeChar((Character) value);
+			break;
+		case DOUBLE:
+			out.writeDouble((Double) value);
+			break;
+		case FLOAT:
+			out.writeFloat((Float) value);
+			break;
+		case INT:
+			out.writeInt((Integer) value);
+			break;
+		case LONG:
+			out.writeLong((Long) value);
+			break;
+		case SHORT:
+			out.writeShort((Short) value);
+			break;
+		case STRING:
+			writeString(out, (String) value);
+			break;
+		default:
+			throw new IllegalArgumentException("Unsupported property type " + type);
+		}
+	}
+
+	private static byte[] writeVariables(List<String> variables) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream out = new DataOutputStream(bytes);
+		writeStrings(out, variables);
+		return toPaddedArray(out, bytes);
+	}
+
+	/**
+	 * Stores all clauses in one int array. Each clause is terminated by a 0 (as in the DIMACS format). A length of -1 marks a CNF that cannot be stored,
+	 * because it contains auxiliary variables.
+	 */
+	private static byte[] writeClauses(Node cnf, List<String> variables) throws IOException {
+		final Map<String, Integer> variableIndexes = new HashMap<>();
+		for (final String variable : variables) {
+			variableIndexes.put(variable, variableIndexes.size() + 1);
+		}
+		final Node[] clauses = (cnf instanceof And) ? cnf.getChildren() : new Node[] { cnf };
+		int length = 0;
+		for (final Node clause : clauses) {
+			length += ((clause instanceof Literal) ? 1 : clause.getChildren().length) + 1;
+		}
+
+		final ByteBuffer buffer = ByteBuffer.allocate(4 * (length + 1));
+		buffer.putInt(length);
+		for (final Node clause : clauses) {
+			final Node[] literals;
+			if (clause instanceof Literal) {
+				literals = new Node[] { clause };
+			} else if (clause instanceof Or) {
+				literals = clause.getChildren();
+			} else {
+				throw new IllegalArgumentException("Formula is not in CNF");
+			}
+			for (final Node literal : literals) {
+				if (!(literal instanceof Literal)) {
+					throw new IllegalArgumentException("Formula is not in CNF");
+				}
+				final Integer index = variableIndexes.get(String.valueOf(((Literal) literal).var));
+				if (index == null) {
+					return ByteBuffer.allocate(4).putInt(-1).array();
+				}
+				buffer.putInt(((Literal) literal).positive ? index : -index);
+			}
+			buffer.putInt(0);
+		}
+		return buffer.array();
+	}
+
+	private static byte[] writeResults(Map<String, int[]> analysisResults) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(analysisResults.size());
+		for (final Map.Entry<String, int[]> result : analysisResults.entrySet()) {
+			writeString(out, result.getKey());
+			out.writeInt(result.getValue().length);
+			for (final int value : result.getValue()) {
+				out.writeInt(value);
+			}
+		}
+		return toPaddedArray(out, bytes);
+	}
+
+	private static void writeStrings(DataOutputStream out, List<String> strings) throws IOException {
+		out.writeInt(strings.size());
+		for (final String string : strings) {
+			writeString(out, string);
+		}
+	}
+
+	/**
+	 * Writes the length of the UTF-8 representation followed by the bytes. Unlike {@link DataOutputStream#writeUTF(String)}, this is not restricted to 64KB.
+	 */
+	private static void writeString(DataOutputStream out, String string) throws IOException {
+		if (string == null) {
+			out.writeInt(-1);
+		} else {
+			final byte[] bytes = string.getBytes(CHARSET);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	/**
+	 * Pads each section to a multiple of four bytes, such that int sections are aligned in the mapped file.
+	 */
+	private static byte[] toPaddedArray(DataOutputStream out, ByteArrayOutputStream bytes) throws IOException {
+		while ((out.size() & 3) != 0) {
+			out.writeByte(0);
+		}
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	private final ByteBuffer buffer;
+	private final long contentHash;
+	private final int[] sectionOffsets;
+	private final int[] sectionLengths;
+
+	private List<String> variables = null;
+	private ClauseList clauses = null;
+	private Map<String, int[]> analysisResults = null;
+
+	private FeatureModelCache(ByteBuffer buffer, long contentHash, int[] sectionOffsets, int[] sectionLengths) {
+		this.buffer = buffer;
+		this.contentHash = contentHash;
+		this.sectionOffsets = sectionOffsets;
+		this.sectionLengths = sectionLengths;
+	}
+
+	public long getContentHash() {
+		return contentHash;
+	}
+
+	/**
+	 * Returns a new buffer for a section, such that multiple threads can read the cache at the same time.
+	 */
+	private ByteBuffer getSection(int section) {
+		final ByteBuffer sectionBuffer = buffer.duplicate();
+		sectionBuffer.limit(sectionOffsets[section] + sectionLengths[section]);
+		sectionBuffer.position(sectionOffsets[section]);
+		return sectionBuffer.slice();
+	}
+
+	/**
+	 * Resets the given feature model and fills it with the cached feature model.
+	 *
+	 * @param featureModel the feature model to fill
+	 * @throws RuntimeException if the cached data is damaged
+	 */
+	public void readFeatureModel(IFeatureModel featureModel) {
+		final ByteBuffer in = getSection(SECTION_MODEL);
+		featureModel.reset();
+		final IFeatureModelFactory factory = FMFactoryManager.getFactory(featureModel);
+
+		final int featureCount = in.getInt();
+		final IFeature[] features = new IFeature[featureCount];
+		final List<Set<Entry<String, Type, Object>>> customProperties = new ArrayList<>(featureCount);
+		for (int i = 0; i < featureCount; i++) {
+			final IFeature feature = factory.createFeature(featureModel, readString(in));
+			final int parent = in.getInt();
+			final int flags = in.getInt();
+			final IFeatureStructure structure = feature.getStructure();
+			if ((flags & FLAG_ALTERNATIVE) != 0) {
+				structure.setAlternative();
+			} else if ((flags & FLAG_OR) != 0) {
+				structure.setOr();
+			} else if ((flags & FLAG_AND) != 0) {
+				structure.setAnd();
+			}
+			structure.setAbstract((flags & FLAG_ABSTRACT) != 0);
+			structure.setMandatory((flags & FLAG_MANDATORY) != 0);
+			structure.setHidden((flags & FLAG_HIDDEN) != 0);
+			final String description = readString(in);
+			if (description != null) {
+				feature.getProperty().setDescription(description);
+			}
+			final int propertyCount = in.getInt();
+			final Set<Entry<String, Type, Object>> properties = new HashSet<>();
+			for (int j = 0; j < propertyCount; j++) {
+				final String key = readString(in);
+				final Type type = Type.values()[in.get()];
+				properties.add(new Entry<String, Type, Object>(key, type, readValue(in, type)));
+			}
+			customProperties.add(properties);
+
+			featureModel.addFeature(feature);
+			if (parent < 0) {
+				featureModel.getStructure().setRoot(structure);
+			} else {
+				features[parent].getStructure().addChild(structure);
+			}
+			features[i] = feature;
+		}
+		for (int i = 0; i < featureCount; i++) {
+			if (!customProperties.get(i).isEmpty()) {
+				features[i].getCustomProperties().setEntrySet(customProperties.get(i));
+			}
+		}
+
+		final int constraintCount = in.getInt();
+		for (int i = 0; i < constraintCount; i++) {
+			final String description = readString(in);
+			final IConstraint constraint = factory.createConstraint(featureModel, readNode(in));
+			if (description != null) {
+				constraint.setDescription(description);
+			}
+			featureModel.addConstraint(constraint);
+		}
+
+		for (final String comment : readStrings(in)) {
+			featureModel.getProperty().addComment(comment);
+		}
+
+		final int calculations = in.getInt();
+		final FeatureModelAnalyzer analyser = featureModel.getAnalyser();
+		analyser.runCalculationAutomatically = (calculations & CALCULATE_AUTO) != 0;
+		analyser.calculateFeatures = (calculations & CALCULATE_FEATURES) != 0;
+		analyser.calculateConstraints = (calculations & CALCULATE_CONSTRAINTS) != 0;
+		analyser.calculateRedundantConstraints = (calculations & CALCULATE_REDUNDANT) != 0;
+		analyser.calculateTautologyConstraints = (calculations & CALCULATE_TAUTOLOGY) != 0;
+
+		featureModel.setFeatureOrderUserDefined(in.get() != 0);
+		final List<String> featureOrder = readStrings(in);
+		if (!featureOrder.isEmpty()) {
+			featureModel.setFeatureOrderList(featureOrder);
+		}
+	}
+
+	private static Node readNode(ByteBuffer in) {
+		final byte type = in.get();
+		if (type == NODE_LITERAL) {
+			final boolean positive = in.get() != 0;
+			return new Literal(readString(in), positive);
+		}
+		final int parameter = ((type == NODE_AT_MOST) || (type == NODE_AT_LEAST) || (type == NODE_CHOOSE)) ? in.getInt() : 0;
+		final Node[] children = new Node[in.getInt()];
+		for (int i = 0; i < children.length; i++) {
+			children[i] = readNode(in);
+		}
+		switch (type) {
+		case NODE_AND:
+			return new And(children);
+		case NODE_OR:
+			return new Or(children);
+		case NODE_NOT:
+			return new Not(children[0]);
+		case NODE_IMPLIES:
+			return new Implies(children[0], children[1]);
+		case NODE_EQUALS:
+			return new Equals(children[0], children[1]);
+		case NODE_AT_MOST:
+			return new AtMost(parameter, children);
+		case NODE_AT_LEAST:
+			return new AtLeast(parameter, children);
+		case NODE_CHOOSE:
+			return new Choose(parameter, children);
+		default:
+			throw new IllegalStateException("Unknown node type " + type);
+		}
+	}
+
+	private static Object readValue(ByteBuffer in, Type type) {
+		switch (type) {
+		case BOOLEAN:
+			return in.get() != 0;
+		case BYTE:
+			return in.get();
+		case CHAR:
+			return in.getChar();
+		case DOUBLE:
+			return in.getDouble();
+		case FLOAT:
+			return in.getFloat();
+		case INT:
+			return in.getInt();
+		case LONG:
+			return in.getLong();
+		case SHORT:
+			return in.getShort();
+		case STRING:
+			return readString(in);
+		default:
+			throw new IllegalStateException("Unsupported property type " + type);
+		}
+	}
+
+	private static List<String> readStrings(ByteBuffer in) {
+		final int count = in.getInt();
+		final List<String> strings = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			strings.add(readString(in));
+		}
+		return strings;
+	}
+
+	private static String readString(ByteBuffer in) {
+		final int length = in.getInt();
+		if (length < 0) {
+			return null;
+		}
+		final byte[] bytes = new byte[length];
+		in.get(bytes);
+		return new String(bytes, CHARSET);
+	}
+
+	/**
+	 * @return the names of the variables of the CNF and the analysis results, i.e., the features in preorder
+	 */
+	public synchronized List<String> getVariables() {
+		if (variables == null) {
+			variables = Collections.unmodifiableList(readStrings(getSection(SECTION_VARIABLES)));
+		}
+		return variables;
+	}
+
+	/**
+	 * Returns the clauses of the CNF. A literal is the index of its variable in {@link #getVariables()} (starting at 1), which is negative for negated
+	 * literals.
+	 *
+	 * @return the clauses (must not be modified) or {@code null} if the CNF was not stored
+	 */
+	@CheckForNull
+	public synchronized ClauseList getClauses() {
+		if (clauses == null) {
+			final ByteBuffer in = getSection(SECTION_CLAUSES);
+			final int length = in.getInt();
+			if (length < 0) {
+				return null;
+			}
+			final int[] zeroTerminatedClauses = new int[length];
+			in.asIntBuffer().get(zeroTerminatedClauses);
+			clauses = ClauseList.fromZeroTerminated(zeroTerminatedClauses);
+		}
+		return clauses;
+	}
+
+	/**
+	 * Creates a formula from the cached CNF without building it from the feature model.
+	 *
+	 * @return a new instance with the features in preorder as variables or {@code null} if the CNF was not stored
+	 */
+	@CheckForNull
+	public SatInstance getSatInstance() {
+		final ClauseList clauseList = getClauses();
+		return (clauseList == null) ? null : new SatInstance(clauseList, getVariables());
+	}
+
+	/**
+	 * @param name the name of the result, e.g., {@link #RESULT_CORE_FEATURES}
+	 * @return the cached result or {@code null} if the cache contains no result with the given name
+	 */
+	@CheckForNull
+	public synchronized int[] getAnalysisResult(String name) {
+		if (analysisResults == null) {
+			final ByteBuffer in = getSection(SECTION_RESULTS);
+			final int count = in.getInt();
+			final Map<String, int[]> results = new LinkedHashMap<>();
+			for (int i = 0; i < count; i++) {
+				final String key = readString(in);
+				final int[] values = new int[in.getInt()];
+				in.asIntBuffer().get(values);
+				in.position(in.position() + (4 * values.length));
+				results.put(key, values);
+			}
+			analysisResults = results;
+		}
+		return analysisResults.get(name);
+	}
+
+}
@@ -0,0 +1,134 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads solutions written by {@link SolutionListWriter} one at a time.
+ *
+ * @author FeatureIDE Team
+ */
+public class SolutionListReader implements Iterator<int[]>, Closeable {
+
+	private final DataInputStream in;
+	private final List<String> variableNames;
+	private final byte[] buffer;
+
+	private int[] nextSolution = null;
+
+	public SolutionListReader(Path path) throws IOException {
+		in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)));
+		try {
+			if (in.readInt() != SolutionListWriter.MAGIC_NUMBER) {
+				throw new IOException("Not a solution list file");
+			}
+			final int version = in.readInt();
+			if (version != SolutionListWriter.VERSION) {
+				throw new IOException("Unsupported version " + version);
+			}
+			final int numberOfVariables = in.readInt();
+			final List<String> names = new ArrayList<>(numberOfVariables);
+			for (int i = 0; i < numberOfVariables; i++) {
+				names.add(in.readUTF());
+			}
+			variableNames = Collections.unmodifiableList(names);
+			buffer = new byte[(numberOfVariables + 7) >>> 3];
+		} catch (final IOException e) {
+			in.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Reads the next solution.
+	 *
+	 * @return the solution or {@code null} if the end of the file is reached
+	 */
+	public int[] read() throws IOException {
+		if (nextSolution != null) {
+			final int[] solution = nextSolution;
+			nextSolution = null;
+			return solution;
+		}
+		try {
+			in.readFully(buffer);
+		} catch (final EOFException e) {
+			return null;
+		}
+		final int[] solution = new int[variableNames.size()];
+		for (int i = 0; i < solution.length; i++) {
+			solution[i] = ((buffer[i >>> 3] & (1 << (i & 7))) != 0) ? (i + 1) : -(i + 1);
+		}
+		return solution;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (nextSolution == null) {
+			try {
+				nextSolution = read();
+			} catch (final IOException e) {
+				throw new RuntimeException(e);
+			}
+		}
+		return nextSolution != null;
+	}
+
+	@Override
+	public int[] next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		final int[] solution = nextSolution;
+		nextSolution = null;
+		return solution;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @return the names of all variables in the order of their indexes
+	 */
+	public List<String> getVariableNames() {
+		return variableNames;
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+}
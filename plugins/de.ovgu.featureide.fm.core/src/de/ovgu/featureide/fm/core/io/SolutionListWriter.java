@@ -0,0 +1,116 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import de.ovgu.featureide.fm.core.functional.Functional.IConsumer;
+
+/**
+ * Writes solutions to a binary file as soon as they are passed to {@link #invoke(int[])}.</br> The file starts with a header that contains the number of
+ * variables and their names. Each solution is stored as a bitset with one bit per variable (1 for selected), i.e., it requires {@code ceil(n / 8)} bytes.
+ * Solutions can be read with {@link SolutionListReader}.
+ *
+ * @author FeatureIDE Team
+ */
+public class SolutionListWriter implements IConsumer<int[]>, Closeable {
+
+	static final int MAGIC_NUMBER = 0x46494453;
+	static final int VERSION = 1;
+
+	private final DataOutputStream out;
+	private final int numberOfVariables;
+	private final byte[] buffer;
+
+	private long numberOfSolutions = 0;
+
+	/**
+	 * @param path the file to write to
+	 * @param variableNames the names of all variables in the order of their indexes
+	 */
+	public SolutionListWriter(Path path, List<String> variableNames) throws IOException {
+		out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+		numberOfVariables = variableNames.size();
+		buffer = new byte[(numberOfVariables + 7) >>> 3];
+		try {
+			out.writeInt(MAGIC_NUMBER);
+			out.writeInt(VERSION);
+			out.writeInt(numberOfVariables);
+			for (final String name : variableNames) {
+				out.writeUTF(name);
+			}
+		} catch (final IOException e) {
+			out.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Writes a single solution.
+	 *
+	 * @param solution a complete solution containing one literal per variable
+	 */
+	public void write(int[] solution) throws IOException {
+		if (solution.length != numberOfVariables) {
+			throw new IllegalArgumentException("Expected " + numberOfVariables + " literals but got " + solution.length);
+		}
+		Arrays.fill(buffer, (byte) 0);
+		for (int i = 0; i < solution.length; i++) {
+			if (solution[i] > 0) {
+				buffer[i >>> 3] |= 1 << (i & 7);
+			}
+		}
+		out.write(buffer);
+		numberOfSolutions++;
+	}
+
+	/**
+	 * Writes a single solution. An {@link IOException} is rethrown as {@link RuntimeException}.
+	 */
+	@Override
+	public void invoke(int[] solution) {
+		try {
+			write(solution);
+		} catch (final IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * @return the number of written solutions
+	 */
+	public long getNumberOfSolutions() {
+		return numberOfSolutions;
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+
+}
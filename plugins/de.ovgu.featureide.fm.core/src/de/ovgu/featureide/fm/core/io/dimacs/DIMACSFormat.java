@@ -20,14 +20,10 @@
  */
 package de.ovgu.featureide.fm.core.io.dimacs;
 
-import java.io.IOException;
 import java.text.ParseException;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
 
-import org.prop4j.And;
 import org.prop4j.Node;
+import org.prop4j.solver.SatInstance;
 
 import de.ovgu.featureide.fm.core.PluginID;
 import de.ovgu.featureide.fm.core.base.IFeature;
@@ -65,12 +61,11 @@ public class DIMACSFormat extends APersistentFormat<IFeatureModel> implements IF
 	public ProblemList read(IFeatureModel featureModel, CharSequence source) {
 		final ProblemList problemList = new ProblemList();
 
-		// Transform the input into a propositional node.
-		final DimacsReader r = new DimacsReader();
-		r.setReadingVariableDirectory(true);
+		// Read the clauses without creating an intermediate formula.
+		final DimacsClauseReader r = new DimacsClauseReader();
 		try {
-			addNodeToFeatureModel(featureModel, r.read(source.toString()));
-		} catch (final IllegalStateException | IOException e) {
+			addClausesToFeatureModel(featureModel, r.read(source));
+		} catch (final IllegalStateException e) {
 			problemList.add(new Problem(e));
 		} catch (final ParseException e) {
 			problemList.add(new Problem(e, e.getErrorOffset()));
@@ -80,13 +75,13 @@ public class DIMACSFormat extends APersistentFormat<IFeatureModel> implements IF
 	}
 
 	/**
-	 * Adds the given propositional node to the given feature model. The current implementation is naive in that it does not attempt to interpret any constraint
-	 * as {@link IFeatureStructure structure}.
+	 * Adds the clauses of the given instance to the given feature model. The current implementation is naive in that it does not attempt to interpret any
+	 * clause as {@link IFeatureStructure structure}.
 	 *
 	 * @param featureModel feature model to edit
-	 * @param node propositional node to add
+	 * @param satInstance clauses and variables to add
 	 */
-	private void addNodeToFeatureModel(IFeatureModel featureModel, Node node) {
+	private void addClausesToFeatureModel(IFeatureModel featureModel, SatInstance satInstance) {
 		// Add a dummy feature as root.
 		final IFeatureModelFactory factory = FMFactoryManager.getFactory(featureModel);
 		final IFeature rootFeature = factory.createFeature(featureModel, "__Root__");
@@ -95,15 +90,14 @@ public class DIMACSFormat extends APersistentFormat<IFeatureModel> implements IF
 		featureModel.getStructure().setRoot(rootFeature.getStructure());
 
 		// Add a feature for each variable.
-		for (final String variable : node.getUniqueContainedFeatures()) {
-			final IFeature feature = factory.createFeature(featureModel, variable);
+		for (int i = 1; i <= satInstance.getNumberOfVariables(); i++) {
+			final IFeature feature = factory.createFeature(featureModel, String.valueOf(satInstance.getVariableObject(i)));
 			featureModel.addFeature(feature);
 			rootFeature.getStructure().addChild(feature.getStructure());
 		}
 
 		// Add a constraint for each conjunctive clause.
-		final List<Node> clauses = node instanceof And ? Arrays.asList(node.getChildren()) : Collections.singletonList(node);
-		for (final Node clause : clauses) {
+		for (final Node clause : satInstance.getCnf().getChildren()) {
 			featureModel.addConstraint(factory.createConstraint(featureModel, clause));
 		}
 	}
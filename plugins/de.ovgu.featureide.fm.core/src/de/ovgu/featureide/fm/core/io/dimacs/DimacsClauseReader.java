@@ -0,0 +1,471 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.dimacs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import javax.annotation.Nonnull;
+
+import org.prop4j.solver.ClauseList;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.fm.core.job.LongRunningExecutor;
+
+/**
+ * Reads DIMACS CNF files directly into a {@link ClauseList}, i.e., without creating a formula. In contrast to {@link DimacsReader}, this reader is suitable
+ * for very large files:
+ * <ul>
+ * <li>Files are mapped into memory instead of being read into a string.</li>
+ * <li>The clause section is split into chunks at line boundaries, which are parsed in parallel on the shared pool of the {@link LongRunningExecutor}.</li>
+ * <li>Variables that do not occur in any clause are allowed. Variables without an entry in the variable directory are named by their index.</li>
+ * </ul>
+ * Files larger than 2GB are not supported.
+ *
+ * @author FeatureIDE Team
+ */
+public class DimacsClauseReader {
+
+	public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+	private static final Charset CHARSET = Charset.forName("UTF-8");
+
+	/**
+	 * The tokens of a part of the clause section.
+	 */
+	private static final class Chunk {
+
+		private int[] tokens = new int[1024];
+		private int size = 0;
+		/**
+		 * The position of the first token if it is a clause end, {@code -1} otherwise. Required to detect empty clauses across chunk borders.
+		 */
+		private int leadingClauseEndPosition = -1;
+
+		private void add(int token) {
+			if (size == tokens.length) {
+				tokens = Arrays.copyOf(tokens, tokens.length << 1);
+			}
+			tokens[size++] = token;
+		}
+	}
+
+	private int numberOfThreads = Runtime.getRuntime().availableProcessors();
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+	private ByteBuffer buffer;
+	private int variableCount;
+	private int clauseCount;
+	private List<String> variableNames;
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * @param numberOfThreads a value of 1 disables parallel parsing; otherwise, the number of threads is bounded by the shared pool
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * @param chunkSize the approximate number of bytes of the clause section that are parsed by one task
+	 */
+	public void setChunkSize(int chunkSize) {
+		this.chunkSize = Math.max(1, chunkSize);
+	}
+
+	/**
+	 * Reads a file. The file is mapped into memory.
+	 *
+	 * @param path the file to read
+	 * @return an instance containing the clauses and the variable names; not null
+	 * @throws IOException if the file cannot be read
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 */
+	@Nonnull
+	public SatInstance read(Path path) throws IOException, ParseException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			final long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException("File is too large: " + path);
+			}
+			return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+		}
+	}
+
+	/**
+	 * Reads the input. Calls {@link #read(ByteBuffer)}.
+	 *
+	 * @param source the string to read from
+	 * @return an instance containing the clauses and the variable names; not null
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 */
+	@Nonnull
+	public SatInstance read(CharSequence source) throws ParseException {
+		return read(ByteBuffer.wrap(source.toString().getBytes(CHARSET)));
+	}
+
+	/**
+	 * Reads the input from the beginning to the limit of the given buffer. The position of the buffer is not changed.
+	 *
+	 * @param source the UTF-8 encoded input
+	 * @return an instance containing the clauses and the variable names; not null
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 */
+	@Nonnull
+	public SatInstance read(ByteBuffer source) throws ParseException {
+		buffer = source;
+		variableCount = -1;
+		clauseCount = -1;
+		try {
+			final int clauseStart = readHeader();
+			final List<Chunk> chunks = readChunks(clauseStart);
+			return new SatInstance(mergeChunks(chunks), variableNames);
+		} finally {
+			buffer = null;
+			variableNames = null;
+		}
+	}
+
+	private static boolean isWhitespace(byte b) {
+		return (b == ' ') || (b == '\t') || (b == '\r') || (b == '\n');
+	}
+
+	private int skipLine(int position) {
+		final int limit = buffer.limit();
+		while ((position < limit) && (buffer.get(position) != '\n')) {
+			position++;
+		}
+		return position + 1;
+	}
+
+	private int getLineNumber(int position) {
+		int line = 1;
+		for (int i = 0; i < position; i++) {
+			if (buffer.get(i) == '\n') {
+				line++;
+			}
+		}
+		return line;
+	}
+
+	/**
+	 * Decodes a part of a line without the line break.
+	 */
+	private String getLine(int start, int end) {
+		while ((end > start) && ((buffer.get(end - 1) == '\n') || (buffer.get(end - 1) == '\r'))) {
+			end--;
+		}
+		final byte[] bytes = new byte[end - start];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = buffer.get(start + i);
+		}
+		return new String(bytes, CHARSET);
+	}
+
+	/**
+	 * Reads the comments and the problem definition.
+	 *
+	 * @return the position where the clause section starts
+	 */
+	private int readHeader() throws ParseException {
+		final List<String> directory = new ArrayList<>();
+		final int limit = buffer.limit();
+		int position = 0;
+		while (position < limit) {
+			final int lineStart = position;
+			while ((position < limit) && isWhitespace(buffer.get(position))) {
+				position++;
+			}
+			if (position == limit) {
+				break;
+			}
+			final byte first = buffer.get(position);
+			if ((first == DIMACSFormat.COMMENT.charAt(0)) && (((position + 1) == limit) || isWhitespace(buffer.get(position + 1)))) {
+				final int lineEnd = skipLine(position);
+				int commentStart = position + 1;
+				while ((commentStart < lineEnd) && (commentStart < limit) && isWhitespace(buffer.get(commentStart)) && (buffer.get(commentStart) != '\n')) {
+					commentStart++;
+				}
+				readVariableDirectoryEntry(directory, getLine(commentStart, Math.min(lineEnd, limit)));
+				position = lineEnd;
+			} else if ((variableCount < 0) && (first == DIMACSFormat.PROBLEM.charAt(0))) {
+				position = readProblem(position);
+			} else if (variableCount < 0) {
+				throw new ParseException("Invalid problem format", getLineNumber(lineStart));
+			} else {
+				position = lineStart;
+				break;
+			}
+		}
+		if (variableCount < 0) {
+			throw new ParseException("Invalid problem format", getLineNumber(position));
+		}
+		variableNames = new ArrayList<>(variableCount);
+		for (int i = 1; i <= variableCount; i++) {
+			final String name = (i < directory.size()) ? directory.get(i) : null;
+			variableNames.add(name == null ? String.valueOf(i) : name);
+		}
+		return position;
+	}
+
+	/**
+	 * Reads an entry of the variable directory. Only the first entry for an index is used.
+	 *
+	 * @param directory the names read so far, indexed by variable index
+	 * @param comment the comment without the leading token
+	 */
+	private void readVariableDirectoryEntry(List<String> directory, String comment) {
+		final int firstSeparator = comment.indexOf(' ');
+		if ((firstSeparator <= 0) || (comment.length() < (firstSeparator + 2))) {
+			return;
+		}
+		final int index;
+		try {
+			index = Integer.parseInt(comment.substring(0, firstSeparator));
+		} catch (final NumberFormatException e) {
+			return;
+		}
+		if (index <= 0) {
+			return;
+		}
+		while (directory.size() <= index) {
+			directory.add(null);
+		}
+		if (directory.get(index) == null) {
+			directory.set(index, comment.substring(firstSeparator + 1));
+		}
+	}
+
+	/**
+	 * Reads the problem definition. Anything after the clause count is part of the clause section.
+	 *
+	 * @return the position after the clause count
+	 */
+	private int readProblem(int position) throws ParseException {
+		final int line = getLineNumber(position);
+		final int lineEnd = Math.min(skipLine(position), buffer.limit());
+		final String[] tokens = getLine(position, lineEnd).trim().split("\\s+");
+		if ((tokens.length < 4) || !DIMACSFormat.PROBLEM.equals(tokens[0]) || !DIMACSFormat.CNF.equals(tokens[1])) {
+			throw new ParseException("Invalid problem format", line);
+		}
+		try {
+			variableCount = Integer.parseInt(tokens[2]);
+		} catch (final NumberFormatException e) {
+			throw new ParseException("Variable count is not an integer", line);
+		}
+		if (variableCount <= 0) {
+			throw new ParseException("Variable count is not positive", line);
+		}
+		try {
+			clauseCount = Integer.parseInt(tokens[3]);
+		} catch (final NumberFormatException e) {
+			throw new ParseException("Clause count is not an integer", line);
+		}
+		if (clauseCount <= 0) {
+			throw new ParseException("Clause count is not positive", line);
+		}
+
+		// move behind the clause count
+		int tokenIndex = 0;
+		boolean inToken = false;
+		while (position < lineEnd) {
+			final boolean whitespace = isWhitespace(buffer.get(position));
+			if (!whitespace && !inToken) {
+				tokenIndex++;
+			} else if (whitespace && inToken && (tokenIndex == 4)) {
+				break;
+			}
+			inToken = !whitespace;
+			position++;
+		}
+		return position;
+	}
+
+	private List<Chunk> readChunks(int clauseStart) throws ParseException {
+		final int limit = buffer.limit();
+		final List<int[]> ranges = new ArrayList<>();
+		int start = clauseStart;
+		while (start < limit) {
+			int end = (int) Math.min(limit, (long) start + chunkSize);
+			while ((end < limit) && (buffer.get(end - 1) != '\n')) {
+				end++;
+			}
+			ranges.add(new int[] { start, end });
+			start = end;
+		}
+
+		final List<Chunk> chunks = new ArrayList<>(ranges.size());
+		if ((numberOfThreads <= 1) || (ranges.size() <= 1)) {
+			for (final int[] range : ranges) {
+				chunks.add(parseChunk(range[0], range[1]));
+			}
+			return chunks;
+		}
+
+		final List<Future<Chunk>> futures = new ArrayList<>(ranges.size());
+		try {
+			for (final int[] range : ranges) {
+				futures.add(LongRunningExecutor.submit(new Callable<Chunk>() {
+
+					@Override
+					public Chunk call() throws ParseException {
+						return parseChunk(range[0], range[1]);
+					}
+				}));
+			}
+			for (final Future<Chunk> future : futures) {
+				chunks.add(LongRunningExecutor.get(future));
+			}
+			return chunks;
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof ParseException) {
+				throw (ParseException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new IllegalStateException(cause);
+		} finally {
+			for (final Future<Chunk> future : futures) {
+				future.cancel(false);
+			}
+		}
+	}
+
+	/**
+	 * Parses all literals and clause ends in the given range, which starts at the beginning of a line. Uses only absolute access to the buffer, such that
+	 * multiple chunks can be parsed at the same time.
+	 */
+	private Chunk parseChunk(int start, int end) throws ParseException {
+		final Chunk chunk = new Chunk();
+		boolean lineStart = true;
+		boolean previousClauseEnd = false;
+		int position = start;
+		while (position < end) {
+			final byte b = buffer.get(position);
+			if (isWhitespace(b)) {
+				lineStart |= b == '\n';
+				position++;
+				continue;
+			}
+			if (lineStart && (b == DIMACSFormat.COMMENT.charAt(0))) {
+				position = skipLine(position);
+				continue;
+			}
+			lineStart = false;
+
+			final int tokenStart = position;
+			final boolean negative = b == '-';
+			if (negative) {
+				position++;
+			}
+			long value = 0;
+			final int digitStart = position;
+			while (position < end) {
+				final byte digit = buffer.get(position);
+				if ((digit < '0') || (digit > '9')) {
+					break;
+				}
+				value = (value * 10) + (digit - '0');
+				if (value > variableCount) {
+					throw new ParseException("Illegal literal", getLineNumber(tokenStart));
+				}
+				position++;
+			}
+			if ((position == digitStart) || ((position < end) && !isWhitespace(buffer.get(position))) || (negative && (value == 0))) {
+				throw new ParseException("Illegal literal", getLineNumber(tokenStart));
+			}
+
+			if (value == 0) {
+				if (chunk.size == 0) {
+					chunk.leadingClauseEndPosition = tokenStart;
+				} else if (previousClauseEnd) {
+					throw new ParseException("Empty clause", getLineNumber(tokenStart));
+				}
+				previousClauseEnd = true;
+			} else {
+				previousClauseEnd = false;
+			}
+			chunk.add(negative ? (int) -value : (int) value);
+		}
+		return chunk;
+	}
+
+	private ClauseList mergeChunks(List<Chunk> chunks) throws ParseException {
+		int numberOfTokens = 0;
+		for (final Chunk chunk : chunks) {
+			numberOfTokens += chunk.size;
+		}
+		final ClauseList clauses = new ClauseList(clauseCount, Math.max(1, numberOfTokens - clauseCount));
+		int clauseLength = 0;
+		for (final Chunk chunk : chunks) {
+			if ((chunk.leadingClauseEndPosition >= 0) && (clauseLength == 0)) {
+				throw new ParseException("Empty clause", getLineNumber(chunk.leadingClauseEndPosition));
+			}
+			final int[] tokens = chunk.tokens;
+			for (int i = 0; i < chunk.size; i++) {
+				final int token = tokens[i];
+				if (token == 0) {
+					if (clauses.size() == clauseCount) {
+						throw new ParseException(String.format("Found more than %d clauses", clauseCount), 1);
+					}
+					clauses.endClause();
+					clauseLength = 0;
+				} else {
+					clauses.addLiteral(token);
+					clauseLength++;
+				}
+			}
+		}
+		if (clauseLength > 0) {
+			if (clauses.size() == clauseCount) {
+				throw new ParseException(String.format("Found more than %d clauses", clauseCount), 1);
+			}
+			clauses.endClause();
+		}
+		if (clauses.size() < clauseCount) {
+			throw new ParseException(String.format("Found %d instead of %d clauses", clauses.size(), clauseCount), 1);
+		}
+		return clauses;
+	}
+
+}
@@ -20,6 +20,8 @@
  */
 package de.ovgu.featureide.fm.core.io.dimacs;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashMap;
@@ -30,9 +32,12 @@ import java.util.Map.Entry;
 import org.prop4j.And;
 import org.prop4j.Literal;
 import org.prop4j.Node;
+import org.prop4j.solver.ClauseList;
+import org.prop4j.solver.SatInstance;
 
 /**
- * Transforms instances of {@link Node} into DIMACS CNF file format.
+ * Transforms instances of {@link Node} into DIMACS CNF file format. Instances of {@link SatInstance} can be written directly to a {@link Writer} without
+ * creating the whole output in memory.
  *
  * @author Timo G&uuml;nther
  */
@@ -89,6 +94,54 @@ public class DimacsWriter {
 		}
 	}
 
+	/**
+	 * Writes the clauses of the given instance in the DIMACS CNF file format. Each clause is written as soon as it is transformed. The variables keep their
+	 * indexes.
+	 *
+	 * @param satInstance the instance to transform; not null
+	 * @param out the target, which should be buffered; not closed by this method
+	 * @throws IOException if the output cannot be written
+	 */
+	public void write(SatInstance satInstance, Writer out) throws IOException {
+		final String lineSeparator = System.lineSeparator();
+		final int numberOfVariables = satInstance.getNumberOfVariables();
+		final ClauseList clauses = satInstance.getClauses();
+
+		final StringBuilder sb = new StringBuilder();
+		if (writeVariableDirectory) {
+			for (int i = 1; i <= numberOfVariables; i++) {
+				sb.append(DIMACSFormat.COMMENT_START);
+				sb.append(i);
+				sb.append(' ');
+				sb.append(satInstance.getVariableObject(i));
+				sb.append(lineSeparator);
+				out.append(sb);
+				sb.setLength(0);
+			}
+		}
+		sb.append(DIMACSFormat.PROBLEM);
+		sb.append(' ');
+		sb.append(DIMACSFormat.CNF);
+		sb.append(' ');
+		sb.append(numberOfVariables);
+		sb.append(' ');
+		sb.append(clauses.size());
+		sb.append(lineSeparator);
+		out.append(sb);
+
+		final int[] literals = clauses.getLiterals();
+		for (int i = 0; i < clauses.size(); i++) {
+			sb.setLength(0);
+			for (int j = clauses.getStart(i); j < clauses.getEnd(i); j++) {
+				sb.append(literals[j]);
+				sb.append(' ');
+			}
+			sb.append(DIMACSFormat.CLAUSE_END);
+			sb.append(lineSeparator);
+			out.append(sb);
+		}
+	}
+
 	/**
 	 * Adds the given variable. This means assigning an index to it.
 	 *
@@ -110,6 +110,18 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 		}
 
 		protected abstract T createObject(Path path, final IPersistentFormat<T> format) throws NoSuchExtensionException;
+
+		/**
+		 * Fills the object from a cache of the file instead of parsing its content. Does nothing by default.
+		 *
+		 * @param path The path pointing to the file.
+		 * @param content The current content of the file.
+		 * @param object The object to fill.
+		 * @return {@code true} if the object was read from a cache, {@code false} if the content must be parsed.
+		 */
+		protected boolean readCache(Path path, CharSequence content, T object) {
+			return false;
+		}
 	}
 
 	public static final Charset DEFAULT_CHARSET = Charset.forName("UTF-8");
@@ -210,7 +222,9 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 					final T object = objectCreator.createObject(path, format);
 					fileHandler.setObject(object);
 					fileHandler.setFormat(format);
-					fileHandler.parse(content);
+					if (!objectCreator.readCache(path, content, object)) {
+						fileHandler.parse(content);
+					}
 				} catch (final NoSuchExtensionException e) {
 					fileHandler.getLastProblems().add(new Problem(e));
 				}
@@ -310,9 +324,11 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 		if (FileSystem.exists(identifier.getPath())) {
 			try {
 				final String content = new String(FileSystem.read(identifier.getPath()), DEFAULT_CHARSET);
-				final ProblemList problems = identifier.getFormat().getInstance().read(variableObject, content);
-				if (problems != null) {
-					lastProblems.addAll(problems);
+				if (!readCache(content, variableObject)) {
+					final ProblemList problems = identifier.getFormat().getInstance().read(variableObject, content);
+					if (problems != null) {
+						lastProblems.addAll(problems);
+					}
 				}
 			} catch (final Exception e) {
 				handleException(e);
@@ -328,6 +344,18 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 
 	protected abstract T copyObject(T oldObject);
 
+	/**
+	 * Fills the object from a cache of the file instead of parsing its content. Does nothing by default.<br/> Note that this method is called from the
+	 * constructor.
+	 *
+	 * @param content The current content of the file.
+	 * @param object The object to fill.
+	 * @return {@code true} if the object was read from a cache, {@code false} if the content must be parsed.
+	 */
+	protected boolean readCache(CharSequence content, T object) {
+		return false;
+	}
+
 	@Override
 	public T getObject() {
 		synchronized (syncObject) {
@@ -391,9 +419,11 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 			final T tempObject = copyObject(persistentObject);
 			try {
 				final String content = new String(FileSystem.read(identifier.getPath()), DEFAULT_CHARSET);
-				final List<Problem> problemList = identifier.getFormat().getInstance().read(tempObject, content);
-				if (problemList != null) {
-					lastProblems.addAll(problemList);
+				if (!readCache(content, tempObject)) {
+					final List<Problem> problemList = identifier.getFormat().getInstance().read(tempObject, content);
+					if (problemList != null) {
+						lastProblems.addAll(problemList);
+					}
 				}
 				changed = hasChanged(tempObject);
 			} catch (final Exception e) {
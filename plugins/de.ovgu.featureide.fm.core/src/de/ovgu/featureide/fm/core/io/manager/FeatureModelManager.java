@@ -20,20 +20,34 @@
  */
 package de.ovgu.featureide.fm.core.io.manager;
 
+import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.annotation.CheckForNull;
 
 import de.ovgu.featureide.fm.core.ExtensionManager.NoSuchExtensionException;
+import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
 import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
 import de.ovgu.featureide.fm.core.base.impl.FMFormatManager;
+import de.ovgu.featureide.fm.core.io.FeatureModelCache;
+import de.ovgu.featureide.fm.core.io.FileSystem;
 import de.ovgu.featureide.fm.core.io.IFeatureModelFormat;
 import de.ovgu.featureide.fm.core.io.IPersistentFormat;
+import de.ovgu.featureide.fm.core.io.ProblemList;
 
 /**
- * Responsible to load and save all information for a feature model instance.
+ * Responsible to load and save all information for a feature model instance.<br/> When a feature model is saved, a binary {@link FeatureModelCache} is
+ * written as well, if the saved content can be parsed without problems. As long as the content of the file does not change, the feature model, its CNF, and
+ * the results of the last analysis are restored from this cache instead of parsing the file.
  *
  * @author Sebastian Krieter
  */
@@ -48,8 +62,117 @@ public class FeatureModelManager extends AFileManager<IFeatureModel> {
 				featureModel.setSourceFile(path);
 				return featureModel;
 			}
+
+			@Override
+			protected boolean readCache(Path path, CharSequence content, IFeatureModel object) {
+				return FeatureModelManager.readCache(path, content, object);
+			}
 		};
 
+	/**
+	 * Returns the path of the binary cache for a feature model file. The cache is stored in the same folder as the other extra information (see
+	 * {@link #constructExtraPath(Path, de.ovgu.featureide.fm.core.io.IPersistentFormat) constructExtraPath}).
+	 *
+	 * @param path The path pointing to the feature model file.
+	 * @return The path to the cache file.
+	 *
+	 * @throws IllegalArgumentException If path is empty.
+	 */
+	public static Path getCachePath(Path path) throws IllegalArgumentException {
+		final Path mainPath = path.toAbsolutePath();
+		final Path mainFileNamePath = mainPath.getFileName();
+		if (mainFileNamePath == null) {
+			throw new IllegalArgumentException("Path " + path + " can not be transformed.");
+		}
+		final String mainFileNameString = mainFileNamePath.toString();
+		return mainPath.resolveSibling(".featureide").resolve(mainFileNameString).resolve(mainFileNameString + "." + FeatureModelCache.SUFFIX);
+	}
+
+	/**
+	 * Fills a feature model from the cache of a file. The cache is only used if it was created for the given content. The cached CNF is passed to the
+	 * {@link FeatureModelAnalyzer} of the feature model (see {@link FeatureModelAnalyzer#setCachedSatInstance(org.prop4j.solver.SatInstance)}).<br/> As a
+	 * cache is only written for content that can be parsed without problems, there are no problems to report for a feature model read from a cache.
+	 *
+	 * @param path The path pointing to the feature model file.
+	 * @param content The current content of the file.
+	 * @param featureModel The feature model to fill.
+	 * @return {@code true} if the feature model was read from the cache, {@code false} otherwise.
+	 */
+	public static boolean readCache(Path path, CharSequence content, IFeatureModel featureModel) {
+		try {
+			final FeatureModelCache cache = FeatureModelCache.open(getCachePath(path), FeatureModelCache.computeHash(content));
+			if (cache != null) {
+				cache.readFeatureModel(featureModel);
+				featureModel.getAnalyser().setCachedSatInstance(cache.getSatInstance());
+				final int[] valid = cache.getAnalysisResult(FeatureModelCache.RESULT_VALID);
+				if ((valid != null) && (valid.length == 1)) {
+					final List<String> variables = cache.getVariables();
+					featureModel.getAnalyser().setCachedResults(valid[0] != 0,
+							getFeatures(featureModel, variables, cache.getAnalysisResult(FeatureModelCache.RESULT_CORE_FEATURES)),
+							getFeatures(featureModel, variables, cache.getAnalysisResult(FeatureModelCache.RESULT_DEAD_FEATURES)),
+							getFeatures(featureModel, variables, cache.getAnalysisResult(FeatureModelCache.RESULT_FALSE_OPTIONAL_FEATURES)));
+				}
+				return true;
+			}
+		} catch (IOException | RuntimeException e) {
+			Logger.logError(e);
+		}
+		return false;
+	}
+
+	private static List<IFeature> getFeatures(IFeatureModel featureModel, List<String> variables, int[] indexes) {
+		final List<IFeature> features = new ArrayList<>();
+		if (indexes != null) {
+			for (final int index : indexes) {
+				features.add(featureModel.getFeature(variables.get(index - 1)));
+			}
+		}
+		return features;
+	}
+
+	/**
+	 * Writes the cache of a feature model file. Besides the feature model, the cache contains its CNF and the results of the last analysis of the
+	 * {@link FeatureModelAnalyzer}, if they were computed for the current state of the feature model (see {@link FeatureModelAnalyzer#hasCurrentResults()}).
+	 *
+	 * @param path The path pointing to the feature model file.
+	 * @param content The current content of the file, which must correspond to the feature model and must be parsable without problems.
+	 * @param featureModel The feature model.
+	 * @return {@code true} if the cache was written, {@code false} otherwise.
+	 */
+	public static boolean writeCache(Path path, CharSequence content, IFeatureModel featureModel) {
+		final FeatureModelAnalyzer analyser = featureModel.getAnalyser();
+		final Map<String, int[]> analysisResults = new LinkedHashMap<>();
+		if (analyser.hasCurrentResults()) {
+			final Map<String, Integer> variableIndexes = new HashMap<>();
+			for (final String variable : FeatureUtils.getFeatureNamesPreorder(featureModel)) {
+				variableIndexes.put(variable, variableIndexes.size() + 1);
+			}
+			analysisResults.put(FeatureModelCache.RESULT_VALID, new int[] { analyser.getCachedValidity() ? 1 : 0 });
+			analysisResults.put(FeatureModelCache.RESULT_CORE_FEATURES, getIndexes(variableIndexes, analyser.getCachedCoreFeatures()));
+			analysisResults.put(FeatureModelCache.RESULT_DEAD_FEATURES, getIndexes(variableIndexes, analyser.getCachedDeadFeatures()));
+			analysisResults.put(FeatureModelCache.RESULT_FALSE_OPTIONAL_FEATURES, getIndexes(variableIndexes, analyser.getCachedFalseOptionalFeatures()));
+		}
+		try {
+			FeatureModelCache.write(getCachePath(path), FeatureModelCache.computeHash(content), featureModel, analyser.getCnf(), analysisResults);
+			return true;
+		} catch (IOException | RuntimeException e) {
+			Logger.logError(e);
+			return false;
+		}
+	}
+
+	private static int[] getIndexes(Map<String, Integer> variableIndexes, Iterable<IFeature> features) {
+		final List<Integer> indexList = new ArrayList<>();
+		for (final IFeature feature : features) {
+			indexList.add(variableIndexes.get(feature.getName()));
+		}
+		final int[] indexes = new int[indexList.size()];
+		for (int i = 0; i < indexes.length; i++) {
+			indexes[i] = indexList.get(i);
+		}
+		return indexes;
+	}
+
 	/**
 	 * Returns an instance of a {@link IFileManager} for a certain file. Creates a new instance if none is available (Equivalent to calling
 	 * {@link #getInstance(Path, boolean) getInstance(path, true)}).
@@ -93,6 +216,8 @@ public class FeatureModelManager extends AFileManager<IFeatureModel> {
 		return save(featureModel, outPath, format);
 	}
 
+	private FeatureModelCache cache;
+
 	protected FeatureModelManager(IFeatureModel model, FileIdentifier<IFeatureModel> identifier) {
 		super(setSourcePath(model, identifier.getPath()), identifier);
 	}
@@ -102,6 +227,73 @@ public class FeatureModelManager extends AFileManager<IFeatureModel> {
 		return model;
 	}
 
+	@Override
+	protected boolean readCache(CharSequence content, IFeatureModel object) {
+		return readCache(identifier.getPath(), content, object);
+	}
+
+	@Override
+	protected void setPersistentObject(IFeatureModel persistentObject) {
+		super.setPersistentObject(persistentObject);
+		cache = null;
+	}
+
+	/**
+	 * Returns the cache for the current content of the file. The cache is opened on the first call.
+	 *
+	 * @return The cache or {@code null} if there is no valid cache for the current content.
+	 */
+	@CheckForNull
+	public FeatureModelCache getCache() {
+		synchronized (syncObject) {
+			if (cache == null) {
+				try {
+					final String content = new String(FileSystem.read(identifier.getPath()), DEFAULT_CHARSET);
+					cache = FeatureModelCache.open(getCachePath(identifier.getPath()), FeatureModelCache.computeHash(content));
+				} catch (final IOException e) {
+					Logger.logError(e);
+				}
+			}
+			return cache;
+		}
+	}
+
+	/**
+	 * Writes the cache for the current content of the file. The results of the last analysis are only included if the feature model has no unsaved
+	 * changes.<br/> The cache is only written if the content can be parsed without problems, because the problems are not stored in the cache.
+	 *
+	 * @return {@code true} if the cache was written, {@code false} otherwise.
+	 */
+	public boolean writeCache() {
+		synchronized (syncObject) {
+			if (persistentObject == null) {
+				return false;
+			}
+			final String content;
+			try {
+				content = new String(FileSystem.read(identifier.getPath()), DEFAULT_CHARSET);
+			} catch (final IOException e) {
+				Logger.logError(e);
+				return false;
+			}
+			cache = null;
+			final ProblemList problems = identifier.getFormat().getInstance().read(copyObject(persistentObject), content);
+			if ((problems != null) && !problems.isEmpty()) {
+				return false;
+			}
+			return writeCache(identifier.getPath(), content, hasChanged() ? persistentObject : variableObject);
+		}
+	}
+
+	@Override
+	public boolean save() {
+		final boolean success = super.save();
+		if (success) {
+			writeCache();
+		}
+		return success;
+	}
+
 	@Override
 	public void override() {
 		persistentObject.setUndoContext(variableObject.getUndoContext());
@@ -0,0 +1,416 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.xml;
+
+import static de.ovgu.featureide.fm.core.localization.StringTable.ABSTRACT;
+import static de.ovgu.featureide.fm.core.localization.StringTable.CALCULATIONS;
+import static de.ovgu.featureide.fm.core.localization.StringTable.COMMENTS;
+import static de.ovgu.featureide.fm.core.localization.StringTable.HIDDEN;
+import static de.ovgu.featureide.fm.core.localization.StringTable.MANDATORY;
+import static de.ovgu.featureide.fm.core.localization.StringTable.NOT;
+import static de.ovgu.featureide.fm.core.localization.StringTable.WRONG_SYNTAX;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.prop4j.And;
+import org.prop4j.AtMost;
+import org.prop4j.Equals;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelFactory;
+import de.ovgu.featureide.fm.core.base.IPropertyContainer.Entry;
+import de.ovgu.featureide.fm.core.base.IPropertyContainer.Type;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
+
+/**
+ * Reads a feature model in the FeatureIDE XML format in a single pass over a {@link XMLStreamReader}, i.e., without building a DOM first. The line numbers
+ * for error markers are taken from the current location of the stream. References to features in constraints and in the feature order are checked after the
+ * whole document was read, because these sections may precede the struct section.
+ *
+ * @author FeatureIDE Team
+ */
+public class XmlFeatureModelStreamReader implements XMLFeatureModelTags {
+
+	private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
+
+	static {
+		INPUT_FACTORY.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+		INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+	}
+
+	private final IFeatureModel object;
+
+	private IFeatureModelFactory factory;
+	private XMLStreamReader reader;
+
+	/**
+	 * Names of referenced features that did not exist when they were read, mapped to the line of their first reference.
+	 */
+	private final Map<String, Integer> unresolvedReferences = new LinkedHashMap<>();
+	private final Map<String, Set<Entry<String, Type, Object>>> customProperties = new LinkedHashMap<>();
+
+	public XmlFeatureModelStreamReader(IFeatureModel object) {
+		this.object = object;
+	}
+
+	/**
+	 * Resets the feature model and reads a new one from the given source.
+	 *
+	 * @param source the XML document
+	 * @throws XMLStreamException if the document is not well-formed
+	 * @throws UnsupportedModelException if the document does not describe a valid feature model
+	 */
+	public void read(Reader source) throws XMLStreamException, UnsupportedModelException {
+		object.reset();
+		factory = FMFactoryManager.getFactory(object);
+		unresolvedReferences.clear();
+		customProperties.clear();
+
+		reader = INPUT_FACTORY.createXMLStreamReader(source);
+		try {
+			while (reader.hasNext()) {
+				if ((reader.next() == XMLStreamConstants.START_ELEMENT) && reader.getLocalName().equals(FEATURE_MODEL)) {
+					readFeatureModel();
+				}
+			}
+		} finally {
+			reader.close();
+			reader = null;
+		}
+
+		for (final Map.Entry<String, Integer> reference : unresolvedReferences.entrySet()) {
+			if (object.getFeature(reference.getKey()) == null) {
+				throw new UnsupportedModelException("Feature \"" + reference.getKey() + "\" does not exists", reference.getValue());
+			}
+		}
+		if (object.getStructure().getRoot() == null) {
+			throw new UnsupportedModelException(WRONG_SYNTAX, 1);
+		}
+		for (final Map.Entry<String, Set<Entry<String, Type, Object>>> properties : customProperties.entrySet()) {
+			object.getFeature(properties.getKey()).getCustomProperties().setEntrySet(properties.getValue());
+		}
+	}
+
+	/**
+	 * Moves to the next start or end tag and ignores text, comments, and processing instructions.
+	 *
+	 * @return {@link XMLStreamConstants#START_ELEMENT} or {@link XMLStreamConstants#END_ELEMENT}
+	 */
+	private int nextTag() throws XMLStreamException {
+		while (true) {
+			final int event = reader.next();
+			if ((event == XMLStreamConstants.START_ELEMENT) || (event == XMLStreamConstants.END_ELEMENT)) {
+				return event;
+			}
+		}
+	}
+
+	/**
+	 * Skips the current element including all of its children.
+	 */
+	private void skipElement() throws XMLStreamException {
+		int depth = 1;
+		while (depth > 0) {
+			depth += (nextTag() == XMLStreamConstants.START_ELEMENT) ? 1 : -1;
+		}
+	}
+
+	private int getLine() {
+		return reader.getLocation().getLineNumber();
+	}
+
+	private void addReference(String featureName, int line) {
+		if ((object.getFeature(featureName) == null) && !unresolvedReferences.containsKey(featureName)) {
+			unresolvedReferences.put(featureName, line);
+		}
+	}
+
+	private void readFeatureModel() throws XMLStreamException, UnsupportedModelException {
+		while (nextTag() == XMLStreamConstants.START_ELEMENT) {
+			final String tagName = reader.getLocalName();
+			if (tagName.equals(STRUCT)) {
+				readFeatures(null);
+			} else if (tagName.equals(CONSTRAINTS)) {
+				readConstraints();
+			} else if (tagName.equals(CALCULATIONS)) {
+				readCalculations();
+			} else if (tagName.equals(COMMENTS)) {
+				readComments();
+			} else if (tagName.equals(FEATURE_ORDER)) {
+				readFeatureOrder();
+			} else if (tagName.equals(PROPERTIES)) {
+				readProperties();
+			} else {
+				skipElement();
+			}
+		}
+	}
+
+	private void readFeatures(IFeature parent) throws XMLStreamException, UnsupportedModelException {
+		while (nextTag() == XMLStreamConstants.START_ELEMENT) {
+			final String tagName = reader.getLocalName();
+			final int line = getLine();
+			if (tagName.equals(DESCRIPTION)) {
+				String description = reader.getElementText();
+				if (!description.isEmpty()) {
+					description = description.replace("\t", "");
+					description = description.substring(1, description.length() - 1);
+					description = description.trim();
+					parent.getProperty().setDescription(description);
+				}
+				continue;
+			}
+
+			boolean mandatory = false;
+			boolean _abstract = false;
+			boolean hidden = false;
+			String name = "";
+			for (int i = 0; i < reader.getAttributeCount(); i++) {
+				final String attributeName = reader.getAttributeLocalName(i);
+				final String attributeValue = reader.getAttributeValue(i);
+				if (attributeName.equals(ABSTRACT)) {
+					_abstract = attributeValue.equals(TRUE);
+				} else if (attributeName.equals(MANDATORY)) {
+					mandatory = attributeValue.equals(TRUE);
+				} else if (attributeName.equals(NAME)) {
+					name = attributeValue;
+				} else if (attributeName.equals(HIDDEN)) {
+					hidden = attributeValue.equals(TRUE);
+				} else if (attributeName.equals(COORDINATES)) {
+					// Legacy case, for backwards compatibility
+				} else {
+					throw new UnsupportedModelException("Unknown feature attribute: " + attributeName, line);
+				}
+			}
+
+			if (object.getFeature(name) != null) {
+				throw new UnsupportedModelException("Duplicate entry for feature: " + name, line);
+			}
+			final IFeature f = factory.createFeature(object, name);
+			f.getStructure().setMandatory(true);
+			if (tagName.equals(AND)) {
+				f.getStructure().setAnd();
+			} else if (tagName.equals(ALT)) {
+				f.getStructure().setAlternative();
+			} else if (tagName.equals(OR)) {
+				f.getStructure().setOr();
+			} else if (!tagName.equals(FEATURE)) {
+				throw new UnsupportedModelException("Unknown feature type: " + tagName, line);
+			}
+			f.getStructure().setAbstract(_abstract);
+			f.getStructure().setMandatory(mandatory);
+			f.getStructure().setHidden(hidden);
+
+			object.addFeature(f);
+			if (parent == null) {
+				object.getStructure().setRoot(f.getStructure());
+			} else {
+				parent.getStructure().addChild(f.getStructure());
+			}
+			readFeatures(f);
+		}
+	}
+
+	private void readConstraints() throws XMLStreamException, UnsupportedModelException {
+		while (nextTag() == XMLStreamConstants.START_ELEMENT) {
+			final String tagName = reader.getLocalName();
+			final int line = getLine();
+			if (!tagName.equals(RULE)) {
+				throw new UnsupportedModelException("Unknown constraint node: " + tagName, line);
+			}
+			for (int i = 0; i < reader.getAttributeCount(); i++) {
+				final String attributeName = reader.getAttributeLocalName(i);
+				if (!attributeName.equals(COORDINATES)) {
+					throw new UnsupportedModelException("Unknown constraint attribute: " + attributeName, line);
+				}
+			}
+			final List<String> description = new ArrayList<>(1);
+			final IConstraint c = factory.createConstraint(object, readConstraintNodes(description).getFirst());
+			for (final String constraintDescription : description) {
+				c.setDescription(constraintDescription);
+			}
+			object.addConstraint(c);
+		}
+	}
+
+	/**
+	 * Reads the children of the current element as propositional nodes.
+	 *
+	 * @param description output parameter for the descriptions of a rule or {@code null} if the current element is not a rule
+	 */
+	private LinkedList<Node> readConstraintNodes(List<String> description) throws XMLStreamException, UnsupportedModelException {
+		final LinkedList<Node> nodes = new LinkedList<>();
+		LinkedList<Node> children;
+		while (nextTag() == XMLStreamConstants.START_ELEMENT) {
+			final String tagName = reader.getLocalName();
+			final int line = getLine();
+			if (tagName.equals(DISJ)) {
+				nodes.add(new Or(readConstraintNodes(null)));
+			} else if (tagName.equals(CONJ)) {
+				nodes.add(new And(readConstraintNodes(null)));
+			} else if (tagName.equals(EQ)) {
+				children = readConstraintNodes(null);
+				nodes.add(new Equals(children.get(0), children.get(1)));
+			} else if (tagName.equals(IMP)) {
+				children = readConstraintNodes(null);
+				nodes.add(new Implies(children.get(0), children.get(1)));
+			} else if (tagName.equals(NOT)) {
+				nodes.add(new Not(readConstraintNodes(null).getFirst()));
+			} else if (tagName.equals(ATMOST1)) {
+				nodes.add(new AtMost(1, readConstraintNodes(null)));
+			} else if (tagName.equals(VAR)) {
+				final String featureName = reader.getElementText();
+				addReference(featureName, line);
+				nodes.add(new Literal(featureName));
+			} else if (tagName.equals(DESCRIPTION)) {
+				if (description == null) {
+					skipElement();
+				} else {
+					String text = reader.getElementText();
+					if (!text.isEmpty()) {
+						text = text.replace("\t", "");
+						text = text.trim();
+					}
+					description.add(text);
+				}
+			} else {
+				throw new UnsupportedModelException("Unknown constraint type: " + tagName, line);
+			}
+		}
+		return nodes;
+	}
+
+	private void readCalculations() throws XMLStreamException, UnsupportedModelException {
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			final String attributeName = reader.getAttributeLocalName(i);
+			final boolean value = reader.getAttributeValue(i).equals(TRUE);
+			if (attributeName.equals(CALCULATE_AUTO)) {
+				object.getAnalyser().runCalculationAutomatically = value;
+			} else if (attributeName.equals(CALCULATE_CONSTRAINTS)) {
+				object.getAnalyser().calculateConstraints = value;
+			} else if (attributeName.equals(CALCULATE_REDUNDANT)) {
+				object.getAnalyser().calculateRedundantConstraints = value;
+			} else if (attributeName.equals(CALCULATE_FEATURES)) {
+				object.getAnalyser().calculateFeatures = value;
+			} else if (attributeName.equals(CALCULATE_TAUTOLOGY)) {
+				object.getAnalyser().calculateTautologyConstraints = value;
+			} else {
+				throw new UnsupportedModelException("Unknown calculations attribute: " + attributeName, getLine());
+			}
+		}
+		skipElement();
+	}
+
+	private void readComments() throws XMLStreamException, UnsupportedModelException {
+		while (nextTag() == XMLStreamConstants.START_ELEMENT) {
+			final String tagName = reader.getLocalName();
+			if (tagName.equals(C)) {
+				object.getProperty().addComment(reader.getElementText());
+			} else {
+				throw new UnsupportedModelException("Unknown comment attribute: " + tagName, getLine());
+			}
+		}
+	}
+
+	private void readFeatureOrder() throws XMLStreamException, UnsupportedModelException {
+		final List<String> order = new ArrayList<>();
+		int depth = 1;
+		while (depth > 0) {
+			final int line = getLine();
+			for (int i = 0; i < reader.getAttributeCount(); i++) {
+				final String attributeName = reader.getAttributeLocalName(i);
+				final String attributeValue = reader.getAttributeValue(i);
+				if (attributeName.equals(USER_DEFINED)) {
+					object.setFeatureOrderUserDefined(attributeValue.equals(TRUE));
+				} else if (attributeName.equals(NAME)) {
+					addReference(attributeValue, line);
+					order.add(attributeValue);
+				} else {
+					throw new UnsupportedModelException("Unknown feature order attribute: " + attributeName, line);
+				}
+			}
+			// move to the next start tag, such that its attributes are processed in the next iteration
+			while ((depth > 0) && (nextTag() == XMLStreamConstants.END_ELEMENT)) {
+				depth--;
+			}
+			if (depth > 0) {
+				depth++;
+			}
+		}
+		if (!order.isEmpty()) {
+			object.setFeatureOrderList(order);
+		}
+	}
+
+	private void readProperties() throws XMLStreamException {
+		while (nextTag() == XMLStreamConstants.START_ELEMENT) {
+			final String tagName = reader.getLocalName();
+			if (!tagName.equals(XmlPropertyLoader.FEATURE)) {
+				throw new UnsupportedOperationException("Unkown domain which contains properties. Don't know where to attach them:" + tagName);
+			}
+			final String featureName = reader.getAttributeValue(null, XmlPropertyLoader.NAME);
+			if (featureName == null) {
+				throw new UnsupportedOperationException("Property container of type feature is missing required name attribute");
+			}
+			final Set<Entry<String, Type, Object>> entries = new HashSet<>();
+			int depth = 1;
+			while (depth > 0) {
+				if (nextTag() == XMLStreamConstants.END_ELEMENT) {
+					depth--;
+				} else {
+					depth++;
+					if (reader.getLocalName().equals(XmlPropertyLoader.PROPERTY)) {
+						final String key = reader.getAttributeValue(null, XmlPropertyLoader.KEY);
+						final String value = reader.getAttributeValue(null, XmlPropertyLoader.VALUE);
+						final String type = reader.getAttributeValue(null, XmlPropertyLoader.TYPE);
+						if ((key == null) || (value == null) || (type == null)) {
+							throw new UnsupportedOperationException("One property of container " + featureName + " is missing one of the required attributes: "
+								+ XmlPropertyLoader.KEY + ", " + XmlPropertyLoader.VALUE + "," + XmlPropertyLoader.TYPE);
+						}
+						XmlPropertyLoader.addPropertyEntry(entries, key, type, value);
+					}
+				}
+			}
+			customProperties.put(featureName, entries);
+		}
+	}
+
+}
@@ -0,0 +1,339 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.xml;
+
+import static de.ovgu.featureide.fm.core.localization.StringTable.ABSTRACT;
+import static de.ovgu.featureide.fm.core.localization.StringTable.CALCULATIONS;
+import static de.ovgu.featureide.fm.core.localization.StringTable.COMMENTS;
+import static de.ovgu.featureide.fm.core.localization.StringTable.HIDDEN;
+import static de.ovgu.featureide.fm.core.localization.StringTable.MANDATORY;
+import static de.ovgu.featureide.fm.core.localization.StringTable.NOT;
+
+import java.util.Collection;
+import java.util.Set;
+
+import org.prop4j.And;
+import org.prop4j.AtMost;
+import org.prop4j.Equals;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+
+import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureStructure;
+import de.ovgu.featureide.fm.core.base.IPropertyContainer.Entry;
+import de.ovgu.featureide.fm.core.base.IPropertyContainer.Type;
+
+/**
+ * Writes a feature model in the FeatureIDE XML format directly into a {@link StringBuilder}, i.e., without building a DOM first. The output is identical to
+ * the output of a {@link javax.xml.transform.Transformer} with indentation for the former DOM of {@link XmlFeatureModelFormat} (attributes in alphabetical
+ * order, an indentation of four spaces, and the same escaping of special characters).
+ *
+ * @author FeatureIDE Team
+ */
+public class XmlFeatureModelStreamWriter implements XMLFeatureModelTags {
+
+	private static final String INDENT = "    ";
+
+	private final String lineSeparator = System.getProperty("line.separator");
+
+	private final StringBuilder sb;
+
+	private int depth = 0;
+	/**
+	 * {@code true} if the last start tag is not closed yet, i.e., the current element has no content so far.
+	 */
+	private boolean startTagOpen = false;
+
+	public XmlFeatureModelStreamWriter(StringBuilder sb) {
+		this.sb = sb;
+	}
+
+	public void write(IFeatureModel featureModel) {
+		sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>");
+		startElement(FEATURE_MODEL);
+
+		startElement(PROPERTIES);
+		for (final IFeature feature : featureModel.getFeatures()) {
+			final Set<Entry<String, Type, Object>> propertyEntries = feature.getCustomProperties().entrySet();
+			if (!propertyEntries.isEmpty()) {
+				startElement(FEATURE);
+				writeAttribute(NAME, feature.getName());
+				for (final Entry<String, Type, Object> entry : propertyEntries) {
+					startElement(XmlPropertyLoader.PROPERTY);
+					writeAttribute(XmlPropertyLoader.TYPE, entry.getType().toString());
+					writeAttribute(XmlPropertyLoader.KEY, entry.getKey());
+					writeAttribute(XmlPropertyLoader.VALUE, entry.getValue().toString());
+					endElement(XmlPropertyLoader.PROPERTY);
+				}
+				endElement(FEATURE);
+			}
+		}
+		endElement(PROPERTIES);
+
+		startElement(STRUCT);
+		final IFeature root = FeatureUtils.getRoot(featureModel);
+		if (root != null) {
+			writeFeature(root.getStructure());
+		}
+		endElement(STRUCT);
+
+		startElement(CONSTRAINTS);
+		for (final IConstraint constraint : featureModel.getConstraints()) {
+			startElement(RULE);
+			writeDescription(constraint.getDescription());
+			writeNode(constraint.getNode());
+			endElement(RULE);
+		}
+		endElement(CONSTRAINTS);
+
+		final FeatureModelAnalyzer analyser = featureModel.getAnalyser();
+		startElement(CALCULATIONS);
+		writeAttribute(CALCULATE_AUTO, Boolean.toString(analyser.runCalculationAutomatically));
+		writeAttribute(CALCULATE_CONSTRAINTS, Boolean.toString(analyser.calculateConstraints));
+		writeAttribute(CALCULATE_FEATURES, Boolean.toString(analyser.calculateFeatures));
+		writeAttribute(CALCULATE_REDUNDANT, Boolean.toString(analyser.calculateRedundantConstraints));
+		writeAttribute(CALCULATE_TAUTOLOGY, Boolean.toString(analyser.calculateTautologyConstraints));
+		endElement(CALCULATIONS);
+
+		startElement(COMMENTS);
+		for (final String comment : featureModel.getProperty().getComments()) {
+			writeTextElement(C, comment);
+		}
+		endElement(COMMENTS);
+
+		startElement(FEATURE_ORDER);
+		writeAttribute(USER_DEFINED, Boolean.toString(featureModel.isFeatureOrderUserDefined()));
+		if (featureModel.isFeatureOrderUserDefined()) {
+			Collection<String> featureOrderList = featureModel.getFeatureOrderList();
+			if (featureOrderList.isEmpty()) {
+				featureOrderList = FeatureUtils.extractConcreteFeaturesAsStringList(featureModel);
+			}
+			for (final String featureName : featureOrderList) {
+				startElement(FEATURE);
+				writeAttribute(NAME, featureName);
+				endElement(FEATURE);
+			}
+		}
+		endElement(FEATURE_ORDER);
+
+		endElement(FEATURE_MODEL);
+	}
+
+	private void writeFeature(IFeatureStructure structure) {
+		final String tagName;
+		if (!structure.hasChildren()) {
+			tagName = FEATURE;
+		} else if (structure.isAnd()) {
+			tagName = AND;
+		} else if (structure.isOr()) {
+			tagName = OR;
+		} else if (structure.isAlternative()) {
+			tagName = ALT;
+		} else {
+			tagName = UNKNOWN;
+		}
+		startElement(tagName);
+		if (structure.isAbstract()) {
+			writeAttribute(ABSTRACT, TRUE);
+		}
+		if (structure.isHidden()) {
+			writeAttribute(HIDDEN, TRUE);
+		}
+		if (structure.isMandatory()) {
+			final IFeatureStructure parent = structure.getParent();
+			if ((parent == null) || parent.isAnd()) {
+				writeAttribute(MANDATORY, TRUE);
+			}
+		}
+		writeAttribute(NAME, structure.getFeature().getName());
+		writeDescription(structure.getFeature().getProperty().getDescription());
+		for (final IFeatureStructure child : structure.getChildren()) {
+			writeFeature(child);
+		}
+		endElement(tagName);
+	}
+
+	private void writeDescription(String description) {
+		if ((description != null) && !description.trim().isEmpty()) {
+			writeTextElement(DESCRIPTION, "\n" + description.replace("\r", "") + "\n");
+		}
+	}
+
+	private void writeNode(Node node) {
+		if (node == null) {
+			return;
+		}
+
+		final String tagName;
+		if (node instanceof Literal) {
+			final Literal literal = (Literal) node;
+			if (!literal.positive) {
+				startElement(NOT);
+				writeTextElement(VAR, String.valueOf(literal.var));
+				endElement(NOT);
+			} else {
+				writeTextElement(VAR, String.valueOf(literal.var));
+			}
+			return;
+		} else if (node instanceof Or) {
+			tagName = DISJ;
+		} else if (node instanceof Equals) {
+			tagName = EQ;
+		} else if (node instanceof Implies) {
+			tagName = IMP;
+		} else if (node instanceof And) {
+			tagName = CONJ;
+		} else if (node instanceof Not) {
+			tagName = NOT;
+		} else if (node instanceof AtMost) {
+			tagName = ATMOST1;
+		} else {
+			tagName = UNKNOWN;
+		}
+		startElement(tagName);
+		for (final Node child : node.getChildren()) {
+			writeNode(child);
+		}
+		endElement(tagName);
+	}
+
+	// XML output
+
+	private void closeStartTag() {
+		if (startTagOpen) {
+			sb.append('>');
+			startTagOpen = false;
+		}
+	}
+
+	private void newLine() {
+		sb.append(lineSeparator);
+		for (int i = 0; i < depth; i++) {
+			sb.append(INDENT);
+		}
+	}
+
+	/**
+	 * Starts a new element. Attributes must be written in alphabetical order directly after this call.
+	 */
+	private void startElement(String tagName) {
+		closeStartTag();
+		newLine();
+		sb.append('<');
+		sb.append(tagName);
+		startTagOpen = true;
+		depth++;
+	}
+
+	private void writeAttribute(String name, String value) {
+		sb.append(' ');
+		sb.append(name);
+		sb.append("=\"");
+		escape(value, true);
+		sb.append('"');
+	}
+
+	private void endElement(String tagName) {
+		depth--;
+		if (startTagOpen) {
+			sb.append("/>");
+			startTagOpen = false;
+		} else {
+			newLine();
+			sb.append("</");
+			sb.append(tagName);
+			sb.append('>');
+		}
+		if (depth == 0) {
+			sb.append(lineSeparator);
+		}
+	}
+
+	/**
+	 * Writes an element that contains only text.
+	 */
+	private void writeTextElement(String tagName, String text) {
+		startElement(tagName);
+		depth--;
+		if (text.isEmpty()) {
+			sb.append("/>");
+		} else {
+			sb.append('>');
+			escape(text, false);
+			sb.append("</");
+			sb.append(tagName);
+			sb.append('>');
+		}
+		startTagOpen = false;
+	}
+
+	private void escape(String text, boolean attribute) {
+		for (int i = 0; i < text.length(); i++) {
+			final char c = text.charAt(i);
+			switch (c) {
+			case '&':
+				sb.append("&amp;");
+				break;
+			case '<':
+				sb.append("&lt;");
+				break;
+			case '>':
+				sb.append("&gt;");
+				break;
+			case '"':
+				sb.append(attribute ? "&quot;" : "\"");
+				break;
+			case '\r':
+				sb.append("&#13;");
+				break;
+			case '\n':
+				sb.append(attribute ? "&#10;" : lineSeparator);
+				break;
+			case '\t':
+				sb.append(attribute ? "&#9;" : "\t");
+				break;
+			default:
+				if (Character.isHighSurrogate(c) && ((i + 1) < text.length()) && Character.isLowSurrogate(text.charAt(i + 1))) {
+					appendCharacterReference(Character.toCodePoint(c, text.charAt(++i)));
+				} else if ((c < 0x20) || (!attribute && (c >= 0x7F) && (c <= 0x9F))) {
+					appendCharacterReference(c);
+				} else {
+					sb.append(c);
+				}
+				break;
+			}
+		}
+	}
+
+	private void appendCharacterReference(int codePoint) {
+		sb.append("&#");
+		sb.append(codePoint);
+		sb.append(';');
+	}
+
+}
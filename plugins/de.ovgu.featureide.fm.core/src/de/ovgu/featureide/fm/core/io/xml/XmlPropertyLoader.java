@@ -149,25 +149,33 @@ public class XmlPropertyLoader {
 				throw new UnsupportedOperationException("One property of container " + propertyContainerNode.getAttribute(NAME)
 					+ " is missing one of the required attributes: " + KEY + ", " + VALUE + "," + TYPE);
 			} else {
-				final String key = property.getAttribute(KEY);
-				final Type type = Type.valueOf(property.getAttribute(TYPE));
-				final Object value = castValue(type, property.getAttribute(VALUE));
-				final Entry<String, Type, Object> entry = new Entry<String, IPropertyContainer.Type, Object>(key, type, value);
-				if (result.contains(entry)) {
-					for (final Entry<String, Type, Object> e : result) {
-						if (e.equals(entry) && (!(e.getValue().equals(entry.getValue()) && (e.getType().equals(entry.getType()))))) {
-							throw new IllegalStateException("Ambigous property definition for key: " + key);
-						}
-					}
-				} else {
-					result.add(entry);
-				}
+				addPropertyEntry(result, property.getAttribute(KEY), property.getAttribute(TYPE), property.getAttribute(VALUE));
 			}
 		}
 		return result;
 	}
 
-	private Object castValue(Type type, String value) {
+	/**
+	 * Adds a new property entry to the given set of entries.
+	 *
+	 * @throws IllegalStateException if the set already contains a different entry for the same key
+	 */
+	static void addPropertyEntry(Set<Entry<String, Type, Object>> entries, String key, String typeName, String valueString) {
+		final Type type = Type.valueOf(typeName);
+		final Object value = castValue(type, valueString);
+		final Entry<String, Type, Object> entry = new Entry<String, IPropertyContainer.Type, Object>(key, type, value);
+		if (entries.contains(entry)) {
+			for (final Entry<String, Type, Object> e : entries) {
+				if (e.equals(entry) && (!(e.getValue().equals(entry.getValue()) && (e.getType().equals(entry.getType()))))) {
+					throw new IllegalStateException("Ambigous property definition for key: " + key);
+				}
+			}
+		} else {
+			entries.add(entry);
+		}
+	}
+
+	private static Object castValue(Type type, String value) {
 		if ((value == null) || value.trim().isEmpty()) {
 			throw new RuntimeException("Property value is not allowed to be empty");
 		}
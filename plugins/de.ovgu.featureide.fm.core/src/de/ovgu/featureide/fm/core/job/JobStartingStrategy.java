@@ -47,12 +47,12 @@ public enum JobStartingStrategy {
 	WAIT,
 
 	/**
-	 * Waits for another job to finish, except a third job is already waiting.
+	 * Waits for another job to finish. If another job is already waiting, it is replaced by the given job.
 	 */
 	WAIT_ONE,
 
 	/**
-	 * Same as {@link #WAIT}, but attempts to cancel all previous jobs.
+	 * Same as {@link #WAIT}, but attempts to cancel all previous jobs (cancelled jobs that are still waiting finish without being executed).
 	 */
 	CANCEL_WAIT,
 
@@ -20,14 +20,16 @@
  */
 package de.ovgu.featureide.fm.core.job;
 
-import java.util.Iterator;
-import java.util.Queue;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.WeakHashMap;
-import java.util.concurrent.ConcurrentLinkedDeque;
-import java.util.concurrent.Semaphore;
+
+import de.ovgu.featureide.fm.core.job.util.JobFinishListener;
 
 /**
- * Maps related jobs.
+ * Maps related jobs.</br> Jobs with the same {@link JobToken} are executed one after another. Instead of blocking a thread for each waiting job, the next
+ * waiting job is scheduled as soon as the running job has finished. Depending on the {@link JobStartingStrategy}, a new job may replace a waiting job
+ * (coalescing).
  *
  * @author Sebastian Krieter
  */
@@ -35,11 +37,11 @@ public final class JobSynchronizer {
 
 	private static class JobEntry {
 
-		private final ConcurrentLinkedDeque<IRunner<?>> jobs = new ConcurrentLinkedDeque<>();
-		private final Semaphore semaphore = new Semaphore(1);
-
+		private final Deque<IRunner<?>> waitingJobs = new ArrayDeque<>();
 		private final JobStartingStrategy strategy;
 
+		private IRunner<?> runningJob = null;
+
 		public JobEntry(JobStartingStrategy strategy) {
 			this.strategy = strategy;
 		}
@@ -47,73 +49,76 @@ public final class JobSynchronizer {
 		private synchronized void run(IRunner<?> job) {
 			switch (strategy) {
 			case RETURN:
-				if (jobs.isEmpty()) {
-					start(job);
+				if ((runningJob == null) && waitingJobs.isEmpty()) {
+					enqueue(job);
 				}
 				break;
+			case WAIT:
+				enqueue(job);
+				break;
 			case WAIT_ONE:
-				if (jobs.size() > 1) {
-					return;
-				}
-			case WAIT: {
-				start(job);
+				waitingJobs.clear();
+				enqueue(job);
 				break;
-			}
-			case CANCEL_WAIT_ONE:
-				if (jobs.size() > 1) {
-					return;
-				}
 			case CANCEL_WAIT:
-				for (final Iterator<IRunner<?>> iterator = jobs.descendingIterator(); iterator.hasNext();) {
-					iterator.next().cancel();
-				}
-				start(job);
+				cancelRunningJob();
+				enqueue(job);
+				break;
+			case CANCEL_WAIT_ONE:
+				waitingJobs.clear();
+				cancelRunningJob();
+				enqueue(job);
 				break;
 			default:
 				throw new RuntimeException();
 			}
 		}
 
-		private void start(IRunner<?> job) {
-			jobs.offer(job);
-			new Starter(semaphore, jobs).start();
+		private void cancelRunningJob() {
+			if (runningJob != null) {
+				runningJob.cancel();
+			}
+			for (final IRunner<?> waitingJob : waitingJobs) {
+				waitingJob.cancel();
+			}
 		}
 
-		public synchronized void cancelAll() {
-			for (final Iterator<IRunner<?>> iterator = jobs.descendingIterator(); iterator.hasNext();) {
-				iterator.next().cancel();
-				iterator.remove();
+		private void enqueue(IRunner<?> job) {
+			waitingJobs.offer(job);
+			if (runningJob == null) {
+				startNext();
 			}
 		}
 
-	}
+		private void startNext() {
+			runningJob = waitingJobs.poll();
+			if (runningJob != null) {
+				start(runningJob);
+			}
+		}
 
-	private static class Starter extends Thread {
+		private <T> void start(IRunner<T> job) {
+			job.addJobFinishedListener(new JobFinishListener<T>() {
 
-		private final Semaphore semaphore;
-		private final Queue<IRunner<?>> jobs;
+				@Override
+				public void jobFinished(IJob<T> finishedJob) {
+					finishedJob.removeJobFinishedListener(this);
+					finished(finishedJob);
+				}
+			});
+			job.schedule();
+		}
 
-		public Starter(Semaphore semaphore, Queue<IRunner<?>> jobs) {
-			this.semaphore = semaphore;
-			this.jobs = jobs;
+		private synchronized void finished(IJob<?> job) {
+			if (runningJob == job) {
+				startNext();
+			}
 		}
 
-		@Override
-		public void run() {
-			try {
-				semaphore.acquire();
-				try {
-					final IRunner<?> job = jobs.peek();
-					if (job != null) {
-						job.schedule();
-						job.join();
-					}
-				} finally {
-					jobs.poll();
-					semaphore.release();
-				}
-			} catch (final InterruptedException e) {
-				return;
+		public synchronized void cancelAll() {
+			waitingJobs.clear();
+			if (runningJob != null) {
+				runningJob.cancel();
 			}
 		}
 
@@ -0,0 +1,254 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.job;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinPool.ManagedBlocker;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.ovgu.featureide.fm.core.Logger;
+
+/**
+ * Shared executor for {@link LongRunningThread jobs} and their subtasks. All tasks run in one bounded work-stealing {@link ForkJoinPool}.</br> Jobs are
+ * started in the order of their priority and, for equal priorities, in the order of their submission. Thus, interactive jobs are started before waiting
+ * background jobs. The priorities use the same values as Eclipse jobs (lower values are more urgent).
+ *
+ * @author FeatureIDE Team
+ */
+public final class LongRunningExecutor {
+
+	public static final int PRIORITY_INTERACTIVE = 10;
+	public static final int PRIORITY_SHORT = 20;
+	public static final int PRIORITY_LONG = 30;
+	public static final int PRIORITY_BUILD = 40;
+	public static final int PRIORITY_DECORATE = 50;
+
+	public static final int DEFAULT_PRIORITY = PRIORITY_LONG;
+
+	private static final class PrioritizedTask implements Comparable<PrioritizedTask> {
+
+		private final Runnable task;
+		private final int priority;
+		private final long sequenceNumber;
+
+		public PrioritizedTask(Runnable task, int priority, long sequenceNumber) {
+			this.task = task;
+			this.priority = priority;
+			this.sequenceNumber = sequenceNumber;
+		}
+
+		@Override
+		public int compareTo(PrioritizedTask other) {
+			if (priority != other.priority) {
+				return priority < other.priority ? -1 : 1;
+			}
+			return sequenceNumber < other.sequenceNumber ? -1 : (sequenceNumber == other.sequenceNumber ? 0 : 1);
+		}
+
+	}
+
+	/**
+	 * Each submitted job adds one dispatcher to the pool, which runs the most urgent waiting job once a worker is available.
+	 */
+	private static final Runnable DISPATCHER = new Runnable() {
+
+		@Override
+		public void run() {
+			final PrioritizedTask prioritizedTask = waitingTasks.poll();
+			if (prioritizedTask != null) {
+				final Integer previousPriority = currentPriority.get();
+				currentPriority.set(prioritizedTask.priority);
+				try {
+					prioritizedTask.task.run();
+				} catch (final Throwable e) {
+					Logger.logError(e);
+				} finally {
+					currentPriority.set(previousPriority);
+				}
+			}
+		}
+
+	};
+
+	private static final ForkJoinWorkerThreadFactory THREAD_FACTORY = new ForkJoinWorkerThreadFactory() {
+
+		@Override
+		public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+			final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			thread.setName("FeatureIDE-Worker-" + thread.getPoolIndex());
+			return thread;
+		}
+
+	};
+
+	private static final PriorityBlockingQueue<PrioritizedTask> waitingTasks = new PriorityBlockingQueue<>();
+
+	private static final ThreadLocal<Integer> currentPriority = new ThreadLocal<>();
+
+	private static final AtomicLong sequenceNumbers = new AtomicLong();
+
+	private static final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), THREAD_FACTORY, null, false);
+
+	private LongRunningExecutor() {}
+
+	/**
+	 * @return the pool that executes all jobs; can be used to fork subtasks of a job
+	 */
+	public static ForkJoinPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * @return the priority of the job that is running in the current thread or {@link #DEFAULT_PRIORITY} if the current thread does not run a job
+	 */
+	public static int getCurrentPriority() {
+		final Integer priority = currentPriority.get();
+		return priority != null ? priority : DEFAULT_PRIORITY;
+	}
+
+	/**
+	 * Runs the given job as soon as a worker is available and no more urgent job is waiting.
+	 *
+	 * @param job the job
+	 * @param priority the priority of the job; lower values are more urgent
+	 */
+	public static void execute(Runnable job, int priority) {
+		waitingTasks.offer(new PrioritizedTask(job, priority, sequenceNumbers.getAndIncrement()));
+		pool.execute(DISPATCHER);
+	}
+
+	/**
+	 * Runs the given subtask without considering priorities.
+	 *
+	 * @param task the task
+	 * @return the submitted task, which can be used to wait for the task
+	 */
+	public static ForkJoinTask<?> submit(Runnable task) {
+		return pool.submit(task);
+	}
+
+	/**
+	 * Runs the given subtask without considering priorities.
+	 *
+	 * @param task the task
+	 * @return the future of the task; wait for it with {@link #get(Future)}, which reports the exceptions of the task unchanged
+	 */
+	public static <T> Future<T> submit(Callable<T> task) {
+		final FutureTask<T> future = new FutureTask<>(task);
+		pool.execute(future);
+		return future;
+	}
+
+	/**
+	 * Waits until the given latch is released. If the current thread is a worker of the pool, the pool may start another worker in the meantime, so waiting
+	 * jobs cannot block all workers.
+	 *
+	 * @param latch the latch
+	 * @throws InterruptedException if the current thread is interrupted
+	 */
+	public static void await(final CountDownLatch latch) throws InterruptedException {
+		if (latch.getCount() == 0) {
+			return;
+		}
+		ForkJoinPool.managedBlock(new ManagedBlocker() {
+
+			@Override
+			public boolean block() throws InterruptedException {
+				latch.await();
+				return true;
+			}
+
+			@Override
+			public boolean isReleasable() {
+				return latch.getCount() == 0;
+			}
+		});
+	}
+
+	/**
+	 * Waits until the given thread terminates. If the current thread is a worker of the pool, the pool may start another worker in the meantime (see
+	 * {@link #await(CountDownLatch)}).
+	 *
+	 * @param thread the thread
+	 * @throws InterruptedException if the current thread is interrupted
+	 */
+	public static void join(final Thread thread) throws InterruptedException {
+		if (!thread.isAlive()) {
+			return;
+		}
+		ForkJoinPool.managedBlock(new ManagedBlocker() {
+
+			@Override
+			public boolean block() throws InterruptedException {
+				thread.join();
+				return true;
+			}
+
+			@Override
+			public boolean isReleasable() {
+				return !thread.isAlive();
+			}
+		});
+	}
+
+	/**
+	 * Waits for the result of the given future. If the current thread is a worker of the pool, the pool may start another worker in the meantime (see
+	 * {@link #await(CountDownLatch)}).
+	 *
+	 * @param future the future
+	 * @return the result
+	 * @throws InterruptedException if the current thread is interrupted
+	 * @throws ExecutionException if the task threw an exception
+	 */
+	public static <T> T get(final Future<T> future) throws InterruptedException, ExecutionException {
+		if (!future.isDone()) {
+			ForkJoinPool.managedBlock(new ManagedBlocker() {
+
+				@Override
+				public boolean block() throws InterruptedException {
+					try {
+						future.get();
+					} catch (final ExecutionException | CancellationException e) {
+						// reported by the caller
+					}
+					return true;
+				}
+
+				@Override
+				public boolean isReleasable() {
+					return future.isDone();
+				}
+			});
+		}
+		return future.get();
+	}
+
+}
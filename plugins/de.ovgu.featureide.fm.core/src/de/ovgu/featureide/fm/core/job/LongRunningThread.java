@@ -20,8 +20,9 @@
  */
 package de.ovgu.featureide.fm.core.job;
 
-import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 
 import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.functional.Functional.IConsumer;
@@ -30,32 +31,40 @@ import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
 import de.ovgu.featureide.fm.core.job.util.JobFinishListener;
 
 /**
- * Job that wraps the functionality of a {@link LongRunningMethod}.
+ * Job that wraps the functionality of a {@link LongRunningMethod}.</br> The job is executed by the shared {@link LongRunningExecutor} and can be scheduled
+ * more than once. Jobs with a higher priority (i.e., a lower priority value) are started before waiting jobs with a lower priority. If no priority is set, the
+ * job inherits the priority of the job that schedules it.
  *
  * @author Sebastian Krieter
  */
-// TODO Change to Runnable so it can be started more than once
-// TODO Implement prioritization
-public class LongRunningThread<T> extends Thread implements IRunner<T> {
+public class LongRunningThread<T> implements IRunner<T>, Runnable {
 
-	protected final List<JobFinishListener<T>> listenerList = new LinkedList<>();
+	protected final List<JobFinishListener<T>> listenerList = new CopyOnWriteArrayList<>();
 
+	private final String name;
 	private final LongRunningMethod<T> method;
 	private final IMonitor monitor;
-	private Executer<T> executer;
+	private volatile Executer<T> executer;
 
 	private int cancelingTimeout = -1;
-	private T methodResult = null;
-	private JobStatus status = JobStatus.NOT_STARTED;
+	private int priority = 0;
+	private volatile T methodResult = null;
+	private volatile JobStatus status = JobStatus.NOT_STARTED;
+	private volatile boolean canceled = false;
+	private volatile CountDownLatch finished = new CountDownLatch(0);
 
 	private boolean stoppable;
 
 	public LongRunningThread(String name, LongRunningMethod<T> method, IMonitor monitor) {
-		super(name);
+		this.name = name;
 		this.method = method;
 		this.monitor = monitor != null ? monitor : new NullMonitor();
 	}
 
+	public String getName() {
+		return name;
+	}
+
 	@Override
 	public void addJobFinishedListener(JobFinishListener<T> listener) {
 		if (!listenerList.contains(listener)) {
@@ -65,10 +74,12 @@ public class LongRunningThread<T> extends Thread implements IRunner<T> {
 
 	@Override
 	public boolean cancel() {
-		if (executer != null) {
-			executer.cancel();
+		canceled = true;
+		final Executer<T> currentExecuter = executer;
+		if (currentExecuter != null) {
+			currentExecuter.cancel();
 		}
-		return !isAlive();
+		return status != JobStatus.RUNNING;
 	}
 
 	public void fireEvent() {
@@ -111,32 +122,59 @@ public class LongRunningThread<T> extends Thread implements IRunner<T> {
 		listenerList.remove(listener);
 	}
 
+	@Override
+	public void join() throws InterruptedException {
+		LongRunningExecutor.await(finished);
+	}
+
 	@Override
 	public void run() {
-		// TODO check fo cancel at beginning
-		status = JobStatus.RUNNING;
+		final CountDownLatch currentFinished = finished;
 		try {
-			executer = stoppable ? new StoppableExecuter<>(method, cancelingTimeout) : new Executer<>(method);
-			methodResult = executer.execute(monitor);
-			status = JobStatus.OK;
-		} catch (final Exception e) {
-			Logger.logError(e);
-			status = JobStatus.FAILED;
-		} finally {
-			monitor.done();
-			for (final JobFinishListener<T> listener : listenerList) {
+			if (canceled) {
+				status = JobStatus.FAILED;
+			} else {
+				status = JobStatus.RUNNING;
 				try {
-					listener.jobFinished(this);
-				} catch (final Throwable e) {
+					executer = stoppable ? new StoppableExecuter<>(method, cancelingTimeout) : new Executer<>(method);
+					if (canceled) {
+						executer.cancel();
+					}
+					methodResult = executer.execute(monitor);
+					status = JobStatus.OK;
+				} catch (final Exception e) {
 					Logger.logError(e);
+					status = JobStatus.FAILED;
+				} finally {
+					executer = null;
+					monitor.done();
 				}
 			}
+		} finally {
+			canceled = false;
+			fireEvent();
+			currentFinished.countDown();
 		}
 	}
 
 	@Override
-	public void schedule() {
-		start();
+	public synchronized void schedule() {
+		if (finished.getCount() > 0) {
+			throw new IllegalStateException("Job " + name + " is already scheduled");
+		}
+		methodResult = null;
+		status = JobStatus.NOT_STARTED;
+		finished = new CountDownLatch(1);
+		LongRunningExecutor.execute(this, priority > 0 ? priority : LongRunningExecutor.getCurrentPriority());
+	}
+
+	@Override
+	public void setPriority(int priority) {
+		this.priority = priority;
+	}
+
+	public int getPriority() {
+		return priority;
 	}
 
 	@Override
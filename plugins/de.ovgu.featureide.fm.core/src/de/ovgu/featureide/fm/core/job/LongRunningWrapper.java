@@ -74,6 +74,15 @@ public final class LongRunningWrapper {
 		return getThread(method, "", monitor);
 	}
 
+	/**
+	 * Creates a job that is executed by the shared {@link LongRunningExecutor}. The priority of the job can be set via {@link IRunner#setPriority(int)}
+	 * (e.g., {@link LongRunningExecutor#PRIORITY_INTERACTIVE}).
+	 *
+	 * @param method the method to execute
+	 * @param name the name of the job
+	 * @param monitor the monitor of the job (may be {@code null})
+	 * @return a new job
+	 */
 	public static <T> IRunner<T> getThread(LongRunningMethod<T> method, String name, IMonitor monitor) {
 		return new LongRunningThread<>(name, method, monitor);
 	}
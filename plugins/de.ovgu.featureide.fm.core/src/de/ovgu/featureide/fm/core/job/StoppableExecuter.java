@@ -105,7 +105,8 @@ class StoppableExecuter<T> extends Executer<T> {
 			innerThread.start();
 		}
 		try {
-			innerThread.join();
+			// the job is executed by a worker of the shared pool, which may compensate for the blocked worker
+			LongRunningExecutor.join(innerThread);
 			if (innerThread.exception != null) {
 				throw innerThread.exception;
 			}
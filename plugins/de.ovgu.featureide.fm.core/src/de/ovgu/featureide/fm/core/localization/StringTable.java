@@ -1093,4 +1093,6 @@ public class StringTable {
 	public static final String ADD_LONG_ATTRIBUTE = "Add Long Attribute";
 	public static final String ADD_DOUBLE_ATTRIBUTE = "Add Double Attribute";
 	public static final String REMOVE_SELECTED_ATTRIBUTE = "Remove Selected Attribute";
+	public static final String COMPILE_PROPAGATOR = "Compile Propagator";
+	public static final String CALCULATE_EXPLANATIONS = "Calculate Explanations";
 }
@@ -106,6 +106,17 @@ public abstract class Node {
 		return cnf.clausifyCNF();
 	}
 
+	/**
+	 * Transforms this node into conjunctive normal form. If the distributive transformation would create more than the given number of clauses, the
+	 * {@link TseitinTransformer Tseitin transformation} is used instead, which introduces auxiliary variables.
+	 *
+	 * @param maxNumberOfClauses the maximum number of clauses for the distributive transformation
+	 * @return an equivalent or equisatisfiable node in conjunctive normal form
+	 */
+	public Node toCNF(int maxNumberOfClauses) {
+		return new TseitinTransformer(maxNumberOfClauses).toCNF(this);
+	}
+
 	public Node toDNF() {
 		Node cnf = this;
 		cnf = cnf.eliminateNonCNFOperators();
@@ -114,7 +125,23 @@ public abstract class Node {
 	}
 
 	public Node toRegularCNF() {
-		Node regularCNFNode = toCNF();
+		return toRegularCNF(toCNF());
+	}
+
+	/**
+	 * Transforms this node into conjunctive normal form, in which every clause is an {@link Or}. Uses the {@link TseitinTransformer Tseitin transformation}
+	 * if the distributive transformation would create more than the given number of clauses.
+	 *
+	 * @param maxNumberOfClauses the maximum number of clauses for the distributive transformation
+	 * @return an equivalent or equisatisfiable conjunction of clauses
+	 *
+	 * @see #toCNF(int)
+	 */
+	public Node toRegularCNF(int maxNumberOfClauses) {
+		return toRegularCNF(toCNF(maxNumberOfClauses));
+	}
+
+	private static Node toRegularCNF(Node regularCNFNode) {
 		if (regularCNFNode instanceof And) {
 			final Node[] children = regularCNFNode.getChildren();
 			for (int i = 0; i < children.length; i++) {
@@ -138,6 +165,13 @@ public abstract class Node {
 		return cnf;
 	}
 
+	/**
+	 * Returns the negation normal form of the given node, which only contains {@link And}, {@link Or}, and {@link Literal}.
+	 */
+	static Node toNNF(Node node) {
+		return deMorgan(node.eliminateNonCNFOperators());
+	}
+
 	protected final Node eliminateNonCNFOperators() {
 		if (children != null) {
 			final Node[] newChildren = new Node[children.length];
@@ -30,6 +30,13 @@ import org.sat4j.specs.ISolver;
 import org.sat4j.specs.IVecInt;
 import org.sat4j.specs.TimeoutException;
 
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Iterates over all models of a solver by adding a blocking clause for each found model. The models are computed lazily, such that callers can process them
+ * one at a time without storing them. All blocking clauses are removed again by {@link #reset()}. If the solver may have simplified its clause database in the
+ * meantime (e.g., after all models were enumerated), use the iterator on a copy of the solver instead.
+ */
 public class ReusableModelIterator implements Iterator<int[]> {
 
 	private final ISolver solver;
@@ -39,6 +46,8 @@ public class ReusableModelIterator implements Iterator<int[]> {
 	private long count = 0;
 	private boolean timeout = false;
 	private IVecInt assumptions = null;
+	private boolean globalTimeout = true;
+	private IMonitor monitor = null;
 
 	private int[] nextModel = null;
 	private boolean finished = false;
@@ -56,9 +65,14 @@ public class ReusableModelIterator implements Iterator<int[]> {
 		count = 0;
 		assumptions = null;
 		timeout = false;
+		finished = false;
+		nextModel = null;
 		solver.expireTimeout();
-		for (final IConstr constraint : constraints) {
-			solver.removeConstr(constraint);
+		for (int i = constraints.size() - 1; i >= 0; i--) {
+			final IConstr constraint = constraints.get(i);
+			if (constraint != null) {
+				solver.removeConstr(constraint);
+			}
 		}
 		constraints.clear();
 	}
@@ -74,11 +88,14 @@ public class ReusableModelIterator implements Iterator<int[]> {
 		if (finished || ((max >= 0) && (count >= max))) {
 			return false;
 		}
+		if (monitor != null) {
+			monitor.checkCancel();
+		}
 		try {
 			if (assumptions == null) {
-				finished = !solver.isSatisfiable(true);
+				finished = !solver.isSatisfiable(globalTimeout);
 			} else {
-				finished = !solver.isSatisfiable(assumptions, true);
+				finished = !solver.isSatisfiable(assumptions, globalTimeout);
 			}
 		} catch (final TimeoutException e) {
 			finished = true;
@@ -126,4 +143,35 @@ public class ReusableModelIterator implements Iterator<int[]> {
 	public void setAssumptions(IVecInt assumptions) {
 		this.assumptions = assumptions;
 	}
+
+	/**
+	 * @return {@code true} if the iteration stopped because the solver's timeout was exceeded
+	 */
+	public boolean isTimeout() {
+		return timeout;
+	}
+
+	public boolean isGlobalTimeout() {
+		return globalTimeout;
+	}
+
+	/**
+	 * Sets whether the solver's timeout applies to the whole iteration (default) or to the search for each single model.
+	 */
+	public void setGlobalTimeout(boolean globalTimeout) {
+		this.globalTimeout = globalTimeout;
+	}
+
+	public IMonitor getMonitor() {
+		return monitor;
+	}
+
+	/**
+	 * Sets a monitor that is checked for cancellation before each model is computed.
+	 *
+	 * @param monitor the monitor (may be {@code null})
+	 */
+	public void setMonitor(IMonitor monitor) {
+		this.monitor = monitor;
+	}
 }
@@ -0,0 +1,229 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Transforms formulas into conjunctive normal form using the Plaisted-Greenbaum variant of the Tseitin transformation.</br> Every conjunction that is nested
+ * in a disjunction is replaced by an {@link AuxiliaryVariable auxiliary variable} that implies the conjunction. The result is equisatisfiable to the input
+ * and its size is linear in the size of the input. Structurally identical subformulas are replaced by the same auxiliary variable, as long as the same
+ * transformer is used.</br> {@link #toCNF(Node)} only uses the Tseitin transformation if the distributive transformation ({@link Node#toCNF()}) would create
+ * more than a given number of clauses.
+ *
+ * @author FeatureIDE Team
+ */
+public class TseitinTransformer {
+
+	/**
+	 * A variable that is introduced by the transformation. It does not correspond to a feature and should not be shown to the user.</br> Auxiliary variables
+	 * are only equal to themselves. Their ids are unique within the JVM, and their names contain characters that are not allowed in feature names.
+	 */
+	public static final class AuxiliaryVariable {
+
+		private final int id;
+
+		private AuxiliaryVariable(int id) {
+			this.id = id;
+		}
+
+		public int getId() {
+			return id;
+		}
+
+		@Override
+		public String toString() {
+			return "<aux " + id + ">";
+		}
+
+	}
+
+	private static final AtomicInteger auxiliaryVariableCounter = new AtomicInteger();
+
+	public static final int DEFAULT_MAX_NUMBER_OF_CLAUSES = 10000;
+
+	public static boolean isAuxiliary(Object variable) {
+		return variable instanceof AuxiliaryVariable;
+	}
+
+	/**
+	 * @param cnf a formula in conjunctive normal form
+	 * @return true iff the formula contains a literal of an {@link AuxiliaryVariable auxiliary variable}
+	 */
+	public static boolean containsAuxiliaryVariables(Node cnf) {
+		if (cnf instanceof Literal) {
+			return isAuxiliary(((Literal) cnf).var);
+		}
+		for (final Node child : cnf.getChildren()) {
+			if (containsAuxiliaryVariables(child)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Estimates the number of clauses that the distributive transformation creates for a formula in negation normal form. The estimate is an upper bound, as
+	 * duplicate clauses are not considered.
+	 *
+	 * @param nnf the formula in negation normal form
+	 * @param limit the number at which the estimation stops
+	 * @return the estimated number of clauses or a value greater than {@code limit}
+	 */
+	public static long estimateNumberOfClauses(Node nnf, long limit) {
+		if (nnf instanceof Literal) {
+			return 1;
+		} else if (nnf instanceof Or) {
+			long product = 1;
+			for (final Node child : nnf.getChildren()) {
+				product *= estimateNumberOfClauses(child, limit);
+				if (product > limit) {
+					return limit + 1;
+				}
+			}
+			return product;
+		} else {
+			long sum = 0;
+			for (final Node child : nnf.getChildren()) {
+				sum += estimateNumberOfClauses(child, limit);
+				if (sum > limit) {
+					return limit + 1;
+				}
+			}
+			return sum;
+		}
+	}
+
+	private final HashMap<Node, Literal> auxiliaryLiterals = new HashMap<>();
+
+	private final int maxNumberOfClauses;
+
+	private int numberOfAuxiliaryVariables = 0;
+
+	public TseitinTransformer() {
+		this(DEFAULT_MAX_NUMBER_OF_CLAUSES);
+	}
+
+	/**
+	 * @param maxNumberOfClauses the maximum number of clauses for the distributive transformation in {@link #toCNF(Node)}; 0 to always use the Tseitin
+	 *            transformation
+	 */
+	public TseitinTransformer(int maxNumberOfClauses) {
+		this.maxNumberOfClauses = maxNumberOfClauses;
+	}
+
+	public int getMaxNumberOfClauses() {
+		return maxNumberOfClauses;
+	}
+
+	public int getNumberOfAuxiliaryVariables() {
+		return numberOfAuxiliaryVariables;
+	}
+
+	/**
+	 * Transforms the given formula into conjunctive normal form. Uses the distributive transformation, unless the result would exceed the maximum number of
+	 * clauses. The given formula is not modified.
+	 *
+	 * @param node the formula
+	 * @return a formula in conjunctive normal form that is equivalent or (if auxiliary variables are introduced) equisatisfiable to the given one
+	 */
+	public Node toCNF(Node node) {
+		final Node nnf = Node.toNNF(node);
+		if (estimateNumberOfClauses(nnf, maxNumberOfClauses) <= maxNumberOfClauses) {
+			return nnf.clausifyCNF();
+		}
+		return transformNNF(nnf);
+	}
+
+	/**
+	 * Transforms the given formula into conjunctive normal form using the Tseitin transformation. The given formula is not modified.
+	 *
+	 * @param node the formula
+	 * @return an equisatisfiable conjunction of {@link Or clauses}
+	 */
+	public Node transform(Node node) {
+		return transformNNF(Node.toNNF(node));
+	}
+
+	private Node transformNNF(Node nnf) {
+		final List<Node> clauses = new ArrayList<>();
+		addConjunct(nnf, clauses, clauses);
+		return new And(clauses.toArray(new Node[clauses.size()]));
+	}
+
+	/**
+	 * Adds the clauses of a conjunct to {@code conjuncts}. Clauses that define new auxiliary variables are added to {@code clauses}.
+	 */
+	private void addConjunct(Node node, List<Node> conjuncts, List<Node> clauses) {
+		if (node instanceof Literal) {
+			conjuncts.add(new Or(node));
+		} else if (node instanceof Or) {
+			final List<Node> literals = new ArrayList<>();
+			addDisjunct(node, literals, clauses);
+			conjuncts.add(new Or(literals.toArray(new Node[literals.size()])));
+		} else {
+			for (final Node child : node.getChildren()) {
+				addConjunct(child, conjuncts, clauses);
+			}
+		}
+	}
+
+	private void addDisjunct(Node node, List<Node> literals, List<Node> clauses) {
+		if (node instanceof Literal) {
+			literals.add(node);
+		} else if (node instanceof Or) {
+			for (final Node child : node.getChildren()) {
+				addDisjunct(child, literals, clauses);
+			}
+		} else {
+			literals.add(getAuxiliaryLiteral(node, clauses));
+		}
+	}
+
+	/**
+	 * Returns a literal that implies the given conjunction. If the conjunction was not replaced before, a new auxiliary variable is created and the clauses
+	 * defining it are added.
+	 */
+	private Literal getAuxiliaryLiteral(Node conjunction, List<Node> clauses) {
+		final Literal cachedLiteral = auxiliaryLiterals.get(conjunction);
+		if (cachedLiteral != null) {
+			return cachedLiteral.clone();
+		}
+		final Literal auxiliaryLiteral = new Literal(new AuxiliaryVariable(auxiliaryVariableCounter.incrementAndGet()), true);
+		auxiliaryLiterals.put(conjunction, auxiliaryLiteral);
+		numberOfAuxiliaryVariables++;
+
+		final List<Node> conjuncts = new ArrayList<>();
+		addConjunct(conjunction, conjuncts, clauses);
+		for (final Node conjunct : conjuncts) {
+			final Node[] conjunctLiterals = conjunct.getChildren();
+			final Node[] clause = new Node[conjunctLiterals.length + 1];
+			clause[0] = new Literal(auxiliaryLiteral.var, false);
+			System.arraycopy(conjunctLiterals, 0, clause, 1, conjunctLiterals.length);
+			clauses.add(new Or(clause));
+		}
+		return auxiliaryLiteral.clone();
+	}
+
+}
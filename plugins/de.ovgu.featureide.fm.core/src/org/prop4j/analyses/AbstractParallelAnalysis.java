@@ -0,0 +1,115 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinTask;
+
+import org.prop4j.solver.ISatSolver;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.fm.core.job.LongRunningExecutor;
+
+/**
+ * Base class for analyses that distribute their satisfiability queries over the shared pool of the {@link LongRunningExecutor}.</br> Each task borrows a
+ * clone of the analysis' solver and returns it afterwards, so clones are only created for tasks that run at the same time.
+ *
+ * @author FeatureIDE Team
+ */
+public abstract class AbstractParallelAnalysis<T> extends AbstractAnalysis<T> {
+
+	public static final int DEFAULT_NUMBER_OF_THREADS = Runtime.getRuntime().availableProcessors();
+
+	public static final int DEFAULT_MINIMUM_TASK_SIZE = 64;
+
+	/**
+	 * Callers use the parallel analysis only for more than one thread. The tasks run on the shared pool, which bounds the number of threads.
+	 */
+	protected int numberOfThreads = DEFAULT_NUMBER_OF_THREADS;
+
+	/**
+	 * The minimal number of queries that is processed by a single task. Smaller ranges are not split any further.
+	 */
+	protected int minimumTaskSize = DEFAULT_MINIMUM_TASK_SIZE;
+
+	private Queue<ISatSolver> workerSolvers = null;
+
+	public AbstractParallelAnalysis(SatInstance satInstance) {
+		super(satInstance);
+	}
+
+	public AbstractParallelAnalysis(ISatSolver solver) {
+		super(solver);
+	}
+
+	/**
+	 * Executes the given task in the shared pool and waits for its result. The solver clones of the tasks are discarded afterwards.
+	 *
+	 * @param task the root task
+	 * @return the result of the task
+	 */
+	protected final <R> R invoke(ForkJoinTask<R> task) {
+		workerSolvers = new ConcurrentLinkedQueue<>();
+		try {
+			return LongRunningExecutor.getPool().invoke(task);
+		} finally {
+			workerSolvers = null;
+		}
+	}
+
+	/**
+	 * Borrows a solver for a task. The solver is cloned from the analysis' solver, if no solver of a finished task is available, and contains the same
+	 * clauses and assumptions. It must be returned with {@link #releaseWorkerSolver(ISatSolver)}.
+	 *
+	 * @return a solver that is not used by any other task
+	 */
+	protected final ISatSolver acquireWorkerSolver() {
+		final ISatSolver workerSolver = workerSolvers.poll();
+		return (workerSolver != null) ? workerSolver : solver.clone();
+	}
+
+	/**
+	 * Returns a solver that was borrowed by {@link #acquireWorkerSolver()}, such that following tasks can use it.
+	 *
+	 * @param workerSolver the solver
+	 */
+	protected final void releaseWorkerSolver(ISatSolver workerSolver) {
+		workerSolvers.offer(workerSolver);
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = numberOfThreads;
+	}
+
+	public int getMinimumTaskSize() {
+		return minimumTaskSize;
+	}
+
+	public void setMinimumTaskSize(int minimumTaskSize) {
+		this.minimumTaskSize = Math.max(1, minimumTaskSize);
+	}
+
+}
@@ -0,0 +1,296 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import org.prop4j.Node;
+import org.prop4j.solver.ClauseList;
+import org.prop4j.solver.FixedLiteralSelectionStrategy;
+import org.prop4j.solver.ISatSolver;
+import org.prop4j.solver.ISatSolver.SelectionStrategy;
+import org.prop4j.solver.SatInstance;
+import org.prop4j.solver.VarOrderHeap2;
+import org.sat4j.minisat.core.Solver;
+
+import de.ovgu.featureide.fm.core.base.util.RingList;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Computes the backbone of a formula, i.e., its core and dead features.</br> Computes the same result as {@link CoreDeadAnalysis}, but rules out candidates
+ * without a satisfiability query whenever possible:
+ * <ul>
+ * <li>All solutions in the solver's solution buffer that satisfy the current assumptions are intersected with the first two models.</li>
+ * <li>For every model that is found, each remaining candidate is flipped. If all clauses of the {@link SatInstance} remain satisfied, the candidate cannot be
+ * part of the backbone (model rotation).</li>
+ * </ul>
+ * Only the remaining candidates are checked with the solver by assuming their complement. The counters {@link #getNumberOfSatCalls()} and
+ * {@link #getNumberOfSavedSatCalls()} show how many queries were actually needed.</br> Model rotation only considers the clauses of the {@link SatInstance}.
+ * Thus, it must be disabled if additional clauses were added to the solver via {@link ISatSolver#addClauses(Node)}.
+ *
+ * @author FeatureIDE Team
+ */
+public class BackboneAnalysis extends AbstractAnalysis<int[]> {
+
+	private int[] features;
+
+	private boolean modelRotation = true;
+
+	private int[][] clauses = null;
+	private int[][] occurrences = null;
+
+	private int numberOfSatCalls;
+	private int numberOfFilteredBySolutions;
+	private int numberOfFilteredByRotation;
+
+	public BackboneAnalysis(ISatSolver solver) {
+		this(solver, null);
+	}
+
+	public BackboneAnalysis(SatInstance satInstance) {
+		this(satInstance, null);
+	}
+
+	public BackboneAnalysis(SatInstance satInstance, int[] features) {
+		super(satInstance);
+		setFeatures(features);
+	}
+
+	public BackboneAnalysis(ISatSolver solver, int[] features) {
+		super(solver);
+		setFeatures(features);
+	}
+
+	@Override
+	public int[] analyze(IMonitor monitor) throws Exception {
+		numberOfSatCalls = 0;
+		numberOfFilteredBySolutions = 0;
+		numberOfFilteredByRotation = 0;
+
+		final int orgAssignmentSize = solver.getAssignment().size();
+		final int[] fixedLiterals = solver.getAssignmentArray(0, orgAssignmentSize);
+
+		solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
+		numberOfSatCalls++;
+		int[] model1 = solver.findModel();
+
+		if (model1 != null) {
+			solver.setSelectionStrategy(SelectionStrategy.NEGATIVE);
+			numberOfSatCalls++;
+			final int[] model2 = solver.findModel();
+
+			if (features != null) {
+				final int[] model3 = new int[model1.length];
+				for (int i = 0; i < features.length; i++) {
+					final int index = features[i] - 1;
+					if (index >= 0) {
+						model3[index] = model1[index];
+					}
+				}
+				model1 = model3;
+			}
+			final int numberOfCandidates = countCandidates(model1);
+
+			// fixed variables cannot be flipped
+			final boolean[] fixed = new boolean[model1.length];
+			for (final int literal : fixedLiterals) {
+				fixed[Math.abs(literal) - 1] = true;
+			}
+
+			SatInstance.updateModel(model1, model2);
+			intersectWithSolutionList(model1, fixedLiterals);
+			numberOfFilteredBySolutions = numberOfCandidates - countCandidates(model1);
+
+			if (modelRotation) {
+				initClauses();
+				rotate(model1, model2, fixed);
+			}
+
+			((Solver<?>) solver.getInternalSolver()).setOrder(new VarOrderHeap2(new FixedLiteralSelectionStrategy(model1, true), solver.getOrder()));
+
+			for (int i = 0; i < model1.length; i++) {
+				final int varX = model1[i];
+				if (varX != 0) {
+					monitor.checkCancel();
+					solver.assignmentPush(-varX);
+					numberOfSatCalls++;
+					switch (solver.isSatisfiable()) {
+					case FALSE:
+						solver.assignmentReplaceLast(varX);
+						monitor.invoke(varX);
+						break;
+					case TIMEOUT:
+						solver.assignmentPop();
+						break;
+					case TRUE:
+						solver.assignmentPop();
+						final int[] model = solver.getModel();
+						final int remaining = countCandidates(model1);
+						SatInstance.updateModel(model1, model);
+						numberOfFilteredBySolutions += remaining - countCandidates(model1) - 1;
+						if (modelRotation) {
+							rotate(model1, model, fixed);
+						}
+						solver.shuffleOrder();
+						break;
+					}
+				}
+			}
+		}
+
+		return solver.getAssignmentArray(orgAssignmentSize, solver.getAssignment().size());
+	}
+
+	/**
+	 * Removes all candidates that have a different value in any buffered solution. Solutions that violate the current assumptions are ignored.
+	 */
+	private void intersectWithSolutionList(int[] model, int[] fixedLiterals) {
+		final RingList<int[]> solutionList = solver.getSolutionList();
+		if (solutionList != null) {
+			solutionLoop: for (final int[] solution : solutionList) {
+				if (solution.length != model.length) {
+					continue;
+				}
+				for (final int literal : fixedLiterals) {
+					if (solution[Math.abs(literal) - 1] != literal) {
+						continue solutionLoop;
+					}
+				}
+				SatInstance.updateModel(model, solution);
+			}
+		}
+	}
+
+	/**
+	 * Removes all candidates whose value can be flipped in the given model without violating any clause.
+	 */
+	private void rotate(int[] candidates, int[] model, boolean[] fixed) {
+		final int[] numberOfTrueLiterals = new int[clauses.length];
+		for (int i = 0; i < clauses.length; i++) {
+			int count = 0;
+			for (final int literal : clauses[i]) {
+				if (model[Math.abs(literal) - 1] == literal) {
+					count++;
+				}
+			}
+			numberOfTrueLiterals[i] = count;
+		}
+		candidateLoop: for (int i = 0; i < candidates.length; i++) {
+			final int varX = candidates[i];
+			if ((varX != 0) && !fixed[i]) {
+				for (final int clauseIndex : occurrences[literalIndex(varX)]) {
+					if (numberOfTrueLiterals[clauseIndex] < 2) {
+						continue candidateLoop;
+					}
+				}
+				candidates[i] = 0;
+				numberOfFilteredByRotation++;
+			}
+		}
+	}
+
+	private void initClauses() {
+		if (clauses == null) {
+			final SatInstance satInstance = solver.getSatInstance();
+			final ClauseList clauseList = satInstance.getClauses();
+			final int numberOfVariables = satInstance.getNumberOfVariables();
+
+			clauses = new int[clauseList.size()][];
+			final int[] occurrenceCount = new int[2 * numberOfVariables];
+			for (int i = 0; i < clauses.length; i++) {
+				final int[] clause = clauseList.getClause(i);
+				for (final int literal : clause) {
+					occurrenceCount[literalIndex(literal)]++;
+				}
+				clauses[i] = clause;
+			}
+
+			occurrences = new int[2 * numberOfVariables][];
+			for (int i = 0; i < occurrences.length; i++) {
+				occurrences[i] = new int[occurrenceCount[i]];
+				occurrenceCount[i] = 0;
+			}
+			for (int i = 0; i < clauses.length; i++) {
+				for (final int literal : clauses[i]) {
+					final int index = literalIndex(literal);
+					occurrences[index][occurrenceCount[index]++] = i;
+				}
+			}
+		}
+	}
+
+	private static int literalIndex(int literal) {
+		return literal > 0 ? (2 * (literal - 1)) : ((2 * (-literal - 1)) + 1);
+	}
+
+	private static int countCandidates(int[] model) {
+		int count = 0;
+		for (int i = 0; i < model.length; i++) {
+			if (model[i] != 0) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	public int[] getFeatures() {
+		return features;
+	}
+
+	public void setFeatures(int[] features) {
+		this.features = features;
+	}
+
+	public boolean isModelRotation() {
+		return modelRotation;
+	}
+
+	public void setModelRotation(boolean modelRotation) {
+		this.modelRotation = modelRotation;
+	}
+
+	/**
+	 * @return the number of satisfiability queries of the last execution
+	 */
+	public int getNumberOfSatCalls() {
+		return numberOfSatCalls;
+	}
+
+	/**
+	 * @return the number of candidates of the last execution that were ruled out without a satisfiability query
+	 */
+	public int getNumberOfSavedSatCalls() {
+		return numberOfFilteredBySolutions + numberOfFilteredByRotation;
+	}
+
+	/**
+	 * @return the number of candidates of the last execution that were ruled out by a previously found solution
+	 */
+	public int getNumberOfFilteredBySolutions() {
+		return numberOfFilteredBySolutions;
+	}
+
+	/**
+	 * @return the number of candidates of the last execution that were ruled out by model rotation
+	 */
+	public int getNumberOfFilteredByRotation() {
+		return numberOfFilteredByRotation;
+	}
+
+}
@@ -20,71 +20,67 @@
  */
 package org.prop4j.analyses;
 
-import org.prop4j.solver.BasicSolver;
+import java.math.BigInteger;
+
 import org.prop4j.solver.ISatSolver;
-import org.prop4j.solver.ISatSolver.SelectionStrategy;
+import org.prop4j.solver.ModelCounter;
 import org.prop4j.solver.SatInstance;
-import org.sat4j.core.VecInt;
-import org.sat4j.minisat.core.Solver;
-import org.sat4j.specs.ContradictionException;
 
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
 /**
- * Computes the number of valid solutions for the given {@link SatInstance}.
+ * Computes the number of valid solutions for the given {@link SatInstance}.</br> The solutions are counted by a {@link ModelCounter}, which does not
+ * enumerate them.
  *
  * @author Sebastian Krieter
  */
 public class CountSolutionAnalysis extends AbstractAnalysis<Long> {
 
+	private final long timeout;
+
+	private BigInteger count = BigInteger.ZERO;
+	private boolean exact = true;
+
 	public CountSolutionAnalysis(SatInstance satInstance) {
 		this(satInstance, ISatSolver.DEFAULT_TIMEOUT);
 	}
 
+	/**
+	 * @param satInstance the formula
+	 * @param globalTimeout the time budget in milliseconds (0 for no timeout)
+	 */
 	public CountSolutionAnalysis(SatInstance satInstance, long globalTimeout) {
-		super(createSolver(satInstance, globalTimeout));
-	}
-
-	private static BasicSolver createSolver(SatInstance satInstance, final long timeout) {
-		try {
-			return new BasicSolver(satInstance) {
-				@Override
-				protected Solver<?> initSolver() {
-					final Solver<?> solver = super.initSolver();
-					solver.setTimeoutMs(timeout);
-					setGlobalTimeout(true);
-					return solver;
-				}
-			};
-		} catch (final ContradictionException e) {
-			return null;
-		}
+		super(satInstance);
+		timeout = globalTimeout;
 	}
 
+	/**
+	 * Returns the number of solutions, or, if the timeout was exceeded, a negative value {@code -1 - lowerBound}. Numbers that are too large for a
+	 * {@code long} are capped at {@link Long#MAX_VALUE} (see {@link #getCount()}).
+	 */
 	@Override
 	public Long analyze(IMonitor monitor) throws Exception {
-		long lowerBound = 0;
-		solver.setSelectionStrategy(SelectionStrategy.RANDOM);
-		solutionLoop: while (true) {
-			switch (solver.isSatisfiable()) {
-			case TIMEOUT:
-				lowerBound = -1 - lowerBound;
-			case FALSE:
-				break solutionLoop;
-			case TRUE:
-				lowerBound++;
-				try {
-					solver.getInternalSolver().addClause(new VecInt(SatInstance.negateModel(solver.getModel())));
-				} catch (final ContradictionException e) {
-					break solutionLoop;
-				}
-				solver.shuffleOrder();
-				break;
-			default:
-				throw new RuntimeException();
-			}
-		}
-		return lowerBound;
+		final ModelCounter counter = new ModelCounter(solver.getSatInstance());
+		counter.setTimeout(timeout);
+		count = counter.count(solver.getAssignmentArray(0, solver.getAssignment().size()), monitor);
+		exact = counter.isExact();
+
+		final long longCount = count.bitLength() < Long.SIZE ? count.longValue() : Long.MAX_VALUE;
+		return exact ? longCount : -1 - longCount;
+	}
+
+	/**
+	 * @return the exact number of solutions of the last execution or a lower bound, if the timeout was exceeded
+	 */
+	public BigInteger getCount() {
+		return count;
+	}
+
+	/**
+	 * @return {@code true} if the last count is exact, {@code false} if it is a lower bound
+	 */
+	public boolean isExact() {
+		return exact;
 	}
 
 }
@@ -0,0 +1,133 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import org.prop4j.ReusableModelIterator;
+import org.prop4j.solver.ISatSolver;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.core.VecInt;
+
+import de.ovgu.featureide.fm.core.functional.Functional.IConsumer;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Enumerates all solutions for the given {@link SatInstance} and passes each solution to a sink as soon as it is found.</br> In contrast to
+ * {@link GetSolutionAnalysis}, the solutions are not collected, so the memory consumption does not depend on the number of solutions. Solutions are found with
+ * a {@link ReusableModelIterator}, which adds a blocking clause for each solution. Thus, a given solver is copied first (see {@link #setCopySolver(boolean)})
+ * and the copy is discarded afterwards together with all blocking clauses. Removing the blocking clauses from the given solver instead is not safe, as the
+ * solver may simplify its clause database at the root level in the meantime.
+ *
+ * @author FeatureIDE Team
+ */
+public class EnumerateSolutionsAnalysis extends AbstractAnalysis<EnumerateSolutionsAnalysis.Result> {
+
+	/**
+	 * The outcome of an enumeration.
+	 */
+	public static final class Result {
+
+		private final long numberOfSolutions;
+		private final boolean timeout;
+
+		public Result(long numberOfSolutions, boolean timeout) {
+			this.numberOfSolutions = numberOfSolutions;
+			this.timeout = timeout;
+		}
+
+		/**
+		 * @return the number of solutions passed to the sink
+		 */
+		public long getNumberOfSolutions() {
+			return numberOfSolutions;
+		}
+
+		/**
+		 * @return {@code true} if the solver's timeout was exceeded while searching a solution, i.e., there may be further solutions
+		 */
+		public boolean isTimeout() {
+			return timeout;
+		}
+
+	}
+
+	private final IConsumer<int[]> sink;
+
+	private long maxSolutions = -1;
+	private boolean copySolver;
+
+	/**
+	 * Creates a new solver for the given instance, which is used without copying.
+	 */
+	public EnumerateSolutionsAnalysis(SatInstance satInstance, IConsumer<int[]> sink) {
+		super(satInstance);
+		this.sink = sink;
+		copySolver = false;
+	}
+
+	/**
+	 * Uses a copy of the given solver, such that it is not changed by the enumeration.
+	 */
+	public EnumerateSolutionsAnalysis(ISatSolver solver, IConsumer<int[]> sink) {
+		super(solver);
+		this.sink = sink;
+		copySolver = true;
+	}
+
+	@Override
+	public Result analyze(IMonitor monitor) throws Exception {
+		final ISatSolver blockingSolver = copySolver ? solver.clone() : solver;
+		final ReusableModelIterator iterator = new ReusableModelIterator(blockingSolver.getInternalSolver(), maxSolutions);
+		iterator.setAssumptions(new VecInt(solver.getAssignmentArray(0, solver.getAssignment().size())));
+		iterator.setGlobalTimeout(false);
+		iterator.setMonitor(monitor);
+
+		long count = 0;
+		while (iterator.hasNext()) {
+			sink.invoke(iterator.next());
+			count++;
+			monitor.step();
+		}
+		return new Result(count, iterator.isTimeout());
+	}
+
+	public long getMaxSolutions() {
+		return maxSolutions;
+	}
+
+	/**
+	 * @param maxSolutions the maximum number of solutions or a negative value for all solutions
+	 */
+	public void setMaxSolutions(long maxSolutions) {
+		this.maxSolutions = maxSolutions;
+	}
+
+	public boolean isCopySolver() {
+		return copySolver;
+	}
+
+	/**
+	 * @param copySolver whether the blocking clauses are added to a copy of the solver (must be {@code true} if the solver is used afterwards)
+	 */
+	public void setCopySolver(boolean copySolver) {
+		this.copySolver = copySolver;
+	}
+
+}
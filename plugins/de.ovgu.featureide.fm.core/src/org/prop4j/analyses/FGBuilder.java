@@ -23,34 +23,85 @@ package org.prop4j.analyses;
 import java.util.Arrays;
 import java.util.Deque;
 import java.util.LinkedList;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
-import org.prop4j.Literal;
-import org.prop4j.Node;
+import org.prop4j.solver.ClauseList;
 import org.prop4j.solver.ISatSolver;
 import org.prop4j.solver.ISatSolver.SelectionStrategy;
 import org.prop4j.solver.SatInstance;
 
+import de.ovgu.featureide.fm.core.base.util.RingList;
 import de.ovgu.featureide.fm.core.conf.AFeatureGraph;
 import de.ovgu.featureide.fm.core.conf.IFeatureGraph;
-import de.ovgu.featureide.fm.core.conf.MatrixFeatureGraph;
+import de.ovgu.featureide.fm.core.conf.SparseFeatureGraph;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
 /**
- * Finds certain solutions of propositional formulas.
+ * Builds a {@link SparseFeatureGraph feature graph} of the implications between all variables.</br> The implications of each variable are computed in
+ * parallel. Each variable is tested only once, even if it is reached from several variables. Transitive implications are added to the graph afterwards.
  *
  * @author Sebastian Krieter
  */
-public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
+public class FGBuilder extends AbstractParallelAnalysis<IFeatureGraph> {
+
+	private class TestTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int from, to;
+
+		public TestTask(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if ((to - from) > minimumTaskSize) {
+				final int middle = (from + to) >>> 1;
+				invokeAll(new TestTask(from, middle), new TestTask(middle, to));
+			} else {
+				final ISatSolver workerSolver = acquireWorkerSolver();
+				try {
+					if (workerSolver.getSolutionList() == null) {
+						workerSolver.initSolutionList(ISatSolver.MAX_SOLUTION_BUFFER);
+						final RingList<int[]> solutionList = workerSolver.getSolutionList();
+						for (final int[] solution : solver.getSolutionList()) {
+							solutionList.add(solution);
+						}
+					}
+					final Deque<Integer> parentStack = new LinkedList<>();
+					for (int i = from; i < to; i++) {
+						if (core[i] == 0) {
+							monitor.checkCancel();
+							parentStack.add((i + 1));
+							testVariable(workerSolver, parentStack);
+							parentStack.add(-(i + 1));
+							testVariable(workerSolver, parentStack);
+						}
+					}
+				} finally {
+					releaseWorkerSolver(workerSolver);
+				}
+			}
+		}
+
+	}
 
 	private byte[] core = new byte[0];
 
-	private final Deque<Integer> parentStack = new LinkedList<>();
-	private byte[] recArray = new byte[0];
+	/**
+	 * Stores for each variable whether its positive (1) and negative (2) literal was already tested.
+	 */
+	private AtomicIntegerArray tested = new AtomicIntegerArray(0);
 
 	private byte[] visited;
 	private boolean[] complete;
 	private int[] index;
+	private int[] variables;
 	private IFeatureGraph featureGraph;
+	private IMonitor monitor;
 
 	public FGBuilder(ISatSolver solver) {
 		super(solver);
@@ -62,7 +113,7 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 
 	@Override
 	public IFeatureGraph analyze(IMonitor monitor) throws Exception {
-		parentStack.clear();
+		this.monitor = monitor;
 
 		solver.initSolutionList(Integer.MAX_VALUE);
 		// Math.min(solver.getSatInstance().getNumberOfVariables(),
@@ -78,7 +129,6 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 
 			// find core/dead features
 			core = new byte[model1.length];
-			recArray = new byte[model1.length];
 			final int[] model1Copy = Arrays.copyOf(model1, model1.length);
 			SatInstance.updateModel(model1Copy, model2);
 			for (int i = 0; i < model1Copy.length; i++) {
@@ -123,16 +173,28 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 					throw new RuntimeException();
 				}
 			}
+			variables = new int[index.length - count];
+			for (int i = 0; i < index.length; i++) {
+				if (index[i] >= 0) {
+					variables[index[i]] = i;
+				}
+			}
 
 			final SatInstance satInstance = solver.getSatInstance();
-			featureGraph = new MatrixFeatureGraph(satInstance, index);
-
-			final Node cnf = satInstance.getCnf();
-			outer: for (final Node clause : cnf.getChildren()) {
-				final Node[] literals = clause.getChildren();
-				int childrenCount = literals.length;
+			featureGraph = new SparseFeatureGraph(satInstance, index);
+
+			final ClauseList clauses = satInstance.getClauses();
+			final int[] clauseLiterals = clauses.getLiterals();
+			int[] literals = new int[0];
+			outer: for (int clauseIndex = 0; clauseIndex < clauses.size(); clauseIndex++) {
+				final int start = clauses.getStart(clauseIndex);
+				int childrenCount = clauses.getEnd(clauseIndex) - start;
+				if (literals.length < childrenCount) {
+					literals = new int[childrenCount];
+				}
+				System.arraycopy(clauseLiterals, start, literals, 0, childrenCount);
 				for (int i = 0; i < childrenCount; i++) {
-					final int var = satInstance.getSignedVariable((Literal) literals[i]);
+					final int var = literals[i];
 					final int coreB = var * core[Math.abs(var) - 1];
 					if (coreB > 0) {
 						continue outer;
@@ -141,23 +203,23 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 							continue outer;
 						}
 						childrenCount--;
-						final Node temp = literals[i];
+						final int temp = literals[i];
 						literals[i] = literals[childrenCount];
 						literals[childrenCount] = temp;
 						i--;
 					}
 				}
 				if (childrenCount == 2) {
-					final int x = satInstance.getSignedVariable((Literal) literals[0]);
-					final int y = satInstance.getSignedVariable((Literal) literals[1]);
+					final int x = literals[0];
+					final int y = literals[1];
 					addRelation(x, y);
 				} else {
 					for (int i = 0; i < (childrenCount - 1); i++) {
-						final int x = satInstance.getSignedVariable((Literal) literals[i]);
+						final int x = literals[i];
 						final int indexX = index[Math.abs(x) - 1];
 
 						for (int j = i + 1; j < childrenCount; j++) {
-							final int y = satInstance.getSignedVariable((Literal) literals[j]);
+							final int y = literals[j];
 							final int indexY = index[Math.abs(y) - 1];
 
 							if (x > 0) {
@@ -202,15 +264,10 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 				complete[i] = true;
 			}
 
-			Arrays.fill(recArray, (byte) 0);
-			for (int i = 0; i < model1.length; i++) {
-				if (core[i] == 0) {
-					parentStack.add((i + 1));
-					testVariable();
-					parentStack.add(-(i + 1));
-					testVariable();
-				}
-			}
+			monitor.checkCancel();
+			tested = new AtomicIntegerArray(model1.length);
+			invoke(new TestTask(0, model1.length));
+			monitor.checkCancel();
 
 			complete = new boolean[featureGraph.getSize()];
 			for (int i = 0; i < featureGraph.getSize(); i++) {
@@ -249,14 +306,25 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 		}
 	}
 
-	private void testVariable() {
+	private boolean markTested(int variable, int flag) {
+		while (true) {
+			final int oldValue = tested.get(variable);
+			if ((oldValue & flag) != 0) {
+				return false;
+			}
+			if (tested.compareAndSet(variable, oldValue, oldValue | flag)) {
+				return true;
+			}
+		}
+	}
+
+	private void testVariable(ISatSolver solver, Deque<Integer> parentStack) {
 		final int mx1 = parentStack.peek();
 		final int i = Math.abs(mx1) - 1;
 		final boolean positive = mx1 > 0;
-		final byte compareB = (byte) (positive ? 1 : 2);
+		final int compareB = positive ? 1 : 2;
 
-		if ((core[i] == 0) && ((recArray[i] & compareB) == 0)) {
-			recArray[i] |= compareB;
+		if ((core[i] == 0) && markTested(i, compareB)) {
 
 			int[] xModel1 = null;
 			for (final int[] solution : solver.getSolutionList()) {
@@ -277,11 +345,11 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 
 			int c = 0;
 
-			inner1: for (int j = i + 1; j < xModel1.length; j++) {
-				if (core[j] != 0) {
-					continue;
-				}
-				final byte b = getRelation(i, j);
+			final int indexI = index[i];
+			inner1: for (int indexJ = featureGraph.getNextNeighbor(indexI, indexI + 1); indexJ >= 0; indexJ =
+				featureGraph.getNextNeighbor(indexI, indexJ + 1)) {
+				final int j = variables[indexJ];
+				final byte b = featureGraph.getEdge(indexI, indexJ);
 				if (AFeatureGraph.isWeakEdge(b)
 					&& ((positive && !(AFeatureGraph.isEdge(b, AFeatureGraph.EDGE_10Q) || AFeatureGraph.isEdge(b, AFeatureGraph.EDGE_11Q)))
 						|| (!positive && !(AFeatureGraph.isEdge(b, AFeatureGraph.EDGE_00Q) || AFeatureGraph.isEdge(b, AFeatureGraph.EDGE_01Q))))) {
@@ -306,7 +374,7 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 						parentStack.push(my1);
 						solver.assignmentPop();
 						solver.assignmentPop();
-						testVariable();
+						testVariable(solver, parentStack);
 						solver.assignmentPush(mx1);
 						break;
 					case TIMEOUT:
@@ -324,16 +392,12 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 		parentStack.pop();
 	}
 
-	private byte getRelation(int indexX, int indexY) {
-		return featureGraph.getEdge(index[indexX], index[indexY]);
-	}
-
 	// visited: 0 not visited, 1 visited (unknown status), 2 visited (known
 	// status)
 	private void dfs(byte[] visited, boolean[] complete, int curFeature, boolean selected) {
 		visited[curFeature] = 5;
 
-		for (int j = 0; j < visited.length; j++) {
+		for (int j = featureGraph.getNextNeighbor(curFeature, 0); j >= 0; j = featureGraph.getNextNeighbor(curFeature, j + 1)) {
 			final byte visit = visited[j];
 			if (visit < 5) {
 				final byte childSelected;
@@ -398,7 +462,7 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 
 	private void dfs_rec(byte[] visited, boolean[] complete, int curFeature, int parentFeature, byte selected, boolean parentSelected) {
 		final boolean incomplete = !complete[curFeature];
-		for (int j = 0; j < visited.length; j++) {
+		for (int j = featureGraph.getNextNeighbor(curFeature, 0); j >= 0; j = featureGraph.getNextNeighbor(curFeature, j + 1)) {
 			final byte visit = visited[j];
 			byte childSelected = -1;
 
@@ -26,8 +26,8 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 
+import org.prop4j.And;
 import org.prop4j.Node;
-import org.prop4j.Not;
 import org.prop4j.solver.BasicSolver;
 import org.prop4j.solver.ISatSolver.SatResult;
 import org.prop4j.solver.ModifiableSolver;
@@ -86,6 +86,11 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 	 */
 	public boolean calculateTautologyConstraints = true;
 
+	/**
+	 * Defines how many threads are used for the core, dead, and false-optional feature analysis. A value of 1 disables parallel analysis.
+	 */
+	public int numberOfThreads = 1;
+
 	private final HashMap<Object, Object> changedAttributes = new HashMap<>();
 
 	private boolean valid;
@@ -96,6 +101,16 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 	private final IFeatureModel fm;
 	private final AdvancedNodeCreator nodeCreator;
 
+	/**
+	 * Optional long-lived analysis that updates the feature results incrementally.
+	 */
+	private IncrementalFeatureAnalysis incrementalAnalysis = null;
+
+	/**
+	 * Optional formula of the complete feature model, e.g., restored from a cache.
+	 */
+	private SatInstance satInstance = null;
+
 	private IMonitor monitor = new NullMonitor();
 
 	public FeatureModelAnalysis(IFeatureModel fm) {
@@ -127,6 +142,14 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		return calculateTautologyConstraints;
 	}
 
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	public IncrementalFeatureAnalysis getIncrementalAnalysis() {
+		return incrementalAnalysis;
+	}
+
 	public boolean isValid() {
 		return valid;
 	}
@@ -159,6 +182,37 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		this.calculateTautologyConstraints = calculateTautologyConstraints;
 	}
 
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = numberOfThreads;
+	}
+
+	/**
+	 * Sets a long-lived analysis that is used to compute validity, core, dead, and false-optional features instead of creating a new solver.
+	 *
+	 * @param incrementalAnalysis the incremental analysis or {@code null}
+	 */
+	public void setIncrementalAnalysis(IncrementalFeatureAnalysis incrementalAnalysis) {
+		this.incrementalAnalysis = incrementalAnalysis;
+	}
+
+	/**
+	 * Sets the formula of the complete feature model, which is used instead of creating it from the feature model. Its variables must be the features in
+	 * preorder.
+	 *
+	 * @param satInstance the formula or {@code null}
+	 */
+	public void setSatInstance(SatInstance satInstance) {
+		this.satInstance = satInstance;
+	}
+
+	private SatInstance getSatInstance() {
+		if (satInstance != null) {
+			return satInstance;
+		}
+		nodeCreator.setModelType(ModelType.All);
+		return nodeCreator.createSatInstance();
+	}
+
 	public void setCalculateFOConstraints(boolean calculateFOConstraints) {
 		this.calculateFOConstraints = calculateFOConstraints;
 	}
@@ -215,8 +269,12 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		}
 		monitor.step();
 
-		nodeCreator.setModelType(ModelType.All);
-		final SatInstance si = new SatInstance(nodeCreator.createNodes(), FeatureUtils.getFeatureNamesPreorder(fm));
+		if (incrementalAnalysis != null) {
+			updateFeaturesIncrementally(features);
+			return;
+		}
+
+		final SatInstance si = getSatInstance();
 
 		checkValidity(si);
 		monitor.step();
@@ -233,6 +291,37 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		}
 	}
 
+	private void updateFeaturesIncrementally(final Iterable<IFeature> features) {
+		incrementalAnalysis.setNumberOfThreads(numberOfThreads);
+		final Boolean result = LongRunningWrapper.runMethod(incrementalAnalysis, monitor.subTask(0));
+		valid = (result != null) && result;
+		if (!valid) {
+			changedAttributes.put(fm.getStructure().getRoot().getFeature(), FeatureStatus.DEAD);
+		}
+		monitor.step();
+
+		if (valid) {
+			falseOptionalFeatures.clear();
+			for (final IFeature feature : incrementalAnalysis.getFalseOptionalFeatures()) {
+				setFeatureAttribute(feature, FeatureStatus.FALSE_OPTIONAL);
+				falseOptionalFeatures.add(feature);
+			}
+			monitor.step();
+
+			deadFeatures.clear();
+			for (final IFeature feature : incrementalAnalysis.getDeadFeatures()) {
+				setFeatureAttribute(feature, FeatureStatus.DEAD);
+				deadFeatures.add(feature);
+			}
+			coreFeatures.clear();
+			coreFeatures.addAll(incrementalAnalysis.getCoreFeatures());
+			monitor.step();
+
+			checkFeatureHidden(features);
+			monitor.step();
+		}
+	}
+
 	public void updateConstraints() {
 		final List<IConstraint> constraints = fm.getConstraints();
 		for (final IConstraint constraint : constraints) {
@@ -243,17 +332,23 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		}
 
 		if (!calculateFeatures) {
-			checkValidity(new SatInstance(nodeCreator.createNodes(), FeatureUtils.getFeatureNamesPreorder(fm)));
+			checkValidity(getSatInstance());
+		}
+
+		// the clause budget of the node creator bounds the size of the CNF of each constraint
+		final List<Node> constraintCNFs = new ArrayList<>(constraints.size());
+		for (final IConstraint constraint : constraints) {
+			constraintCNFs.add(nodeCreator.createConstraintNode(constraint));
 		}
 
 		try {
 			if (valid) {
-				checkConstraintRedundant(constraints);
+				checkConstraintRedundant(constraints, constraintCNFs);
 				monitor.step();
-				checkConstraintDeadAndFalseOptional(constraints);
+				checkConstraintDeadAndFalseOptional(constraints, constraintCNFs);
 				monitor.step();
 			} else {
-				checkConstraintUnsatisfiable(constraints);
+				checkConstraintUnsatisfiable(constraints, constraintCNFs);
 				monitor.step();
 				monitor.step();
 			}
@@ -266,20 +361,33 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		return LongRunningWrapper.runMethod(new ValidAnalysis(new SatInstance(constraintNode))) == null;
 	}
 
-	private void checkConstraintDeadAndFalseOptional(final List<IConstraint> constraints) throws ContradictionException {
+	/**
+	 * Creates the CNF of the feature tree. Its variables include the auxiliary variables of the given constraint clauses, so that the clauses can be added to
+	 * a solver of the instance.
+	 */
+	private SatInstance createStructureSatInstance(List<Node> constraintCNFs) {
+		final List<Node> clauses = new ArrayList<>();
+		for (final Node cnf : constraintCNFs) {
+			Collections.addAll(clauses, cnf.getChildren());
+		}
+		nodeCreator.setModelType(ModelType.OnlyStructure);
+		return nodeCreator.createSatInstance().addAuxiliaryVariables(new And(clauses.toArray(new Node[clauses.size()])));
+	}
+
+	private void checkConstraintDeadAndFalseOptional(final List<IConstraint> constraints, List<Node> constraintCNFs) throws ContradictionException {
 		if (!calculateFOConstraints && !calculateDeadConstraints) {
 			return;
 		}
-		nodeCreator.setModelType(ModelType.OnlyStructure);
-		final SatInstance si = new SatInstance(nodeCreator.createNodes(), FeatureUtils.getFeatureNamesPreorder(fm));
+		final SatInstance si = createStructureSatInstance(constraintCNFs);
 		final BasicSolver modSat = new BasicSolver(si);
 
 		final List<IFeature> deadList = new LinkedList<>(deadFeatures);
 		final List<IFeature> foList = new LinkedList<>(falseOptionalFeatures);
 		monitor.checkCancel();
 
+		int i = 0;
 		for (final IConstraint constraint : constraints) {
-			modSat.addClauses(constraint.getNode().toRegularCNF());
+			modSat.addClauses(constraintCNFs.get(i++));
 
 			if (constraint.getConstraintAttribute() == ConstraintAttribute.NORMAL) {
 				if (calculateDeadConstraints) {
@@ -313,18 +421,13 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 	 *
 	 * @param constraint The constraint to check whether it is redundant
 	 */
-	private void checkConstraintRedundant(final List<IConstraint> constraints) throws ContradictionException {
+	private void checkConstraintRedundant(final List<IConstraint> constraints, List<Node> constraintCNFs) throws ContradictionException {
 		if (calculateRedundantConstraints) {
-			nodeCreator.setModelType(ModelType.OnlyStructure);
-			final SatInstance si = new SatInstance(nodeCreator.createNodes(), FeatureUtils.getFeatureNamesPreorder(fm));
+			final SatInstance si = createStructureSatInstance(constraintCNFs);
 			final ModifiableSolver redundantSat = new ModifiableSolver(si);
 
 			final List<List<IConstr>> constraintMarkers = new ArrayList<>();
-			final List<Node> cnfNodes = new ArrayList<>();
-			for (final IConstraint constraint : constraints) {
-				final Node cnf = constraint.getNode().toRegularCNF();
-				cnfNodes.add(cnf);
-
+			for (final Node cnf : constraintCNFs) {
 				constraintMarkers.add(redundantSat.addClauses(cnf));
 			}
 			monitor.checkCancel();
@@ -342,7 +445,8 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 						}
 					}
 					if (removedAtLeastOne) {
-						final Node constraintNode = cnfNodes.get(i);
+						// clauses that define auxiliary variables are never implied, thus, such constraints are not considered redundant
+						final Node constraintNode = constraintCNFs.get(i);
 
 						final Node[] clauses = constraintNode.getChildren();
 						for (int j = 0; j < clauses.length; j++) {
@@ -355,7 +459,7 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 					}
 
 					if (redundant) {
-						if (checkConstraintTautology(constraint.getNode())) {
+						if (checkConstraintTautology(constraint)) {
 							setConstraintAttribute(constraint, ConstraintAttribute.TAUTOLOGY);
 						} else {
 							setConstraintAttribute(constraint, ConstraintAttribute.REDUNDANT);
@@ -366,7 +470,7 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 			}
 		} else if (calculateTautologyConstraints) {
 			for (final IConstraint constraint : constraints) {
-				if (checkConstraintTautology(constraint.getNode())) {
+				if (checkConstraintTautology(constraint)) {
 					setConstraintAttribute(constraint, ConstraintAttribute.TAUTOLOGY);
 				}
 				monitor.checkCancel();
@@ -374,18 +478,18 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		}
 	}
 
-	private boolean checkConstraintTautology(Node constraintNode) {
-		return checkConstraintContradiction(new Not(constraintNode).toRegularCNF());
+	private boolean checkConstraintTautology(IConstraint constraint) {
+		return checkConstraintContradiction(nodeCreator.createConstraintNode(constraint, false));
 	}
 
-	private void checkConstraintUnsatisfiable(final List<IConstraint> constraints) throws ContradictionException {
-		nodeCreator.setModelType(ModelType.OnlyStructure);
-		final SatInstance si = new SatInstance(nodeCreator.createNodes(), FeatureUtils.getFeatureNamesPreorder(fm));
+	private void checkConstraintUnsatisfiable(final List<IConstraint> constraints, List<Node> constraintCNFs) throws ContradictionException {
+		final SatInstance si = createStructureSatInstance(constraintCNFs);
 		final ModifiableSolver unsat = new ModifiableSolver(si);
 		monitor.checkCancel();
 
+		int i = 0;
 		for (final IConstraint constraint : constraints) {
-			final Node cnf = constraint.getNode().toRegularCNF();
+			final Node cnf = constraintCNFs.get(i++);
 
 			List<IConstr> constraintMarkers = null;
 			boolean satisfiable;
@@ -420,11 +524,22 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 	private void checkFeatureDead(final SatInstance si) {
 		deadFeatures.clear();
 		coreFeatures.clear();
-		final int[] solution2 = LongRunningWrapper.runMethod(new CoreDeadAnalysis(si), monitor.subTask(0));
+		final AbstractAnalysis<int[]> coreDeadAnalysis;
+		if (numberOfThreads > 1) {
+			final ParallelCoreDeadAnalysis parallelAnalysis = new ParallelCoreDeadAnalysis(si);
+			parallelAnalysis.setNumberOfThreads(numberOfThreads);
+			coreDeadAnalysis = parallelAnalysis;
+		} else {
+			coreDeadAnalysis = new BackboneAnalysis(si);
+		}
+		final int[] solution2 = LongRunningWrapper.runMethod(coreDeadAnalysis, monitor.subTask(0));
 		monitor.checkCancel();
 		for (int i = 0; i < solution2.length; i++) {
 			monitor.checkCancel();
 			final int var = solution2[i];
+			if (si.isAuxiliary(var)) {
+				continue;
+			}
 			final IFeature feature = fm.getFeature((String) si.getVariableObject(var));
 			if (var < 0) {
 				setFeatureAttribute(feature, FeatureStatus.DEAD);
@@ -463,7 +578,15 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 				possibleFOFeatures.add(new int[] { -si.getVariable(parent.getName()), si.getVariable(feature.getName()) });
 			}
 		}
-		final List<int[]> solution3 = LongRunningWrapper.runMethod(new ImplicationAnalysis(si, possibleFOFeatures), monitor.subTask(0));
+		final AbstractAnalysis<List<int[]>> implicationAnalysis;
+		if (numberOfThreads > 1) {
+			final ParallelImplicationAnalysis parallelAnalysis = new ParallelImplicationAnalysis(si, possibleFOFeatures);
+			parallelAnalysis.setNumberOfThreads(numberOfThreads);
+			implicationAnalysis = parallelAnalysis;
+		} else {
+			implicationAnalysis = new ImplicationAnalysis(si, possibleFOFeatures);
+		}
+		final List<int[]> solution3 = LongRunningWrapper.runMethod(implicationAnalysis, monitor.subTask(0));
 		monitor.checkCancel();
 		falseOptionalFeatures.clear();
 		for (final int[] pair : solution3) {
@@ -504,8 +627,7 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 			return;
 		}
 
-		nodeCreator.setModelType(ModelType.All);
-		final SatInstance si = new SatInstance(nodeCreator.createNodes(), FeatureUtils.getFeatureNamesPreorder(fm));
+		final SatInstance si = getSatInstance();
 
 		final Iterable<IFeature> hiddenFeatures = Functional.filter(features, new HiddenFeatureFilter());
 		final List<String> hiddenLiterals = Functional.toList(Functional.map(hiddenFeatures, new Functional.IFunction<IFeature, String>() {
@@ -31,9 +31,8 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.Set;
 
-import org.prop4j.Literal;
-import org.prop4j.Node;
 import org.prop4j.analyses.ImplicationSetsAnalysis.Relationship;
+import org.prop4j.solver.ClauseList;
 import org.prop4j.solver.ISatSolver;
 import org.prop4j.solver.ISatSolver.SelectionStrategy;
 import org.prop4j.solver.SatInstance;
@@ -178,11 +177,18 @@ public class ImplicationSetsAnalysis extends AbstractAnalysis<Set<Relationship>>
 			numVariables = model1.length;
 			combinations = new byte[numVariables * numVariables];
 
-			outer: for (final Node clause : solver.getSatInstance().getCnf().getChildren()) {
-				final Node[] literals = clause.getChildren();
-				int childrenCount = literals.length;
+			final ClauseList clauses = solver.getSatInstance().getClauses();
+			final int[] clauseLiterals = clauses.getLiterals();
+			int[] literals = new int[0];
+			outer: for (int clauseIndex = 0; clauseIndex < clauses.size(); clauseIndex++) {
+				final int start = clauses.getStart(clauseIndex);
+				int childrenCount = clauses.getEnd(clauseIndex) - start;
+				if (literals.length < childrenCount) {
+					literals = new int[childrenCount];
+				}
+				System.arraycopy(clauseLiterals, start, literals, 0, childrenCount);
 				for (int i = 0; i < childrenCount; i++) {
-					final int var = solver.getSatInstance().getSignedVariable((Literal) literals[i]);
+					final int var = literals[i];
 					final int coreB = var * core[Math.abs(var) - 1];
 					if (coreB > 0) {
 						continue outer;
@@ -191,15 +197,15 @@ public class ImplicationSetsAnalysis extends AbstractAnalysis<Set<Relationship>>
 							continue outer;
 						}
 						childrenCount--;
-						final Node temp = literals[i];
+						final int temp = literals[i];
 						literals[i] = literals[childrenCount];
 						literals[childrenCount] = temp;
 						i--;
 					}
 				}
 				if (childrenCount == 2) {
-					final int x = solver.getSatInstance().getSignedVariable((Literal) literals[0]);
-					final int y = solver.getSatInstance().getSignedVariable((Literal) literals[1]);
+					final int x = literals[0];
+					final int y = literals[1];
 					if (Math.abs(x) < Math.abs(y)) {
 						addRelation(-x, y);
 					} else {
@@ -207,9 +213,9 @@ public class ImplicationSetsAnalysis extends AbstractAnalysis<Set<Relationship>>
 					}
 				}
 				for (int i = 0; i < (childrenCount - 1); i++) {
-					final int x = solver.getSatInstance().getVariable((Literal) literals[i]) - 1;
+					final int x = Math.abs(literals[i]) - 1;
 					for (int j = i + 1; j < childrenCount; j++) {
-						final int y = solver.getSatInstance().getVariable((Literal) literals[j]) - 1;
+						final int y = Math.abs(literals[j]) - 1;
 						combinations[(x * numVariables) + y] |= BIT_CHECK;
 						combinations[(y * numVariables) + x] |= BIT_CHECK;
 					}
@@ -0,0 +1,411 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.prop4j.And;
+import org.prop4j.Node;
+import org.prop4j.TseitinTransformer;
+import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.ISatSolver.SatResult;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.specs.ContradictionException;
+
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.ModelType;
+import de.ovgu.featureide.fm.core.job.LongRunningMethod;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Computes the validity, the core and dead features, and the false-optional features of a feature model and keeps its solver between calls.</br> Changes
+ * of the constraints are handled incrementally:
+ * <ul>
+ * <li>If constraints were added, their clauses are added to the existing solver and only features that are neither core, dead, nor false-optional are
+ * checked again. If the clauses contain new auxiliary variables of a {@link TseitinTransformer}, the solver is rebuilt instead.</li>
+ * <li>If constraints were removed, the solver is rebuilt from the cached clauses and only features that were core, dead, or false-optional before are checked
+ * again.</li>
+ * </ul>
+ * A modified constraint is handled as removal followed by addition. Any change of the feature tree requires a complete recomputation (see {@link #reset()}).
+ *
+ * @author FeatureIDE Team
+ */
+public class IncrementalFeatureAnalysis implements LongRunningMethod<Boolean> {
+
+	private static class ConstraintClauses {
+
+		private final Node node;
+		private final Node cnf;
+
+		public ConstraintClauses(Node node, Node cnf) {
+			this.node = node;
+			this.cnf = cnf;
+		}
+
+	}
+
+	private final IFeatureModel fm;
+	private final AdvancedNodeCreator nodeCreator;
+
+	private final Map<IConstraint, ConstraintClauses> constraintClauses = new HashMap<>();
+	private final Map<int[], Integer> pairIndex = new IdentityHashMap<>();
+
+	private int numberOfThreads = 1;
+
+	private boolean structureChanged = true;
+
+	private List<String> featureNames = Collections.emptyList();
+	private Node[] structureClauses = new Node[0];
+	private List<int[]> possibleFOPairs = Collections.emptyList();
+
+	private BasicSolver solver = null;
+
+	private boolean valid = false;
+	private int[] coreDeadLiterals = new int[0];
+	private boolean[] falseOptionalPairs = new boolean[0];
+
+	private int numberOfCheckedFeatures = 0;
+
+	public IncrementalFeatureAnalysis(IFeatureModel fm) {
+		this.fm = fm;
+
+		nodeCreator = new AdvancedNodeCreator(fm);
+		nodeCreator.setCnfType(CNFType.Regular);
+		nodeCreator.setIncludeBooleanValues(false);
+		nodeCreator.setUseOldNames(false);
+	}
+
+	/**
+	 * Notifies this analysis that the feature tree has changed. The next call of {@link #execute(IMonitor)} recomputes everything.
+	 */
+	public synchronized void reset() {
+		structureChanged = true;
+	}
+
+	/**
+	 * Brings all results up to date with the current feature model. Added, removed, and modified constraints are determined by comparing the constraints of the
+	 * feature model with the constraints known from the last call.
+	 *
+	 * @return whether the feature model is valid
+	 */
+	@Override
+	public synchronized Boolean execute(IMonitor monitor) throws Exception {
+		numberOfCheckedFeatures = 0;
+		if (structureChanged || (fm.getStructure().getRoot() == null)) {
+			structureChanged = false;
+			initStructure();
+			rebuildSolver();
+			computeAll(monitor);
+		} else {
+			updateConstraints(monitor);
+		}
+		return valid;
+	}
+
+	private void initStructure() {
+		constraintClauses.clear();
+		pairIndex.clear();
+
+		if (fm.getStructure().getRoot() == null) {
+			featureNames = Collections.emptyList();
+			structureClauses = new Node[0];
+			possibleFOPairs = Collections.emptyList();
+			return;
+		}
+
+		featureNames = FeatureUtils.getFeatureNamesPreorder(fm);
+		nodeCreator.setModelType(ModelType.OnlyStructure);
+		structureClauses = nodeCreator.createNodes().getChildren();
+
+		for (final IConstraint constraint : fm.getConstraints()) {
+			constraintClauses.put(constraint, createClauses(constraint));
+		}
+
+		final SatInstance si = new SatInstance(new And(), featureNames);
+		possibleFOPairs = new ArrayList<>();
+		for (final IFeature feature : fm.getFeatures()) {
+			final IFeature parent = FeatureUtils.getParent(feature);
+			if ((parent != null) && (!feature.getStructure().isMandatorySet() || !parent.getStructure().isAnd())) {
+				final int[] pair = new int[] { -si.getVariable(parent.getName()), si.getVariable(feature.getName()) };
+				pairIndex.put(pair, possibleFOPairs.size());
+				possibleFOPairs.add(pair);
+			}
+		}
+	}
+
+	private ConstraintClauses createClauses(IConstraint constraint) {
+		return new ConstraintClauses(constraint.getNode(), nodeCreator.createConstraintNode(constraint));
+	}
+
+	/**
+	 * Creates a new solver containing the structure clauses and the clauses of all known constraints.
+	 */
+	private void rebuildSolver() {
+		final List<Node> clauses = new ArrayList<>(structureClauses.length + constraintClauses.size());
+		Collections.addAll(clauses, structureClauses);
+		for (final ConstraintClauses constraint : constraintClauses.values()) {
+			Collections.addAll(clauses, constraint.cnf.getChildren());
+		}
+		try {
+			solver = new BasicSolver(new SatInstance(new And(clauses.toArray(new Node[clauses.size()])), featureNames));
+		} catch (final ContradictionException e) {
+			solver = null;
+		}
+	}
+
+	private void updateConstraints(IMonitor monitor) {
+		final Map<IConstraint, ConstraintClauses> removedConstraints = new HashMap<>(constraintClauses);
+		final List<IConstraint> addedConstraints = new ArrayList<>();
+		for (final IConstraint constraint : fm.getConstraints()) {
+			final ConstraintClauses clauses = constraintClauses.get(constraint);
+			if ((clauses != null) && (clauses.node == constraint.getNode())) {
+				removedConstraints.remove(constraint);
+			} else {
+				addedConstraints.add(constraint);
+			}
+		}
+
+		if (!removedConstraints.isEmpty()) {
+			constraintClauses.keySet().removeAll(removedConstraints.keySet());
+			rebuildSolver();
+			if (valid) {
+				weaken(monitor);
+			} else {
+				computeAll(monitor);
+			}
+		}
+
+		if (!addedConstraints.isEmpty()) {
+			final List<Node> addedClauses = new ArrayList<>();
+			boolean newVariables = false;
+			for (final IConstraint constraint : addedConstraints) {
+				final ConstraintClauses clauses = createClauses(constraint);
+				constraintClauses.put(constraint, clauses);
+				addedClauses.add(clauses.cnf);
+				newVariables |= TseitinTransformer.containsAuxiliaryVariables(clauses.cnf);
+			}
+			if (newVariables) {
+				// the variables of the existing solver cannot be extended
+				rebuildSolver();
+			} else if (solver != null) {
+				try {
+					for (final Node cnf : addedClauses) {
+						solver.addClauses(cnf);
+					}
+				} catch (final ContradictionException e) {
+					solver = null;
+				}
+			}
+			if (valid) {
+				strengthen(monitor);
+			}
+		}
+	}
+
+	/**
+	 * Computes all results from scratch. Must only be called directly after {@link #rebuildSolver()}.
+	 */
+	private void computeAll(IMonitor monitor) {
+		coreDeadLiterals = new int[featureNames.size()];
+		falseOptionalPairs = new boolean[possibleFOPairs.size()];
+		valid = checkValidity();
+		if (!valid) {
+			return;
+		}
+
+		// auxiliary variables follow the features and are not checked
+		final int[] features = new int[featureNames.size()];
+		for (int i = 0; i < features.length; i++) {
+			features[i] = i + 1;
+		}
+		final AbstractAnalysis<int[]> coreDeadAnalysis;
+		final AbstractAnalysis<List<int[]>> implicationAnalysis;
+		if (numberOfThreads > 1) {
+			final ParallelCoreDeadAnalysis parallelCoreDeadAnalysis = new ParallelCoreDeadAnalysis(solver, features);
+			parallelCoreDeadAnalysis.setNumberOfThreads(numberOfThreads);
+			coreDeadAnalysis = parallelCoreDeadAnalysis;
+			final ParallelImplicationAnalysis parallelImplicationAnalysis = new ParallelImplicationAnalysis(solver, possibleFOPairs);
+			parallelImplicationAnalysis.setNumberOfThreads(numberOfThreads);
+			implicationAnalysis = parallelImplicationAnalysis;
+		} else {
+			coreDeadAnalysis = new CoreDeadAnalysis(solver, features);
+			implicationAnalysis = new ImplicationAnalysis(solver, possibleFOPairs);
+		}
+		numberOfCheckedFeatures = featureNames.size();
+		setFalseOptionalPairs(LongRunningWrapper.runMethod(implicationAnalysis, monitor.subTask(0)));
+		monitor.checkCancel();
+		setCoreDeadLiterals(LongRunningWrapper.runMethod(coreDeadAnalysis, monitor.subTask(0)));
+	}
+
+	/**
+	 * Updates the results after constraints were removed. Core and dead features, as well as false-optional features, can only lose their status.
+	 */
+	private void weaken(IMonitor monitor) {
+		valid = checkValidity();
+		if (!valid) {
+			return;
+		}
+
+		final int[] candidateVariables = new int[featureNames.size()];
+		int numberOfCandidates = 0;
+		for (int i = 0; i < coreDeadLiterals.length; i++) {
+			if (coreDeadLiterals[i] != 0) {
+				candidateVariables[numberOfCandidates++] = i + 1;
+			}
+		}
+		final List<int[]> candidatePairs = new ArrayList<>();
+		for (int i = 0; i < falseOptionalPairs.length; i++) {
+			if (falseOptionalPairs[i]) {
+				candidatePairs.add(possibleFOPairs.get(i));
+			}
+		}
+
+		coreDeadLiterals = new int[featureNames.size()];
+		falseOptionalPairs = new boolean[possibleFOPairs.size()];
+		check(candidateVariables, numberOfCandidates, candidatePairs, monitor);
+	}
+
+	/**
+	 * Updates the results after constraints were added. Core and dead features, as well as false-optional features, keep their status.
+	 */
+	private void strengthen(IMonitor monitor) {
+		valid = checkValidity();
+		if (!valid) {
+			coreDeadLiterals = new int[featureNames.size()];
+			falseOptionalPairs = new boolean[possibleFOPairs.size()];
+			return;
+		}
+
+		final int[] candidateVariables = new int[featureNames.size()];
+		int numberOfCandidates = 0;
+		for (int i = 0; i < coreDeadLiterals.length; i++) {
+			if (coreDeadLiterals[i] == 0) {
+				candidateVariables[numberOfCandidates++] = i + 1;
+			}
+		}
+		final List<int[]> candidatePairs = new ArrayList<>();
+		for (int i = 0; i < falseOptionalPairs.length; i++) {
+			if (!falseOptionalPairs[i]) {
+				candidatePairs.add(possibleFOPairs.get(i));
+			}
+		}
+
+		check(candidateVariables, numberOfCandidates, candidatePairs, monitor);
+	}
+
+	private void check(int[] candidateVariables, int numberOfCandidates, List<int[]> candidatePairs, IMonitor monitor) {
+		numberOfCheckedFeatures = numberOfCandidates;
+		if (!candidatePairs.isEmpty()) {
+			setFalseOptionalPairs(LongRunningWrapper.runMethod(new ImplicationAnalysis(solver, candidatePairs), monitor.subTask(0)));
+		}
+		monitor.checkCancel();
+		if (numberOfCandidates > 0) {
+			final int[] features = new int[numberOfCandidates];
+			System.arraycopy(candidateVariables, 0, features, 0, numberOfCandidates);
+			setCoreDeadLiterals(LongRunningWrapper.runMethod(new CoreDeadAnalysis(solver, features), monitor.subTask(0)));
+		}
+	}
+
+	private boolean checkValidity() {
+		return (solver != null) && (solver.isSatisfiable() == SatResult.TRUE);
+	}
+
+	private void setCoreDeadLiterals(int[] literals) {
+		if (literals != null) {
+			for (final int literal : literals) {
+				coreDeadLiterals[Math.abs(literal) - 1] = literal;
+			}
+		}
+	}
+
+	private void setFalseOptionalPairs(List<int[]> pairs) {
+		if (pairs != null) {
+			for (final int[] pair : pairs) {
+				falseOptionalPairs[pairIndex.get(pair)] = true;
+			}
+		}
+	}
+
+	public synchronized boolean isValid() {
+		return valid;
+	}
+
+	public synchronized List<IFeature> getCoreFeatures() {
+		return getFeatures(true);
+	}
+
+	public synchronized List<IFeature> getDeadFeatures() {
+		return getFeatures(false);
+	}
+
+	private List<IFeature> getFeatures(boolean positive) {
+		final List<IFeature> features = new ArrayList<>();
+		if (valid) {
+			for (final int literal : coreDeadLiterals) {
+				if ((literal > 0) == positive && (literal != 0)) {
+					features.add(fm.getFeature(featureNames.get(Math.abs(literal) - 1)));
+				}
+			}
+		}
+		return features;
+	}
+
+	public synchronized List<IFeature> getFalseOptionalFeatures() {
+		final List<IFeature> features = new ArrayList<>();
+		if (valid) {
+			for (int i = 0; i < falseOptionalPairs.length; i++) {
+				if (falseOptionalPairs[i]) {
+					features.add(fm.getFeature(featureNames.get(possibleFOPairs.get(i)[1] - 1)));
+				}
+			}
+		}
+		return features;
+	}
+
+	/**
+	 * Returns the number of features whose core or dead status had to be checked with the solver during the last call of {@link #execute(IMonitor)}.
+	 *
+	 * @return the number of checked features
+	 */
+	public synchronized int getNumberOfCheckedFeatures() {
+		return numberOfCheckedFeatures;
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = numberOfThreads;
+	}
+
+}
@@ -28,10 +28,13 @@ import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
 
-import org.prop4j.Literal;
-import org.prop4j.Node;
+import org.prop4j.solver.ClauseList;
 import org.prop4j.solver.ISatSolver;
 import org.prop4j.solver.ISatSolver.SelectionStrategy;
 import org.prop4j.solver.SatInstance;
@@ -40,6 +43,7 @@ import org.sat4j.specs.ContradictionException;
 import org.sat4j.specs.IConstr;
 import org.sat4j.specs.IVecInt;
 
+import de.ovgu.featureide.fm.core.job.LongRunningExecutor;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
 /**
@@ -110,6 +114,12 @@ public class PairWiseConfigurationGenerator extends AbstractAnalysis<List<List<S
 			this.index = index;
 		}
 
+		public FeatureIndex(FeatureIndex featureIndex) {
+			index = featureIndex.index;
+			coveredCombinations = featureIndex.coveredCombinations;
+			selected = featureIndex.selected;
+		}
+
 		@Override
 		public int compareTo(FeatureIndex o) {
 			final int result = coveredCombinations - o.coveredCombinations;
@@ -143,6 +153,148 @@ public class PairWiseConfigurationGenerator extends AbstractAnalysis<List<List<S
 
 	}
 
+	private class Worker implements Callable<Void> {
+
+		private final ISatSolver workerSolver;
+		private final IMonitor monitor;
+		private final boolean[] featuresUsedOrg;
+		private final int numberOfFixedFeatures;
+
+		private final List<Long> claims = new ArrayList<>();
+
+		public Worker(ISatSolver workerSolver, IMonitor monitor, boolean[] featuresUsedOrg, int numberOfFixedFeatures) {
+			this.workerSolver = workerSolver;
+			this.monitor = monitor;
+			this.featuresUsedOrg = featuresUsedOrg;
+			this.numberOfFixedFeatures = numberOfFixedFeatures;
+		}
+
+		@Override
+		public Void call() throws Exception {
+			final int[] varStatus = new int[2];
+
+			while (!finished) {
+				monitor.checkCancel();
+				final boolean[] featuresUsed = Arrays.copyOf(featuresUsedOrg, featuresUsedOrg.length);
+				final FeatureIndex[] featureIndexes = getSortedFeatureIndexes();
+
+				for (int x = 1, end = featureIndexes.length; x < end; x++) {
+					final FeatureIndex featureIndexA = featureIndexes[x];
+					final int a = featureIndexA.getIndex();
+					if (featuresUsed[a]) {
+						continue;
+					}
+					bLoop: for (int y = 0; y < x; y++) {
+						final FeatureIndex featureIndexB = featureIndexes[y];
+						final int b = featureIndexB.getIndex();
+						final int index = (a * numVariables) + b;
+						// read without the coverage lock, a stale value only leads to a combination that handleNewParallelConfig does not count
+						final byte curCombo = (combinations2[index]);
+						if ((curCombo == 15) || featuresUsed[b]) {
+							continue;
+						}
+
+						varStatus[0] = 0;
+						varStatus[1] = 0;
+
+						final int[] combinationOrder = getCombinationOrder(featureIndexA.getSelected(), featureIndexB.getSelected(), curCombo);
+						comboLoop: for (int i = 0; i < combinationOrder.length; i++) {
+							final int bit = combinationOrder[i];
+							final boolean result;
+							switch (bit) {
+							case BIT_00:
+								if (isClaimed(index, bit)) {
+									continue comboLoop;
+								}
+								result = testCombination(workerSolver, varStatus, featuresUsed, -(a + 1), -(b + 1));
+								break;
+							case BIT_01:
+								if (isClaimed(index, bit)) {
+									continue comboLoop;
+								}
+								result = testCombination(workerSolver, varStatus, featuresUsed, -(a + 1), (b + 1));
+								break;
+							case BIT_10:
+								if (isClaimed(index, bit)) {
+									continue comboLoop;
+								}
+								result = testCombination(workerSolver, varStatus, featuresUsed, (a + 1), -(b + 1));
+								break;
+							case BIT_11:
+								if (isClaimed(index, bit)) {
+									continue comboLoop;
+								}
+								result = testCombination(workerSolver, varStatus, featuresUsed, (a + 1), (b + 1));
+								break;
+							default:
+								continue comboLoop;
+							}
+							if (result) {
+								claim(index, bit);
+								break bLoop;
+							}
+						}
+					}
+				}
+
+				final int[] model = workerSolver.findModel();
+				workerSolver.assignmentClear(numberOfFixedFeatures);
+				releaseClaims();
+
+				if ((model == null) || handleNewParallelConfig(model)) {
+					finished = true;
+					break;
+				}
+				try {
+					workerSolver.getInternalSolver().addBlockingClause(new VecInt(SatInstance.negateModel(model)));
+				} catch (final ContradictionException e) {
+					finished = true;
+					break;
+				}
+			}
+			return null;
+		}
+
+		private boolean isClaimed(int index, int bit) {
+			final long bitIndex = getBitIndex(index, bit);
+			return (claimedCombinations.get((int) (bitIndex >>> 6)) & (1L << (bitIndex & 63))) != 0;
+		}
+
+		private void claim(int index, int bit) {
+			final long bitIndex = getBitIndex(index, bit);
+			final int arrayIndex = (int) (bitIndex >>> 6);
+			final long mask = 1L << (bitIndex & 63);
+			while (true) {
+				final long oldValue = claimedCombinations.get(arrayIndex);
+				if ((oldValue & mask) != 0) {
+					return;
+				}
+				if (claimedCombinations.compareAndSet(arrayIndex, oldValue, oldValue | mask)) {
+					claims.add(bitIndex);
+					return;
+				}
+			}
+		}
+
+		private void releaseClaims() {
+			for (final long bitIndex : claims) {
+				final int arrayIndex = (int) (bitIndex >>> 6);
+				final long mask = ~(1L << (bitIndex & 63));
+				while (true) {
+					final long oldValue = claimedCombinations.get(arrayIndex);
+					if (claimedCombinations.compareAndSet(arrayIndex, oldValue, oldValue & mask)) {
+						break;
+					}
+				}
+			}
+			claims.clear();
+		}
+
+		private long getBitIndex(int index, int bit) {
+			return (((long) index) << 2) + Integer.numberOfTrailingZeros(bit);
+		}
+	}
+
 	public static final boolean VERBOSE = false;
 
 	protected static final byte BIT_00 = 1 << 0;
@@ -177,6 +329,13 @@ public class PairWiseConfigurationGenerator extends AbstractAnalysis<List<List<S
 
 	private List<int[]> predefinedConfigurations;
 
+	private int numberOfThreads = 1;
+
+	private final Object coverageLock = new Object();
+	private AtomicLongArray claimedCombinations;
+	private int numberOfConfigurations;
+	private volatile boolean finished;
+
 	public PairWiseConfigurationGenerator(SatInstance satInstance, int maxNumber) {
 		super(satInstance);
 		this.maxNumber = maxNumber;
@@ -238,6 +397,10 @@ public class PairWiseConfigurationGenerator extends AbstractAnalysis<List<List<S
 			}
 		}
 
+		if (numberOfThreads > 1) {
+			return analyzeParallel(monitor, featuresUsedOrg, numberOfFixedFeatures);
+		}
+
 		final int[] varStatus = new int[2];
 
 		while (count <= maxNumber) {
@@ -303,6 +466,134 @@ public class PairWiseConfigurationGenerator extends AbstractAnalysis<List<List<S
 		return getConfigurations();
 	}
 
+	/**
+	 * Creates the remaining configurations with multiple workers on the shared pool of the {@link LongRunningExecutor}. Each worker owns a clone of the solver
+	 * and builds configurations independently. While building a configuration, a worker claims the combinations it covers in a shared bitmap, such that other
+	 * workers try to cover different combinations. New configurations are merged into the shared coverage one at a time and are discarded if they do not
+	 * cover any new combination.
+	 */
+	private List<List<String>> analyzeParallel(IMonitor monitor, boolean[] featuresUsedOrg, int numberOfFixedFeatures) throws Exception {
+		claimedCombinations = new AtomicLongArray((combinations2.length >>> 4) + 1);
+		finished = false;
+
+		final List<int[]> blockedModels = new ArrayList<>();
+		synchronized (tempConfigurationList) {
+			numberOfConfigurations = finalConfigurationList.size() + tempConfigurationList.size();
+			for (final Configuration configuration : finalConfigurationList) {
+				blockedModels.add(configuration.getModel());
+			}
+			for (final Configuration configuration : tempConfigurationList) {
+				blockedModels.add(configuration.getModel());
+			}
+		}
+
+		final List<Worker> workers = new ArrayList<>(numberOfThreads);
+		for (int i = 0; i < numberOfThreads; i++) {
+			final ISatSolver workerSolver = solver.clone();
+			workerSolver.setSelectionStrategy(SelectionStrategy.NEGATIVE);
+			try {
+				for (final int[] model : blockedModels) {
+					workerSolver.getInternalSolver().addBlockingClause(new VecInt(SatInstance.negateModel(model)));
+				}
+			} catch (final ContradictionException e) {
+				return getConfigurations();
+			}
+			workers.add(new Worker(workerSolver, monitor, featuresUsedOrg, numberOfFixedFeatures));
+		}
+
+		final List<Future<Void>> futures = new ArrayList<>(numberOfThreads);
+		try {
+			for (final Worker worker : workers) {
+				futures.add(LongRunningExecutor.submit(worker));
+			}
+			for (final Future<Void> future : futures) {
+				try {
+					LongRunningExecutor.get(future);
+				} catch (final ExecutionException e) {
+					finished = true;
+					final Throwable cause = e.getCause();
+					if (cause instanceof Exception) {
+						throw (Exception) cause;
+					}
+					throw e;
+				}
+			}
+		} finally {
+			finished = true;
+			for (final Future<Void> future : futures) {
+				try {
+					LongRunningExecutor.get(future);
+				} catch (final ExecutionException e) {
+					// the first exception was already thrown
+				}
+			}
+			claimedCombinations = null;
+		}
+		return getConfigurations();
+	}
+
+	/**
+	 * Copies the feature indexes of all workers in a consistent state.
+	 *
+	 * @return the sorted feature indexes
+	 */
+	private FeatureIndex[] getSortedFeatureIndexes() {
+		final FeatureIndex[] featureIndexes = new FeatureIndex[featureIndexArray.length];
+		synchronized (coverageLock) {
+			for (int i = 0; i < featureIndexArray.length; i++) {
+				featureIndexes[i] = new FeatureIndex(featureIndexArray[i]);
+			}
+		}
+		int prio = 0;
+		for (final FeatureIndex featureIndex : featureIndexes) {
+			featureIndex.setPriority(prio++);
+		}
+		Arrays.sort(featureIndexes);
+		return featureIndexes;
+	}
+
+	private boolean handleNewParallelConfig(int[] curModel) {
+		synchronized (coverageLock) {
+			if (finished || (numberOfConfigurations >= maxNumber) || ((combinationCount - getLastCoverage()) <= 0)) {
+				return true;
+			}
+			final int partCount = count(curModel) - fixedPartCount;
+			final int deltaCoverage = partCount - getLastCoverage();
+			if (deltaCoverage <= 0) {
+				// all combinations were already covered by configurations of other workers
+				return false;
+			}
+			final Configuration config = new Configuration(curModel, deltaCoverage, partCount);
+			synchronized (tempConfigurationList) {
+				tempConfigurationList.add(config);
+			}
+			numberOfConfigurations++;
+
+			addCombinationsFromModel(curModel);
+			updateFeatureIndexes();
+
+			config.time = System.nanoTime() - time;
+			q.offer(config);
+			time = System.nanoTime();
+
+			final int absUncovered = printStatisticNumbers(config);
+			return (absUncovered <= 0) || (numberOfConfigurations >= maxNumber);
+		}
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the number of worker threads. If more than one thread is used, the configurations are created in parallel and their order is not deterministic.
+	 *
+	 * @param numberOfThreads the number of worker threads
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
 	public List<int[]> getPredefinedConfigurations() {
 		return Collections.unmodifiableList(predefinedConfigurations);
 	}
@@ -591,11 +882,18 @@ public class PairWiseConfigurationGenerator extends AbstractAnalysis<List<List<S
 			combinations = new byte[numVariables * numVariables];
 			combinations2 = new byte[numVariables * numVariables];
 
-			outer: for (final Node clause : solver.getSatInstance().getCnf().getChildren()) {
-				final Node[] literals = clause.getChildren();
-				int childrenCount = literals.length;
+			final ClauseList clauses = solver.getSatInstance().getClauses();
+			final int[] clauseLiterals = clauses.getLiterals();
+			int[] literals = new int[0];
+			outer: for (int clauseIndex = 0; clauseIndex < clauses.size(); clauseIndex++) {
+				final int start = clauses.getStart(clauseIndex);
+				int childrenCount = clauses.getEnd(clauseIndex) - start;
+				if (literals.length < childrenCount) {
+					literals = new int[childrenCount];
+				}
+				System.arraycopy(clauseLiterals, start, literals, 0, childrenCount);
 				for (int i = 0; i < childrenCount; i++) {
-					final int var = solver.getSatInstance().getSignedVariable((Literal) literals[i]);
+					final int var = literals[i];
 					final int coreB = var * core[Math.abs(var) - 1];
 					if (coreB > 0) {
 						continue outer;
@@ -604,15 +902,15 @@ public class PairWiseConfigurationGenerator extends AbstractAnalysis<List<List<S
 							continue outer;
 						}
 						childrenCount--;
-						final Node temp = literals[i];
+						final int temp = literals[i];
 						literals[i] = literals[childrenCount];
 						literals[childrenCount] = temp;
 						i--;
 					}
 				}
 				if (childrenCount == 2) {
-					final int x = solver.getSatInstance().getSignedVariable((Literal) literals[0]);
-					final int y = solver.getSatInstance().getSignedVariable((Literal) literals[1]);
+					final int x = literals[0];
+					final int y = literals[1];
 					if (Math.abs(x) < Math.abs(y)) {
 						addRelation(-x, y);
 					} else {
@@ -620,9 +918,9 @@ public class PairWiseConfigurationGenerator extends AbstractAnalysis<List<List<S
 					}
 				}
 				for (int i = 0; i < (childrenCount - 1); i++) {
-					final int x = solver.getSatInstance().getVariable((Literal) literals[i]) - 1;
+					final int x = Math.abs(literals[i]) - 1;
 					for (int j = i + 1; j < childrenCount; j++) {
-						final int y = solver.getSatInstance().getVariable((Literal) literals[j]) - 1;
+						final int y = Math.abs(literals[j]) - 1;
 						combinations[(x * numVariables) + y] |= BIT_CHECK;
 						combinations[(y * numVariables) + x] |= BIT_CHECK;
 					}
@@ -780,7 +1078,29 @@ public class PairWiseConfigurationGenerator extends AbstractAnalysis<List<List<S
 		}
 
 		addCombinationsFromModel(curModel);
+		updateFeatureIndexes();
+
+		config.time = System.nanoTime() - time;
+		q.offer(config);
+		time = System.nanoTime();
 
+		try {
+			config.setBlockingClauseConstraint(solver.getInternalSolver().addBlockingClause(new VecInt(SatInstance.negateModel(curModel))));
+		} catch (final ContradictionException e) {
+			return true;
+		}
+
+		// Statistic numbers
+		final int absUncovered = printStatisticNumbers(config);
+
+		finalCount = Math.max(finalCount, count - maxBackJumping);
+		if (absUncovered <= 0) {
+			return true;
+		}
+		return false;
+	}
+
+	private void updateFeatureIndexes() {
 		for (int i = 0; i < featureIndexArray.length; i++) {
 			final FeatureIndex featureIndex = featureIndexArray[i];
 			final int a = featureIndex.getIndex();
@@ -808,25 +1128,6 @@ public class PairWiseConfigurationGenerator extends AbstractAnalysis<List<List<S
 			featureIndex.setCoveredCombinations(coveredCombinations);
 			featureIndex.setSelected(selected);
 		}
-
-		config.time = System.nanoTime() - time;
-		q.offer(config);
-		time = System.nanoTime();
-
-		try {
-			config.setBlockingClauseConstraint(solver.getInternalSolver().addBlockingClause(new VecInt(SatInstance.negateModel(curModel))));
-		} catch (final ContradictionException e) {
-			return true;
-		}
-
-		// Statistic numbers
-		final int absUncovered = printStatisticNumbers(config);
-
-		finalCount = Math.max(finalCount, count - maxBackJumping);
-		if (absUncovered <= 0) {
-			return true;
-		}
-		return false;
 	}
 
 	@SuppressWarnings("unused")
@@ -850,6 +1151,10 @@ public class PairWiseConfigurationGenerator extends AbstractAnalysis<List<List<S
 	}
 
 	protected boolean testCombination(int[] varStatus, boolean[] featuresUsed, int sa, int sb) {
+		return testCombination(solver, varStatus, featuresUsed, sa, sb);
+	}
+
+	protected boolean testCombination(ISatSolver solver, int[] varStatus, boolean[] featuresUsed, int sa, int sb) {
 		final int a = Math.abs(sa) - 1;
 		final int b = Math.abs(sb) - 1;
 
@@ -0,0 +1,186 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import java.util.Arrays;
+import java.util.concurrent.RecursiveTask;
+
+import org.prop4j.solver.FixedLiteralSelectionStrategy;
+import org.prop4j.solver.ISatSolver;
+import org.prop4j.solver.ISatSolver.SelectionStrategy;
+import org.prop4j.solver.SatInstance;
+import org.prop4j.solver.VarOrderHeap2;
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.core.Solver;
+
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Finds core and dead features using multiple threads.</br> Computes the same result as {@link CoreDeadAnalysis}, but splits the candidate variables into
+ * ranges that are checked by different worker solvers.
+ *
+ * @author FeatureIDE Team
+ */
+public class ParallelCoreDeadAnalysis extends AbstractParallelAnalysis<int[]> {
+
+	private class CheckTask extends RecursiveTask<int[]> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int from, to;
+
+		public CheckTask(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected int[] compute() {
+			if ((to - from) > minimumTaskSize) {
+				final int middle = (from + to) >>> 1;
+				final CheckTask leftTask = new CheckTask(from, middle);
+				leftTask.fork();
+				final int[] rightResult = new CheckTask(middle, to).compute();
+				final int[] leftResult = leftTask.join();
+
+				final int[] result = Arrays.copyOf(leftResult, leftResult.length + rightResult.length);
+				System.arraycopy(rightResult, 0, result, leftResult.length, rightResult.length);
+				return result;
+			} else {
+				final ISatSolver workerSolver = acquireWorkerSolver();
+				try {
+					return check(workerSolver);
+				} finally {
+					releaseWorkerSolver(workerSolver);
+				}
+			}
+		}
+
+		private int[] check(ISatSolver workerSolver) {
+			final int[] model = Arrays.copyOf(model1, model1.length);
+			((Solver<?>) workerSolver.getInternalSolver())
+					.setOrder(new VarOrderHeap2(new FixedLiteralSelectionStrategy(model, true), workerSolver.getOrder()));
+
+			final VecInt result = new VecInt();
+			for (int i = from; i < to; i++) {
+				monitor.checkCancel();
+				final int varX = model[candidates[i]];
+				if (varX != 0) {
+					workerSolver.assignmentPush(-varX);
+					switch (workerSolver.isSatisfiable()) {
+					case FALSE:
+						workerSolver.assignmentReplaceLast(varX);
+						result.push(varX);
+						break;
+					case TIMEOUT:
+						workerSolver.assignmentPop();
+						break;
+					case TRUE:
+						workerSolver.assignmentPop();
+						SatInstance.updateModel(model, workerSolver.getModel());
+						workerSolver.shuffleOrder();
+						break;
+					}
+				}
+			}
+			return Arrays.copyOf(result.toArray(), result.size());
+		}
+	}
+
+	private int[] features;
+
+	private int[] model1;
+	private int[] candidates;
+	private IMonitor monitor;
+
+	public ParallelCoreDeadAnalysis(ISatSolver solver) {
+		this(solver, null);
+	}
+
+	public ParallelCoreDeadAnalysis(SatInstance satInstance) {
+		this(satInstance, null);
+	}
+
+	public ParallelCoreDeadAnalysis(SatInstance satInstance, int[] features) {
+		super(satInstance);
+		setFeatures(features);
+	}
+
+	public ParallelCoreDeadAnalysis(ISatSolver solver, int[] features) {
+		super(solver);
+		setFeatures(features);
+	}
+
+	@Override
+	public int[] analyze(IMonitor monitor) throws Exception {
+		this.monitor = monitor;
+		solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
+		model1 = solver.findModel();
+
+		if (model1 == null) {
+			return new int[0];
+		}
+
+		solver.setSelectionStrategy(SelectionStrategy.NEGATIVE);
+		final int[] model2 = solver.findModel();
+
+		if (features != null) {
+			final int[] model3 = new int[model1.length];
+			for (int i = 0; i < features.length; i++) {
+				final int index = features[i] - 1;
+				if (index >= 0) {
+					model3[index] = model1[index];
+				}
+			}
+			model1 = model3;
+		}
+
+		SatInstance.updateModel(model1, model2);
+
+		// only variables with the same value in both models are candidates for core or dead features
+		int numberOfCandidates = 0;
+		candidates = new int[model1.length];
+		for (int i = 0; i < model1.length; i++) {
+			if (model1[i] != 0) {
+				candidates[numberOfCandidates++] = i;
+			}
+		}
+		monitor.checkCancel();
+
+		final int[] result = invoke(new CheckTask(0, numberOfCandidates));
+		for (final int var : result) {
+			monitor.invoke(var);
+		}
+
+		model1 = null;
+		candidates = null;
+		return result;
+	}
+
+	public int[] getFeatures() {
+		return features;
+	}
+
+	public void setFeatures(int[] features) {
+		this.features = features;
+	}
+
+}
@@ -0,0 +1,168 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+import org.prop4j.solver.ISatSolver;
+import org.prop4j.solver.ISatSolver.SelectionStrategy;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.fm.core.base.util.RingList;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Checks implications between pairs of literals using multiple threads.</br> Computes the same result as {@link ImplicationAnalysis}, but splits the list of
+ * pairs into ranges that are checked by different worker solvers.
+ *
+ * @author FeatureIDE Team
+ */
+public class ParallelImplicationAnalysis extends AbstractParallelAnalysis<List<int[]>> {
+
+	private class CheckTask extends RecursiveTask<List<int[]>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int from, to;
+
+		public CheckTask(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected List<int[]> compute() {
+			if ((to - from) > minimumTaskSize) {
+				final int middle = (from + to) >>> 1;
+				final CheckTask leftTask = new CheckTask(from, middle);
+				leftTask.fork();
+				final List<int[]> rightResult = new CheckTask(middle, to).compute();
+				final List<int[]> result = leftTask.join();
+				result.addAll(rightResult);
+				return result;
+			} else {
+				final ISatSolver workerSolver = acquireWorkerSolver();
+				try {
+					return check(workerSolver);
+				} finally {
+					releaseWorkerSolver(workerSolver);
+				}
+			}
+		}
+
+		private List<int[]> check(ISatSolver workerSolver) {
+			workerSolver.setSelectionStrategy(strategy);
+
+			final RingList<int[]> solutionList = new RingList<>(Math.min((to - from) + 2, ISatSolver.MAX_SOLUTION_BUFFER));
+			solutionList.add(model1);
+			solutionList.add(model2);
+
+			final List<int[]> resultList = new ArrayList<>();
+			pairLoop: for (final int[] pair : pairs.subList(from, to)) {
+				monitor.checkCancel();
+				solutionLoop: for (final int[] is : solutionList) {
+					for (final int i : pair) {
+						if (is[Math.abs(i) - 1] == i) {
+							continue solutionLoop;
+						}
+					}
+					continue pairLoop;
+				}
+				for (final int i : pair) {
+					workerSolver.assignmentPush(-i);
+				}
+				switch (workerSolver.isSatisfiable()) {
+				case FALSE:
+					resultList.add(pair);
+					break;
+				case TIMEOUT:
+					break;
+				case TRUE:
+					solutionList.add(workerSolver.getModel());
+					workerSolver.shuffleOrder();
+					break;
+				}
+				for (int i = 0; i < pair.length; i++) {
+					workerSolver.assignmentPop();
+				}
+			}
+			return resultList;
+		}
+	}
+
+	private final List<int[]> pairs;
+
+	private int[] model1, model2;
+	private SelectionStrategy strategy;
+	private IMonitor monitor;
+
+	public ParallelImplicationAnalysis(SatInstance satInstance, List<int[]> pairs) {
+		super(satInstance);
+		this.pairs = pairs;
+	}
+
+	public ParallelImplicationAnalysis(ISatSolver solver, List<int[]> pairs) {
+		super(solver);
+		this.pairs = pairs;
+	}
+
+	@Override
+	public List<int[]> analyze(IMonitor monitor) throws Exception {
+		this.monitor = monitor;
+
+		if (pairs == null) {
+			return new ArrayList<>();
+		}
+
+		solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
+
+		monitor.checkCancel();
+		model1 = solver.findModel();
+		if (model1 == null) {
+			return new ArrayList<>();
+		}
+
+		solver.setSelectionStrategy(SelectionStrategy.NEGATIVE);
+
+		monitor.checkCancel();
+		model2 = solver.findModel();
+
+		// if there are more negative than positive literals
+		strategy = ((model1.length - countNegative(model1)) < countNegative(model2)) ? SelectionStrategy.POSITIVE : SelectionStrategy.NEGATIVE;
+
+		final List<int[]> resultList = invoke(new CheckTask(0, pairs.size()));
+
+		model1 = null;
+		model2 = null;
+		return resultList;
+	}
+
+	private static int countNegative(int[] model) {
+		int count = 0;
+		for (int i = 0; i < model.length; i++) {
+			count += model[i] >>> (Integer.SIZE - 1);
+		}
+		return count;
+	}
+
+}
@@ -20,22 +20,121 @@
  */
 package org.prop4j.analyses;
 
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
+import org.prop4j.solver.DDNNF;
+import org.prop4j.solver.DDNNFCompiler;
 import org.prop4j.solver.ISatSolver.SelectionStrategy;
 import org.prop4j.solver.SatInstance;
 import org.sat4j.core.VecInt;
 import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IConstr;
 
+import de.ovgu.featureide.fm.core.functional.Functional.IConsumer;
+import de.ovgu.featureide.fm.core.job.LongRunningExecutor;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
 /**
- * Finds random solutions of propositional formulas.
+ * Finds random solutions of propositional formulas.</br> The formula is compiled into a {@link DDNNF} once, which allows to count all solutions and to draw
+ * solutions uniformly at random. Duplicates are discarded, such that the result is a uniform sample without replacement. If the formula has at most
+ * {@code maxNumber} solutions, all solutions are enumerated instead. If the compilation exceeds its budget (see {@link #setMaxNumberOfNodes(int)} and
+ * {@link #setCompileTimeout(long)}), the solutions are found by a satisfiability solver with a random selection strategy, which is faster, but not
+ * uniform.</br> Samples can be drawn by multiple threads (see {@link #setNumberOfThreads(int)}) and can be passed to a sink (see {@link #setSink(IConsumer)})
+ * instead of being stored in the result list.
  *
  * @author Sebastian Krieter
  */
 public class RandomConfigurationGenerator extends PairWiseConfigurationGenerator {
 
+	private static final int MAX_BATCH_SIZE = 256;
+
+	public static final int DEFAULT_MAX_NUMBER_OF_NODES = 10000000;
+	public static final long DEFAULT_COMPILE_TIMEOUT = 10000;
+
+	private static final class Sample {
+
+		private final int[] model;
+		private final int hashCode;
+
+		public Sample(int[] model) {
+			this.model = model;
+			hashCode = Arrays.hashCode(model);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return (obj instanceof Sample) && Arrays.equals(model, ((Sample) obj).model);
+		}
+
+	}
+
+	private class Worker implements Callable<Void> {
+
+		private final DDNNF ddnnf;
+		private final int[] assumptions;
+		private final Random random;
+		private final IMonitor monitor;
+
+		public Worker(DDNNF ddnnf, int[] assumptions, Random random, IMonitor monitor) {
+			this.ddnnf = ddnnf;
+			this.assumptions = assumptions;
+			this.random = random;
+			this.monitor = monitor;
+		}
+
+		@Override
+		public Void call() throws Exception {
+			while (true) {
+				final int batchSize;
+				synchronized (samples) {
+					final int remaining = numberOfSamples - numberOfDrawnSamples;
+					if (remaining <= 0) {
+						return null;
+					}
+					batchSize = Math.min(remaining, MAX_BATCH_SIZE);
+				}
+				for (final int[] model : ddnnf.sample(assumptions, batchSize, random)) {
+					monitor.checkCancel();
+					synchronized (samples) {
+						if (numberOfDrawnSamples >= numberOfSamples) {
+							return null;
+						}
+						if ((sink != null) || samples.add(new Sample(model))) {
+							numberOfDrawnSamples++;
+							addSample(model);
+							monitor.step();
+						}
+					}
+				}
+			}
+		}
+
+	}
+
+	private final Set<Sample> samples = new HashSet<>();
+	private int numberOfSamples, numberOfDrawnSamples;
+
+	private IConsumer<int[]> sink = null;
+	private long seed = new Random().nextLong();
+	private int maxNumberOfNodes = DEFAULT_MAX_NUMBER_OF_NODES;
+	private long compileTimeout = DEFAULT_COMPILE_TIMEOUT;
+	private BigInteger numberOfSolutions = BigInteger.ZERO;
+
 	public RandomConfigurationGenerator(SatInstance satInstance, int maxNumber) {
 		super(satInstance, maxNumber);
 	}
@@ -43,29 +142,125 @@ public class RandomConfigurationGenerator extends PairWiseConfigurationGenerator
 	@Override
 	public List<List<String>> analyze(IMonitor monitor) throws Exception {
 		time = System.nanoTime();
-		solver.setSelectionStrategy(SelectionStrategy.RANDOM);
+		synchronized (tempConfigurationList) {
+			tempConfigurationList.clear();
+		}
+		if (maxNumber <= 0) {
+			return Collections.emptyList();
+		}
+
+		final int[] assumptions = solver.getAssignmentArray(0, solver.getAssignment().size());
+		final DDNNFCompiler compiler = new DDNNFCompiler(solver.getSatInstance());
+		compiler.setMaxNumberOfNodes(maxNumberOfNodes);
+		compiler.setTimeout(compileTimeout);
+		final DDNNF ddnnf = compiler.execute(monitor.subTask(0));
+		if (ddnnf == null) {
+			numberOfSolutions = null;
+			monitor.setRemainingWork(maxNumber);
+			enumerate(maxNumber, monitor);
+			return getConfigurations();
+		}
+		numberOfSolutions = ddnnf.count(assumptions);
+
+		if (numberOfSolutions.compareTo(BigInteger.valueOf(maxNumber)) <= 0) {
+			monitor.setRemainingWork(numberOfSolutions.intValue());
+			enumerate(maxNumber, monitor);
+		} else {
+			monitor.setRemainingWork(maxNumber);
+			sample(ddnnf, assumptions, monitor);
+		}
 
-		for (int i = 0; i < maxNumber; i++) {
+		return getConfigurations();
+	}
+
+	/**
+	 * Finds distinct solutions with a random selection strategy by adding a blocking clause for each solution.
+	 *
+	 * @param limit the maximal number of solutions
+	 */
+	private void enumerate(int limit, IMonitor monitor) {
+		solver.setSelectionStrategy(SelectionStrategy.RANDOM);
+		for (int i = 0; i < limit; i++) {
 			monitor.checkCancel();
-			if (handleNewConfig(solver.findModel())) {
+			final int[] model = solver.findModel();
+			if (model == null) {
+				break;
+			}
+			final Configuration config = addSample(model);
+			monitor.step();
+			try {
+				final IConstr blockingClause = solver.getInternalSolver().addBlockingClause(new VecInt(SatInstance.negateModel(model)));
+				if (config != null) {
+					config.setBlockingClauseConstraint(blockingClause);
+				}
+			} catch (final ContradictionException e) {
+				// Unsatisfiable -> Found everything
 				break;
 			}
 			solver.shuffleOrder();
 		}
+	}
 
-		return getConfigurations();
+	private void sample(DDNNF ddnnf, int[] assumptions, IMonitor monitor) throws Exception {
+		samples.clear();
+		numberOfSamples = maxNumber;
+		numberOfDrawnSamples = 0;
+		try {
+			final int numberOfThreads = getNumberOfThreads();
+			final Random seedRandom = new Random(seed);
+			if (numberOfThreads == 1) {
+				new Worker(ddnnf, assumptions, new Random(seedRandom.nextLong()), monitor).call();
+				return;
+			}
+
+			final List<Future<Void>> futures = new ArrayList<>(numberOfThreads);
+			try {
+				for (int i = 0; i < numberOfThreads; i++) {
+					futures.add(LongRunningExecutor.submit(new Worker(ddnnf, assumptions, new Random(seedRandom.nextLong()), monitor)));
+				}
+				for (final Future<Void> future : futures) {
+					try {
+						LongRunningExecutor.get(future);
+					} catch (final ExecutionException e) {
+						final Throwable cause = e.getCause();
+						if (cause instanceof Exception) {
+							throw (Exception) cause;
+						}
+						throw e;
+					}
+				}
+			} finally {
+				// stops the other workers if one failed
+				synchronized (samples) {
+					numberOfSamples = numberOfDrawnSamples;
+				}
+				for (final Future<Void> future : futures) {
+					try {
+						LongRunningExecutor.get(future);
+					} catch (final ExecutionException e) {
+						// the first exception was already thrown
+					}
+				}
+			}
+		} finally {
+			samples.clear();
+		}
 	}
 
-	@Override
-	protected boolean handleNewConfig(int[] curModel) {
-		if (curModel == null) {
-			// Found everything
-			return true;
+	/**
+	 * Passes the given solution to the sink or stores it together with its coverage.
+	 *
+	 * @return the stored configuration or {@code null} if a sink is set
+	 */
+	private Configuration addSample(int[] model) {
+		if (sink != null) {
+			sink.invoke(model);
+			return null;
 		}
-		final int partCount = count(curModel);
-		final Configuration config = new Configuration(curModel, partCount - getLastCoverage(), partCount);
+		final int partCount = count(model);
+		final Configuration config = new Configuration(model, partCount - getLastCoverage(), partCount);
 
-		addCombinationsFromModel(curModel);
+		addCombinationsFromModel(model);
 
 		config.time = System.nanoTime() - time;
 		q.offer(config);
@@ -73,15 +268,59 @@ public class RandomConfigurationGenerator extends PairWiseConfigurationGenerator
 			tempConfigurationList.add(config);
 		}
 		time = System.nanoTime();
+		return config;
+	}
 
-		try {
-			config.setBlockingClauseConstraint(solver.getInternalSolver().addBlockingClause(new VecInt(SatInstance.negateModel(curModel))));
-		} catch (final ContradictionException e) {
-			// Unsatisfiable -> Found everything
-			return true;
-		}
+	public IConsumer<int[]> getSink() {
+		return sink;
+	}
+
+	/**
+	 * Sets a sink that receives each configuration as soon as it is found. If a sink is set, configurations are neither stored nor offered to {@link #q}, and
+	 * the result list of {@link #analyze(IMonitor)} is empty. If multiple threads are used, the sink is never called concurrently.</br> As no configurations
+	 * are kept, samples from the compiled formula are drawn with replacement, i.e., the sink may receive a configuration more than once.
+	 *
+	 * @param sink the sink or {@code null} to store all configurations
+	 */
+	public void setSink(IConsumer<int[]> sink) {
+		this.sink = sink;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	public int getMaxNumberOfNodes() {
+		return maxNumberOfNodes;
+	}
+
+	/**
+	 * @param maxNumberOfNodes the maximal number of nodes of the compiled formula before falling back to the satisfiability solver
+	 */
+	public void setMaxNumberOfNodes(int maxNumberOfNodes) {
+		this.maxNumberOfNodes = maxNumberOfNodes;
+	}
+
+	public long getCompileTimeout() {
+		return compileTimeout;
+	}
+
+	/**
+	 * @param compileTimeout the maximal time for compiling the formula in milliseconds before falling back to the satisfiability solver (0 for no timeout)
+	 */
+	public void setCompileTimeout(long compileTimeout) {
+		this.compileTimeout = compileTimeout;
+	}
 
-		return false;
+	/**
+	 * @return the number of solutions of the formula as computed by the last execution or {@code null} if the formula could not be compiled
+	 */
+	public BigInteger getNumberOfSolutions() {
+		return numberOfSolutions;
 	}
 
 }
@@ -0,0 +1,361 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.prop4j.solver.ISatSolver;
+import org.prop4j.solver.ISatSolver.SelectionStrategy;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Creates a sample of configurations that covers all valid t-wise interactions, i.e., all valid combinations of t literals.</br> The interactions are
+ * processed one after another and greedily added to the first configuration they are compatible with. If no such configuration exists, a new one is created.
+ * </br> Coverage is not stored per interaction. Instead, each literal has a packed bitset that contains the indexes of all configurations in which the
+ * literal is fixed. Thus, an interaction is covered if the bitsets of its literals intersect. Memory consumption is linear in the number of variables and the
+ * number of configurations and does not depend on t.
+ *
+ * @author FeatureIDE Team
+ */
+public class TWiseConfigurationGenerator extends AbstractAnalysis<List<List<String>>> {
+
+	private static class PartialConfiguration {
+
+		private final int index;
+		private final int[] literals;
+		private int[] solution;
+
+		public PartialConfiguration(int index, int numberOfVariables, int[] solution) {
+			this.index = index;
+			literals = new int[numberOfVariables];
+			this.solution = solution;
+		}
+
+		public boolean isCompatible(int[] interaction) {
+			for (final int literal : interaction) {
+				if (literals[Math.abs(literal) - 1] == -literal) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		public boolean isContainedInSolution(int[] interaction) {
+			for (final int literal : interaction) {
+				if (solution[Math.abs(literal) - 1] != literal) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
+	private final int t;
+	private final int maxNumber;
+
+	private final List<PartialConfiguration> configurations = new ArrayList<>();
+
+	/**
+	 * For each literal, a bitset of the configurations in which the literal is fixed.
+	 */
+	private long[][] coverage;
+
+	/**
+	 * For t > 2, bitsets of literal pairs whose validity is known and of literal pairs that are invalid. Every interaction that contains an invalid pair is
+	 * invalid as well. Only literals of features that are neither core nor dead are indexed, and the row of a literal is allocated when it is first needed.
+	 */
+	private long[][] checkedPairs, invalidPairs;
+
+	/**
+	 * For each variable, its index among the variables that are neither core nor dead.
+	 */
+	private int[] freeVariableIndex;
+
+	private long numberOfInvalidInteractions;
+
+	public TWiseConfigurationGenerator(SatInstance satInstance, int t, int maxNumber) {
+		super(satInstance);
+		this.t = checkT(t);
+		this.maxNumber = maxNumber;
+	}
+
+	public TWiseConfigurationGenerator(ISatSolver solver, int t, int maxNumber) {
+		super(solver);
+		this.t = checkT(t);
+		this.maxNumber = maxNumber;
+	}
+
+	private static int checkT(int t) {
+		if (t < 1) {
+			throw new IllegalArgumentException("t must be at least 1 but was " + t);
+		}
+		return t;
+	}
+
+	@Override
+	public List<List<String>> analyze(IMonitor monitor) throws Exception {
+		configurations.clear();
+		numberOfInvalidInteractions = 0;
+		if (maxNumber <= 0) {
+			return new ArrayList<>();
+		}
+
+		final int numberOfVariables = solver.getSatInstance().getNumberOfVariables();
+		coverage = new long[2 * numberOfVariables][1];
+
+		// core and dead features are part of every configuration and remain in the assignment
+		new CoreDeadAnalysis(solver).analyze(monitor.subTask(0));
+		final int fixedAssignmentSize = solver.getAssignment().size();
+		final boolean[] fixed = new boolean[numberOfVariables];
+		for (int i = 0; i < fixedAssignmentSize; i++) {
+			fixed[Math.abs(solver.getAssignment().get(i)) - 1] = true;
+		}
+
+		solver.setSelectionStrategy(SelectionStrategy.ORG);
+		final int[] initialSolution = solver.findModel();
+		if (initialSolution == null) {
+			return new ArrayList<>();
+		}
+
+		final int[] variables = new int[numberOfVariables];
+		freeVariableIndex = new int[numberOfVariables];
+		int numberOfFreeVariables = 0;
+		for (int i = 0; i < numberOfVariables; i++) {
+			if (!fixed[i]) {
+				freeVariableIndex[i] = numberOfFreeVariables;
+				variables[numberOfFreeVariables++] = i + 1;
+			}
+		}
+		if (t > 2) {
+			checkedPairs = new long[2 * numberOfFreeVariables][];
+			invalidPairs = new long[2 * numberOfFreeVariables][];
+		} else {
+			checkedPairs = null;
+			invalidPairs = null;
+		}
+
+		if (numberOfFreeVariables >= t) {
+			monitor.setRemainingWork((numberOfFreeVariables - t) + 1);
+
+			final int[] combination = new int[t];
+			for (int i = 0; i < t; i++) {
+				combination[i] = i;
+			}
+			final int[] interaction = new int[t];
+			final int numberOfPatterns = 1 << t;
+
+			int first = 0;
+			while (true) {
+				monitor.checkCancel();
+				for (int pattern = 0; pattern < numberOfPatterns; pattern++) {
+					for (int i = 0; i < t; i++) {
+						final int variable = variables[combination[i]];
+						interaction[i] = ((pattern >>> i) & 1) == 0 ? -variable : variable;
+					}
+					handleInteraction(interaction, fixedAssignmentSize);
+				}
+
+				// next combination in lexicographic order
+				int i = t - 1;
+				while ((i >= 0) && (combination[i] == ((numberOfFreeVariables - t) + i))) {
+					i--;
+				}
+				if (i < 0) {
+					break;
+				}
+				combination[i]++;
+				for (int j = i + 1; j < t; j++) {
+					combination[j] = combination[j - 1] + 1;
+				}
+				if (combination[0] != first) {
+					first = combination[0];
+					monitor.step();
+				}
+			}
+		}
+
+		if (configurations.isEmpty()) {
+			configurations.add(new PartialConfiguration(0, numberOfVariables, initialSolution));
+		}
+
+		final List<List<String>> result = new ArrayList<>(configurations.size());
+		for (final PartialConfiguration configuration : configurations) {
+			result.add(solver.getSatInstance().convertToString(configuration.solution));
+		}
+		return result;
+	}
+
+	private void handleInteraction(int[] interaction, int fixedAssignmentSize) {
+		if (isCovered(interaction)) {
+			return;
+		}
+
+		// the stored solution of a configuration already contains the interaction
+		for (final PartialConfiguration configuration : configurations) {
+			if (configuration.isContainedInSolution(interaction)) {
+				addInteraction(configuration, interaction);
+				return;
+			}
+		}
+
+		if (containsInvalidPair(interaction, fixedAssignmentSize)) {
+			numberOfInvalidInteractions++;
+			return;
+		}
+		final int[] solution = findModel(interaction, fixedAssignmentSize);
+		if (solution == null) {
+			numberOfInvalidInteractions++;
+			return;
+		}
+
+		for (final PartialConfiguration configuration : configurations) {
+			if (configuration.isCompatible(interaction)) {
+				for (final int literal : configuration.literals) {
+					if (literal != 0) {
+						solver.assignmentPush(literal);
+					}
+				}
+				final int[] configurationSolution = findModel(interaction, fixedAssignmentSize);
+				if (configurationSolution != null) {
+					configuration.solution = configurationSolution;
+					addInteraction(configuration, interaction);
+					return;
+				}
+			}
+		}
+
+		if (configurations.size() < maxNumber) {
+			final PartialConfiguration configuration = new PartialConfiguration(configurations.size(), solution.length, solution);
+			configurations.add(configuration);
+			addInteraction(configuration, interaction);
+		}
+	}
+
+	private boolean containsInvalidPair(int[] interaction, int fixedAssignmentSize) {
+		if (invalidPairs != null) {
+			for (int i = 0; i < (interaction.length - 1); i++) {
+				final int row = freeLiteralIndex(interaction[i]);
+				long[] checkedRow = checkedPairs[row];
+				long[] invalidRow = invalidPairs[row];
+				if (checkedRow == null) {
+					checkedRow = new long[(checkedPairs.length >>> 6) + 1];
+					invalidRow = new long[checkedRow.length];
+					checkedPairs[row] = checkedRow;
+					invalidPairs[row] = invalidRow;
+				}
+				for (int j = i + 1; j < interaction.length; j++) {
+					final int column = freeLiteralIndex(interaction[j]);
+					final int wordIndex = column >>> 6;
+					final long mask = 1L << column;
+					if ((checkedRow[wordIndex] & mask) == 0) {
+						checkedRow[wordIndex] |= mask;
+						if (findModel(new int[] { interaction[i], interaction[j] }, fixedAssignmentSize) == null) {
+							invalidRow[wordIndex] |= mask;
+							return true;
+						}
+					} else if ((invalidRow[wordIndex] & mask) != 0) {
+						return true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	private int freeLiteralIndex(int literal) {
+		return (freeVariableIndex[Math.abs(literal) - 1] << 1) + (literal > 0 ? 1 : 0);
+	}
+
+	private int[] findModel(int[] interaction, int fixedAssignmentSize) {
+		for (final int literal : interaction) {
+			solver.assignmentPush(literal);
+		}
+		final int[] solution;
+		switch (solver.isSatisfiable()) {
+		case TRUE:
+			solution = solver.getModel();
+			break;
+		case FALSE:
+		case TIMEOUT:
+		default:
+			solution = null;
+			break;
+		}
+		solver.assignmentClear(fixedAssignmentSize);
+		return solution;
+	}
+
+	private boolean isCovered(int[] interaction) {
+		final int numberOfWords = coverage[literalIndex(interaction[0])].length;
+		wordLoop: for (int w = 0; w < numberOfWords; w++) {
+			long word = -1L;
+			for (final int literal : interaction) {
+				word &= coverage[literalIndex(literal)][w];
+				if (word == 0) {
+					continue wordLoop;
+				}
+			}
+			return true;
+		}
+		return false;
+	}
+
+	private void addInteraction(PartialConfiguration configuration, int[] interaction) {
+		final int wordIndex = configuration.index >>> 6;
+		final long mask = 1L << (configuration.index & 63);
+		for (final int literal : interaction) {
+			configuration.literals[Math.abs(literal) - 1] = literal;
+			final int index = literalIndex(literal);
+			if (wordIndex >= coverage[index].length) {
+				growCoverage(wordIndex + 1);
+			}
+			coverage[index][wordIndex] |= mask;
+		}
+	}
+
+	private void growCoverage(int minimumNumberOfWords) {
+		final int numberOfWords = Math.max(minimumNumberOfWords, coverage[0].length << 1);
+		for (int i = 0; i < coverage.length; i++) {
+			coverage[i] = Arrays.copyOf(coverage[i], numberOfWords);
+		}
+	}
+
+	private static int literalIndex(int literal) {
+		return literal > 0 ? (2 * (literal - 1)) : ((2 * (-literal - 1)) + 1);
+	}
+
+	public int getT() {
+		return t;
+	}
+
+	/**
+	 * @return the number of interactions of the last execution that cannot occur in any valid configuration
+	 */
+	public long getNumberOfInvalidInteractions() {
+		return numberOfInvalidInteractions;
+	}
+
+}
@@ -127,16 +127,26 @@ public class Sat4jSatSolver extends AbstractSatSolver<ISolver> {
 
 	@Override
 	public boolean isSatisfiable() {
-		if (isContradiction()) {
-			return false;
-		}
 		try {
-			return getOracle().isSatisfiable(getVectorFromAssumptions());
+			return isSatisfiableWithinTimeout();
 		} catch (final TimeoutException e) {
 			return false;
 		}
 	}
 
+	/**
+	 * Returns whether the problem is satisfiable. In contrast to {@link #isSatisfiable()}, a timeout of the oracle is not treated as unsatisfiable.
+	 *
+	 * @return true iff the problem is satisfiable
+	 * @throws TimeoutException if the oracle exceeds its timeout
+	 */
+	public boolean isSatisfiableWithinTimeout() throws TimeoutException {
+		if (isContradiction()) {
+			return false;
+		}
+		return getOracle().isSatisfiable(getVectorFromAssumptions());
+	}
+
 	@Override
 	public Map<Object, Boolean> getModel() throws IllegalStateException {
 		if (!isSatisfiable()) {
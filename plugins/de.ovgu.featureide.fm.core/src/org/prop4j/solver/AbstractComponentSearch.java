@@ -0,0 +1,358 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.sat4j.core.VecInt;
+
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Base class for a DPLL-style search over the CNF of a {@link SatInstance} that splits the remaining clauses into independent components after each
+ * decision.</br> Provides unit propagation on a trail, the decomposition into components, and a cache that maps components to results of type {@code T}.
+ *
+ * @param <T> the type of the cached component results
+ *
+ * @author FeatureIDE Team
+ */
+public abstract class AbstractComponentSearch<T> {
+
+	protected static final class ComponentKey {
+
+		private final int[] key;
+		private final int hashCode;
+
+		public ComponentKey(int[] key) {
+			this.key = key;
+			hashCode = Arrays.hashCode(key);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return (obj instanceof ComponentKey) && Arrays.equals(key, ((ComponentKey) obj).key);
+		}
+
+	}
+
+	protected static final class Component {
+
+		protected final VecInt variables = new VecInt();
+		protected final VecInt clauses = new VecInt();
+		protected int branchVariable = 0;
+
+	}
+
+	/**
+	 * The maximum number of cached components. If the cache grows larger, it is cleared.
+	 */
+	public static final int MAX_CACHE_SIZE = 1 << 20;
+
+	protected final int numberOfVariables;
+	protected final int[][] clauses;
+	protected final int[][] occurrences;
+
+	protected final int[] values;
+	protected final VecInt trail;
+
+	private final int[] variableMarks;
+	private final int[] clauseMarks;
+	private int currentMark = 0;
+
+	private final Map<ComponentKey, T> cache = new HashMap<>();
+
+	protected IMonitor monitor;
+
+	public AbstractComponentSearch(SatInstance satInstance) {
+		numberOfVariables = satInstance.getNumberOfVariables();
+
+		final List<int[]> clauseList = new ArrayList<>();
+		final ClauseList satClauses = satInstance.getClauses();
+		for (int i = 0; i < satClauses.size(); i++) {
+			final int[] normalizedClause = normalizeClause(satClauses.getClause(i));
+			if (normalizedClause != null) {
+				clauseList.add(normalizedClause);
+			}
+		}
+		clauses = clauseList.toArray(new int[clauseList.size()][]);
+
+		final int[] occurrenceCount = new int[2 * numberOfVariables];
+		for (final int[] clause : clauses) {
+			for (final int literal : clause) {
+				occurrenceCount[literalIndex(literal)]++;
+			}
+		}
+		occurrences = new int[2 * numberOfVariables][];
+		for (int i = 0; i < occurrences.length; i++) {
+			occurrences[i] = new int[occurrenceCount[i]];
+			occurrenceCount[i] = 0;
+		}
+		for (int i = 0; i < clauses.length; i++) {
+			for (final int literal : clauses[i]) {
+				final int index = literalIndex(literal);
+				occurrences[index][occurrenceCount[index]++] = i;
+			}
+		}
+
+		values = new int[numberOfVariables + 1];
+		trail = new VecInt(numberOfVariables);
+		variableMarks = new int[numberOfVariables + 1];
+		clauseMarks = new int[clauses.length];
+	}
+
+	/**
+	 * Removes duplicate literals from a clause.
+	 *
+	 * @return the normalized clause or {@code null} if the clause is a tautology
+	 */
+	private static int[] normalizeClause(int[] clause) {
+		final int[] sortedClause = Arrays.copyOf(clause, clause.length);
+		Arrays.sort(sortedClause);
+		int size = 0;
+		for (int i = 0; i < sortedClause.length; i++) {
+			final int literal = sortedClause[i];
+			if ((size > 0) && (sortedClause[size - 1] == literal)) {
+				continue;
+			}
+			if (Arrays.binarySearch(sortedClause, -literal) >= 0) {
+				return null;
+			}
+			sortedClause[size++] = literal;
+		}
+		return Arrays.copyOf(sortedClause, size);
+	}
+
+	/**
+	 * Resets all assignments, assigns the given literals and all unit clauses, and performs unit propagation.
+	 *
+	 * @param assumptions the literals to assign (0 is ignored)
+	 * @return the unassigned variables or {@code null} if a conflict occurred
+	 */
+	protected VecInt initialize(int[] assumptions) {
+		Arrays.fill(values, 0);
+		trail.clear();
+		for (final int assumption : assumptions) {
+			if ((assumption != 0) && !assign(assumption)) {
+				return null;
+			}
+		}
+		for (final int[] clause : clauses) {
+			if (clause.length == 0) {
+				return null;
+			} else if ((clause.length == 1) && !assign(clause[0])) {
+				return null;
+			}
+		}
+		final VecInt scope = new VecInt(numberOfVariables);
+		for (int i = 1; i <= numberOfVariables; i++) {
+			if (values[i] == 0) {
+				scope.push(i);
+			}
+		}
+		return scope;
+	}
+
+	/**
+	 * @return the unassigned variables of the given component
+	 */
+	protected VecInt getScope(Component component) {
+		final VecInt scope = new VecInt(component.variables.size());
+		for (int i = 0; i < component.variables.size(); i++) {
+			final int var = component.variables.get(i);
+			if (values[var] == 0) {
+				scope.push(var);
+			}
+		}
+		return scope;
+	}
+
+	/**
+	 * Splits the unassigned variables of the given scope into components that do not share an unsatisfied clause.
+	 *
+	 * @param freeVariables if not {@code null}, all variables that do not occur in any unsatisfied clause are added
+	 * @return the number of variables that do not occur in any unsatisfied clause
+	 */
+	protected int findComponents(VecInt scope, List<Component> components, VecInt freeVariables) {
+		final int mark = ++currentMark;
+		int numberOfFreeVariables = 0;
+		final VecInt queue = new VecInt();
+		for (int i = 0; i < scope.size(); i++) {
+			final int startVariable = scope.get(i);
+			if (variableMarks[startVariable] == mark) {
+				continue;
+			}
+			Component component = null;
+			queue.clear();
+			queue.push(startVariable);
+			variableMarks[startVariable] = mark;
+			int maxOccurrences = 0;
+			for (int j = 0; j < queue.size(); j++) {
+				final int var = queue.get(j);
+				int count = 0;
+				for (final int literal : new int[] { var, -var }) {
+					for (final int clauseIndex : occurrences[literalIndex(literal)]) {
+						final int[] clause = clauses[clauseIndex];
+						if (isSatisfied(clause)) {
+							continue;
+						}
+						count++;
+						if (clauseMarks[clauseIndex] != mark) {
+							clauseMarks[clauseIndex] = mark;
+							if (component == null) {
+								component = new Component();
+							}
+							component.clauses.push(clauseIndex);
+							for (final int otherLiteral : clause) {
+								final int otherVar = Math.abs(otherLiteral);
+								if ((values[otherVar] == 0) && (variableMarks[otherVar] != mark)) {
+									variableMarks[otherVar] = mark;
+									queue.push(otherVar);
+								}
+							}
+						}
+					}
+				}
+				if (count > maxOccurrences) {
+					maxOccurrences = count;
+					component.branchVariable = var;
+				}
+			}
+			if (component == null) {
+				numberOfFreeVariables++;
+				if (freeVariables != null) {
+					freeVariables.push(startVariable);
+				}
+			} else {
+				queue.copyTo(component.variables);
+				components.add(component);
+			}
+		}
+		return numberOfFreeVariables;
+	}
+
+	protected ComponentKey getKey(Component component) {
+		final int[] variables = component.variables.toArray();
+		final int[] clauseIndexes = component.clauses.toArray();
+		final int numberOfVariables = component.variables.size();
+		final int numberOfClauses = component.clauses.size();
+		Arrays.sort(variables, 0, numberOfVariables);
+		Arrays.sort(clauseIndexes, 0, numberOfClauses);
+
+		final int[] key = new int[numberOfVariables + numberOfClauses + 1];
+		System.arraycopy(variables, 0, key, 0, numberOfVariables);
+		key[numberOfVariables] = -1;
+		System.arraycopy(clauseIndexes, 0, key, numberOfVariables + 1, numberOfClauses);
+		return new ComponentKey(key);
+	}
+
+	protected T getCachedResult(ComponentKey key) {
+		return cache.get(key);
+	}
+
+	protected void cacheResult(ComponentKey key, T result) {
+		if (cache.size() >= MAX_CACHE_SIZE) {
+			cache.clear();
+		}
+		cache.put(key, result);
+	}
+
+	private boolean isSatisfied(int[] clause) {
+		for (final int literal : clause) {
+			if (values[Math.abs(literal)] == literal) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Assigns the given literal and performs unit propagation.
+	 *
+	 * @return {@code false} if a conflict occurred
+	 */
+	protected boolean assign(int literal) {
+		final int value = values[Math.abs(literal)];
+		if (value != 0) {
+			return value == literal;
+		}
+		int queueIndex = trail.size();
+		setValue(literal);
+		while (queueIndex < trail.size()) {
+			final int falseLiteral = -trail.get(queueIndex++);
+			clauseLoop: for (final int clauseIndex : occurrences[literalIndex(falseLiteral)]) {
+				int unassignedLiteral = 0;
+				for (final int clauseLiteral : clauses[clauseIndex]) {
+					final int clauseValue = values[Math.abs(clauseLiteral)];
+					if (clauseValue == clauseLiteral) {
+						continue clauseLoop;
+					} else if (clauseValue == 0) {
+						if (unassignedLiteral != 0) {
+							continue clauseLoop;
+						}
+						unassignedLiteral = clauseLiteral;
+					}
+				}
+				if (unassignedLiteral == 0) {
+					return false;
+				}
+				setValue(unassignedLiteral);
+			}
+		}
+		return true;
+	}
+
+	private void setValue(int literal) {
+		values[Math.abs(literal)] = literal;
+		trail.push(literal);
+	}
+
+	protected void undo(int trailSize) {
+		for (int i = trail.size() - 1; i >= trailSize; i--) {
+			values[Math.abs(trail.get(i))] = 0;
+		}
+		trail.shrinkTo(trailSize);
+	}
+
+	protected static int literalIndex(int literal) {
+		return literal > 0 ? (2 * (literal - 1)) : ((2 * (-literal - 1)) + 1);
+	}
+
+	public int getNumberOfVariables() {
+		return numberOfVariables;
+	}
+
+	/**
+	 * Removes all cached component results.
+	 */
+	public void clearCache() {
+		cache.clear();
+	}
+
+}
@@ -90,8 +90,9 @@ public class BasicSolver implements ISatSolver {
 		final int size = satInstance.getNumberOfVariables();
 		if (size > 0) {
 			solver.newVar(size);
-			solver.setExpectedNumberOfClauses(satInstance.getCnf().getChildren().length + 1);
-			addCNF(satInstance.getCnf().getChildren());
+			final ClauseList clauses = satInstance.getClauses();
+			solver.setExpectedNumberOfClauses(clauses.size() + 1);
+			addClauses(clauses);
 			final VecInt pseudoClause = new VecInt(size + 1);
 			for (int i = 1; i <= size; i++) {
 				pseudoClause.push(i);
@@ -124,6 +125,27 @@ public class BasicSolver implements ISatSolver {
 		return result;
 	}
 
+	/**
+	 * Adds clauses without converting them from a formula.
+	 *
+	 * @param clauses the clauses to add
+	 * @return the constraints added to the solver
+	 */
+	public List<IConstr> addClauses(ClauseList clauses) throws ContradictionException {
+		final int[] literals = clauses.getLiterals();
+		final List<IConstr> result = new ArrayList<>(clauses.size());
+		for (int i = 0; i < clauses.size(); i++) {
+			final int start = clauses.getStart(i);
+			final int end = clauses.getEnd(i);
+			final VecInt clause = new VecInt(end - start);
+			for (int j = start; j < end; j++) {
+				clause.unsafePush(literals[j]);
+			}
+			result.add(solver.addClause(clause));
+		}
+		return result;
+	}
+
 	protected IConstr addClause(final Node node) throws ContradictionException {
 		final Node[] children = node.getChildren();
 		final int[] clause = new int[children.length];
@@ -0,0 +1,172 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import java.util.Arrays;
+
+/**
+ * A list of clauses that stores all literals in one int array. The clause {@code i} consists of the literals from {@code getStart(i)} (inclusive) to
+ * {@code getEnd(i)} (exclusive). A literal is the index of its variable (starting at 1), which is negative for negated literals.
+ *
+ * @author FeatureIDE Team
+ */
+public class ClauseList {
+
+	private int[] literals;
+	private int[] offsets;
+	private int size;
+	/**
+	 * The number of literals including the literals of the clause that is currently built.
+	 */
+	private int end;
+
+	public ClauseList() {
+		this(16, 64);
+	}
+
+	/**
+	 * @param expectedNumberOfClauses the initial capacity for clauses
+	 * @param expectedNumberOfLiterals the initial capacity for literals of all clauses
+	 */
+	public ClauseList(int expectedNumberOfClauses, int expectedNumberOfLiterals) {
+		literals = new int[Math.max(1, expectedNumberOfLiterals)];
+		offsets = new int[Math.max(1, expectedNumberOfClauses) + 1];
+		size = 0;
+		end = 0;
+	}
+
+	/**
+	 * Creates a clause list from a flat array, in which each clause is terminated by a 0 (as in the DIMACS format).
+	 *
+	 * @param zeroTerminatedClauses the clauses
+	 * @return a new clause list
+	 */
+	public static ClauseList fromZeroTerminated(int[] zeroTerminatedClauses) {
+		int numberOfClauses = 0;
+		for (final int literal : zeroTerminatedClauses) {
+			if (literal == 0) {
+				numberOfClauses++;
+			}
+		}
+		final ClauseList clauses = new ClauseList(numberOfClauses, zeroTerminatedClauses.length - numberOfClauses);
+		for (final int literal : zeroTerminatedClauses) {
+			if (literal == 0) {
+				clauses.endClause();
+			} else {
+				clauses.addLiteral(literal);
+			}
+		}
+		return clauses;
+	}
+
+	/**
+	 * Adds a literal to the clause that is currently built.
+	 *
+	 * @see #endClause()
+	 */
+	public void addLiteral(int literal) {
+		if (end == literals.length) {
+			literals = Arrays.copyOf(literals, literals.length << 1);
+		}
+		literals[end++] = literal;
+	}
+
+	/**
+	 * Completes the clause that is currently built by {@link #addLiteral(int)}.
+	 */
+	public void endClause() {
+		if ((size + 1) == (offsets.length - 1)) {
+			offsets = Arrays.copyOf(offsets, offsets.length << 1);
+		}
+		offsets[++size] = end;
+	}
+
+	/**
+	 * Adds a clause.
+	 *
+	 * @param clause the literals of the clause
+	 */
+	public void add(int... clause) {
+		for (final int literal : clause) {
+			addLiteral(literal);
+		}
+		endClause();
+	}
+
+	/**
+	 * Adds all clauses of another list. Must not be called while a clause is built.
+	 *
+	 * @param other the other list
+	 */
+	public void addAll(ClauseList other) {
+		final int numberOfLiterals = offsets[size];
+		final int otherNumberOfLiterals = other.offsets[other.size];
+		if ((numberOfLiterals + otherNumberOfLiterals) > literals.length) {
+			literals = Arrays.copyOf(literals, Math.max(literals.length << 1, numberOfLiterals + otherNumberOfLiterals));
+		}
+		System.arraycopy(other.literals, 0, literals, numberOfLiterals, otherNumberOfLiterals);
+		if ((size + other.size + 1) > offsets.length) {
+			offsets = Arrays.copyOf(offsets, Math.max(offsets.length << 1, size + other.size + 1));
+		}
+		for (int i = 1; i <= other.size; i++) {
+			offsets[size + i] = numberOfLiterals + other.offsets[i];
+		}
+		size += other.size;
+		end = offsets[size];
+	}
+
+	/**
+	 * @return the number of clauses
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return the number of literals of all clauses
+	 */
+	public int getNumberOfLiterals() {
+		return offsets[size];
+	}
+
+	/**
+	 * Returns the array that contains the literals of all clauses. The array may be larger than {@link #getNumberOfLiterals()} and must not be modified.
+	 */
+	public int[] getLiterals() {
+		return literals;
+	}
+
+	public int getStart(int clauseIndex) {
+		return offsets[clauseIndex];
+	}
+
+	public int getEnd(int clauseIndex) {
+		return offsets[clauseIndex + 1];
+	}
+
+	/**
+	 * @return a copy of the literals of the given clause
+	 */
+	public int[] getClause(int clauseIndex) {
+		return Arrays.copyOfRange(literals, offsets[clauseIndex], offsets[clauseIndex + 1]);
+	}
+
+}
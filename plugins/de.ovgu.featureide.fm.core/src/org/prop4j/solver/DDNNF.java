@@ -0,0 +1,350 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.sat4j.core.VecInt;
+
+/**
+ * A formula in smooth deterministic decomposable negation normal form (sd-DNNF).</br> The nodes are stored in topological order, i.e., the children of a
+ * node always have a smaller index than the node itself, and the last node is the root. There are three types of nodes:
+ * <ul>
+ * <li>{@link #LITERAL}: a single literal.</li>
+ * <li>{@link #AND}: a conjunction of children that do not share any variable. An and node without children represents <i>true</i>.</li>
+ * <li>{@link #OR}: a disjunction of children that are mutually exclusive and contain the same variables. If a decision variable is given, the children
+ * differ in the value of this variable. An or node without children represents <i>false</i>.</li>
+ * </ul>
+ * Thus, satisfiability, counting, propagation, and uniform sampling under a set of assumptions can be computed with a constant number of passes over the
+ * nodes.</br> Variables correspond to the variables of the {@link SatInstance} that was compiled (see {@link DDNNFCompiler}).
+ *
+ * @author FeatureIDE Team
+ */
+public class DDNNF {
+
+	public static final int LITERAL = 0;
+	public static final int AND = 1;
+	public static final int OR = 2;
+
+	private int numberOfVariables;
+	private String checksum;
+
+	private int[] types;
+	private int[] values;
+	private int[][] children;
+
+	/**
+	 * Creates an empty formula that can be filled via {@link #copyValues(DDNNF)}.
+	 */
+	public DDNNF() {
+		this(0, "", new int[] { OR }, new int[] { 0 }, new int[][] { new int[0] });
+	}
+
+	/**
+	 * @param numberOfVariables the number of variables
+	 * @param checksum the checksum of the compiled CNF (see {@link DDNNFCompiler#computeChecksum(SatInstance)})
+	 * @param types the type of each node
+	 * @param values the literal of each literal node and the decision variable of each or node (0 if unknown)
+	 * @param children the children of each node
+	 */
+	public DDNNF(int numberOfVariables, String checksum, int[] types, int[] values, int[][] children) {
+		if ((types.length == 0) || (types.length != values.length) || (types.length != children.length)) {
+			throw new IllegalArgumentException("Inconsistent number of nodes");
+		}
+		for (int i = 0; i < children.length; i++) {
+			for (final int child : children[i]) {
+				if ((child < 0) || (child >= i)) {
+					throw new IllegalArgumentException("Nodes are not in topological order");
+				}
+			}
+		}
+		this.numberOfVariables = numberOfVariables;
+		this.checksum = checksum;
+		this.types = types;
+		this.values = values;
+		this.children = children;
+	}
+
+	public void copyValues(DDNNF other) {
+		numberOfVariables = other.numberOfVariables;
+		checksum = other.checksum;
+		types = other.types;
+		values = other.values;
+		children = other.children;
+	}
+
+	/**
+	 * Checks whether there is a solution that contains all given literals.
+	 *
+	 * @param assumptions the literals (0 is ignored)
+	 */
+	public boolean isSatisfiable(int[] assumptions) {
+		return computeSatisfiable(getAssignment(assumptions))[types.length - 1];
+	}
+
+	/**
+	 * Counts all solutions that contain the given literals.
+	 *
+	 * @param assumptions the literals (0 is ignored)
+	 */
+	public BigInteger count(int[] assumptions) {
+		return computeCounts(getAssignment(assumptions))[types.length - 1];
+	}
+
+	/**
+	 * Computes all literals that are contained in every solution that contains the given literals. Variables of the assumptions are not part of the result.
+	 *
+	 * @param assumptions the literals (0 is ignored)
+	 * @return the implied literals ordered by their variable or an empty array if there is no solution
+	 */
+	public int[] getImpliedLiterals(int[] assumptions) {
+		final int[] assignment = getAssignment(assumptions);
+		final boolean[] satisfiable = computeSatisfiable(assignment);
+		final int root = types.length - 1;
+		if (!satisfiable[root]) {
+			return new int[0];
+		}
+
+		final boolean[] reachable = new boolean[types.length];
+		final boolean[] possible = new boolean[2 * numberOfVariables];
+		reachable[root] = true;
+		for (int i = root; i >= 0; i--) {
+			if (reachable[i]) {
+				if (types[i] == LITERAL) {
+					possible[literalIndex(values[i])] = true;
+				} else {
+					// only satisfiable children can be part of a solution
+					for (final int child : children[i]) {
+						if (satisfiable[child]) {
+							reachable[child] = true;
+						}
+					}
+				}
+			}
+		}
+
+		final VecInt impliedLiterals = new VecInt();
+		for (int var = 1; var <= numberOfVariables; var++) {
+			if (assignment[var] == 0) {
+				final boolean positive = possible[literalIndex(var)];
+				final boolean negative = possible[literalIndex(-var)];
+				if (positive != negative) {
+					impliedLiterals.push(positive ? var : -var);
+				}
+			}
+		}
+		return Arrays.copyOf(impliedLiterals.toArray(), impliedLiterals.size());
+	}
+
+	/**
+	 * Draws solutions that contain the given literals uniformly at random.
+	 *
+	 * @param assumptions the literals (0 is ignored)
+	 * @param numberOfSamples the number of solutions to draw
+	 * @param random the source of randomness
+	 * @return a list of complete solutions (may contain duplicates) or an empty list if there is no solution
+	 */
+	public List<int[]> sample(int[] assumptions, int numberOfSamples, Random random) {
+		final int[] assignment = getAssignment(assumptions);
+		final BigInteger[] counts = computeCounts(assignment);
+		final int root = types.length - 1;
+		final List<int[]> samples = new ArrayList<>(Math.max(0, numberOfSamples));
+		if (counts[root].signum() == 0) {
+			return samples;
+		}
+
+		final VecInt stack = new VecInt();
+		for (int s = 0; s < numberOfSamples; s++) {
+			final int[] solution = new int[numberOfVariables];
+			stack.push(root);
+			while (!stack.isEmpty()) {
+				final int node = stack.last();
+				stack.pop();
+				switch (types[node]) {
+				case LITERAL:
+					solution[Math.abs(values[node]) - 1] = values[node];
+					break;
+				case AND:
+					for (final int child : children[node]) {
+						stack.push(child);
+					}
+					break;
+				case OR:
+					BigInteger remaining = nextRandom(counts[node], random);
+					for (final int child : children[node]) {
+						remaining = remaining.subtract(counts[child]);
+						if (remaining.signum() < 0) {
+							stack.push(child);
+							break;
+						}
+					}
+					break;
+				default:
+					throw new AssertionError(types[node]);
+				}
+			}
+			samples.add(solution);
+		}
+		return samples;
+	}
+
+	private static BigInteger nextRandom(BigInteger bound, Random random) {
+		BigInteger value;
+		do {
+			value = new BigInteger(bound.bitLength(), random);
+		} while (value.compareTo(bound) >= 0);
+		return value;
+	}
+
+	private boolean[] computeSatisfiable(int[] assignment) {
+		final boolean[] satisfiable = new boolean[types.length];
+		if (assignment == null) {
+			return satisfiable;
+		}
+		for (int i = 0; i < types.length; i++) {
+			switch (types[i]) {
+			case LITERAL:
+				satisfiable[i] = assignment[Math.abs(values[i])] != -values[i];
+				break;
+			case AND:
+				satisfiable[i] = true;
+				for (final int child : children[i]) {
+					if (!satisfiable[child]) {
+						satisfiable[i] = false;
+						break;
+					}
+				}
+				break;
+			case OR:
+				satisfiable[i] = false;
+				for (final int child : children[i]) {
+					if (satisfiable[child]) {
+						satisfiable[i] = true;
+						break;
+					}
+				}
+				break;
+			default:
+				throw new AssertionError(types[i]);
+			}
+		}
+		return satisfiable;
+	}
+
+	private BigInteger[] computeCounts(int[] assignment) {
+		final BigInteger[] counts = new BigInteger[types.length];
+		if (assignment == null) {
+			Arrays.fill(counts, BigInteger.ZERO);
+			return counts;
+		}
+		for (int i = 0; i < types.length; i++) {
+			switch (types[i]) {
+			case LITERAL:
+				counts[i] = (assignment[Math.abs(values[i])] != -values[i]) ? BigInteger.ONE : BigInteger.ZERO;
+				break;
+			case AND:
+				BigInteger product = BigInteger.ONE;
+				for (final int child : children[i]) {
+					product = product.multiply(counts[child]);
+					if (product.signum() == 0) {
+						break;
+					}
+				}
+				counts[i] = product;
+				break;
+			case OR:
+				BigInteger sum = BigInteger.ZERO;
+				for (final int child : children[i]) {
+					sum = sum.add(counts[child]);
+				}
+				counts[i] = sum;
+				break;
+			default:
+				throw new AssertionError(types[i]);
+			}
+		}
+		return counts;
+	}
+
+	/**
+	 * @return an array that contains the value of each variable or {@code null} if the assumptions are contradicting
+	 */
+	private int[] getAssignment(int[] assumptions) {
+		final int[] assignment = new int[numberOfVariables + 1];
+		for (final int literal : assumptions) {
+			if (literal != 0) {
+				final int var = Math.abs(literal);
+				if (var > numberOfVariables) {
+					throw new IllegalArgumentException("Unknown variable " + var);
+				}
+				if (assignment[var] == -literal) {
+					return null;
+				}
+				assignment[var] = literal;
+			}
+		}
+		return assignment;
+	}
+
+	private static int literalIndex(int literal) {
+		return literal > 0 ? (2 * (literal - 1)) : ((2 * (-literal - 1)) + 1);
+	}
+
+	public int getNumberOfVariables() {
+		return numberOfVariables;
+	}
+
+	/**
+	 * @return the checksum of the CNF this formula was compiled from
+	 */
+	public String getChecksum() {
+		return checksum;
+	}
+
+	public int getNumberOfNodes() {
+		return types.length;
+	}
+
+	public int getNumberOfEdges() {
+		int numberOfEdges = 0;
+		for (final int[] nodeChildren : children) {
+			numberOfEdges += nodeChildren.length;
+		}
+		return numberOfEdges;
+	}
+
+	public int getType(int node) {
+		return types[node];
+	}
+
+	public int getValue(int node) {
+		return values[node];
+	}
+
+	public int[] getChildren(int node) {
+		return children[node];
+	}
+
+}
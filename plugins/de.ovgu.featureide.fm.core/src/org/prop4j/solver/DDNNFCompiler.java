@@ -0,0 +1,287 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.sat4j.core.VecInt;
+
+import de.ovgu.featureide.fm.core.job.LongRunningMethod;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Compiles the CNF of a {@link SatInstance} into a {@link DDNNF}.</br> Performs the same component-based search as {@link ModelCounter}, but records the
+ * search trace instead of counting: each decision becomes an or node, each decomposition an and node, and each cached component a shared node. Variables that
+ * are assigned by unit propagation become literal nodes and variables that do not occur in any remaining clause become or nodes over both of their literals.
+ * Thus, the resulting formula is smooth.</br> The compilation can be restricted by a maximal number of nodes and a timeout. If one of them is exceeded,
+ * {@link #execute(IMonitor)} returns {@code null}.
+ *
+ * @author FeatureIDE Team
+ */
+public class DDNNFCompiler extends AbstractComponentSearch<Integer> implements LongRunningMethod<DDNNF> {
+
+	/**
+	 * Signals that the compilation exceeded its maximal number of nodes or its timeout.
+	 */
+	private static final class BudgetExceededException extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+	}
+
+	private final String checksum;
+
+	private int maxNumberOfNodes = Integer.MAX_VALUE;
+	private long timeout = 0;
+	private long deadline;
+
+	private final VecInt types = new VecInt();
+	private final VecInt nodeValues = new VecInt();
+	private final List<int[]> children = new ArrayList<>();
+
+	private int[] literalNodes;
+	private int[] freeVariableNodes;
+	private int falseNode, trueNode;
+
+	public DDNNFCompiler(SatInstance satInstance) {
+		super(satInstance);
+		checksum = computeChecksum(satInstance);
+	}
+
+	/**
+	 * @param maxNumberOfNodes the maximal number of nodes of the compiled formula
+	 */
+	public void setMaxNumberOfNodes(int maxNumberOfNodes) {
+		this.maxNumberOfNodes = maxNumberOfNodes;
+	}
+
+	/**
+	 * @param timeout the maximal time for the compilation in milliseconds (0 for no timeout)
+	 */
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+	/**
+	 * Computes a SHA-256 digest of the variable names and clauses of the given instance. A {@link DDNNF} can be reused for another instance if both have the
+	 * same checksum.
+	 *
+	 * @return the digest as hexadecimal string
+	 */
+	public static String computeChecksum(SatInstance satInstance) {
+		final MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (final NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+		final ByteBuffer buffer = ByteBuffer.allocate(Integer.SIZE / Byte.SIZE);
+		digestInt(digest, buffer, satInstance.getNumberOfVariables());
+		for (int i = 1; i <= satInstance.getNumberOfVariables(); i++) {
+			final byte[] name = String.valueOf(satInstance.getVariableObject(i)).getBytes(StandardCharsets.UTF_8);
+			digestInt(digest, buffer, name.length);
+			digest.update(name);
+		}
+		final ClauseList clauses = satInstance.getClauses();
+		final int[] literals = clauses.getLiterals();
+		for (int i = 0; i < clauses.size(); i++) {
+			for (int j = clauses.getStart(i); j < clauses.getEnd(i); j++) {
+				digestInt(digest, buffer, literals[j]);
+			}
+			// 0 terminates a clause as in DIMACS
+			digestInt(digest, buffer, 0);
+		}
+		return String.format("%064x", new BigInteger(1, digest.digest()));
+	}
+
+	private static void digestInt(MessageDigest digest, ByteBuffer buffer, int value) {
+		buffer.clear();
+		buffer.putInt(value);
+		digest.update(buffer.array());
+	}
+
+	/**
+	 * @return the compiled formula or {@code null} if the maximal number of nodes or the timeout was exceeded
+	 */
+	@Override
+	public DDNNF execute(IMonitor monitor) throws Exception {
+		this.monitor = monitor;
+		deadline = (timeout > 0) ? System.currentTimeMillis() + timeout : Long.MAX_VALUE;
+		try {
+			types.clear();
+			nodeValues.clear();
+			children.clear();
+			clearCache();
+			literalNodes = new int[2 * numberOfVariables];
+			freeVariableNodes = new int[numberOfVariables + 1];
+			falseNode = addNode(DDNNF.OR, 0, new int[0]);
+			trueNode = addNode(DDNNF.AND, 0, new int[0]);
+
+			final VecInt scope = initialize(new int[0]);
+			int root = falseNode;
+			if (scope != null) {
+				final int scopeNode = compileScope(scope);
+				if (scopeNode != falseNode) {
+					final VecInt nodeChildren = new VecInt();
+					for (int i = 0; i < trail.size(); i++) {
+						nodeChildren.push(getLiteralNode(trail.get(i)));
+					}
+					if (scopeNode != trueNode) {
+						nodeChildren.push(scopeNode);
+					}
+					root = addAndNode(nodeChildren);
+				}
+			}
+			// the root must be the last node
+			if (root != (children.size() - 1)) {
+				addNode(DDNNF.AND, 0, new int[] { root });
+			}
+
+			return new DDNNF(numberOfVariables, checksum, copy(types), copy(nodeValues), children.toArray(new int[children.size()][]));
+		} catch (final BudgetExceededException e) {
+			return null;
+		} finally {
+			this.monitor = null;
+			types.clear();
+			nodeValues.clear();
+			children.clear();
+			clearCache();
+		}
+	}
+
+	private int compileScope(VecInt scope) {
+		final List<Component> components = new ArrayList<>();
+		final VecInt freeVariables = new VecInt();
+		findComponents(scope, components, freeVariables);
+
+		final VecInt nodeChildren = new VecInt();
+		for (final Component component : components) {
+			final int componentNode = compileComponent(component);
+			if (componentNode == falseNode) {
+				return falseNode;
+			}
+			nodeChildren.push(componentNode);
+		}
+		for (int i = 0; i < freeVariables.size(); i++) {
+			nodeChildren.push(getFreeVariableNode(freeVariables.get(i)));
+		}
+		return addAndNode(nodeChildren);
+	}
+
+	private int compileComponent(Component component) {
+		final ComponentKey key = getKey(component);
+		final Integer cachedNode = getCachedResult(key);
+		if (cachedNode != null) {
+			return cachedNode;
+		}
+		if (monitor != null) {
+			monitor.checkCancel();
+		}
+		if (System.currentTimeMillis() > deadline) {
+			throw new BudgetExceededException();
+		}
+
+		final int variable = component.branchVariable;
+		final int[] branches = new int[2];
+		int numberOfBranches = 0;
+		for (final int literal : new int[] { variable, -variable }) {
+			final int trailSize = trail.size();
+			if (assign(literal)) {
+				final int scopeNode = compileScope(getScope(component));
+				if (scopeNode != falseNode) {
+					final VecInt nodeChildren = new VecInt();
+					for (int i = trailSize; i < trail.size(); i++) {
+						nodeChildren.push(getLiteralNode(trail.get(i)));
+					}
+					if (scopeNode != trueNode) {
+						nodeChildren.push(scopeNode);
+					}
+					branches[numberOfBranches++] = addAndNode(nodeChildren);
+				}
+			}
+			undo(trailSize);
+		}
+
+		final int result;
+		switch (numberOfBranches) {
+		case 0:
+			result = falseNode;
+			break;
+		case 1:
+			result = branches[0];
+			break;
+		default:
+			result = addNode(DDNNF.OR, variable, branches);
+			break;
+		}
+		cacheResult(key, result);
+		return result;
+	}
+
+	private int addAndNode(VecInt nodeChildren) {
+		switch (nodeChildren.size()) {
+		case 0:
+			return trueNode;
+		case 1:
+			return nodeChildren.get(0);
+		default:
+			return addNode(DDNNF.AND, 0, copy(nodeChildren));
+		}
+	}
+
+	private int getLiteralNode(int literal) {
+		final int index = literalIndex(literal);
+		if (literalNodes[index] == 0) {
+			literalNodes[index] = addNode(DDNNF.LITERAL, literal, new int[0]);
+		}
+		return literalNodes[index];
+	}
+
+	private int getFreeVariableNode(int variable) {
+		if (freeVariableNodes[variable] == 0) {
+			freeVariableNodes[variable] = addNode(DDNNF.OR, variable, new int[] { getLiteralNode(variable), getLiteralNode(-variable) });
+		}
+		return freeVariableNodes[variable];
+	}
+
+	private int addNode(int type, int value, int[] nodeChildren) {
+		if (children.size() >= maxNumberOfNodes) {
+			throw new BudgetExceededException();
+		}
+		types.push(type);
+		nodeValues.push(value);
+		children.add(nodeChildren);
+		return children.size() - 1;
+	}
+
+	private static int[] copy(VecInt vec) {
+		final int[] array = new int[vec.size()];
+		vec.copyTo(array);
+		return array;
+	}
+
+}
@@ -0,0 +1,154 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.sat4j.core.VecInt;
+
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Counts the solutions of the CNF of a {@link SatInstance} without enumerating them.</br> Uses a DPLL-style search with unit propagation. After each
+ * decision, the remaining clauses are split into independent components, whose counts are multiplied. The counts of components are cached and reused
+ * whenever the same component occurs again.</br> If a timeout is set and exceeded, the search stops and the number of solutions found so far is returned as
+ * a lower bound (see {@link #isExact()}).
+ *
+ * @author FeatureIDE Team
+ */
+public class ModelCounter extends AbstractComponentSearch<BigInteger> {
+
+	private long timeout = 0;
+	private long deadline;
+	private boolean aborted;
+
+	public ModelCounter(SatInstance satInstance) {
+		super(satInstance);
+	}
+
+	/**
+	 * Counts all solutions.
+	 *
+	 * @return the number of solutions
+	 */
+	public BigInteger count() {
+		return count(new int[0], null);
+	}
+
+	/**
+	 * Counts all solutions that contain the given literals.
+	 *
+	 * @param assumptions literals that must be contained in every solution
+	 * @param monitor a monitor that is checked for cancellation (may be {@code null})
+	 * @return the number of solutions or a lower bound if the timeout was exceeded
+	 */
+	public BigInteger count(int[] assumptions, IMonitor monitor) {
+		this.monitor = monitor;
+		aborted = false;
+		deadline = (timeout > 0) ? (System.currentTimeMillis() + timeout) : Long.MAX_VALUE;
+		try {
+			final VecInt scope = initialize(assumptions);
+			return (scope == null) ? BigInteger.ZERO : countScope(scope);
+		} finally {
+			this.monitor = null;
+		}
+	}
+
+	/**
+	 * Counts the solutions for the unassigned variables in the given scope. All clauses that contain one of these variables contain only variables of the
+	 * scope or assigned variables.
+	 */
+	private BigInteger countScope(VecInt scope) {
+		final List<Component> components = new ArrayList<>();
+		final int freeVariables = findComponents(scope, components, null);
+
+		BigInteger result = BigInteger.ONE.shiftLeft(freeVariables);
+		for (final Component component : components) {
+			final BigInteger componentCount = countComponent(component);
+			if (componentCount.signum() == 0) {
+				return BigInteger.ZERO;
+			}
+			result = result.multiply(componentCount);
+		}
+		return result;
+	}
+
+	private BigInteger countComponent(Component component) {
+		final ComponentKey key = getKey(component);
+		final BigInteger cachedCount = getCachedResult(key);
+		if (cachedCount != null) {
+			return cachedCount;
+		}
+
+		BigInteger result = BigInteger.ZERO;
+		final int variable = component.branchVariable;
+		for (final int literal : new int[] { variable, -variable }) {
+			if (isTimeoutReached()) {
+				break;
+			}
+			final int trailSize = trail.size();
+			if (assign(literal)) {
+				result = result.add(countScope(getScope(component)));
+			}
+			undo(trailSize);
+		}
+
+		if (!aborted) {
+			cacheResult(key, result);
+		}
+		return result;
+	}
+
+	private boolean isTimeoutReached() {
+		if (!aborted) {
+			if (monitor != null) {
+				monitor.checkCancel();
+			}
+			if (System.currentTimeMillis() > deadline) {
+				aborted = true;
+			}
+		}
+		return aborted;
+	}
+
+	/**
+	 * @return {@code true} if the last count is exact, {@code false} if it is a lower bound because the timeout was exceeded
+	 */
+	public boolean isExact() {
+		return !aborted;
+	}
+
+	public long getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * Sets the time budget for a single count.
+	 *
+	 * @param timeout the timeout in milliseconds (0 for no timeout)
+	 */
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+}
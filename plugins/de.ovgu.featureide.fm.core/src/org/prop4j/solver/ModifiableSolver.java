@@ -102,6 +102,23 @@ public class ModifiableSolver extends BasicSolver {
 		return new ArrayList<>(constrList.subList(oldSize, constrList.size()));
 	}
 
+	@Override
+	public List<IConstr> addClauses(ClauseList clauses) throws ContradictionException {
+		if (constrList == null) {
+			constrList = new ArrayList<>();
+		}
+		final int oldSize = constrList.size();
+		try {
+			for (int i = 0; i < clauses.size(); i++) {
+				constrList.add(solver.addClause(new VecInt(clauses.getClause(i))));
+			}
+		} catch (final ContradictionException e) {
+			removeLastClauses(constrList.size() - oldSize);
+			throw e;
+		}
+		return new ArrayList<>(constrList.subList(oldSize, constrList.size()));
+	}
+
 	public void removeConstraint(IConstr constr) {
 		if (constr != null) {
 			solver.removeConstr(constr);
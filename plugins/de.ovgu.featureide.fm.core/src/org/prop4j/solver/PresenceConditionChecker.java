@@ -0,0 +1,207 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Or;
+import org.prop4j.TseitinTransformer;
+import org.prop4j.explain.solvers.impl.sat4j.Sat4jMutableSatSolver;
+import org.prop4j.solver.ISatSolver.SatResult;
+import org.sat4j.specs.TimeoutException;
+
+/**
+ * Checks presence conditions, such as the expressions of preprocessor annotations, for satisfiability with and without the feature model.</br> Each query
+ * borrows an incremental solver from a pool that is owned by the checker, so there is one solver per concurrent query and the solvers are released
+ * together with the checker. A solver contains the feature model only once. The feature model and every condition are guarded by an activation literal, so
+ * a query just assumes the activation literals of the formulas involved. Results are remembered per set of conditions. Conditions are compared by
+ * {@link Node#equals(Object)}, which ignores the order of operands.</br> Each query is limited by a {@link #setTimeout(long) timeout}. Queries that time
+ * out yield {@link SatResult#TIMEOUT} and are not remembered.</br> Instances are thread-safe.
+ *
+ * @author FeatureIDE Team
+ */
+public class PresenceConditionChecker {
+
+	/**
+	 * The variable of an activation literal. It does not correspond to a feature and is compared by identity.
+	 */
+	private static final class ActivationVariable {
+
+		@Override
+		public String toString() {
+			return "__act_" + Integer.toHexString(System.identityHashCode(this));
+		}
+
+	}
+
+	/**
+	 * A solver together with the activation variables of all formulas that were added to it. Used by one query at a time.
+	 */
+	private static final class Context {
+
+		private final Sat4jMutableSatSolver solver = new Sat4jMutableSatSolver();
+		private final Map<Node, Object> activationVariables = new HashMap<>();
+		private final Object featureModelVariable;
+
+		private Context(Node featureModel) {
+			featureModelVariable = addFormula(featureModel);
+		}
+
+		private Object getActivationVariable(Node condition) {
+			Object variable = activationVariables.get(condition);
+			if (variable == null) {
+				variable = addFormula(condition);
+				activationVariables.put(condition, variable);
+			}
+			return variable;
+		}
+
+		/**
+		 * Adds the clauses of the given formula, each extended by the negated activation literal.
+		 */
+		private Object addFormula(Node formula) {
+			final Object variable = new ActivationVariable();
+			final Literal deactivated = new Literal(variable, false);
+			final Node cnf = formula.isClausalNormalForm() ? formula : new TseitinTransformer().toCNF(formula);
+			final List<Node> guardedClauses = new ArrayList<>();
+			for (final Node clause : cnf instanceof And ? cnf.getChildren() : new Node[] { cnf }) {
+				final Node[] literals = clause instanceof Literal ? new Node[] { clause } : clause.getChildren();
+				final Node[] guardedLiterals = new Node[literals.length + 1];
+				System.arraycopy(literals, 0, guardedLiterals, 0, literals.length);
+				guardedLiterals[literals.length] = deactivated;
+				guardedClauses.add(new Or(guardedLiterals));
+			}
+			solver.addFormula(new And(guardedClauses.toArray(new Node[guardedClauses.size()])));
+			return variable;
+		}
+
+		private SatResult isSatisfiable(boolean includeFeatureModel, Node[] conditions, long timeout) {
+			final Object[] variables = new Object[conditions.length];
+			for (int i = 0; i < conditions.length; i++) {
+				variables[i] = getActivationVariable(conditions[i]);
+			}
+			solver.push();
+			try {
+				if (includeFeatureModel) {
+					solver.addAssumption(featureModelVariable, true);
+				}
+				for (final Object variable : variables) {
+					solver.addAssumption(variable, true);
+				}
+				solver.getOracle().setTimeoutMs(timeout);
+				return solver.isSatisfiableWithinTimeout() ? SatResult.TRUE : SatResult.FALSE;
+			} catch (final TimeoutException e) {
+				return SatResult.TIMEOUT;
+			} finally {
+				solver.pop();
+			}
+		}
+	}
+
+	/**
+	 * The default timeout of a single query in milliseconds.
+	 */
+	public static final long DEFAULT_TIMEOUT = 1000;
+
+	private final Node featureModel;
+
+	private volatile long timeout = DEFAULT_TIMEOUT;
+
+	/**
+	 * The contexts that are not used by a query at the moment.
+	 */
+	private final Queue<Context> contexts = new ConcurrentLinkedQueue<>();
+
+	private final ConcurrentMap<Node, SatResult> results = new ConcurrentHashMap<>();
+	private final ConcurrentMap<Node, SatResult> resultsWithFeatureModel = new ConcurrentHashMap<>();
+
+	/**
+	 * @param featureModel the formula of the feature model; it must not be modified afterwards
+	 */
+	public PresenceConditionChecker(Node featureModel) {
+		this.featureModel = featureModel;
+	}
+
+	public long getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * @param timeout the maximum time of a single query in milliseconds
+	 */
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+	/**
+	 * Returns whether the conjunction of the given conditions is satisfiable, regardless of the feature model.
+	 *
+	 * @param conditions the conditions
+	 * @return {@link SatResult#TRUE} if the conditions are satisfiable, {@link SatResult#FALSE} if not, and {@link SatResult#TIMEOUT} if the query timed out
+	 */
+	public SatResult isSatisfiable(Node... conditions) {
+		return isSatisfiable(false, conditions, results);
+	}
+
+	/**
+	 * Returns whether the conjunction of the feature model and the given conditions is satisfiable. Without conditions, this checks whether the feature
+	 * model is not void.
+	 *
+	 * @param conditions the conditions
+	 * @return {@link SatResult#TRUE} if the feature model and the conditions are satisfiable, {@link SatResult#FALSE} if not, and {@link SatResult#TIMEOUT}
+	 *         if the query timed out
+	 */
+	public SatResult isSatisfiableWithFeatureModel(Node... conditions) {
+		return isSatisfiable(true, conditions, resultsWithFeatureModel);
+	}
+
+	private SatResult isSatisfiable(boolean includeFeatureModel, Node[] conditions, ConcurrentMap<Node, SatResult> cache) {
+		final Node key = new And(conditions);
+		SatResult result = cache.get(key);
+		if (result == null) {
+			Context context = contexts.poll();
+			if (context == null) {
+				context = new Context(featureModel);
+			}
+			try {
+				result = context.isSatisfiable(includeFeatureModel, conditions, timeout);
+			} finally {
+				contexts.offer(context);
+			}
+			// a later query with more time may succeed
+			if (result != SatResult.TIMEOUT) {
+				cache.putIfAbsent(key, result);
+			}
+		}
+		return result;
+	}
+
+}
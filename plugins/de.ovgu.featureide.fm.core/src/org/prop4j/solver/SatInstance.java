@@ -22,20 +22,27 @@ package org.prop4j.solver;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.prop4j.And;
 import org.prop4j.Literal;
 import org.prop4j.Node;
+import org.prop4j.Or;
+import org.prop4j.TseitinTransformer;
 import org.sat4j.specs.IVecInt;
 import org.sat4j.specs.IteratorInt;
 
 /**
  * Represents an instance of a satisfiability problem in CNF.</br> Use a {@link ISatSolverProvider solver provider} or the {@link #getSolver()} method to get a
- * {@link BasicSolver solver} for this problem.
+ * {@link BasicSolver solver} for this problem.</br> The CNF is available as formula ({@link #getCnf()}) and as {@link ClauseList} ({@link #getClauses()}).
+ * Each representation is created from the other one on first access.</br> Auxiliary variables of a {@link TseitinTransformer} are added to the variables if
+ * they are missing and are omitted when models are converted to names or literals. They are only found by their object, not by their name, so they never
+ * clash with a feature.
  *
  * @author Sebastian Krieter
  */
@@ -74,23 +81,93 @@ public class SatInstance {
 
 	protected final HashMap<Object, Integer> varToInt = new HashMap<>();
 	protected final Object[] intToVar;
-	protected final Node cnf;
+	protected final BitSet auxiliaryVariables = new BitSet();
+	protected final HashMap<Integer, Object> auxiliaryVariableObjects = new HashMap<>();
+	protected Node cnf;
+	protected ClauseList clauses;
 
 	public SatInstance(Node root, Collection<?> featureList) {
-		intToVar = new Object[featureList.size() + 1];
+		this(root, null, featureList);
+	}
+
+	/**
+	 * Creates an instance without building a formula.
+	 *
+	 * @param clauses the clauses of the CNF
+	 * @param featureList the names of the variables in the order of their indexes
+	 */
+	public SatInstance(ClauseList clauses, Collection<?> featureList) {
+		this(null, clauses, featureList);
+	}
+
+	private SatInstance(Node root, ClauseList clauses, Collection<?> featureList) {
 		cnf = root;
+		this.clauses = clauses;
+
+		final List<Object> variables = new ArrayList<>(featureList);
+		if (root != null) {
+			addAuxiliaryVariables(root, variables);
+		}
+		intToVar = new Object[variables.size() + 1];
 
 		int index = 0;
-		for (final Object feature : featureList) {
+		for (final Object feature : variables) {
 			final String name = feature.toString();
 			if (name == null) {
 				throw new RuntimeException();
 			}
-			varToInt.put(name, ++index);
+			if (TseitinTransformer.isAuxiliary(feature)) {
+				varToInt.put(feature, ++index);
+				auxiliaryVariables.set(index);
+				auxiliaryVariableObjects.put(index, feature);
+			} else {
+				varToInt.put(name, ++index);
+				if (!(feature instanceof String)) {
+					varToInt.put(feature, index);
+				}
+			}
 			intToVar[index] = name;
 		}
 	}
 
+	/**
+	 * Creates an instance with the clauses and variables of this instance and the auxiliary variables of the given CNF. A solver for the new instance accepts
+	 * the clauses of the given CNF, even if they were created by a {@link TseitinTransformer}.
+	 *
+	 * @param cnf a conjunction of clauses
+	 * @return a new instance; this instance if the CNF does not contain new auxiliary variables
+	 */
+	public SatInstance addAuxiliaryVariables(Node cnf) {
+		final List<Object> variables = new ArrayList<>(intToVar.length + 16);
+		for (int i = 1; i < intToVar.length; i++) {
+			variables.add(auxiliaryVariables.get(i) ? auxiliaryVariableObjects.get(i) : intToVar[i]);
+		}
+		final int numberOfVariables = variables.size();
+		addAuxiliaryVariables(cnf, variables);
+		return (variables.size() == numberOfVariables) ? this : new SatInstance(getClauses(), variables);
+	}
+
+	/**
+	 * Appends the auxiliary variables of the given CNF that are not contained in the given list.
+	 */
+	private static void addAuxiliaryVariables(Node cnf, List<Object> variables) {
+		HashSet<Object> knownVariables = null;
+		for (final Node clause : cnf.getChildren()) {
+			final Node[] literals = (clause instanceof Literal) ? new Node[] { clause } : clause.getChildren();
+			for (final Node literal : literals) {
+				final Object var = ((Literal) literal).var;
+				if (TseitinTransformer.isAuxiliary(var)) {
+					if (knownVariables == null) {
+						knownVariables = new HashSet<>(variables);
+					}
+					if (knownVariables.add(var)) {
+						variables.add(var);
+					}
+				}
+			}
+		}
+	}
+
 	public SatInstance(Node root) {
 		this(root, getDistinctVariableObjects(root));
 	}
@@ -113,6 +190,9 @@ public class SatInstance {
 	public List<String> convertToString(int[] model, boolean includePositive, boolean includeNegative) {
 		final List<String> resultList = new ArrayList<>();
 		for (final int var : model) {
+			if (isAuxiliary(var)) {
+				continue;
+			}
 			if (var > 0) {
 				if (includePositive) {
 					resultList.add(intToVar[Math.abs(var)].toString());
@@ -154,34 +234,87 @@ public class SatInstance {
 	public List<Literal> convertToLiterals(int[] model) {
 		final List<Literal> resultList = new ArrayList<>();
 		for (final int var : model) {
-			resultList.add(new Literal(intToVar[Math.abs(var)], (var > 0)));
+			if (!isAuxiliary(var)) {
+				resultList.add(getLiteral(var));
+			}
 		}
 		return resultList;
 	}
 
 	public Literal convertToLiteral(int var) {
-		return new Literal(intToVar[Math.abs(var)], (var > 0));
+		return getLiteral(var);
 	}
 
 	protected List<String> convertToString(IVecInt model) {
 		final List<String> resultList = new ArrayList<>(model.size());
 		final IteratorInt modelIt = model.iterator();
 		while (modelIt.hasNext()) {
-			resultList.add(intToVar[Math.abs(modelIt.next())].toString());
+			final int var = modelIt.next();
+			if (!isAuxiliary(var)) {
+				resultList.add(intToVar[Math.abs(var)].toString());
+			}
 		}
 		return resultList;
 	}
 
-	public Node getCnf() {
+	public synchronized Node getCnf() {
+		if (cnf == null) {
+			final int[] literals = clauses.getLiterals();
+			final Node[] clauseNodes = new Node[clauses.size()];
+			for (int i = 0; i < clauseNodes.length; i++) {
+				final int start = clauses.getStart(i);
+				final Node[] literalNodes = new Node[clauses.getEnd(i) - start];
+				for (int j = 0; j < literalNodes.length; j++) {
+					literalNodes[j] = getLiteral(literals[start + j]);
+				}
+				clauseNodes[i] = new Or(literalNodes);
+			}
+			cnf = new And(clauseNodes);
+		}
 		return cnf;
 	}
 
+	/**
+	 * Returns the clauses of the CNF. If this instance was created from a formula, the clauses are converted on the first call.
+	 *
+	 * @return the clauses (must not be modified)
+	 */
+	public synchronized ClauseList getClauses() {
+		if (clauses == null) {
+			final Node[] clauseNodes = cnf.getChildren();
+			final ClauseList newClauses = new ClauseList(clauseNodes.length, clauseNodes.length << 2);
+			for (final Node clauseNode : clauseNodes) {
+				if (clauseNode instanceof Literal) {
+					newClauses.addLiteral(getSignedVariable((Literal) clauseNode));
+				} else {
+					for (final Node literal : clauseNode.getChildren()) {
+						newClauses.addLiteral(getSignedVariable((Literal) literal));
+					}
+				}
+				newClauses.endClause();
+			}
+			clauses = newClauses;
+		}
+		return clauses;
+	}
+
+	/**
+	 * Returns whether the variable of the given literal was introduced by a {@link TseitinTransformer} and does not correspond to a feature.
+	 *
+	 * @param literal the literal
+	 * @return true iff the variable is auxiliary
+	 */
+	public boolean isAuxiliary(int literal) {
+		return auxiliaryVariables.get(Math.abs(literal));
+	}
+
 	public int getNumberOfVariables() {
 		return intToVar.length - 1;
 	}
 
 	public Literal getLiteral(final int x) {
-		return new Literal(intToVar[Math.abs(x)], x > 0);
+		final int index = Math.abs(x);
+		return new Literal(auxiliaryVariables.get(index) ? auxiliaryVariableObjects.get(index) : intToVar[index], x > 0);
 	}
 
 	public int getSignedVariable(Literal l) {
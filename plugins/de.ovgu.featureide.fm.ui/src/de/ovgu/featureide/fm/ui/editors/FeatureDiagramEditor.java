@@ -24,6 +24,7 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.ADJUST_MODEL_T
 import static de.ovgu.featureide.fm.core.localization.StringTable.ALTERNATIVE;
 import static de.ovgu.featureide.fm.core.localization.StringTable.ANALYZE_FEATURE_MODEL;
 import static de.ovgu.featureide.fm.core.localization.StringTable.AND;
+import static de.ovgu.featureide.fm.core.localization.StringTable.CALCULATE_EXPLANATIONS;
 import static de.ovgu.featureide.fm.core.localization.StringTable.DOUBLE_CLICK;
 import static de.ovgu.featureide.fm.core.localization.StringTable.FEATURE_DIAGRAM;
 import static de.ovgu.featureide.fm.core.localization.StringTable.OR;
@@ -220,6 +221,7 @@ public class FeatureDiagramEditor extends FeatureModelEditorPage implements GUID
 	private int index;
 
 	private final JobToken analysisToken = LongRunningWrapper.createToken(JobStartingStrategy.CANCEL_WAIT_ONE);
+	private final JobToken explanationToken = LongRunningWrapper.createToken(JobStartingStrategy.CANCEL_WAIT_ONE);
 
 	private FeatureModelAnalyzer analyzer;
 
@@ -481,6 +483,7 @@ public class FeatureDiagramEditor extends FeatureModelEditorPage implements GUID
 		final IRunner<Boolean> analyzeJob = LongRunningWrapper.getRunner(new LongRunningMethod<Boolean>() {
 			@Override
 			public Boolean execute(IMonitor monitor) throws Exception {
+				LongRunningWrapper.cancelAllJobs(explanationToken);
 				// TODO could be combined with analysis results
 				for (final IFeature f : getFeatureModel().getFeatures()) {
 					f.getProperty().setFeatureStatus(FeatureStatus.NORMAL, false);
@@ -497,6 +500,7 @@ public class FeatureDiagramEditor extends FeatureModelEditorPage implements GUID
 				analyzer = getFeatureModel().getAnalyser();
 				final HashMap<Object, Object> changedAttributes = analyzer.analyzeFeatureModel(monitor);
 				refreshGraphics(changedAttributes);
+				calculateExplanations(analyzer);
 				return true;
 			}
 		}, ANALYZE_FEATURE_MODEL);
@@ -504,6 +508,24 @@ public class FeatureDiagramEditor extends FeatureModelEditorPage implements GUID
 		LongRunningWrapper.startJob(analysisToken, analyzeJob);
 	}
 
+	/**
+	 * Explains all defects of the last analysis in a separate job with the lowest priority, so that tool tips and the explanation view do not have to
+	 * compute them one by one. A new analysis cancels this job. Explanations that are requested before the job has finished are still computed on demand.
+	 *
+	 * @param featureModelAnalyzer the analyzer that computed the defects
+	 */
+	private void calculateExplanations(final FeatureModelAnalyzer featureModelAnalyzer) {
+		final IRunner<Boolean> explanationJob = LongRunningWrapper.getRunner(new LongRunningMethod<Boolean>() {
+			@Override
+			public Boolean execute(IMonitor monitor) throws Exception {
+				featureModelAnalyzer.calculateExplanations(monitor);
+				return true;
+			}
+		}, CALCULATE_EXPLANATIONS);
+		explanationJob.setPriority(Job.DECORATE);
+		LongRunningWrapper.startJob(explanationToken, explanationJob);
+	}
+
 	/**
 	 * Refreshes the colors of the feature model.
 	 *
@@ -1234,11 +1256,12 @@ public class FeatureDiagramEditor extends FeatureModelEditorPage implements GUID
 	}
 
 	/**
-	 * Stops the analyzing job when the editor is closed.
+	 * Stops the analyzing and explaining jobs when the editor is closed.
 	 */
 	@Override
 	public void dispose() {
 		LongRunningWrapper.cancelAllJobs(analysisToken);
+		LongRunningWrapper.cancelAllJobs(explanationToken);
 		FeatureColorManager.removeListener(this);
 		fmManager.removeListener(this);
 		graphicalFeatureModel.getFeatureModel().removeListener(editorKeyHandler);
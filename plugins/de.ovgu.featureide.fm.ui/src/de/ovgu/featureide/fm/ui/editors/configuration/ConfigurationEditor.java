@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.fm.ui.editors.configuration;
 
+import static de.ovgu.featureide.fm.core.localization.StringTable.COMPILE_PROPAGATOR;
 import static de.ovgu.featureide.fm.core.localization.StringTable.SELECT_THE_CORRESPONDING_FEATUREMODEL_;
 
 import java.io.File;
@@ -53,6 +54,7 @@ import org.eclipse.ui.IWorkbenchPage;
 import org.eclipse.ui.IWorkbenchPart;
 import org.eclipse.ui.PartInitException;
 import org.eclipse.ui.part.MultiPageEditorPart;
+import org.prop4j.solver.DDNNF;
 
 import de.ovgu.featureide.fm.core.FMCorePlugin;
 import de.ovgu.featureide.fm.core.ModelMarkerHandler;
@@ -62,7 +64,7 @@ import de.ovgu.featureide.fm.core.base.event.IEventListener;
 import de.ovgu.featureide.fm.core.color.FeatureColorManager;
 import de.ovgu.featureide.fm.core.conf.ConfigurationFG;
 import de.ovgu.featureide.fm.core.conf.IFeatureGraph;
-import de.ovgu.featureide.fm.core.conf.MatrixFeatureGraph;
+import de.ovgu.featureide.fm.core.conf.SparseFeatureGraph;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
 import de.ovgu.featureide.fm.core.configuration.SelectableFeature;
 import de.ovgu.featureide.fm.core.configuration.Selection;
@@ -78,6 +80,7 @@ import de.ovgu.featureide.fm.core.job.IJob.JobStatus;
 import de.ovgu.featureide.fm.core.job.IRunner;
 import de.ovgu.featureide.fm.core.job.JobStartingStrategy;
 import de.ovgu.featureide.fm.core.job.JobToken;
+import de.ovgu.featureide.fm.core.job.LongRunningExecutor;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.util.JobFinishListener;
 import de.ovgu.featureide.fm.ui.FMUIPlugin;
@@ -98,7 +101,13 @@ public class ConfigurationEditor extends MultiPageEditorPart implements GUIDefau
 	private static final QualifiedName MODEL_PATH =
 		new QualifiedName(ConfigurationEditor.class.getName() + "#MODEL_PATH", ConfigurationEditor.class.getName() + "#MODEL_PATH");
 
+	/**
+	 * The maximal time in milliseconds for compiling the feature model of the configuration.
+	 */
+	private static final long COMPILE_TIMEOUT = 60000;
+
 	private final JobToken configJobToken = LongRunningWrapper.createToken(JobStartingStrategy.CANCEL_WAIT_ONE);
+	private final JobToken compileJobToken = LongRunningWrapper.createToken(JobStartingStrategy.CANCEL_WAIT_ONE);
 
 	private final List<IConfigurationEditorPage> allPages = new ArrayList<>(5);
 	private List<IConfigurationEditorPage> extensionPages;
@@ -109,6 +118,10 @@ public class ConfigurationEditor extends MultiPageEditorPart implements GUIDefau
 	 * The file of the corresponding feature model.
 	 */
 	private File modelFile;
+	/**
+	 * The file next to the feature model that stores the compiled feature model.
+	 */
+	private Path compiledModelFile;
 	private IFile file;
 	private ModelMarkerHandler<IFile> markerHandler;
 
@@ -131,6 +144,7 @@ public class ConfigurationEditor extends MultiPageEditorPart implements GUIDefau
 		@Override
 		public void partClosed(IWorkbenchPart part) {
 			LongRunningWrapper.cancelAllJobs(configJobToken);
+			LongRunningWrapper.cancelAllJobs(compileJobToken);
 			if (featureModelManager != null) {
 				featureModelManager.removeListener(ConfigurationEditor.this);
 			}
@@ -239,10 +253,10 @@ public class ConfigurationEditor extends MultiPageEditorPart implements GUIDefau
 		// featureModel = ((ExtendedFeatureModel) featureModel).getMappingModel();
 		// }
 
-		final IFeatureGraph fg = (res == null)
-			? loadFeatureGraph(
-					org.eclipse.core.runtime.Path.fromOSString(modelFile.getAbsolutePath()).removeLastSegments(1).append("model.fg").toFile().toPath())
-			: loadFeatureGraph(res.getLocation().removeLastSegments(1).append("model.fg").toFile().toPath());
+		final org.eclipse.core.runtime.IPath modelFolder = (res == null)
+			? org.eclipse.core.runtime.Path.fromOSString(modelFile.getAbsolutePath()).removeLastSegments(1) : res.getLocation().removeLastSegments(1);
+		final IFeatureGraph fg = loadFeatureGraph(modelFolder.append("model.fg").toFile().toPath());
+		compiledModelFile = modelFolder.append("model.nnf").toFile().toPath();
 		final Configuration c = (fg == null) ? new Configuration(featureModelManager.getObject(), Configuration.PARAM_IGNOREABSTRACT | Configuration.PARAM_LAZY)
 			: new ConfigurationFG(featureModelManager.getObject(), fg, ConfigurationFG.PARAM_IGNOREABSTRACT | ConfigurationFG.PARAM_LAZY);
 
@@ -288,6 +302,7 @@ public class ConfigurationEditor extends MultiPageEditorPart implements GUIDefau
 								}
 							}
 						});
+						compilePropagator();
 					}
 				}
 			});
@@ -295,8 +310,20 @@ public class ConfigurationEditor extends MultiPageEditorPart implements GUIDefau
 		}
 	}
 
+	/**
+	 * Compiles the feature model of the loaded propagator in the background, such that subsequent updates of the configuration do not need a satisfiability
+	 * solver. The compiled feature model is stored next to the feature model. If the compilation exceeds {@link #COMPILE_TIMEOUT}, the propagator keeps
+	 * using the solver.
+	 */
+	private void compilePropagator() {
+		final IRunner<DDNNF> compileJob =
+			LongRunningWrapper.getRunner(configurationManager.editObject().getPropagator().compile(compiledModelFile, COMPILE_TIMEOUT), COMPILE_PROPAGATOR);
+		compileJob.setPriority(LongRunningExecutor.PRIORITY_LONG);
+		LongRunningWrapper.startJob(compileJobToken, compileJob);
+	}
+
 	private IFeatureGraph loadFeatureGraph(Path filePath) {
-		final IFeatureGraph featureGraph = new MatrixFeatureGraph();
+		final IFeatureGraph featureGraph = new SparseFeatureGraph();
 		final FeatureGraphFormat format = new FeatureGraphFormat();
 		if (!FileSystem.exists(filePath) || SimpleFileHandler.load(filePath, featureGraph, format).containsError()) {
 			return null;
@@ -0,0 +1,469 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import static de.ovgu.featureide.fm.core.localization.StringTable.ERROR_IN_CONFIGURATION;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.Platform;
+
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
+import de.ovgu.featureide.ui.UIPlugin;
+
+/**
+ * Builds the configurations of a {@link ConfigurationBuilder} in a pipeline of stages.<br> The configurations are taken from the sorter of the builder and
+ * pass the composition, the compilation, and the test stage. Each stage has its own workers and the stages are connected by bounded queues, so a fast stage
+ * waits for a slower one instead of buffering an unlimited number of variants. A variant is compiled into the output folder of a {@link JavaCompiler}, which
+ * is returned to a pool after the variant was tested.
+ *
+ * @author FeatureIDE Team
+ */
+public class BuildPipeline {
+
+	private static final UIPlugin LOGGER = UIPlugin.getDefault();
+
+	private static final boolean JUNIT_INSTALLED = Platform.getBundle("org.junit") != null;
+
+	/**
+	 * A stage of the pipeline. Counts the configurations that passed the stage.
+	 */
+	public static final class Stage {
+
+		private final String name;
+		private final int numberOfWorkers;
+		private final AtomicInteger numberOfRunningWorkers;
+		private final AtomicInteger processed = new AtomicInteger();
+
+		private Stage(String name, int numberOfWorkers) {
+			this.name = name;
+			this.numberOfWorkers = numberOfWorkers;
+			numberOfRunningWorkers = new AtomicInteger(numberOfWorkers);
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public int getNumberOfWorkers() {
+			return numberOfWorkers;
+		}
+
+		public int getProcessed() {
+			return processed.get();
+		}
+
+	}
+
+	/**
+	 * A configuration that is passed to the next stage together with the compiler that holds its class files.
+	 */
+	private static final class Variant {
+
+		private final BuilderConfiguration configuration;
+		private final JavaCompiler compiler;
+
+		private Variant(BuilderConfiguration configuration, JavaCompiler compiler) {
+			this.configuration = configuration;
+			this.compiler = compiler;
+		}
+
+	}
+
+	/**
+	 * Signals a worker that the previous stage has finished.
+	 */
+	private static final Variant END = new Variant(null, null);
+
+	private final ConfigurationBuilder builder;
+	private final IMonitor monitor;
+	private final Generator generator;
+
+	private final List<Stage> stages = new ArrayList<>(3);
+	private final Stage compositionStage;
+	private final Stage compilationStage;
+	private final Stage testStage;
+
+	private final BlockingQueue<Variant> compilationQueue;
+	private final BlockingQueue<Variant> testQueue;
+
+	/**
+	 * The compilers whose output folders are currently not used by a variant.
+	 */
+	private final BlockingQueue<JavaCompiler> compilers;
+
+	private final List<Thread> workers = new ArrayList<>();
+	private final CountDownLatch finished;
+
+	private volatile boolean canceled = false;
+
+	private long startTime;
+
+	/**
+	 * Creates the stages of the pipeline. Configurations are only compiled if they are built into the configuration folder of a Java project. They are only
+	 * tested if {@link ConfigurationBuilder#runTests} is set and JUnit is installed.
+	 *
+	 * @param builder the builder that provides the configurations
+	 * @param monitor the monitor that is checked for cancellation by all workers
+	 * @param numberOfCompositionWorkers the number of workers that compose configurations in parallel
+	 */
+	public BuildPipeline(ConfigurationBuilder builder, IMonitor monitor, int numberOfCompositionWorkers) {
+		this(builder, monitor, new Generator(builder), numberOfCompositionWorkers,
+				(!builder.createNewProjects && hasJavaNature(builder)) ? Runtime.getRuntime().availableProcessors() : 0,
+				(builder.runTests && JUNIT_INSTALLED) ? Runtime.getRuntime().availableProcessors() : 0);
+	}
+
+	/**
+	 * Creates the stages of the pipeline with the given numbers of workers. A stage without workers is omitted. The test stage is also omitted if there is no
+	 * compilation stage.
+	 *
+	 * @param builder the builder that provides the configurations
+	 * @param monitor the monitor that is checked for cancellation by all workers
+	 * @param generator composes the configurations
+	 * @param numberOfCompositionWorkers the number of workers that compose configurations in parallel
+	 * @param numberOfCompilationWorkers the number of workers that compile configurations in parallel
+	 * @param numberOfTestWorkers the number of workers that test configurations in parallel
+	 */
+	BuildPipeline(ConfigurationBuilder builder, IMonitor monitor, Generator generator, int numberOfCompositionWorkers, int numberOfCompilationWorkers,
+			int numberOfTestWorkers) {
+		this.builder = builder;
+		this.monitor = monitor;
+		this.generator = generator;
+
+		compositionStage = new Stage("composition", numberOfCompositionWorkers);
+		stages.add(compositionStage);
+		if (numberOfCompilationWorkers > 0) {
+			compilationStage = new Stage("compilation", numberOfCompilationWorkers);
+			stages.add(compilationStage);
+			testStage = (numberOfTestWorkers > 0) ? new Stage("test", numberOfTestWorkers) : null;
+
+			// every compiled variant holds the output folder of its compiler until it is tested
+			final int numberOfCompilers = compilationStage.numberOfWorkers + (testStage != null ? testStage.numberOfWorkers : 0);
+			compilers = new ArrayBlockingQueue<>(numberOfCompilers);
+			for (int i = 0; i < numberOfCompilers; i++) {
+				compilers.add(new JavaCompiler(i, builder));
+			}
+			compilationQueue = new ArrayBlockingQueue<>(2 * compilationStage.numberOfWorkers);
+			if (testStage != null) {
+				stages.add(testStage);
+				testQueue = new ArrayBlockingQueue<>(numberOfCompilers);
+			} else {
+				testQueue = null;
+			}
+		} else {
+			compilationStage = null;
+			testStage = null;
+			compilers = null;
+			compilationQueue = null;
+			testQueue = null;
+		}
+
+		for (int i = 0; i < compositionStage.numberOfWorkers; i++) {
+			workers.add(new CompositionWorker(i));
+		}
+		if (compilationStage != null) {
+			for (int i = 0; i < compilationStage.numberOfWorkers; i++) {
+				workers.add(new CompilationWorker(i));
+			}
+		}
+		if (testStage != null) {
+			for (int i = 0; i < testStage.numberOfWorkers; i++) {
+				workers.add(new TestWorker(i));
+			}
+		}
+		finished = new CountDownLatch(workers.size());
+	}
+
+	private static boolean hasJavaNature(ConfigurationBuilder builder) {
+		try {
+			return builder.featureProject.getProject().hasNature(Generator.JAVA_NATURE);
+		} catch (final CoreException e) {
+			LOGGER.logError(e);
+			return false;
+		}
+	}
+
+	/**
+	 * Starts the workers of all stages.
+	 */
+	public void start() {
+		startTime = System.currentTimeMillis();
+		for (final Thread worker : workers) {
+			worker.start();
+		}
+	}
+
+	/**
+	 * Stops all workers. Configurations that are currently built are not completed.
+	 */
+	public void cancel() {
+		canceled = true;
+		for (final Thread worker : workers) {
+			worker.interrupt();
+		}
+	}
+
+	public boolean isCanceled() {
+		return canceled;
+	}
+
+	/**
+	 * Waits until all workers have finished.
+	 *
+	 * @param timeout the maximum time to wait in milliseconds
+	 * @return {@code true} if all workers have finished, {@code false} if the timeout elapsed before
+	 * @throws InterruptedException if the current thread is interrupted
+	 */
+	public boolean awaitTermination(long timeout) throws InterruptedException {
+		return finished.await(timeout, TimeUnit.MILLISECONDS);
+	}
+
+	public List<Stage> getStages() {
+		return stages;
+	}
+
+	/**
+	 * @return the number of processed configurations and the throughput of each stage, e.g., "composition: 120 (4.0/s), compilation: 90 (3.0/s)"
+	 */
+	public String getStatistics() {
+		final double seconds = Math.max(1, System.currentTimeMillis() - startTime) / 1000.0;
+		final StringBuilder sb = new StringBuilder();
+		for (final Stage stage : stages) {
+			if (sb.length() > 0) {
+				sb.append(", ");
+			}
+			final int processed = stage.processed.get();
+			sb.append(stage.name);
+			sb.append(": ");
+			sb.append(processed);
+			sb.append(" (");
+			sb.append(String.format(Locale.ENGLISH, "%.1f", processed / seconds));
+			sb.append("/s)");
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Compiles the given configuration into the output folder of the given compiler.
+	 *
+	 * @param compiler the compiler that is reserved for the configuration
+	 * @param configuration the composed configuration
+	 * @throws CoreException if the output folder cannot be refreshed
+	 */
+	protected void compile(JavaCompiler compiler, BuilderConfiguration configuration) throws CoreException {
+		compiler.compile(configuration);
+	}
+
+	/**
+	 * Runs the tests of the given configuration on the class files in the output folder of the given compiler.
+	 *
+	 * @param compiler the compiler that compiled the configuration
+	 * @param configuration the compiled configuration
+	 */
+	protected void runTests(JavaCompiler compiler, BuilderConfiguration configuration) {
+		new TestRunner(compiler.tmp, builder.testResults, builder).runTests(configuration);
+	}
+
+	/**
+	 * Signals the workers of the next stage that no more variants will be added to their queue.
+	 */
+	private void finishStage(BlockingQueue<Variant> queue, Stage nextStage) throws InterruptedException {
+		for (int i = 0; i < nextStage.numberOfWorkers; i++) {
+			queue.put(END);
+		}
+	}
+
+	/**
+	 * A worker of a stage. Processes variants until the previous stage has finished or the pipeline is canceled.
+	 */
+	private abstract class Worker extends Thread {
+
+		private final Stage stage;
+
+		public Worker(Stage stage, int nr) {
+			super(stage.name + " " + nr);
+			this.stage = stage;
+		}
+
+		@Override
+		public void run() {
+			try {
+				try {
+					while (!canceled) {
+						monitor.checkCancel();
+						if (!work()) {
+							break;
+						}
+					}
+				} catch (final MethodCancelException e) {
+					// the other workers may wait for this one, so they are stopped instead of finishing the stage
+					cancel();
+					builder.cancelGenerationJobs();
+				} finally {
+					if ((stage.numberOfRunningWorkers.decrementAndGet() == 0) && !canceled) {
+						finishStage();
+					}
+				}
+			} catch (final InterruptedException e) {
+				// the pipeline was canceled
+			} finally {
+				finished.countDown();
+			}
+		}
+
+		/**
+		 * Processes the next variant.
+		 *
+		 * @return {@code false} if there are no more variants for this stage
+		 * @throws InterruptedException if the pipeline was canceled while waiting
+		 */
+		protected abstract boolean work() throws InterruptedException;
+
+		/**
+		 * Called by the last worker of the stage that has finished.
+		 *
+		 * @throws InterruptedException if the pipeline was canceled while waiting
+		 */
+		protected void finishStage() throws InterruptedException {}
+
+	}
+
+	/**
+	 * Composes the configurations from the sorter of the builder.
+	 */
+	private final class CompositionWorker extends Worker {
+
+		public CompositionWorker(int nr) {
+			super(compositionStage, nr);
+		}
+
+		@Override
+		protected boolean work() throws InterruptedException {
+			final BuilderConfiguration configuration = builder.takeConfiguration();
+			if (configuration == null) {
+				return false;
+			}
+			try {
+				generator.generate(configuration);
+			} catch (final Exception e) {
+				LOGGER.logError(ERROR_IN_CONFIGURATION + configuration, e);
+				return true;
+			}
+			compositionStage.processed.incrementAndGet();
+			if (compilationStage != null) {
+				compilationQueue.put(new Variant(configuration, null));
+			} else {
+				builder.builtConfiguration();
+			}
+			return true;
+		}
+
+		@Override
+		protected void finishStage() throws InterruptedException {
+			if (compilationStage != null) {
+				BuildPipeline.this.finishStage(compilationQueue, compilationStage);
+			}
+		}
+
+	}
+
+	/**
+	 * Compiles the composed configurations into the output folder of a free compiler.
+	 */
+	private final class CompilationWorker extends Worker {
+
+		public CompilationWorker(int nr) {
+			super(compilationStage, nr);
+		}
+
+		@Override
+		protected boolean work() throws InterruptedException {
+			final Variant variant = compilationQueue.take();
+			if (variant == END) {
+				return false;
+			}
+			final JavaCompiler compiler = compilers.take();
+			try {
+				compile(compiler, variant.configuration);
+			} catch (final Exception e) {
+				LOGGER.logError(ERROR_IN_CONFIGURATION + variant.configuration, e);
+				compilers.add(compiler);
+				return true;
+			}
+			compilationStage.processed.incrementAndGet();
+			if (testStage != null) {
+				testQueue.put(new Variant(variant.configuration, compiler));
+			} else {
+				compilers.add(compiler);
+				builder.builtConfiguration();
+			}
+			return true;
+		}
+
+		@Override
+		protected void finishStage() throws InterruptedException {
+			if (testStage != null) {
+				BuildPipeline.this.finishStage(testQueue, testStage);
+			}
+		}
+
+	}
+
+	/**
+	 * Runs the tests of the compiled configurations and releases the output folder afterwards.
+	 */
+	private final class TestWorker extends Worker {
+
+		public TestWorker(int nr) {
+			super(testStage, nr);
+		}
+
+		@Override
+		protected boolean work() throws InterruptedException {
+			final Variant variant = testQueue.take();
+			if (variant == END) {
+				return false;
+			}
+			try {
+				runTests(variant.compiler, variant.configuration);
+			} catch (final Exception e) {
+				LOGGER.logError(ERROR_IN_CONFIGURATION + variant.configuration, e);
+				return true;
+			} finally {
+				compilers.add(variant.compiler);
+			}
+			testStage.processed.incrementAndGet();
+			builder.builtConfiguration();
+			return true;
+		}
+
+	}
+
+}
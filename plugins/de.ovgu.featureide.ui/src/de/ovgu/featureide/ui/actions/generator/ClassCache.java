@@ -0,0 +1,503 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.resources.IFile;
+
+/**
+ * Content-addressed cache for the class files of compiled variants.<br> The key of a compilation unit is a hash of the compiler options, the classpath, and
+ * the content of all source files of the variant that the unit references directly or transitively. A reference is any identifier of the unit that is the
+ * name of a type declared in another source file. Thus, a unit with the same key is compiled to the same class files and its class files can be copied from
+ * an earlier variant instead of compiling it again. Only units without compile errors are cached.
+ *
+ * @author FeatureIDE Team
+ */
+public class ClassCache {
+
+	private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_$][A-Za-z0-9_$]*");
+	private static final Pattern TYPE_DECLARATION = Pattern.compile("\\b(?:class|interface|enum)\\s+([A-Za-z_$][A-Za-z0-9_$]*)");
+	private static final Pattern PACKAGE_DECLARATION = Pattern.compile("^\\s*package\\s+([A-Za-z0-9_$.\\s]+);", Pattern.MULTILINE);
+
+	private static final String CLASS_FILE_SUFFIX = ".class";
+
+	/**
+	 * A problem that was reported by the compiler for a compilation unit.
+	 */
+	public static final class Problem {
+
+		private final int line;
+		private final boolean warning;
+		private final String message;
+
+		public Problem(int line, boolean warning, String message) {
+			this.line = line;
+			this.warning = warning;
+			this.message = message;
+		}
+
+		public int getLine() {
+			return line;
+		}
+
+		public boolean isWarning() {
+			return warning;
+		}
+
+		public String getMessage() {
+			return message;
+		}
+
+	}
+
+	/**
+	 * A Java source file of a variant.
+	 */
+	public static final class CompilationUnit {
+
+		private final IFile file;
+		private final String id;
+		private final String contentHash;
+		private final Set<String> identifiers = new HashSet<>();
+		private final Set<String> declaredTypes = new HashSet<>();
+		private String key;
+
+		private CompilationUnit(IFile file, byte[] content) {
+			this.file = file;
+			contentHash = hash(content);
+
+			final String text = new String(content, StandardCharsets.UTF_8);
+			final Matcher packageMatcher = PACKAGE_DECLARATION.matcher(text);
+			final String packagePath = packageMatcher.find() ? packageMatcher.group(1).replaceAll("\\s", "").replace('.', '/') + "/" : "";
+			id = packagePath + file.getName();
+
+			final Matcher identifierMatcher = IDENTIFIER.matcher(text);
+			while (identifierMatcher.find()) {
+				identifiers.add(identifierMatcher.group());
+			}
+			final Matcher typeMatcher = TYPE_DECLARATION.matcher(text);
+			while (typeMatcher.find()) {
+				declaredTypes.add(typeMatcher.group(1));
+			}
+		}
+
+		public IFile getFile() {
+			return file;
+		}
+
+		/**
+		 * @return the path of the source file relative to the output folder, e.g., "pkg/Main.java"
+		 */
+		public String getId() {
+			return id;
+		}
+
+		public String getKey() {
+			return key;
+		}
+
+	}
+
+	/**
+	 * The class files and the problems of a cached compilation unit.
+	 */
+	private static final class Entry {
+
+		private final Path directory;
+		private final List<String> classFiles;
+		private final List<Problem> problems;
+
+		private Entry(Path directory, List<String> classFiles, List<Problem> problems) {
+			this.directory = directory;
+			this.classFiles = classFiles;
+			this.problems = problems;
+		}
+
+	}
+
+	private final Path directory;
+
+	private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+	private final AtomicInteger reusedUnits = new AtomicInteger();
+	private final AtomicInteger compiledUnits = new AtomicInteger();
+
+	private volatile boolean closed = false;
+
+	/**
+	 * @param directory the directory where the class files are stored
+	 */
+	public ClassCache(Path directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Reads the given source files and computes the key of each file.
+	 *
+	 * @param files the source files of a variant
+	 * @param compilerSettings the compiler options and the classpath used to compile the variant
+	 * @return the compilation units in the order of the files
+	 * @throws IOException if a file cannot be read
+	 */
+	public static List<CompilationUnit> createCompilationUnits(List<IFile> files, String compilerSettings) throws IOException {
+		final List<CompilationUnit> units = new ArrayList<>(files.size());
+		final Map<String, List<CompilationUnit>> typeIndex = new HashMap<>();
+		for (final IFile file : files) {
+			final CompilationUnit unit = new CompilationUnit(file, Files.readAllBytes(file.getLocation().toFile().toPath()));
+			units.add(unit);
+			for (final String type : unit.declaredTypes) {
+				List<CompilationUnit> declaringUnits = typeIndex.get(type);
+				if (declaringUnits == null) {
+					declaringUnits = new ArrayList<>(1);
+					typeIndex.put(type, declaringUnits);
+				}
+				declaringUnits.add(unit);
+			}
+		}
+
+		for (final CompilationUnit unit : units) {
+			// all units the class files of this unit can depend on
+			final Set<CompilationUnit> closure = new HashSet<>();
+			final Deque<CompilationUnit> queue = new ArrayDeque<>();
+			closure.add(unit);
+			queue.add(unit);
+			while (!queue.isEmpty()) {
+				final CompilationUnit current = queue.poll();
+				for (final String identifier : current.identifiers) {
+					final List<CompilationUnit> declaringUnits = typeIndex.get(identifier);
+					if (declaringUnits != null) {
+						for (final CompilationUnit declaringUnit : declaringUnits) {
+							if (closure.add(declaringUnit)) {
+								queue.add(declaringUnit);
+							}
+						}
+					}
+				}
+			}
+
+			final List<String> closureHashes = new ArrayList<>(closure.size());
+			for (final CompilationUnit dependency : closure) {
+				closureHashes.add(dependency.id + ':' + dependency.contentHash);
+			}
+			Collections.sort(closureHashes);
+			final StringBuilder sb = new StringBuilder(compilerSettings);
+			sb.append('\n');
+			sb.append(unit.id);
+			for (final String closureHash : closureHashes) {
+				sb.append('\n');
+				sb.append(closureHash);
+			}
+			unit.key = hash(sb.toString().getBytes(StandardCharsets.UTF_8));
+		}
+		return units;
+	}
+
+	/**
+	 * Copies the cached class files of the given unit to the output folder.
+	 *
+	 * @param unit the compilation unit
+	 * @param outputFolder the output folder of the compiler
+	 * @return the problems of the unit or {@code null} if the unit is not cached
+	 */
+	public List<Problem> restore(CompilationUnit unit, Path outputFolder) {
+		final Entry entry = entries.get(unit.key);
+		if (entry == null) {
+			return null;
+		}
+		try {
+			for (final String classFile : entry.classFiles) {
+				final Path target = outputFolder.resolve(classFile);
+				Files.createDirectories(target.getParent());
+				Files.copy(entry.directory.resolve(classFile), target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (final IOException e) {
+			return null;
+		}
+		reusedUnits.incrementAndGet();
+		return entry.problems;
+	}
+
+	/**
+	 * Stores the class files of the compiled units. The class files are assigned to their units by the source file attribute of the class files. If a class
+	 * file cannot be assigned, no unit is stored, because the entry of its unit would be incomplete.
+	 *
+	 * @param units the compiled units
+	 * @param problems the problems that the compiler reported for each file
+	 * @param outputFolder the output folder of the compiler
+	 * @param restoredClassFiles the class files in the output folder that were restored from the cache
+	 * @throws IOException if a class file cannot be read or stored
+	 */
+	public void store(List<CompilationUnit> units, Map<IFile, List<Problem>> problems, Path outputFolder, Set<String> restoredClassFiles)
+			throws IOException {
+		if (closed) {
+			return;
+		}
+		compiledUnits.addAndGet(units.size());
+
+		final Map<String, CompilationUnit> unitsById = new HashMap<>();
+		final Map<CompilationUnit, List<String>> classFiles = new HashMap<>();
+		for (final CompilationUnit unit : units) {
+			unitsById.put(unit.id, unit);
+			classFiles.put(unit, new ArrayList<String>());
+		}
+		for (final String classFile : getClassFiles(outputFolder)) {
+			if (restoredClassFiles.contains(classFile)) {
+				continue;
+			}
+			final String sourceFile = readSourceFile(outputFolder.resolve(classFile));
+			final int separatorIndex = classFile.lastIndexOf('/');
+			final CompilationUnit unit = (sourceFile == null) ? null : unitsById.get(classFile.substring(0, separatorIndex + 1) + sourceFile);
+			if (unit == null) {
+				return;
+			}
+			classFiles.get(unit).add(classFile);
+		}
+
+		Files.createDirectories(directory);
+		for (final CompilationUnit unit : units) {
+			final List<Problem> unitProblems = problems.containsKey(unit.file) ? problems.get(unit.file) : Collections.<Problem> emptyList();
+			if (entries.containsKey(unit.key) || containsError(unitProblems)) {
+				continue;
+			}
+			final Path entryDirectory = Files.createTempDirectory(directory, "unit");
+			for (final String classFile : classFiles.get(unit)) {
+				final Path target = entryDirectory.resolve(classFile);
+				Files.createDirectories(target.getParent());
+				Files.copy(outputFolder.resolve(classFile), target);
+			}
+			entries.putIfAbsent(unit.key, new Entry(entryDirectory, classFiles.get(unit), unitProblems));
+		}
+	}
+
+	/**
+	 * @return the number of compilation units that were restored from the cache and that were compiled, e.g., "class cache: 90 of 100 units reused"
+	 */
+	public String getStatistics() {
+		final int reused = reusedUnits.get();
+		return "class cache: " + reused + " of " + (reused + compiledUnits.get()) + " units reused";
+	}
+
+	/**
+	 * Deletes the directory of the cache with all stored class files. Afterwards, no units are restored or stored.
+	 *
+	 * @throws IOException if a file cannot be deleted
+	 */
+	public void close() throws IOException {
+		closed = true;
+		entries.clear();
+		if (!Files.isDirectory(directory)) {
+			return;
+		}
+		Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				Files.delete(file);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+				if (exc != null) {
+					throw exc;
+				}
+				Files.delete(dir);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	private static boolean containsError(List<Problem> problems) {
+		for (final Problem problem : problems) {
+			if (!problem.isWarning()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the paths of all class files in the given folder relative to the folder, using "/" as separator
+	 */
+	public static List<String> getClassFiles(final Path folder) throws IOException {
+		final List<String> classFiles = new ArrayList<>();
+		if (!Files.isDirectory(folder)) {
+			return classFiles;
+		}
+		Files.walkFileTree(folder, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+				if (file.getFileName().toString().endsWith(CLASS_FILE_SUFFIX)) {
+					classFiles.add(folder.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/"));
+				}
+				return FileVisitResult.CONTINUE;
+			}
+		});
+		return classFiles;
+	}
+
+	/**
+	 * Reads the SourceFile attribute of a class file.
+	 *
+	 * @return the name of the source file or {@code null} if the class file has no SourceFile attribute
+	 */
+	static String readSourceFile(Path classFile) throws IOException {
+		try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(classFile))) {
+			return readSourceFile(new DataInputStream(inputStream));
+		}
+	}
+
+	static String readSourceFile(DataInputStream in) throws IOException {
+		if (in.readInt() != 0xCAFEBABE) {
+			return null;
+		}
+		in.readUnsignedShort();
+		in.readUnsignedShort();
+
+		final int constantPoolCount = in.readUnsignedShort();
+		final String[] utf8Constants = new String[constantPoolCount];
+		for (int i = 1; i < constantPoolCount; i++) {
+			final int tag = in.readUnsignedByte();
+			switch (tag) {
+			case 1: // Utf8
+				utf8Constants[i] = in.readUTF();
+				break;
+			case 5: // Long
+			case 6: // Double
+				in.readLong();
+				i++;
+				break;
+			case 3: // Integer
+			case 4: // Float
+			case 9: // Fieldref
+			case 10: // Methodref
+			case 11: // InterfaceMethodref
+			case 12: // NameAndType
+			case 17: // Dynamic
+			case 18: // InvokeDynamic
+				in.readInt();
+				break;
+			case 7: // Class
+			case 8: // String
+			case 16: // MethodType
+			case 19: // Module
+			case 20: // Package
+				in.readUnsignedShort();
+				break;
+			case 15: // MethodHandle
+				in.readUnsignedByte();
+				in.readUnsignedShort();
+				break;
+			default:
+				return null;
+			}
+		}
+
+		// access flags, this class, super class
+		in.readUnsignedShort();
+		in.readUnsignedShort();
+		in.readUnsignedShort();
+		final int interfacesCount = in.readUnsignedShort();
+		for (int i = 0; i < interfacesCount; i++) {
+			in.readUnsignedShort();
+		}
+		// fields and methods
+		for (int k = 0; k < 2; k++) {
+			final int memberCount = in.readUnsignedShort();
+			for (int i = 0; i < memberCount; i++) {
+				in.readUnsignedShort();
+				in.readUnsignedShort();
+				in.readUnsignedShort();
+				skipAttributes(in);
+			}
+		}
+
+		final int attributeCount = in.readUnsignedShort();
+		for (int i = 0; i < attributeCount; i++) {
+			final String name = utf8Constants[in.readUnsignedShort()];
+			final int length = in.readInt();
+			if ("SourceFile".equals(name)) {
+				return utf8Constants[in.readUnsignedShort()];
+			}
+			skipFully(in, length);
+		}
+		return null;
+	}
+
+	private static void skipAttributes(DataInputStream in) throws IOException {
+		final int attributeCount = in.readUnsignedShort();
+		for (int i = 0; i < attributeCount; i++) {
+			in.readUnsignedShort();
+			skipFully(in, in.readInt() & 0xFFFFFFFFL);
+		}
+	}
+
+	private static void skipFully(DataInputStream in, long length) throws IOException {
+		long remaining = length;
+		while (remaining > 0) {
+			final long skipped = in.skip(remaining);
+			if (skipped <= 0) {
+				in.readByte();
+				remaining--;
+			} else {
+				remaining -= skipped;
+			}
+		}
+	}
+
+	private static String hash(byte[] content) {
+		try {
+			return new BigInteger(1, MessageDigest.getInstance("SHA-1").digest(content)).toString(16);
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
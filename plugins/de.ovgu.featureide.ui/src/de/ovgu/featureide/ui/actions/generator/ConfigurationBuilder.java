@@ -25,9 +25,9 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.INCLING;
 import static de.ovgu.featureide.fm.core.localization.StringTable.OF;
 import static de.ovgu.featureide.fm.core.localization.StringTable.RESTRICTION;
 
-import java.security.KeyStore.Builder;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.CheckForNull;
 
@@ -48,11 +48,12 @@ import org.eclipse.jdt.internal.core.JavaProject;
 
 import de.ovgu.featureide.core.IFeatureProject;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
-import de.ovgu.featureide.fm.core.job.IJob.JobStatus;
+import de.ovgu.featureide.fm.core.job.IJob;
 import de.ovgu.featureide.fm.core.job.IRunner;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 import de.ovgu.featureide.fm.core.job.monitor.ProgressMonitor;
+import de.ovgu.featureide.fm.core.job.util.JobFinishListener;
 import de.ovgu.featureide.fm.core.localization.StringTable;
 import de.ovgu.featureide.ui.UIPlugin;
 import de.ovgu.featureide.ui.actions.generator.configuration.AConfigurationGenerator;
@@ -76,6 +77,17 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 
 	private static final UIPlugin LOGGER = UIPlugin.getDefault();
 
+	/**
+	 * The maximal number of configurations that are buffered if the configurations are built in the order of their creation. The
+	 * {@link AConfigurationGenerator} waits if the buffer is full.
+	 */
+	static final int MAX_BUFFER_SIZE = 1000;
+
+	/**
+	 * The interval in milliseconds in which the progress is updated and the monitor is checked for cancellation.
+	 */
+	private static final long UPDATE_INTERVAL = 150;
+
 	public IFeatureProject featureProject;
 	private IFeatureModel featureModel;
 
@@ -104,6 +116,11 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	 */
 	IFolder tmp;
 
+	/**
+	 * Reuses the class files of compilation units that are equal in several configurations.
+	 */
+	ClassCache classCache;
+
 	/**
 	 * This flag indicates if a new project should be created for each configuration.
 	 */
@@ -117,7 +134,7 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	/**
 	 * This flag indicates that all jobs should be aborted.
 	 */
-	boolean cancelGeneratorJobs = false;
+	volatile boolean cancelGeneratorJobs = false;
 
 	/**
 	 * Saves the time of start.
@@ -125,7 +142,7 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	protected long time;
 
 	/**
-	 * This flag indicates that no more configurations will be added and the {@link Generator} jobs can finish.
+	 * This flag indicates that no more configurations will be added and the {@link BuildPipeline} can finish.
 	 */
 	boolean finish = false;
 
@@ -135,9 +152,9 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	BuildType buildType;
 
 	/**
-	 * This list contains all {@link Generator} jobs.
+	 * Composes, compiles, and tests the configurations.
 	 */
-	final List<Generator> generatorJobs = new ArrayList<>();
+	private volatile BuildPipeline pipeline;
 
 	public AbstractConfigurationSorter sorter;
 
@@ -158,12 +175,45 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	}
 
 	/**
-	 * Adds the given configuration to configurations.
+	 * Waits for the next configuration to build.
+	 *
+	 * @return The next configuration or <code>null</code> if there are no more configurations or the build was canceled
+	 * @throws InterruptedException if the current thread is interrupted while waiting
+	 */
+	@CheckForNull
+	synchronized BuilderConfiguration takeConfiguration() throws InterruptedException {
+		while (!cancelGeneratorJobs) {
+			final BuilderConfiguration configuration = sorter.getConfiguration();
+			if (configuration != null) {
+				// a waiting generator can add the next configuration
+				notifyAll();
+				return configuration;
+			}
+			if (finish && sorter.isSorted()) {
+				return null;
+			}
+			wait();
+		}
+		return null;
+	}
+
+	/**
+	 * Adds the given configuration to configurations.<br> If the configurations are built in the order of their creation, this method waits until the buffer
+	 * has space for the configuration.
 	 *
 	 * @param configuration
 	 */
 	public synchronized void addConfiguration(BuilderConfiguration configuration) {
+		while (sorter.isSorted() && (sorter.getBufferSize() >= MAX_BUFFER_SIZE) && !cancelGeneratorJobs) {
+			try {
+				wait();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
 		sorter.addConfiguration(configuration);
+		notifyAll();
 	}
 
 	// TODO revise long parameter list
@@ -264,6 +314,8 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 
 			private IRunner<Void> configurationBuilderJob;
 
+			private final CountDownLatch configurationBuilderFinished = new CountDownLatch(1);
+
 			@Override
 			public IStatus run(IProgressMonitor monitor) {
 				try {
@@ -275,22 +327,27 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 
 					time = System.currentTimeMillis();
 
+					int numberOfCompositionWorkers = 1;
 					if (featureProject.getComposer().canGeneratInParallelJobs()) {
-						if (buildType != BuildType.ALL_CURRENT) {
-							newgeneratorJobs(Runtime.getRuntime().availableProcessors() * 2);
-						} else {
-							int contJobs = Runtime.getRuntime().availableProcessors() * 2;
-							if (configurationNumber < contJobs) {
-								contJobs = (int) configurationNumber;
-							}
-							newgeneratorJobs(contJobs);
+						numberOfCompositionWorkers = Runtime.getRuntime().availableProcessors();
+						if (buildType == BuildType.ALL_CURRENT) {
+							numberOfCompositionWorkers = (int) Math.max(1, Math.min(numberOfCompositionWorkers, configurationNumber));
 						}
-					} else {
-						newgeneratorJobs(1);
 					}
+					pipeline = new BuildPipeline(ConfigurationBuilder.this, new ProgressMonitor(getTaskName(), monitor), numberOfCompositionWorkers);
+					pipeline.start();
+
 					configurationBuilderJob = LongRunningWrapper.getRunner(configurationBuilder, "Create Configurations " + id++);
+					configurationBuilderJob.addJobFinishedListener(new JobFinishListener<Void>() {
+
+						@Override
+						public void jobFinished(IJob<Void> finishedJob) {
+							configurationBuilderFinished.countDown();
+						}
+					});
 					configurationBuilderJob.schedule();
 					showStatistics(monitor);
+					closeClassCache();
 					if (!createNewProjects) {
 						try {
 							folder.refreshLocal(IResource.DEPTH_INFINITE, null);
@@ -299,11 +356,11 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 						}
 					}
 				} finally {
-					configurationBuilderJob.cancel();
-					cancelGenerationJobs();
-					for (final Thread g : generatorJobs) {
-						g.interrupt();
+					if (configurationBuilderJob != null) {
+						configurationBuilderJob.cancel();
 					}
+					cancelGenerationJobs();
+					closeClassCache();
 					monitor.done();
 				}
 				return Status.OK_STATUS;
@@ -311,27 +368,15 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 
 			private void showStatistics(IProgressMonitor monitor) {
 				try {
-					while (configurationBuilderJob.getStatus() == JobStatus.NOT_STARTED) {
-						try {
-							Thread.sleep(150);
-						} catch (final InterruptedException e) {
-							LOGGER.logError(e);
-						}
-					}
-					while (configurationBuilderJob.getStatus() == JobStatus.RUNNING) {
+					// the pipeline already builds the configurations while they are created, unless they have to be sorted first
+					while (!configurationBuilderFinished.await(UPDATE_INTERVAL, TimeUnit.MILLISECONDS)) {
 						monitor.setTaskName(getTaskName());
-						if (monitor.isCanceled()) {
+						if (monitor.isCanceled() || cancelGeneratorJobs) {
 							cancelGenerationJobs();
 							configurationBuilderJob.cancel();
 							return;
 						}
-						try {
-							Thread.sleep(150);
-						} catch (final InterruptedException e) {
-							LOGGER.logError(e);
-						}
 					}
-					System.err.println(configurationBuilderJob.getStatus());
 
 					if (!sorter.isSorted()) {
 						final IMonitor workMonitor = new ProgressMonitor(getTaskName(), monitor);
@@ -340,44 +385,30 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 					finish();
 
 					((SubMonitor) monitor).setWorkRemaining((int) configurationNumber - built);
-					while (!generatorJobs.isEmpty()) {
-						try {
-							if (monitor.isCanceled()) {
-								cancelGenerationJobs();
-								break;
-							}
-							final Generator generator = generatorJobs.get(0);
-							if (generator == null) {
-								// generator can never be null, however see #416
-								generatorJobs.remove(0);
-							} else if (generator.getState() == Thread.State.TERMINATED) {
-								generatorJobs.remove(generator);
-								if (sorter.getBufferSize() != 0) {
-									createNewGenerator(generator.nr);
-								}
-							}
-							monitor.setTaskName(getTaskName());
-							Thread.sleep(150);
-						} catch (final InterruptedException e) {
-							LOGGER.logError(e);
-						} catch (final IndexOutOfBoundsException e) {
-							// nothing here
+					while (!pipeline.awaitTermination(UPDATE_INTERVAL)) {
+						monitor.setTaskName(getTaskName());
+						if (monitor.isCanceled()) {
+							cancelGenerationJobs();
+							break;
 						}
 					}
+				} catch (final InterruptedException e) {
+					LOGGER.logError(e);
+					cancelGenerationJobs();
+					return;
+				}
 
-					final long duration = System.currentTimeMillis() - time;
-					final long s = (duration / 1000) % 60;
-					final long min = (duration / (60 * 1000)) % 60;
-					final long h = duration / (60 * 60 * 1000);
-					final String t = h + "h " + (min < 10 ? "0" + min : min) + "min " + (s < 10 ? "0" + s : s) + "s.";
+				final long duration = System.currentTimeMillis() - time;
+				final long s = (duration / 1000) % 60;
+				final long min = (duration / (60 * 1000)) % 60;
+				final long h = duration / (60 * 60 * 1000);
+				final String t = h + "h " + (min < 10 ? "0" + min : min) + "min " + (s < 10 ? "0" + s : s) + "s.";
 
-					if (built > configurationNumber) {
-						built = (int) configurationNumber;
-					}
-					LOGGER.logInfo(built + (configurationNumber != 0 ? OF + configurationNumber : "") + " configurations built in " + t);
-				} finally {
-					generatorJobs.clear();
+				if (built > configurationNumber) {
+					built = (int) configurationNumber;
 				}
+				LOGGER.logInfo(built + (configurationNumber != 0 ? OF + configurationNumber : "") + " configurations built in " + t + " ("
+					+ pipeline.getStatistics() + (classCache != null ? ", " + classCache.getStatistics() : "") + ")");
 			}
 
 		};
@@ -422,6 +453,7 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 					LOGGER.logError(e);
 				}
 			}
+			classCache = new ClassCache(tmp.getRawLocation().toFile().toPath().resolve(CLASS_CACHE_FOLDER));
 		} else {
 			try {
 				String identifier;
@@ -489,48 +521,37 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	}
 
 	/**
-	 * Creates new {@link Generator}s
-	 *
-	 * @param count The amount of Generators that will be created.
+	 * This is called if the main job is canceled and all workers of the {@link BuildPipeline} should finish.
 	 */
-	private void newgeneratorJobs(int count) {
-		if (count < 1) {
-			return;
-		}
-
-		if (count == 1) {
-			createNewGenerator(0);
-			return;
+	public void cancelGenerationJobs() {
+		synchronized (this) {
+			cancelGeneratorJobs = true;
+			notifyAll();
 		}
-
-		for (; count > 0; count--) {
-			createNewGenerator(count);
+		if (pipeline != null) {
+			pipeline.cancel();
 		}
 	}
 
 	/**
-	 * Created a new {@link Generator} with the given number
-	 *
-	 * @param nr
+	 * Deletes the class files cached during the build, as they are not reused by later builds.
 	 */
-	void createNewGenerator(int nr) {
-		final Generator g = new Generator(nr, this);
-		generatorJobs.add(g);
-		g.start();
-	}
-
-	/**
-	 * This is called if the main job is canceled and all {@link Builder} and {@link JavaCompiler} should finish.
-	 */
-	public void cancelGenerationJobs() {
-		cancelGeneratorJobs = true;
+	private void closeClassCache() {
+		if (classCache != null) {
+			try {
+				classCache.close();
+			} catch (final IOException e) {
+				LOGGER.logError(e);
+			}
+		}
 	}
 
 	/**
 	 * This is called if the main job has finished and no more configurations will be added.
 	 */
-	public void finish() {
+	public synchronized void finish() {
 		finish = true;
+		notifyAll();
 	}
 
 	/**
@@ -548,7 +569,7 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 		}
 		final long buffer = sorter.getBufferSize();
 		return "Built configurations: " + built + "/" + (configurationNumber == Integer.MAX_VALUE ? COUNTING___ : configurationNumber) + "(" + buffer
-			+ " buffered)" + " Expected time: " + t;
+			+ " buffered)" + " Expected time: " + t + (pipeline != null ? " " + pipeline.getStatistics() : "");
 	}
 
 	/**
@@ -24,12 +24,27 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.CANNOT_FIND_SY
 import static de.ovgu.featureide.fm.core.localization.StringTable.COMPILER;
 import static de.ovgu.featureide.fm.core.localization.StringTable.SYMBOL;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Scanner;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -39,19 +54,21 @@ import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
-import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.core.compiler.batch.BatchCompiler;
 
 import de.ovgu.featureide.ui.UIPlugin;
+import de.ovgu.featureide.ui.actions.generator.ClassCache.CompilationUnit;
+import de.ovgu.featureide.ui.actions.generator.ClassCache.Problem;
 
 /**
- * This {@link Job} compiles all configurations of the corresponding {@link Generator}
+ * Compiles the configurations of the corresponding {@link ConfigurationBuilder}. Used by the compilation stage of the {@link BuildPipeline}. Each compiler
+ * has its own output folder.
  *
  * @author Jens Meinicke
  */
 public class JavaCompiler implements IConfigurationBuilderBasics {
 
-	private final Generator generator;
+	private final ConfigurationBuilder builder;
 
 	/**
 	 * The parent folder of the generated variants
@@ -61,12 +78,12 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 	/**
 	 *
 	 * @param nr The number of the compiler
-	 * @param generator The generator holding this compiler
+	 * @param builder The builder holding this compiler
 	 */
-	public JavaCompiler(int nr, Generator generator) {
-		this.generator = generator;
+	public JavaCompiler(int nr, ConfigurationBuilder builder) {
+		this.builder = builder;
 
-		tmp = generator.builder.tmp.getFolder(COMPILER + nr);
+		tmp = builder.tmp.getFolder(COMPILER + nr);
 		if (!tmp.exists()) {
 			try {
 				tmp.create(true, true, null);
@@ -85,40 +102,121 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 	 */
 	protected void compile(BuilderConfiguration configuration) throws CoreException {
 		try {
-			generator.builder.folder.getFolder(configuration.getName()).refreshLocal(IResource.DEPTH_INFINITE, null);
+			builder.folder.getFolder(configuration.getName()).refreshLocal(IResource.DEPTH_INFINITE, null);
 		} catch (final CoreException e) {
 			UIPlugin.getDefault().logError(e);
 		}
-		for (final IResource file : tmp.members()) {
-			file.delete(true, null);
+		// class files of the previous variant are not necessarily known by the workspace, but they are on the classpath of the next compilation
+		try {
+			clearOutputFolder();
+		} catch (final IOException e) {
+			UIPlugin.getDefault().logError(e);
 		}
+		tmp.refreshLocal(IResource.DEPTH_INFINITE, null);
 		compile(configuration.getName());
 	}
 
+	private void clearOutputFolder() throws IOException {
+		final Path outputFolder = getOutputFolder();
+		if (!Files.isDirectory(outputFolder)) {
+			return;
+		}
+		Files.walkFileTree(outputFolder, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				Files.delete(file);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+				if (!outputFolder.equals(dir)) {
+					Files.delete(dir);
+				}
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	private Path getOutputFolder() {
+		return tmp.getRawLocation().toFile().toPath();
+	}
+
 	/**
-	 * Compiles the built configuration to create error markers. The binary files will be placed into an temporary folder.
+	 * Compiles the built configuration to create error markers. The binary files will be placed into an temporary folder.<br> Compilation units whose
+	 * class files are contained in the {@link ClassCache} of the builder are not compiled again. Their class files are copied to the output folder, which
+	 * is part of the classpath for the remaining units.
 	 *
 	 * @param confName
 	 */
 	private void compile(String confName) {
-		final LinkedList<IFile> files = getJavaFiles(generator.builder.folder.getFolder(confName));
+		final LinkedList<IFile> files = getJavaFiles(builder.folder.getFolder(confName));
 		final LinkedList<String> options = new LinkedList<>();
-		for (final IFile file : files) {
-			options.add(setupPath(file));
-		}
 		options.add("-g");
 		options.add("-Xlint");
 		options.add("-source");
 		options.add("1.7");
-		options.add("-d");
-		options.add(setupPath(tmp.getRawLocation().toOSString()));
-		options.add("-classpath");
-		options.add(generator.builder.classpath);
-
-		final String output = process(options);
-		final LinkedList<IFile> errorFiles = parseJavacOutput(output, files, confName);
-		for (final IFile file : errorFiles) {
-			generator.builder.featureProject.getComposer().postCompile(null, file);
+
+		final Path outputFolder = getOutputFolder();
+		final Map<IFile, List<Problem>> problems = new HashMap<>();
+		List<IFile> changedFiles = files;
+		List<CompilationUnit> changedUnits = null;
+		Set<String> restoredClassFiles = Collections.emptySet();
+		if (builder.classCache != null) {
+			try {
+				changedFiles = new LinkedList<>();
+				changedUnits = new ArrayList<>();
+				for (final CompilationUnit unit : ClassCache.createCompilationUnits(files, options + builder.classpath)) {
+					final List<Problem> unitProblems = builder.classCache.restore(unit, outputFolder);
+					if (unitProblems != null) {
+						problems.put(unit.getFile(), unitProblems);
+					} else {
+						changedFiles.add(unit.getFile());
+						changedUnits.add(unit);
+					}
+				}
+				if (changedFiles.size() < files.size()) {
+					restoredClassFiles = new HashSet<>(ClassCache.getClassFiles(outputFolder));
+				}
+			} catch (final IOException e) {
+				UIPlugin.getDefault().logError(e);
+				changedFiles = files;
+				changedUnits = null;
+			}
+		}
+
+		if (!changedFiles.isEmpty()) {
+			for (final IFile file : changedFiles) {
+				options.add(setupPath(file));
+			}
+			options.add("-d");
+			options.add(setupPath(outputFolder.toString()));
+			options.add("-classpath");
+			if (restoredClassFiles.isEmpty()) {
+				options.add(builder.classpath);
+			} else {
+				options.add(setupPath(outputFolder.toString()) + (builder.classpath.isEmpty() ? "" : File.pathSeparator + builder.classpath));
+			}
+
+			final String output = process(options);
+			final Map<IFile, List<Problem>> changedProblems = parseJavacOutput(output, changedFiles);
+			problems.putAll(changedProblems);
+			if (changedUnits != null) {
+				try {
+					builder.classCache.store(changedUnits, changedProblems, outputFolder, restoredClassFiles);
+				} catch (final IOException e) {
+					UIPlugin.getDefault().logError(e);
+				}
+			}
+		}
+
+		for (final IFile file : files) {
+			final List<Problem> fileProblems = problems.get(file);
+			if ((fileProblems != null) && !fileProblems.isEmpty()) {
+				createMarkers(file, fileProblems, confName);
+				builder.featureProject.getComposer().postCompile(null, file);
+			}
 		}
 	}
 
@@ -165,8 +263,24 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 	 */
 	public LinkedList<IFile> parseJavacOutput(String output, LinkedList<IFile> files, String configurationName) {
 		final LinkedList<IFile> errorFiles = new LinkedList<IFile>();
-		if (output.isEmpty()) {
-			return errorFiles;
+		for (final Entry<IFile, List<Problem>> entry : parseJavacOutput(output, files).entrySet()) {
+			createMarkers(entry.getKey(), entry.getValue(), configurationName);
+			errorFiles.add(entry.getKey());
+		}
+		return errorFiles;
+	}
+
+	/**
+	 * Parses the problems of the compiled files from the given compiler output.
+	 *
+	 * @param output The output from the compiler
+	 * @param files The compiled files
+	 * @return The reported problems of each file in the order of their appearance
+	 */
+	private Map<IFile, List<Problem>> parseJavacOutput(String output, List<IFile> files) {
+		final Map<IFile, List<Problem>> problems = new LinkedHashMap<>();
+		if ((output == null) || output.isEmpty()) {
+			return problems;
 		}
 		final TreeMap<String, IFile> sourcePaths = new TreeMap<>();
 		for (final IFile file : files) {
@@ -215,22 +329,31 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 					|| errorMessage.contains(ERROR_IGNOR_DEPRECATION)) {
 					continue;
 				}
-				if (!errorFiles.contains(currentFile)) {
-					errorFiles.add(currentFile);
+				List<Problem> fileProblems = problems.get(currentFile);
+				if (fileProblems == null) {
+					fileProblems = new ArrayList<>();
+					problems.put(currentFile, fileProblems);
 				}
-				IMarker newMarker;
-				newMarker = currentFile.createMarker(PROBLEM_MARKER);
+				fileProblems.add(new Problem(line, warning, errorMessage));
+			}
+		}
+
+		return problems;
+	}
+
+	private void createMarkers(IFile file, List<Problem> problems, String configurationName) {
+		try {
+			for (final Problem problem : problems) {
+				final IMarker newMarker = file.createMarker(PROBLEM_MARKER);
 				if (newMarker.exists()) {
-					newMarker.setAttribute(IMarker.LINE_NUMBER, line);
-					newMarker.setAttribute(IMarker.MESSAGE, configurationName + " " + errorMessage);
-					newMarker.setAttribute(IMarker.SEVERITY, warning ? IMarker.SEVERITY_WARNING : IMarker.SEVERITY_ERROR);
+					newMarker.setAttribute(IMarker.LINE_NUMBER, problem.getLine());
+					newMarker.setAttribute(IMarker.MESSAGE, configurationName + " " + problem.getMessage());
+					newMarker.setAttribute(IMarker.SEVERITY, problem.isWarning() ? IMarker.SEVERITY_WARNING : IMarker.SEVERITY_ERROR);
 				}
 			}
 		} catch (final CoreException e) {
 			UIPlugin.getDefault().logError(e);
 		}
-
-		return errorFiles;
 	}
 
 	@SuppressWarnings("unused")
@@ -82,11 +82,6 @@ public class AllConfigrationsGenerator extends AConfigurationGenerator {
 	private Node rootNode;
 	private LinkedList<Node> children;
 
-	/**
-	 * The max size of <code>>configurations</code>
-	 */
-	private final int maxBufferSize = 5000;
-
 	@Override
 	public Void execute(IMonitor monitor) throws Exception {
 		try {
@@ -169,25 +164,8 @@ public class AllConfigrationsGenerator extends AConfigurationGenerator {
 					}
 				}
 
+				// waits if the buffer of the builder is full
 				addConfiguration(configuration);
-
-				if (builder.sorter.getBufferSize() >= maxBufferSize) {
-					synchronized (this) {
-						while (builder.sorter.getBufferSize() >= maxBufferSize) {
-							try {
-								monitor.checkCancel();
-							} catch (final MethodCancelException e) {
-								number.cancel();
-								return;
-							}
-							try {
-								wait(1000);
-							} catch (final InterruptedException e) {
-								UIPlugin.getDefault().logError(e);
-							}
-						}
-					}
-				}
 			}
 			return;
 		}
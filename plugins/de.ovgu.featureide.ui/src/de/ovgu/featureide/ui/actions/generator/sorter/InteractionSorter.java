@@ -21,13 +21,12 @@
 package de.ovgu.featureide.ui.actions.generator.sorter;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
 
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
@@ -37,7 +36,11 @@ import de.ovgu.featureide.ui.UIPlugin;
 import de.ovgu.featureide.ui.actions.generator.BuilderConfiguration;
 
 /**
- * Sorts Configurations by interactions they cover.
+ * Sorts Configurations by interactions they cover.<br> Each interaction of up to t concrete features has a dense index, which is computed from the
+ * combinatorial rank of its features and their selection. Thus, the covered interactions are stored in a single bit set. For each literal of a concrete
+ * feature, a bit set over the configurations stores which configurations contain it. When an interaction becomes covered, the configurations that contain
+ * it are the intersection of the bit sets of its literals, and their number of uncovered interactions is decreased. The most covering configuration is
+ * chosen lazily from a priority queue, as these numbers can only decrease.
  *
  * @author Jens Meinicke
  */
@@ -45,12 +48,81 @@ public class InteractionSorter extends AbstractConfigurationSorter {
 
 	private static final UIPlugin LOGGER = UIPlugin.getDefault();
 
-	private final int t;
+	/**
+	 * The maximal number of interactions, i.e., the number of bits of the largest bit set that can be stored in a long array.
+	 */
+	private static final long MAX_INTERACTIONS = ((long) Integer.MAX_VALUE) << 6;
+
+	/**
+	 * Orders candidates by their (possibly outdated) number of uncovered interactions (descending) and by name.
+	 */
+	private static final Comparator<Candidate> CANDIDATE_COMPARATOR = new Comparator<Candidate>() {
 
-	private final Map<BuilderConfiguration, Set<Interaction>> interactions = new HashMap<BuilderConfiguration, Set<Interaction>>();
+		@Override
+		public int compare(Candidate c1, Candidate c2) {
+			if (c1.bound != c2.bound) {
+				return c1.bound > c2.bound ? -1 : 1;
+			}
+			return c1.configuration.getName().compareTo(c2.configuration.getName());
+		}
+	};
+
+	private final int t;
 
 	private final boolean skippConfigurations;
 
+	/**
+	 * The maximal size of an interaction, i.e., t restricted to the number of concrete features.
+	 */
+	private int maxT;
+
+	/**
+	 * binomial[n][k] is the binomial coefficient n over k.
+	 */
+	private long[][] binomial;
+
+	/**
+	 * offsets[k] is the index of the first interaction of size k.
+	 */
+	private long[] offsets;
+
+	/**
+	 * The bit set of all covered interactions.
+	 */
+	private long[] coveredInteractions;
+
+	/**
+	 * literals[2 * i + 1] is the bit set of all configurations that select the i-th concrete feature, literals[2 * i] of all configurations that deselect
+	 * it.
+	 */
+	private long[][] literals;
+
+	/**
+	 * intersections[k] is the bit set of all configurations that contain the first k literals of the current interaction.
+	 */
+	private long[][] intersections;
+
+	/**
+	 * uncoveredInteractions[i] is the number of uncovered interactions of the i-th configuration.
+	 */
+	private long[] uncoveredInteractions;
+
+	private static final class Candidate {
+
+		private final BuilderConfiguration configuration;
+		private final int position;
+		private final boolean[] selection;
+		private long bound;
+
+		Candidate(BuilderConfiguration configuration, int position, boolean[] selection, long bound) {
+			this.configuration = configuration;
+			this.position = position;
+			this.selection = selection;
+			this.bound = bound;
+		}
+
+	}
+
 	public InteractionSorter(final int t, final IFeatureModel featureModel, final boolean skippConfigurations) {
 		super(featureModel);
 		super.sorted = false;
@@ -65,155 +137,171 @@ public class InteractionSorter extends AbstractConfigurationSorter {
 	 */
 	@Override
 	public int sort(final IMonitor monitor) {
+		try {
+			return sortByInteractions(monitor);
+		} catch (final MethodCancelException e) {
+			configurations.clear();
+			return 0;
+		} finally {
+			binomial = null;
+			offsets = null;
+			coveredInteractions = null;
+			literals = null;
+			intersections = null;
+			uncoveredInteractions = null;
+		}
+	}
+
+	private int sortByInteractions(final IMonitor monitor) {
+		final List<String> features = new ArrayList<>(concreteFeatures);
+		final int n = features.size();
+		maxT = Math.max(0, Math.min(t, n));
+		initIndex(n);
+
+		final int numberOfConfigurations = configurations.size();
+		final int words = (numberOfConfigurations + 63) >>> 6;
+		literals = new long[2 * n][words];
+		intersections = new long[maxT + 1][words];
+		Arrays.fill(intersections[0], -1L);
+
+		final PriorityQueue<Candidate> queue = new PriorityQueue<>(Math.max(1, numberOfConfigurations), CANDIDATE_COMPARATOR);
+		// initially, all interactions of a configuration are uncovered
+		uncoveredInteractions = new long[numberOfConfigurations];
+		Arrays.fill(uncoveredInteractions, countInteractions(n));
 		for (final BuilderConfiguration c : configurations) {
-			try {
-				monitor.checkCancel();
-			} catch (final MethodCancelException e) {
-				configurations.clear();
-				return 0;
+			monitor.checkCancel();
+			final int position = queue.size();
+			final Set<String> selectedFeatures = c.getSelectedFeatureNames();
+			final boolean[] selection = new boolean[n];
+			for (int i = 0; i < n; i++) {
+				selection[i] = selectedFeatures.contains(features.get(i));
+				literals[getLiteral(i, selection[i])][position >>> 6] |= 1L << position;
 			}
-			interactions.put(c, new HashSet<Interaction>(concreteFeatures.size() * (10 ^ t)));
-			getInteractions(interactions.get(c), c.getSelectedFeatureNames(), new ArrayList<String>(0), new ArrayList<String>(0), 1, null);
+			queue.add(new Candidate(c, position, selection, uncoveredInteractions[position]));
 			monitor.worked();
 		}
 
 		final LinkedList<BuilderConfiguration> sorted = new LinkedList<BuilderConfiguration>();
-		while (!interactions.isEmpty()) {
-			try {
-				monitor.checkCancel();
-			} catch (final MethodCancelException e) {
-				configurations.clear();
-				return 0;
+		while (!queue.isEmpty()) {
+			monitor.checkCancel();
+
+			final Candidate mostCovering = queue.poll();
+			if (mostCovering.bound != uncoveredInteractions[mostCovering.position]) {
+				mostCovering.bound = uncoveredInteractions[mostCovering.position];
+				queue.add(mostCovering);
+				continue;
 			}
 
-			final BuilderConfiguration mostCovering = getMostCoveringConfiguration(interactions);
-			final Set<Interaction> coveredInteractions = interactions.get(mostCovering);
-			if (coveredInteractions.isEmpty()) {
+			if (mostCovering.bound == 0) {
 				if (skippConfigurations) {
-					LOGGER.logInfo(interactions.size() + " solutions skipped because interactions are already covered!");
+					LOGGER.logInfo((queue.size() + 1) + " solutions skipped because interactions are already covered!");
 				} else {
-					sorted.addAll(interactions.keySet());
+					final List<Candidate> remaining = new ArrayList<>(queue);
+					remaining.add(mostCovering);
+					Collections.sort(remaining, new Comparator<Candidate>() {
+
+						@Override
+						public int compare(Candidate c1, Candidate c2) {
+							return c1.position - c2.position;
+						}
+					});
+					for (final Candidate candidate : remaining) {
+						sorted.add(candidate.configuration);
+					}
 				}
-				interactions.clear();
 				break;
 			}
-			sorted.add(mostCovering);
-			interactions.remove(mostCovering);
-			for (final Set<Interaction> interaction : interactions.values()) {
-				interaction.removeAll(coveredInteractions);
-			}
+			coverInteractions(mostCovering.selection, 0, 0, 0L, 0);
+			sorted.add(mostCovering.configuration);
 			monitor.worked();
 		}
 		configurations = sorted;
 		return configurations.size();
 	}
 
-	@Override
-	public int getBufferSize() {
-		return interactions.size() + configurations.size();
+	private static int getLiteral(int feature, boolean selected) {
+		return (2 * feature) + (selected ? 1 : 0);
 	}
 
 	/**
-	 * Gets the configuration that covers the most interactions that are left.<br> Basically, the configurations with the greatest set of interactions.
+	 * Computes the binomial coefficients and the offsets of the interaction sizes and creates an empty bit set of covered interactions.
+	 *
+	 * @param n The number of concrete features
+	 * @throws IllegalArgumentException if there are more interactions than {@link #MAX_INTERACTIONS}
 	 */
-	private BuilderConfiguration getMostCoveringConfiguration(final Map<BuilderConfiguration, Set<Interaction>> interactions) {
-		BuilderConfiguration mostCovering = null;
-		int longest = -1;
-		for (final BuilderConfiguration config : interactions.keySet()) {
-			final int size = interactions.get(config).size();
-			if (size > longest) {
-				longest = size;
-				mostCovering = config;
-			} else if (size == longest) {
-				if (mostCovering.getName().compareTo(config.getName()) > 0) {
-					mostCovering = config;
-				}
+	private void initIndex(int n) {
+		binomial = new long[n + 1][maxT + 1];
+		for (int i = 0; i <= n; i++) {
+			binomial[i][0] = 1;
+			for (int k = 1; k <= Math.min(i, maxT); k++) {
+				// saturated to avoid an overflow, the number of interactions is checked below
+				binomial[i][k] = Math.min(binomial[i - 1][k - 1] + binomial[i - 1][k], MAX_INTERACTIONS + 1);
+			}
+		}
+		offsets = new long[maxT + 2];
+		for (int k = 1; k <= maxT; k++) {
+			if (binomial[n][k] > ((MAX_INTERACTIONS - offsets[k]) >>> k)) {
+				throw new IllegalArgumentException("Too many interactions to sort configurations for t = " + t + " and " + n + " concrete features.");
 			}
+			offsets[k + 1] = offsets[k] + (binomial[n][k] << k);
 		}
-		return mostCovering;
+		coveredInteractions = new long[(int) ((offsets[maxT + 1] + 63) >>> 6)];
 	}
 
 	/**
-	 * Calculate the interactions of one configuration.
+	 * @return The number of interactions of size 1 to t of a single configuration
+	 */
+	private long countInteractions(int n) {
+		long count = 0;
+		for (int k = 1; k <= maxT; k++) {
+			count += binomial[n][k];
+		}
+		return count;
+	}
+
+	/**
+	 * Marks all interactions of the given configuration that extend the current interaction by features with an index of at least start as covered and
+	 * updates the number of uncovered interactions of all configurations that contain a newly covered interaction.
 	 *
-	 * @param interactions The set where the interactions are stored
-	 * @param configSelectedFeatures The selected feature of the current configuration
-	 * @param selectedFeatures The selected features of the current interaction
-	 * @param unselectedFeatures The unselected feature of the current interaction
-	 * @param t The current size of the interaction
-	 * @param lastFeature A marker for the last feature
+	 * @param selection The selection of the concrete features in the configuration
+	 * @param size The size of the current interaction
+	 * @param start The first feature that can be added to the current interaction
+	 * @param rank The combinatorial rank of the features of the current interaction
+	 * @param polarity The selection of the features of the current interaction, one bit per feature
 	 */
-	private void getInteractions(final Set<Interaction> interactions, final Set<String> configSelectedFeatures, final List<String> selectedFeatures,
-			final List<String> unselectedFeatures, final int t, final String lastFeature) {
-		if (t > this.t) {
+	private void coverInteractions(boolean[] selection, int size, int start, long rank, int polarity) {
+		if (size >= maxT) {
 			return;
 		}
-
-		boolean marker = lastFeature == null;
-		for (final String feature : concreteFeatures) {
-			if (!marker && feature.equals(lastFeature)) {
-				// skip all features until the feature of the last iteration is found
-				marker = true;
+		final int newSize = size + 1;
+		final long[] prefix = intersections[size];
+		final long[] intersection = intersections[newSize];
+		for (int i = start; i < selection.length; i++) {
+			final long newRank = rank + binomial[i][newSize];
+			final int newPolarity = (polarity << 1) | (selection[i] ? 1 : 0);
+			final long index = offsets[newSize] + (newRank << newSize) + newPolarity;
+			final int word = (int) (index >>> 6);
+			final long bit = 1L << index;
+			final boolean covered = (coveredInteractions[word] & bit) != 0;
+			if (covered && (newSize == maxT)) {
 				continue;
 			}
-			if (marker) {
-				List<String> selected = selectedFeatures;
-				List<String> unselected = unselectedFeatures;
-
-				if (configSelectedFeatures.contains(feature)) {
-					// CASE selected
-					selected = new ArrayList<String>(t);
-					selected.addAll(selectedFeatures);
-					selected.add(feature);
-					selected = Collections.unmodifiableList(selected);
-				} else {
-					// CASE unselected
-					unselected = new ArrayList<String>(t);
-					unselected.addAll(unselectedFeatures);
-					unselected.add(feature);
-					unselected = Collections.unmodifiableList(unselected);
-				}
-				interactions.add(new Interaction(selected, unselected));
-				getInteractions(interactions, configSelectedFeatures, selected, unselected, t + 1, feature);
-			}
-		}
-	}
-
-	private class Interaction {
-
-		private final Collection<String> selectedFeatures;
-		private final Collection<String> unselectedFeatures;
-		private final int hashCode;
 
-		/**
-		 * Represents an interaction between n selected features and m unselected features.
-		 */
-		Interaction(final Collection<String> selectedFeatures, final Collection<String> unselectedFeatures) {
-			this.selectedFeatures = selectedFeatures;
-			this.unselectedFeatures = unselectedFeatures;
-
-			// TODO _Sebastian Revise Hash Function
-			int hash = 0;
-			for (final String feature : selectedFeatures) {
-				hash = (hash * 3) + feature.hashCode();
-			}
-			for (final String feature : unselectedFeatures) {
-				hash += (hash * 7) + feature.hashCode();
+			final long[] literal = literals[getLiteral(i, selection[i])];
+			for (int w = 0; w < intersection.length; w++) {
+				intersection[w] = prefix[w] & literal[w];
 			}
-			hashCode = hash;
-		}
-
-		@Override
-		public boolean equals(final Object obj) {
-			if (obj.hashCode() != hashCode()) {
-				return false;
+			if (!covered) {
+				coveredInteractions[word] |= bit;
+				for (int w = 0; w < intersection.length; w++) {
+					long configurationBits = intersection[w];
+					while (configurationBits != 0) {
+						uncoveredInteractions[(w << 6) + Long.numberOfTrailingZeros(configurationBits)]--;
+						configurationBits &= configurationBits - 1;
+					}
+				}
 			}
-			return selectedFeatures.equals(((Interaction) obj).selectedFeatures) && unselectedFeatures.equals(((Interaction) obj).unselectedFeatures);
-		}
-
-		@Override
-		public int hashCode() {
-			return hashCode;
+			coverInteractions(selection, newSize, i + 1, newRank, newPolarity);
 		}
 	}
 
@@ -0,0 +1,255 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.antenna;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.Path;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.ovgu.featureide.core.IFeatureProject;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelFactory;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+
+/**
+ * Tests the incremental full build of the {@link AntennaPreprocessor}.
+ *
+ * @author FeatureIDE Team
+ */
+public class AntennaPreprocessorTest {
+
+	private static final String SOURCE = "public class Main {\n" //
+		+ "	//#if A\n" //
+		+ "	int a;\n" //
+		+ "	//#endif\n" //
+		+ "	//#if C\n" //
+		+ "	int c;\n" //
+		+ "	//#endif\n" //
+		+ "}\n";
+
+	/**
+	 * A composer that can be built with a given selection.
+	 */
+	private static final class TestPreprocessor extends AntennaPreprocessor {
+
+		public void build(IFeatureProject project, List<IFile> files, String... selectedFeatures) throws CoreException, IOException {
+			setFeatureProject(project);
+			activatedFeatures = new ArrayList<>(Arrays.asList(selectedFeatures));
+			prepareFullBuild(null);
+			preprocessSourceFiles(files, true);
+		}
+
+		public Set<String> getUsedFeatures() {
+			return usedFeatures;
+		}
+
+	}
+
+	/**
+	 * An {@link IFile} backed by a local file, which counts how often its content is read.
+	 */
+	private static final class SourceFile implements InvocationHandler {
+
+		private final File file;
+		private long modificationStamp = 0;
+		private int reads = 0;
+
+		public SourceFile(File file) {
+			this.file = file;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+			case "getContents":
+				reads++;
+				return new FileInputStream(file);
+			case "getModificationStamp":
+				return modificationStamp;
+			case "touch":
+				modificationStamp++;
+				return null;
+			case "getCharset":
+				return StandardCharsets.UTF_8.name();
+			case "getRawLocation":
+				return new Path(file.getAbsolutePath());
+			case "getName":
+				return file.getName();
+			default:
+				return invokeDefault(proxy, method, args);
+			}
+		}
+
+	}
+
+	/**
+	 * An {@link IFeatureProject} that records the builder markers.
+	 */
+	private static final class FeatureProject implements InvocationHandler {
+
+		private final IFeatureModel featureModel;
+		private final List<String> markers = new ArrayList<>();
+
+		public FeatureProject(IFeatureModel featureModel) {
+			this.featureModel = featureModel;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+			case "getFeatureModel":
+				return featureModel;
+			case "createBuilderMarker":
+				markers.add(args[2] + ": " + args[1]);
+				return null;
+			default:
+				return invokeDefault(proxy, method, args);
+			}
+		}
+
+	}
+
+	private static Object invokeDefault(Object proxy, Method method, Object[] args) {
+		switch (method.getName()) {
+		case "equals":
+			return proxy == args[0];
+		case "hashCode":
+			return System.identityHashCode(proxy);
+		case "toString":
+			return proxy.getClass().getName();
+		default:
+			final Class<?> returnType = method.getReturnType();
+			if (returnType == boolean.class) {
+				return false;
+			} else if (returnType == int.class) {
+				return 0;
+			} else if (returnType == long.class) {
+				return 0L;
+			}
+			return null;
+		}
+	}
+
+	private final IFeatureModelFactory factory = FMFactoryManager.getDefaultFactory();
+
+	private IFeatureModel featureModel;
+	private FeatureProject project;
+	private IFeatureProject projectProxy;
+	private SourceFile sourceFile;
+	private List<IFile> files;
+	private final TestPreprocessor composer = new TestPreprocessor();
+
+	@Before
+	public void setUp() throws IOException {
+		featureModel = factory.createFeatureModel();
+		final IFeature root = factory.createFeature(featureModel, "Root");
+		root.getStructure().setAbstract(false);
+		featureModel.addFeature(root);
+		featureModel.getStructure().setRoot(root.getStructure());
+		addFeature("A");
+		addFeature("B");
+
+		project = new FeatureProject(featureModel);
+		projectProxy = (IFeatureProject) Proxy.newProxyInstance(IFeatureProject.class.getClassLoader(), new Class<?>[] { IFeatureProject.class }, project);
+
+		final File file = File.createTempFile("Main", ".java");
+		Files.write(file.toPath(), SOURCE.getBytes(StandardCharsets.UTF_8));
+		sourceFile = new SourceFile(file);
+		files = Collections.singletonList((IFile) Proxy.newProxyInstance(IFile.class.getClassLoader(), new Class<?>[] { IFile.class }, sourceFile));
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(sourceFile.file.toPath());
+	}
+
+	private void addFeature(String name) {
+		final IFeature feature = factory.createFeature(featureModel, name);
+		feature.getStructure().setMandatory(false);
+		feature.getStructure().setAbstract(false);
+		featureModel.addFeature(feature);
+		featureModel.getStructure().getRoot().addChild(feature.getStructure());
+	}
+
+	@Test
+	public void testUnchangedFile() throws Exception {
+		composer.build(projectProxy, files, "A");
+		assertEquals(1, sourceFile.reads);
+		final List<String> markers = new ArrayList<>(project.markers);
+		final Set<String> usedFeatures = new HashSet<>(composer.getUsedFeatures());
+		assertFalse(markers.isEmpty());
+		assertTrue(usedFeatures.contains("A"));
+
+		// the builder deletes all markers before a build
+		project.markers.clear();
+		composer.build(projectProxy, files, "A");
+		assertEquals(1, sourceFile.reads);
+		assertEquals(markers, project.markers);
+		assertEquals(usedFeatures, composer.getUsedFeatures());
+	}
+
+	@Test
+	public void testChangedSelection() throws Exception {
+		composer.build(projectProxy, files, "A");
+		assertEquals(1, sourceFile.reads);
+
+		// B is not referenced by the file
+		composer.build(projectProxy, files, "A", "B");
+		assertEquals(1, sourceFile.reads);
+
+		composer.build(projectProxy, files, "B");
+		assertEquals(2, sourceFile.reads);
+	}
+
+	@Test
+	public void testChangedFeatureModel() throws Exception {
+		composer.build(projectProxy, files, "A");
+		assertEquals(1, sourceFile.reads);
+
+		addFeature("D");
+		composer.build(projectProxy, files, "A");
+		assertEquals(2, sourceFile.reads);
+	}
+
+}
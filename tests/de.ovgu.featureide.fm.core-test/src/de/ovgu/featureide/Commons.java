@@ -24,8 +24,14 @@ import java.io.File;
 import java.io.FileFilter;
 import java.util.List;
 
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.ModelType;
 import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
 
 /**
@@ -45,6 +51,22 @@ public class Commons {
 
 	private static final String TEST_FEATURE_MODEL_PATH = "testFeatureModels/";
 
+	/**
+	 * Test models that are small enough to enumerate all of their solutions.
+	 */
+	public static final String[] SMALL_TEST_MODELS = { "car.xml", "false_optional_test.xml", "omitMandatory.xml" };
+
+	/**
+	 * Benchmark models with several hundred features.
+	 */
+	public static final String[] LARGE_BENCHMARK_MODELS = { "100-100.xml", "200-100.xml", "500-101.xml", "berkeley_db_model.xml" };
+
+	/**
+	 * Benchmark models for the feature model analyses, including a model with core, dead, and false-optional features.
+	 */
+	public static final String[] ANALYSIS_BENCHMARK_MODELS =
+		{ "100-100.xml", "200-100.xml", "500-101.xml", "berkeley_db_model.xml", "issue_264_model_optional.xml" };
+
 	public final static IFeatureModel loadBenchmarkFeatureModelFromFile(final String filename) {
 		return loadFeatureModelFromFile(filename, getRemoteOrLocalFolder(BENCHMARK_FEATURE_MODEL_PATH));
 	}
@@ -53,6 +75,21 @@ public class Commons {
 		return loadFeatureModelFromFile(filename, getRemoteOrLocalFolder(TEST_FEATURE_MODEL_PATH));
 	}
 
+	/**
+	 * Creates the regular CNF of the given feature model without boolean values. The variables are the features in preorder.
+	 *
+	 * @param fm the feature model
+	 * @return the CNF as {@link SatInstance}
+	 */
+	public static SatInstance createSatInstance(IFeatureModel fm) {
+		final AdvancedNodeCreator nodeCreator = new AdvancedNodeCreator(fm);
+		nodeCreator.setCnfType(CNFType.Regular);
+		nodeCreator.setIncludeBooleanValues(false);
+		nodeCreator.setUseOldNames(false);
+		nodeCreator.setModelType(ModelType.All);
+		return new SatInstance(nodeCreator.createNodes(), FeatureUtils.getFeatureNamesPreorder(fm));
+	}
+
 	/**
 	 * Loads a feature model from the file <code>featureModelXmlFilename</code> from a given <code>remotePath</code>, or if <code>remotePath</code> is not
 	 * available, from <code>localClassPath</code>. The search for the file excludes files that don't have the same file extension as
@@ -22,6 +22,7 @@ package de.ovgu.featureide.fm.core;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
@@ -29,11 +30,17 @@ import java.io.FileFilter;
 import java.util.HashMap;
 
 import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.SatSolver;
+import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.Commons;
 import de.ovgu.featureide.fm.core.base.IConstraint;
 import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.explanations.Explanation;
 import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
 
 /**
@@ -287,4 +294,35 @@ public class TFeatureModelAnalyzer {
 		assertTrue(FM4_F1.getProperty().getFeatureStatus() == FeatureStatus.INDETERMINATE_HIDDEN);
 	}
 
+	private static boolean isValid(Explanation<?> explanation) throws TimeoutException {
+		final Node node = new And(explanation.toNode(), new Not(explanation.getImplication()));
+		return !new SatSolver(node, 1000).isSatisfiable();
+	}
+
+	@Test
+	public void TCalculateExplanations() throws TimeoutException {
+		for (final IFeatureModel fm : new IFeatureModel[] { FM_test_2, FM_test_3, FM_test_7, FM_test_8 }) {
+			final FeatureModelAnalyzer analyzer = fm.getAnalyser();
+			analyzer.numberOfThreads = 3;
+			analyzer.calculateExplanations(null);
+			for (final IFeature feature : analyzer.getCachedDeadFeatures()) {
+				final Explanation<?> explanation = analyzer.getDeadFeatureExplanation(feature);
+				assertNotNull(feature.getName(), explanation);
+				assertTrue(feature.getName(), isValid(explanation));
+			}
+			for (final IFeature feature : analyzer.getCachedFalseOptionalFeatures()) {
+				final Explanation<?> explanation = analyzer.getFalseOptionalFeatureExplanation(feature);
+				assertNotNull(feature.getName(), explanation);
+				assertTrue(feature.getName(), isValid(explanation));
+			}
+			for (final IConstraint constraint : fm.getConstraints()) {
+				if (constraint.getConstraintAttribute() == ConstraintAttribute.REDUNDANT) {
+					final Explanation<?> explanation = analyzer.getRedundantConstraintExplanation(constraint);
+					assertNotNull(constraint.toString(), explanation);
+					assertTrue(constraint.toString(), isValid(explanation));
+				}
+			}
+		}
+	}
+
 }
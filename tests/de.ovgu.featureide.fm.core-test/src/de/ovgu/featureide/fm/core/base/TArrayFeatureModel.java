@@ -0,0 +1,217 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.base;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.impl.ArrayFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.ArrayFeatureModelFactory;
+import de.ovgu.featureide.fm.core.functional.Functional;
+import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
+import de.ovgu.featureide.fm.core.io.xml.XmlFeatureModelFormat;
+
+/**
+ * Tests for {@link ArrayFeatureModel}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TArrayFeatureModel {
+
+	private static final String[] MODELS = { "car.xml", "false_optional_test.xml", "omitMandatory.xml", "berkeley_db_model.xml" };
+
+	private static final IFeatureModelFactory factory = ArrayFeatureModelFactory.getInstance();
+
+	private static ArrayFeatureModel load(String name) {
+		final File folder = Commons.getRemoteOrLocalFolder("testFeatureModels/");
+		final ArrayFeatureModel featureModel = (ArrayFeatureModel) factory.createFeatureModel();
+		assertFalse(name, SimpleFileHandler.load(new File(folder, name).toPath(), featureModel, new XmlFeatureModelFormat()).containsError());
+		return featureModel;
+	}
+
+	private static void assertEqualStructure(String message, IFeatureModel expected, IFeatureModel actual) {
+		assertEquals(message, FeatureUtils.getFeatureNamesPreorder(expected), FeatureUtils.getFeatureNamesPreorder(actual));
+		assertEquals(message, expected.getNumberOfFeatures(), actual.getNumberOfFeatures());
+		assertEquals(message, expected.getConstraintCount(), actual.getConstraintCount());
+		for (final IFeature expectedFeature : expected.getFeatures()) {
+			final IFeature actualFeature = actual.getFeature(expectedFeature.getName());
+			final IFeatureStructure expectedStructure = expectedFeature.getStructure();
+			final IFeatureStructure actualStructure = actualFeature.getStructure();
+			final String featureMessage = message + ": " + expectedFeature.getName();
+			assertEquals(featureMessage, expectedStructure.isRoot(), actualStructure.isRoot());
+			if (!expectedStructure.isRoot()) {
+				assertEquals(featureMessage, expectedStructure.getParent().getFeature().getName(), actualStructure.getParent().getFeature().getName());
+			}
+			assertEquals(featureMessage, expectedStructure.getChildrenCount(), actualStructure.getChildrenCount());
+			assertEquals(featureMessage, expectedStructure.isAnd(), actualStructure.isAnd());
+			assertEquals(featureMessage, expectedStructure.isOr(), actualStructure.isOr());
+			assertEquals(featureMessage, expectedStructure.isAlternative(), actualStructure.isAlternative());
+			assertEquals(featureMessage, expectedStructure.isMandatory(), actualStructure.isMandatory());
+			assertEquals(featureMessage, expectedStructure.isAbstract(), actualStructure.isAbstract());
+			assertEquals(featureMessage, expectedStructure.isHidden(), actualStructure.isHidden());
+			assertEquals(featureMessage, expectedStructure.hasHiddenParent(), actualStructure.hasHiddenParent());
+		}
+	}
+
+	@Test
+	public void testLoad() {
+		for (final String name : MODELS) {
+			final ArrayFeatureModel featureModel = load(name);
+			assertEqualStructure(name, Commons.loadTestFeatureModelFromFile(name), featureModel);
+			final Iterable<String> preorderNames = FeatureUtils.extractFeatureNames(featureModel.getStructure().getFeaturesPreorder());
+			assertEquals(name, FeatureUtils.getFeatureNamesPreorder(featureModel), Functional.toList(preorderNames));
+			assertEqualStructure(name, featureModel, featureModel.clone());
+		}
+	}
+
+	@Test
+	public void testSaveAndReload() {
+		final ArrayFeatureModel featureModel = load("berkeley_db_model.xml");
+		final XmlFeatureModelFormat format = new XmlFeatureModelFormat();
+		final ArrayFeatureModel reloadedFeatureModel = (ArrayFeatureModel) factory.createFeatureModel();
+		assertFalse(SimpleFileHandler.loadFromString(SimpleFileHandler.saveToString(featureModel, format), reloadedFeatureModel, format).containsError());
+		assertEqualStructure("berkeley_db_model.xml", featureModel, reloadedFeatureModel);
+	}
+
+	@Test
+	public void testEditing() {
+		final ArrayFeatureModel featureModel = load("car.xml");
+		final IFeatureModel defaultFeatureModel = Commons.loadTestFeatureModelFromFile("car.xml");
+		final List<String> names = new ArrayList<>(FeatureUtils.getFeatureNamesPreorder(defaultFeatureModel));
+		for (final String name : names.subList(1, names.size())) {
+			if (defaultFeatureModel.getFeature(name).getStructure().hasChildren()) {
+				assertTrue(name, defaultFeatureModel.deleteFeature(defaultFeatureModel.getFeature(name)));
+				assertTrue(name, featureModel.deleteFeature(featureModel.getFeature(name)));
+				assertNull(name, featureModel.getFeature(name));
+				assertEqualStructure(name, defaultFeatureModel, featureModel);
+			}
+		}
+
+		final String oldName = names.get(names.size() - 1);
+		assertTrue(defaultFeatureModel.getRenamingsManager().renameFeature(oldName, "renamed"));
+		assertTrue(featureModel.getRenamingsManager().renameFeature(oldName, "renamed"));
+		assertNull(featureModel.getFeature(oldName));
+		assertEqualStructure("rename", defaultFeatureModel, featureModel);
+
+		final IFeatureStructure root = featureModel.getStructure().getRoot();
+		final IFeatureStructure first = root.getFirstChild();
+		final IFeatureStructure last = root.getLastChild();
+		root.removeChild(first);
+		root.addChildAtPosition(root.getChildrenCount(), first);
+		assertSame(first, root.getLastChild());
+		assertEquals(root.getChildrenCount() - 1, root.getChildIndex(first));
+		assertEquals(root.getChildrenCount() - 2, root.getChildIndex(last));
+		assertSame(root, first.getParent());
+	}
+
+	@Test
+	public void testClone() {
+		final ArrayFeatureModel featureModel = load("berkeley_db_model.xml");
+		final ArrayFeatureModel reference = load("berkeley_db_model.xml");
+		final IFeature feature = featureModel.getFeature("featureLoggingFile");
+		feature.getProperty().setDescription("description");
+		feature.getCustomProperties().set("key", IPropertyContainer.Type.STRING, "value");
+
+		final ArrayFeatureModel clone = featureModel.clone();
+		assertEqualStructure("clone", featureModel, clone);
+		final IFeature clonedFeature = clone.getFeature("featureLoggingFile");
+		assertEquals(feature, clonedFeature);
+		assertEquals("description", clonedFeature.getProperty().getDescription());
+		assertEquals("value", clonedFeature.getCustomProperties().get("key"));
+
+		// modify the clone
+		clonedFeature.getProperty().setDescription("changed");
+		clonedFeature.getCustomProperties().set("key", IPropertyContainer.Type.STRING, "changed");
+		clonedFeature.getStructure().setAbstract(true);
+		clone.addFeature("NewFeature", clone.getRootIndex());
+		assertTrue(clone.deleteFeature(clone.getFeature("IO")));
+		assertTrue(clone.getRenamingsManager().renameFeature("Evictor", "renamed"));
+
+		assertEquals("description", feature.getProperty().getDescription());
+		assertEquals("value", feature.getCustomProperties().get("key"));
+		assertFalse(feature.getStructure().isAbstract());
+		assertEqualStructure("original", reference, featureModel);
+		assertNull(featureModel.getFeature("renamed"));
+
+		// modify the original
+		final ArrayFeatureModel secondClone = clone.clone();
+		assertTrue(featureModel.deleteFeature(featureModel.getFeature("Logging")));
+		featureModel.getFeature("featureLoggingBase").getStructure().setMandatory(false);
+		assertNull(featureModel.getFeature("Logging"));
+		assertEquals("changed", clone.getFeature("featureLoggingFile").getProperty().getDescription());
+		assertEquals("changed", clone.getFeature("featureLoggingFile").getCustomProperties().get("key"));
+		assertEquals(featureModel.getNumberOfFeatures() + 1, clone.getNumberOfFeatures());
+		assertEqualStructure("second clone", secondClone, clone);
+
+		final IFeatureModel subtree = clone.clone(clone.getFeature("Logging"));
+		assertEquals(FeatureUtils.getFeatureNamesPreorder(subtree).size(), subtree.getNumberOfFeatures());
+		assertEquals("changed", subtree.getFeature("featureLoggingFile").getProperty().getDescription());
+	}
+
+	@Test
+	public void testIndexBasedAccess() {
+		final ArrayFeatureModel featureModel = (ArrayFeatureModel) factory.createFeatureModel();
+		final int numberOfFeatures = 100000;
+		final int root = featureModel.addFeature("F0", ArrayFeatureModel.NONE);
+		featureModel.setAbstract(root, true);
+		for (int i = 1; i < numberOfFeatures; i++) {
+			final int feature = featureModel.addFeature("F" + i, (i - 1) / 10);
+			assertEquals(i, feature);
+			featureModel.setMandatory(feature, (i % 2) == 0);
+			if ((i % 10) == 0) {
+				featureModel.setGroupType((i - 1) / 10, ArrayFeatureModel.GROUP_ALTERNATIVE);
+			}
+		}
+		assertEquals(ArrayFeatureModel.NONE, featureModel.addFeature("F1", root));
+		assertEquals(numberOfFeatures, featureModel.getNumberOfFeatures());
+
+		final int[] preOrder = featureModel.getPreOrder();
+		assertEquals(numberOfFeatures, preOrder.length);
+		assertEquals(root, preOrder[0]);
+		assertEquals(1, preOrder[1]);
+		assertEquals(11, preOrder[2]);
+		assertEquals(10, featureModel.getChildrenCount(root));
+
+		final IFeature feature = featureModel.getFeature("F123");
+		assertSame(feature, featureModel.getFeature(123));
+		assertEquals("F12", feature.getStructure().getParent().getFeature().getName());
+		assertTrue(feature.getStructure().getParent().isAlternative());
+		assertTrue(feature.getStructure().isMandatory());
+		assertTrue(featureModel.getFeature("F0").getStructure().isAbstract());
+		assertEquals(featureModel.getFeatureName(13), featureModel.getFeature("F1").getStructure().getChildren().get(2).getFeature().getName());
+
+		final ArrayFeatureModel clone = featureModel.clone();
+		assertEquals(numberOfFeatures, clone.getNumberOfFeatures());
+		assertEquals(numberOfFeatures, clone.getPreOrder().length);
+		assertTrue(clone.getFeature("F123").getStructure().getParent().isAlternative());
+	}
+
+}
@@ -0,0 +1,176 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.conf;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.prop4j.analyses.FGBuilder;
+import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.ISatSolver.SatResult;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.specs.ContradictionException;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.io.FeatureGraphFormat;
+import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link SparseFeatureGraph}, {@link FGBuilder}, and {@link FeatureGraphFormat}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TSparseFeatureGraph {
+
+	private static final byte[] EDGE_TYPES = { AFeatureGraph.EDGE_NONE, AFeatureGraph.EDGE_00Q, AFeatureGraph.EDGE_00, AFeatureGraph.EDGE_01Q,
+		AFeatureGraph.EDGE_01, AFeatureGraph.EDGE_10Q, AFeatureGraph.EDGE_10, AFeatureGraph.EDGE_11Q, AFeatureGraph.EDGE_11 };
+
+	private static boolean isSatisfiable(SatInstance si, int... assumptions) throws ContradictionException {
+		final BasicSolver solver = new BasicSolver(si);
+		for (final int assumption : assumptions) {
+			solver.assignmentPush(assumption);
+		}
+		return solver.isSatisfiable() == SatResult.TRUE;
+	}
+
+	@Test
+	public void testSetEdge() {
+		final int[] index = new int[20];
+		for (int i = 0; i < index.length; i++) {
+			index[i] = i;
+		}
+		final MatrixFeatureGraph matrixGraph = new MatrixFeatureGraph(null, index);
+		final SparseFeatureGraph sparseGraph = new SparseFeatureGraph(null, index);
+		final Random random = new Random(0);
+		for (int k = 0; k < 5000; k++) {
+			final int from = random.nextInt(index.length);
+			final int to = random.nextInt(index.length);
+			byte edgeType = EDGE_TYPES[random.nextInt(EDGE_TYPES.length)];
+			// strong edges must not contradict each other
+			final byte edge = matrixGraph.getEdge(from, to);
+			if (((edgeType == AFeatureGraph.EDGE_00) && AFeatureGraph.isEdge(edge, AFeatureGraph.EDGE_01))
+				|| ((edgeType == AFeatureGraph.EDGE_01) && AFeatureGraph.isEdge(edge, AFeatureGraph.EDGE_00))
+				|| ((edgeType == AFeatureGraph.EDGE_10) && AFeatureGraph.isEdge(edge, AFeatureGraph.EDGE_11))
+				|| ((edgeType == AFeatureGraph.EDGE_11) && AFeatureGraph.isEdge(edge, AFeatureGraph.EDGE_10))) {
+				edgeType = AFeatureGraph.EDGE_NONE;
+			}
+			assertEquals(matrixGraph.setEdge(from, to, edgeType), sparseGraph.setEdge(from, to, edgeType));
+		}
+		int numberOfEdges = 0;
+		for (int i = 0; i < index.length; i++) {
+			int next = 0;
+			for (int j = 0; j < index.length; j++) {
+				assertEquals(matrixGraph.getEdge(i, j), sparseGraph.getEdge(i, j));
+				assertEquals(matrixGraph.getValue(i, j, true), sparseGraph.getValue(i, j, true));
+				assertEquals(matrixGraph.getValue(i, j, false), sparseGraph.getValue(i, j, false));
+				if (sparseGraph.getEdge(i, j) != AFeatureGraph.EDGE_NONE) {
+					assertEquals(j, sparseGraph.getNextNeighbor(i, next));
+					assertEquals(j, matrixGraph.getNextNeighbor(i, next));
+					next = j + 1;
+					numberOfEdges++;
+				}
+			}
+			assertEquals(-1, sparseGraph.getNextNeighbor(i, next));
+		}
+		assertEquals(numberOfEdges, sparseGraph.getNumberOfEdges());
+	}
+
+	@Test
+	public void testImplications() throws ContradictionException {
+		for (final IFeatureModel fm : new IFeatureModel[] { Commons.loadTestFeatureModelFromFile("car.xml"),
+			Commons.loadBenchmarkFeatureModelFromFile("10-100.xml") }) {
+			final SatInstance si = Commons.createSatInstance(fm);
+			final IFeatureGraph featureGraph = LongRunningWrapper.runMethod(new FGBuilder(si));
+			assertNotNull(featureGraph);
+			assertTrue(featureGraph instanceof SparseFeatureGraph);
+
+			final int[] index = featureGraph.getIndex();
+			for (int i = 0; i < index.length; i++) {
+				final int x = i + 1;
+				if (index[i] == -1) {
+					assertFalse(isSatisfiable(si, -x));
+				} else if (index[i] == -2) {
+					assertFalse(isSatisfiable(si, x));
+				} else {
+					assertTrue(isSatisfiable(si, x));
+					assertTrue(isSatisfiable(si, -x));
+				}
+			}
+			for (int i = 0; i < index.length; i++) {
+				if (index[i] < 0) {
+					continue;
+				}
+				for (int j = 0; j < index.length; j++) {
+					if ((i == j) || (index[j] < 0)) {
+						continue;
+					}
+					for (final boolean selected : new boolean[] { true, false }) {
+						final int x = selected ? (i + 1) : -(i + 1);
+						final boolean impliesSelected = !isSatisfiable(si, x, -(j + 1));
+						final boolean impliesDeselected = !isSatisfiable(si, x, j + 1);
+						final byte value = featureGraph.getValue(index[i], index[j], selected);
+						assertEquals(x + " => " + (j + 1), impliesSelected, value == AFeatureGraph.VALUE_1);
+						assertEquals(x + " => " + -(j + 1), impliesDeselected, value == AFeatureGraph.VALUE_0);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testFormat() {
+		final SatInstance si = Commons.createSatInstance(Commons.loadBenchmarkFeatureModelFromFile("berkeley_db_model.xml"));
+		final IFeatureGraph featureGraph = LongRunningWrapper.runMethod(new FGBuilder(si));
+		final FeatureGraphFormat format = new FeatureGraphFormat();
+		final SparseFeatureGraph readGraph = new SparseFeatureGraph();
+		assertFalse(SimpleFileHandler.loadFromString(SimpleFileHandler.saveToString(featureGraph, format), readGraph, format).containsError());
+
+		assertArrayEquals(featureGraph.getIndex(), readGraph.getIndex());
+		assertEquals(featureGraph.getSize(), readGraph.getSize());
+		assertEquals(((SparseFeatureGraph) featureGraph).getNumberOfEdges(), readGraph.getNumberOfEdges());
+		for (int i = 0; i < featureGraph.getSize(); i++) {
+			assertArrayEquals(((SparseFeatureGraph) featureGraph).getNeighbors(i), readGraph.getNeighbors(i));
+		}
+		for (int i = 1; i <= si.getNumberOfVariables(); i++) {
+			assertEquals(si.getVariableObject(i), readGraph.getSatInstance().getVariableObject(i));
+			final String name = (String) si.getVariableObject(i);
+			if (featureGraph.getIndex()[i - 1] >= 0) {
+				assertEquals(featureGraph.getFeatureIndex(name), readGraph.getFeatureIndex(name));
+			}
+		}
+
+		final MatrixFeatureGraph matrixGraph = new MatrixFeatureGraph();
+		assertFalse(SimpleFileHandler.loadFromString(SimpleFileHandler.saveToString(featureGraph, format), matrixGraph, format).containsError());
+		assertEquals(SimpleFileHandler.saveToString(featureGraph, format), SimpleFileHandler.saveToString(matrixGraph, format));
+
+		assertTrue(SimpleFileHandler.loadFromString("fg 2 2\ni 0 1\ne 1 8\n", new SparseFeatureGraph(), format).containsError());
+		assertTrue(SimpleFileHandler.loadFromString("e 1 8\n", new SparseFeatureGraph(), format).containsError());
+	}
+
+}
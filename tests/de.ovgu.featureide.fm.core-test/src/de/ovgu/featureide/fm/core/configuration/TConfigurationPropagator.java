@@ -0,0 +1,155 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.io.SolutionListReader;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests about the reuse of the solver and the compiled formula in {@link ConfigurationPropagator}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TConfigurationPropagator extends AbstractConfigurationTest {
+
+	@Override
+	IFeatureModel loadModel() {
+		return Commons.loadBenchmarkFeatureModelFromFile("berkeley_db_model.xml");
+	}
+
+	/**
+	 * Selects random undecided features and compares the result of each update with a new configuration.
+	 */
+	private void checkRandomSelections(Configuration configuration, boolean compiled) {
+		final Random random = new Random(0);
+		final List<String> manualFeatures = new ArrayList<>();
+		final List<Selection> manualSelections = new ArrayList<>();
+		for (int i = 0; i < 15; i++) {
+			final List<SelectableFeature> undecidedFeatures = new ArrayList<>();
+			for (final SelectableFeature feature : configuration.getFeatures()) {
+				if (feature.getSelection() == Selection.UNDEFINED) {
+					undecidedFeatures.add(feature);
+				}
+			}
+			if (undecidedFeatures.isEmpty()) {
+				break;
+			}
+			final SelectableFeature feature = undecidedFeatures.get(random.nextInt(undecidedFeatures.size()));
+			final Selection selection = random.nextBoolean() ? Selection.SELECTED : Selection.UNSELECTED;
+			configuration.setManual(feature, selection);
+			manualFeatures.add(feature.getName());
+			manualSelections.add(selection);
+
+			final Configuration reference = new Configuration(fm);
+			for (int j = 0; j < manualFeatures.size(); j++) {
+				reference.setManual(manualFeatures.get(j), manualSelections.get(j));
+			}
+			for (final SelectableFeature referenceFeature : reference.getFeatures()) {
+				final SelectableFeature actualFeature = configuration.getSelectablefeature(referenceFeature.getName());
+				assertEquals(referenceFeature.getName(), referenceFeature.getSelection(), actualFeature.getSelection());
+				assertEquals(referenceFeature.getName(), referenceFeature.getAutomatic(), actualFeature.getAutomatic());
+			}
+			assertEquals(reference.isValid(), configuration.isValid());
+			assertEquals(reference.canBeValid(), configuration.canBeValid());
+			if (compiled) {
+				assertEquals(reference.number(0, true), configuration.number(0, true));
+			}
+		}
+	}
+
+	@Test
+	public void testRepeatedUpdates() {
+		checkRandomSelections(new Configuration(fm), false);
+	}
+
+	@Test
+	public void testClone() {
+		final Configuration configuration = new Configuration(fm);
+		final Configuration clone = configuration.clone();
+		checkRandomSelections(clone, false);
+		checkRandomSelections(configuration, false);
+	}
+
+	@Test
+	public void testCompiled() throws IOException {
+		final Path cacheFile = Files.createTempFile("model", ".nnf");
+		try {
+			Files.delete(cacheFile);
+
+			final Configuration configuration = new Configuration(fm);
+			final ConfigurationPropagator propagator = (ConfigurationPropagator) configuration.getPropagator();
+			assertFalse(propagator.isCompiled());
+			LongRunningWrapper.runMethod(propagator.compile(cacheFile));
+			assertTrue(propagator.isCompiled());
+			assertTrue(Files.exists(cacheFile));
+			checkRandomSelections(configuration, true);
+
+			final Configuration cachedConfiguration = new Configuration(fm);
+			final ConfigurationPropagator cachedPropagator = (ConfigurationPropagator) cachedConfiguration.getPropagator();
+			LongRunningWrapper.runMethod(cachedPropagator.compile(cacheFile));
+			assertTrue(cachedPropagator.isCompiled());
+			assertEquals(new Configuration(fm).number(0, true), cachedConfiguration.number(0, true));
+			checkRandomSelections(cachedConfiguration, true);
+		} finally {
+			Files.deleteIfExists(cacheFile);
+		}
+	}
+
+	@Test
+	public void testWriteSolutions() throws IOException {
+		final Path solutionFile = Files.createTempFile("solutions", ".bin");
+		try {
+			final Configuration configuration = new Configuration(fm);
+			final SelectableFeature feature = configuration.getSelectablefeature("Logging");
+			configuration.setManual(feature, Selection.SELECTED);
+			final ConfigurationPropagator propagator = (ConfigurationPropagator) configuration.getPropagator();
+			assertEquals(50, LongRunningWrapper.runMethod(propagator.writeSolutions(50, solutionFile)).getNumberOfSolutions());
+
+			try (SolutionListReader reader = new SolutionListReader(solutionFile)) {
+				final int index = reader.getVariableNames().indexOf("Logging");
+				int count = 0;
+				while (reader.hasNext()) {
+					assertTrue(reader.next()[index] > 0);
+					count++;
+				}
+				assertEquals(50, count);
+			}
+		} finally {
+			Files.deleteIfExists(solutionFile);
+		}
+	}
+
+}
@@ -0,0 +1,115 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.editing;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.prop4j.Node;
+import org.prop4j.solver.ClauseList;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.ModelType;
+
+/**
+ * Tests for {@link AdvancedNodeCreator#createSatInstance()}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TAdvancedNodeCreator {
+
+	private static final String[] TEST_MODELS = { "car.xml", "apl_model.xml", "false_optional_test.xml", "omitMandatory.xml", "gpl_medium_model.xml" };
+
+	private static final String[] BENCHMARK_MODELS = { "500-101.xml", "berkeley_db_model.xml" };
+
+	private static List<Object> getVariables(SatInstance satInstance) {
+		final List<Object> variables = new ArrayList<>();
+		for (int i = 1; i <= satInstance.getNumberOfVariables(); i++) {
+			variables.add(satInstance.getVariableObject(i));
+		}
+		return variables;
+	}
+
+	/**
+	 * Compares the directly created clauses with the clauses converted from the created nodes.
+	 */
+	private static void checkClauses(String model, IFeatureModel fm) {
+		for (final ModelType modelType : ModelType.values()) {
+			for (final boolean includeBooleanValues : new boolean[] { false, true }) {
+				final AdvancedNodeCreator nodeCreator = new AdvancedNodeCreator(fm);
+				nodeCreator.setCnfType(CNFType.Regular);
+				nodeCreator.setIncludeBooleanValues(includeBooleanValues);
+				nodeCreator.setUseOldNames(false);
+				nodeCreator.setModelType(modelType);
+
+				final SatInstance actual = nodeCreator.createSatInstance();
+				final Node expectedCnf = nodeCreator.createNodes();
+				// the variables True and False are replaced by their names
+				assertEquals(model, expectedCnf.toString(), actual.getCnf().toString());
+
+				if (!includeBooleanValues) {
+					final ClauseList expectedClauses = new SatInstance(expectedCnf, getVariables(actual)).getClauses();
+					final ClauseList actualClauses = actual.getClauses();
+					assertEquals(model, expectedClauses.size(), actualClauses.size());
+					for (int i = 0; i < expectedClauses.size(); i++) {
+						assertArrayEquals(model, expectedClauses.getClause(i), actualClauses.getClause(i));
+					}
+				}
+				assertEquals(model, FeatureUtils.getFeatureNamesPreorder(fm),
+						getVariables(actual).subList(0, fm.getNumberOfFeatures()));
+			}
+		}
+	}
+
+	@Test
+	public void testClauses() {
+		for (final String model : TEST_MODELS) {
+			checkClauses(model, Commons.loadTestFeatureModelFromFile(model));
+		}
+		for (final String model : BENCHMARK_MODELS) {
+			checkClauses(model, Commons.loadBenchmarkFeatureModelFromFile(model));
+		}
+	}
+
+	@Test
+	public void testExcludedFeatures() {
+		final IFeatureModel fm = Commons.loadTestFeatureModelFromFile("car.xml");
+		final String excludedFeature = FeatureUtils.getFeatureNamesPreorder(fm).get(1);
+		final AdvancedNodeCreator nodeCreator = new AdvancedNodeCreator(fm, Collections.singleton(excludedFeature));
+		nodeCreator.setCnfType(CNFType.Regular);
+		nodeCreator.setIncludeBooleanValues(false);
+		nodeCreator.setUseOldNames(false);
+
+		final SatInstance satInstance = nodeCreator.createSatInstance();
+		assertEquals(fm.getNumberOfFeatures() - 1, satInstance.getNumberOfVariables());
+		assertEquals(nodeCreator.createNodes(), satInstance.getCnf());
+	}
+
+}
@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.fm.core.explanations.fm;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
@@ -27,6 +28,8 @@ import org.junit.Test;
 import de.ovgu.featureide.Commons;
 import de.ovgu.featureide.fm.core.base.IConstraint;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.explanations.Reason;
+import de.ovgu.featureide.fm.core.explanations.fm.impl.mus.MusFeatureModelExplanationCreatorFactory;
 
 /**
  * Tests for {@link RedundantConstraintExplanationCreator}.
@@ -50,6 +53,22 @@ public class RedundantConstraintExplanationCreatorTests
 		assertTrue(isValid(c.getExplanation()));
 	}
 
+	@Test
+	public void testCarMusReused() {
+		final RedundantConstraintExplanationCreator c = new MusFeatureModelExplanationCreatorFactory().getRedundantConstraintExplanationCreator();
+		final IFeatureModel fm = Commons.loadTestFeatureModelFromFile("car.xml");
+		c.setFeatureModel(fm);
+		for (final int i : new int[] { 3, 0, 1, 0, 3 }) {
+			final IConstraint constraint = fm.getConstraints().get(i);
+			c.setSubject(constraint);
+			final RedundantConstraintExplanation explanation = c.getExplanation();
+			assertTrue(isValid(explanation));
+			for (final Reason<?> reason : explanation.getReasons()) {
+				assertFalse(((FeatureModelReason) reason).getSubject().getElements().contains(constraint));
+			}
+		}
+	}
+
 	@Override
 	protected RedundantConstraintExplanationCreator getInstance() {
 		return FeatureModelExplanationCreatorFactory.getDefault().getRedundantConstraintExplanationCreator();
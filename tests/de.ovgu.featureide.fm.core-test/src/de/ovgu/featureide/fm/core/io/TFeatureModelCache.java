@@ -0,0 +1,275 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.solver.ClauseList;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent.EventType;
+import de.ovgu.featureide.fm.core.base.impl.DefaultFeatureModelFactory;
+import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
+import de.ovgu.featureide.fm.core.io.xml.XmlFeatureModelFormat;
+
+/**
+ * Tests for {@link FeatureModelCache} and its usage in {@link FeatureModelManager}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TFeatureModelCache {
+
+	private static final XmlFeatureModelFormat format = new XmlFeatureModelFormat();
+
+	private static IFeatureModel read(String content) {
+		final IFeatureModel featureModel = DefaultFeatureModelFactory.getInstance().createFeatureModel();
+		assertFalse(format.read(featureModel, content).containsError());
+		return featureModel;
+	}
+
+	private static List<String> getNames(Collection<IFeature> features) {
+		final List<String> names = new ArrayList<>();
+		for (final IFeature feature : features) {
+			names.add(feature.getName());
+		}
+		Collections.sort(names);
+		return names;
+	}
+
+	private static void delete(Path directory) throws IOException {
+		Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				Files.delete(file);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+				Files.delete(dir);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	private static void checkRoundTrip(String modelName, String content, Path cacheFile) throws IOException {
+		final IFeatureModel featureModel = read(content);
+		final long hash = FeatureModelCache.computeHash(content);
+		final Map<String, int[]> results = new LinkedHashMap<>();
+		results.put(FeatureModelCache.RESULT_CORE_FEATURES, new int[] { 1, 3 });
+		final Node cnf = featureModel.getAnalyser().getCnf();
+		FeatureModelCache.write(cacheFile, hash, featureModel, cnf, results);
+
+		final FeatureModelCache cache = FeatureModelCache.open(cacheFile, hash);
+		assertNotNull(modelName, cache);
+		final IFeatureModel cachedFeatureModel = DefaultFeatureModelFactory.getInstance().createFeatureModel();
+		cache.readFeatureModel(cachedFeatureModel);
+		assertEquals(modelName, format.write(featureModel), format.write(cachedFeatureModel));
+		assertTrue(modelName, Arrays.equals(new int[] { 1, 3 }, cache.getAnalysisResult(FeatureModelCache.RESULT_CORE_FEATURES)));
+		assertNull(modelName, cache.getAnalysisResult(FeatureModelCache.RESULT_DEAD_FEATURES));
+
+		final List<String> variables = FeatureUtils.getFeatureNamesPreorder(featureModel);
+		final SatInstance satInstance = new SatInstance(cnf, variables);
+		final SatInstance cachedSatInstance = cache.getSatInstance();
+		if (satInstance.getNumberOfVariables() > variables.size()) {
+			assertNull(modelName, cachedSatInstance);
+		} else {
+			assertNotNull(modelName, cachedSatInstance);
+			assertEquals(modelName, variables, cache.getVariables());
+			final ClauseList clauses = satInstance.getClauses();
+			final ClauseList cachedClauses = cachedSatInstance.getClauses();
+			assertEquals(modelName, clauses.size(), cachedClauses.size());
+			for (int i = 0; i < clauses.size(); i++) {
+				assertTrue(modelName, Arrays.equals(clauses.getClause(i), cachedClauses.getClause(i)));
+			}
+		}
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		final Path cacheFile = Files.createTempFile("model", "." + FeatureModelCache.SUFFIX);
+		try {
+			for (final String folder : new String[] { "testFeatureModels/", "benchmarkFeatureModels/" }) {
+				for (final File file : Commons.getRemoteOrLocalFolder(folder).listFiles()) {
+					if (file.getName().endsWith(".xml")) {
+						final String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+						if (!format.read(DefaultFeatureModelFactory.getInstance().createFeatureModel(), content).containsError()) {
+							checkRoundTrip(file.getName(), content, cacheFile);
+						}
+					}
+				}
+			}
+		} finally {
+			Files.deleteIfExists(cacheFile);
+		}
+	}
+
+	@Test
+	public void testValidation() throws IOException {
+		final Path cacheFile = Files.createTempFile("model", "." + FeatureModelCache.SUFFIX);
+		try {
+			final IFeatureModel featureModel = Commons.loadTestFeatureModelFromFile("car.xml");
+			final Map<String, int[]> results = Collections.emptyMap();
+			FeatureModelCache.write(cacheFile, 42, featureModel, featureModel.getAnalyser().getCnf(), results);
+			assertNotNull(FeatureModelCache.open(cacheFile, 42));
+			assertNull(FeatureModelCache.open(cacheFile, 43));
+			assertNull(FeatureModelCache.open(cacheFile.resolveSibling(cacheFile.getFileName() + ".missing"), 42));
+
+			final ByteBuffer version = ByteBuffer.allocate(4);
+			version.putInt(FeatureModelCache.VERSION + 1);
+			version.flip();
+			try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.WRITE)) {
+				channel.write(version, 4);
+			}
+			assertNull(FeatureModelCache.open(cacheFile, 42));
+
+			Files.write(cacheFile, new byte[] { 1, 2, 3 });
+			assertNull(FeatureModelCache.open(cacheFile, 42));
+		} finally {
+			Files.deleteIfExists(cacheFile);
+		}
+	}
+
+	@Test
+	public void testFeatureModelManager() throws IOException {
+		final Path directory = Files.createTempDirectory("cache");
+		try {
+			final Path modelFile = directory.resolve("model.xml");
+			Files.copy(new File(Commons.getRemoteOrLocalFolder("testFeatureModels/"), "false_optional_test.xml").toPath(), modelFile);
+
+			final FeatureModelManager manager = FeatureModelManager.getInstance(modelFile);
+			final IFeatureModel featureModel = manager.editObject();
+			featureModel.getAnalyser().analyzeFeatureModel(null);
+			assertTrue(manager.save());
+			assertTrue(Files.exists(FeatureModelManager.getCachePath(modelFile)));
+			manager.dispose();
+
+			final IFeatureModel cachedFeatureModel = FeatureModelManager.load(modelFile).getObject();
+			assertEquals(format.write(featureModel), format.write(cachedFeatureModel));
+			assertEquals(Boolean.TRUE, cachedFeatureModel.getAnalyser().getCachedValidity());
+			assertEquals(getNames(featureModel.getAnalyser().getCachedCoreFeatures()), getNames(cachedFeatureModel.getAnalyser().getCachedCoreFeatures()));
+			assertEquals(getNames(featureModel.getAnalyser().getCachedDeadFeatures()), getNames(cachedFeatureModel.getAnalyser().getCachedDeadFeatures()));
+			assertEquals(getNames(featureModel.getAnalyser().getCachedFalseOptionalFeatures()),
+					getNames(cachedFeatureModel.getAnalyser().getCachedFalseOptionalFeatures()));
+			assertFalse(cachedFeatureModel.getAnalyser().getCachedFalseOptionalFeatures().isEmpty());
+
+			assertNotNull(cachedFeatureModel.getAnalyser().getCachedSatInstance());
+			cachedFeatureModel.getAnalyser().analyzeFeatureModel(null);
+			assertEquals(getNames(featureModel.getAnalyser().getCachedFalseOptionalFeatures()),
+					getNames(cachedFeatureModel.getAnalyser().getCachedFalseOptionalFeatures()));
+			cachedFeatureModel.fireEvent(new FeatureIDEEvent(cachedFeatureModel, EventType.MODEL_DATA_CHANGED));
+			assertNull(cachedFeatureModel.getAnalyser().getCachedSatInstance());
+
+			Files.write(modelFile, "\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+			final IFeatureModel parsedFeatureModel = FeatureModelManager.load(modelFile).getObject();
+			assertEquals(format.write(featureModel), format.write(parsedFeatureModel));
+			assertNull(parsedFeatureModel.getAnalyser().getCachedValidity());
+		} finally {
+			delete(directory);
+		}
+	}
+
+	@Test
+	public void testProblems() throws IOException {
+		final Path directory = Files.createTempDirectory("cache");
+		try {
+			final Path modelFile = directory.resolve("model.xml");
+			Files.copy(new File(Commons.getRemoteOrLocalFolder("testFeatureModels/"), "car.xml").toPath(), modelFile);
+
+			final FeatureModelManager manager = FeatureModelManager.getInstance(modelFile);
+			assertTrue(manager.getLastProblems().isEmpty());
+			assertTrue(manager.writeCache());
+			assertNotNull(manager.getCache());
+
+			final String content = new String(Files.readAllBytes(modelFile), StandardCharsets.UTF_8);
+			Files.write(modelFile, content.substring(0, content.length() / 2).getBytes(StandardCharsets.UTF_8));
+			assertFalse(manager.writeCache());
+			assertNull(manager.getCache());
+			manager.dispose();
+
+			assertFalse(FeatureModelManager.load(modelFile).getLastProblems().isEmpty());
+		} finally {
+			delete(directory);
+		}
+	}
+
+	@Test
+	public void testOutdatedResults() throws IOException {
+		final Path directory = Files.createTempDirectory("cache");
+		try {
+			final Path modelFile = directory.resolve("model.xml");
+			Files.copy(new File(Commons.getRemoteOrLocalFolder("testFeatureModels/"), "false_optional_test.xml").toPath(), modelFile);
+
+			final FeatureModelManager manager = FeatureModelManager.getInstance(modelFile);
+			final IFeatureModel featureModel = manager.editObject();
+			featureModel.getAnalyser().analyzeFeatureModel(null);
+			assertTrue(featureModel.getAnalyser().hasCurrentResults());
+
+			final IConstraint constraint =
+				DefaultFeatureModelFactory.getInstance().createConstraint(featureModel, new Literal(featureModel.getStructure().getRoot().getFeature().getName()));
+			featureModel.addConstraint(constraint);
+			featureModel.fireEvent(new FeatureIDEEvent(constraint, EventType.CONSTRAINT_ADD));
+			assertFalse(featureModel.getAnalyser().hasCurrentResults());
+			assertTrue(manager.save());
+			manager.dispose();
+
+			final IFeatureModel cachedFeatureModel = FeatureModelManager.load(modelFile).getObject();
+			assertEquals(format.write(featureModel), format.write(cachedFeatureModel));
+			assertNull(cachedFeatureModel.getAnalyser().getCachedValidity());
+		} finally {
+			delete(directory);
+		}
+	}
+
+}
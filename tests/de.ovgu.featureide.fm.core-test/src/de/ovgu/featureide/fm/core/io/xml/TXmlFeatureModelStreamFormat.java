@@ -0,0 +1,142 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.xml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.prop4j.Literal;
+import org.prop4j.Or;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelFactory;
+import de.ovgu.featureide.fm.core.base.IPropertyContainer.Type;
+import de.ovgu.featureide.fm.core.base.impl.DefaultFeatureModelFactory;
+import de.ovgu.featureide.fm.core.io.Problem;
+import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
+
+/**
+ * Tests the streaming reader and writer of {@link XmlFeatureModelFormat}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TXmlFeatureModelStreamFormat {
+
+	private static final IFeatureModelFactory factory = DefaultFeatureModelFactory.getInstance();
+
+	private static IFeatureModel read(String source) {
+		final IFeatureModel featureModel = factory.createFeatureModel();
+		assertFalse(SimpleFileHandler.loadFromString(source, featureModel, new XmlFeatureModelFormat()).containsError());
+		return featureModel;
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		final XmlFeatureModelFormat format = new XmlFeatureModelFormat();
+		for (final String folder : new String[] { "testFeatureModels/", "benchmarkFeatureModels/" }) {
+			for (final File file : Commons.getRemoteOrLocalFolder(folder).listFiles()) {
+				if (file.getName().endsWith(".xml")) {
+					final IFeatureModel featureModel = read(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+					final String output = format.write(featureModel);
+					final IFeatureModel readFeatureModel = read(output);
+					assertEquals(file.getName(), featureModel.getNumberOfFeatures(), readFeatureModel.getNumberOfFeatures());
+					assertEquals(file.getName(), featureModel.getConstraintCount(), readFeatureModel.getConstraintCount());
+					assertEquals(file.getName(), output, format.write(readFeatureModel));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testSpecialCharacters() {
+		final IFeatureModel featureModel = factory.createFeatureModel();
+		final IFeature root = factory.createFeature(featureModel, "Root");
+		featureModel.addFeature(root);
+		featureModel.getStructure().setRoot(root.getStructure());
+		final String special = "a<b>c&d\"e'f g\nh \u00e9 \ud83d\ude00 \u0085";
+		final String name = "A&B<\"C\">";
+		final IFeature child = factory.createFeature(featureModel, name);
+		featureModel.addFeature(child);
+		root.getStructure().addChild(child.getStructure());
+		child.getStructure().setHidden(true);
+		child.getStructure().setAbstract(true);
+		child.getProperty().setDescription(special);
+		child.getCustomProperties().set("key", Type.STRING, special);
+		final IFeature second = factory.createFeature(featureModel, "B");
+		featureModel.addFeature(second);
+		root.getStructure().addChild(second.getStructure());
+		root.getStructure().setOr();
+		featureModel.addConstraint(factory.createConstraint(featureModel, new Or(new Literal(name), new Literal("B", false))));
+		featureModel.getConstraints().get(0).setDescription(special);
+		featureModel.getProperty().addComment(special);
+		featureModel.getProperty().addComment("");
+		featureModel.setFeatureOrderUserDefined(true);
+		featureModel.setFeatureOrderList(Arrays.asList("B", name));
+
+		final XmlFeatureModelFormat format = new XmlFeatureModelFormat();
+		final String output = format.write(featureModel);
+		final IFeatureModel readFeatureModel = read(output);
+		assertEquals(output, format.write(readFeatureModel));
+
+		final IFeature readChild = readFeatureModel.getFeature(name);
+		assertTrue(readChild.getStructure().isHidden());
+		assertTrue(readChild.getStructure().isAbstract());
+		assertEquals(special, readChild.getProperty().getDescription());
+		assertEquals(special, readChild.getCustomProperties().get("key", Type.STRING));
+		assertTrue(readFeatureModel.getStructure().getRoot().isOr());
+		final IConstraint constraint = readFeatureModel.getConstraints().get(0);
+		assertEquals(special, constraint.getDescription());
+		assertEquals(new Or(new Literal(name), new Literal("B", false)).toString(), constraint.getNode().toString());
+		assertEquals(Arrays.asList(special, ""), readFeatureModel.getProperty().getComments());
+		assertTrue(readFeatureModel.isFeatureOrderUserDefined());
+		assertEquals(Arrays.asList("B", name), readFeatureModel.getFeatureOrderList().subList(0, 2));
+	}
+
+	@Test
+	public void testProblems() {
+		final String[] sources = { //
+			"<featureModel><struct><and name=\"R\">\n<feature name=\"A\"/>\n</and></struct><constraints><rule>\n<var>X</var></rule></constraints></featureModel>", //
+			"<featureModel><struct><and name=\"R\">\n<feature name=\"A\"/>\n<feature name=\"A\"/></and></struct></featureModel>", //
+			"<featureModel><struct>\n<and name=\"R\" color=\"red\"/></struct></featureModel>", //
+			"<featureModel><struct><and name=\"R\">\n<feature name=\"A\">\n</and></struct></featureModel>", //
+			"<featureModel><struct></struct></featureModel>", //
+		};
+		final int[] lines = { 4, 3, 2, 3, 1 };
+		for (int i = 0; i < sources.length; i++) {
+			final List<Problem> problems = SimpleFileHandler.loadFromString(sources[i], factory.createFeatureModel(), new XmlFeatureModelFormat()).getErrors();
+			assertEquals(sources[i], 1, problems.size());
+			assertEquals(sources[i], lines[i], problems.get(0).getLine());
+		}
+	}
+
+}
@@ -0,0 +1,275 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.job;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.job.IJob.JobStatus;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Tests for {@link LongRunningExecutor}, {@link LongRunningThread}, and {@link JobSynchronizer}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TLongRunningExecutor {
+
+	private static final class RecordingMethod implements LongRunningMethod<Integer> {
+
+		private final int id;
+		private final List<Integer> executed;
+
+		public RecordingMethod(int id, List<Integer> executed) {
+			this.id = id;
+			this.executed = executed;
+		}
+
+		@Override
+		public Integer execute(IMonitor monitor) throws Exception {
+			monitor.checkCancel();
+			executed.add(id);
+			return id;
+		}
+
+	}
+
+	private static final class BlockingMethod implements LongRunningMethod<Integer> {
+
+		private final CountDownLatch started = new CountDownLatch(1);
+		private final CountDownLatch release = new CountDownLatch(1);
+
+		@Override
+		public Integer execute(IMonitor monitor) throws Exception {
+			started.countDown();
+			while (!release.await(10, TimeUnit.MILLISECONDS)) {
+				monitor.checkCancel();
+			}
+			return 0;
+		}
+
+	}
+
+	/**
+	 * Blocks all workers of the pool, so that subsequently scheduled jobs have to wait.
+	 */
+	private static List<BlockingMethod> blockPool() throws InterruptedException {
+		final List<BlockingMethod> blockers = new ArrayList<>();
+		for (int i = 0; i < LongRunningExecutor.getPool().getParallelism(); i++) {
+			final BlockingMethod blocker = new BlockingMethod();
+			LongRunningWrapper.getThread(blocker).schedule();
+			blockers.add(blocker);
+		}
+		for (final BlockingMethod blocker : blockers) {
+			assertTrue(blocker.started.await(10, TimeUnit.SECONDS));
+		}
+		return blockers;
+	}
+
+	private static void release(List<BlockingMethod> blockers) {
+		for (final BlockingMethod blocker : blockers) {
+			blocker.release.countDown();
+		}
+	}
+
+	@Test(timeout = 20000)
+	public void testPriorities() throws InterruptedException {
+		final List<Integer> executed = Collections.synchronizedList(new ArrayList<Integer>());
+		final List<BlockingMethod> blockers = blockPool();
+
+		final int[] priorities = { LongRunningExecutor.PRIORITY_DECORATE, LongRunningExecutor.PRIORITY_LONG, LongRunningExecutor.PRIORITY_INTERACTIVE,
+			LongRunningExecutor.PRIORITY_LONG, LongRunningExecutor.PRIORITY_SHORT };
+		final List<IRunner<Integer>> jobs = new ArrayList<>();
+		for (int i = 0; i < priorities.length; i++) {
+			final IRunner<Integer> job = LongRunningWrapper.getThread(new RecordingMethod(i, executed));
+			job.setPriority(priorities[i]);
+			jobs.add(job);
+		}
+		for (final IRunner<Integer> job : jobs) {
+			job.schedule();
+		}
+		// only one worker dispatches the waiting jobs, so they are executed one after another
+		release(blockers.subList(0, 1));
+		for (final IRunner<Integer> job : jobs) {
+			job.join();
+		}
+		release(blockers);
+
+		assertEquals(Arrays.asList(2, 4, 1, 3, 0), executed);
+		for (int i = 0; i < jobs.size(); i++) {
+			assertEquals(JobStatus.OK, jobs.get(i).getStatus());
+			assertEquals(Integer.valueOf(i), jobs.get(i).getResults());
+		}
+	}
+
+	/**
+	 * Stoppable jobs wait for their inner thread. The pool compensates for these waiting workers, so other jobs are not blocked.
+	 */
+	@Test(timeout = 20000)
+	public void testStoppableJobs() throws InterruptedException {
+		final List<BlockingMethod> blockers = new ArrayList<>();
+		for (int i = 0; i < LongRunningExecutor.getPool().getParallelism(); i++) {
+			final BlockingMethod blocker = new BlockingMethod();
+			final IRunner<Integer> blockingJob = LongRunningWrapper.getThread(blocker);
+			blockingJob.setStoppable(true);
+			blockingJob.schedule();
+			blockers.add(blocker);
+		}
+		for (final BlockingMethod blocker : blockers) {
+			assertTrue(blocker.started.await(10, TimeUnit.SECONDS));
+		}
+
+		final List<Integer> executed = Collections.synchronizedList(new ArrayList<Integer>());
+		final IRunner<Integer> job = LongRunningWrapper.getThread(new RecordingMethod(0, executed));
+		job.setPriority(LongRunningExecutor.PRIORITY_INTERACTIVE);
+		job.schedule();
+		job.join();
+		release(blockers);
+
+		assertEquals(Arrays.asList(0), executed);
+		assertEquals(JobStatus.OK, job.getStatus());
+	}
+
+	@Test(timeout = 20000)
+	public void testCancelBeforeStart() throws InterruptedException {
+		final List<Integer> executed = Collections.synchronizedList(new ArrayList<Integer>());
+		final List<BlockingMethod> blockers = blockPool();
+
+		final IRunner<Integer> job = LongRunningWrapper.getThread(new RecordingMethod(0, executed));
+		job.schedule();
+		assertTrue(job.cancel());
+		release(blockers);
+		job.join();
+
+		assertEquals(JobStatus.FAILED, job.getStatus());
+		assertNull(job.getResults());
+		assertTrue(executed.isEmpty());
+
+		job.schedule();
+		job.join();
+		assertEquals(JobStatus.OK, job.getStatus());
+		assertEquals(Arrays.asList(0), executed);
+	}
+
+	@Test(timeout = 20000)
+	public void testCancelRunningJob() throws InterruptedException {
+		final BlockingMethod blocker = new BlockingMethod();
+		final IRunner<Integer> job = LongRunningWrapper.getThread(blocker);
+		job.schedule();
+		assertTrue(blocker.started.await(10, TimeUnit.SECONDS));
+		job.cancel();
+		job.join();
+		assertEquals(JobStatus.FAILED, job.getStatus());
+	}
+
+	@Test(timeout = 20000)
+	public void testCoalescing() throws InterruptedException {
+		final List<Integer> executed = Collections.synchronizedList(new ArrayList<Integer>());
+		final JobToken token = LongRunningWrapper.createToken(JobStartingStrategy.WAIT_ONE);
+
+		final BlockingMethod blocker = new BlockingMethod();
+		final IRunner<Integer> blockingJob = LongRunningWrapper.getThread(blocker);
+		LongRunningWrapper.startJob(token, blockingJob);
+		assertTrue(blocker.started.await(10, TimeUnit.SECONDS));
+
+		final List<IRunner<Integer>> jobs = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			final IRunner<Integer> job = LongRunningWrapper.getThread(new RecordingMethod(i, executed));
+			jobs.add(job);
+			LongRunningWrapper.startJob(token, job);
+		}
+		blocker.release.countDown();
+		blockingJob.join();
+		jobs.get(jobs.size() - 1).join();
+
+		assertEquals(Arrays.asList(4), executed);
+		assertEquals(JobStatus.OK, blockingJob.getStatus());
+		for (int i = 0; i < (jobs.size() - 1); i++) {
+			assertEquals(JobStatus.NOT_STARTED, jobs.get(i).getStatus());
+		}
+	}
+
+	@Test(timeout = 20000)
+	public void testCancelWait() throws InterruptedException {
+		final List<Integer> executed = Collections.synchronizedList(new ArrayList<Integer>());
+		final JobToken token = LongRunningWrapper.createToken(JobStartingStrategy.CANCEL_WAIT);
+
+		final BlockingMethod blocker = new BlockingMethod();
+		final IRunner<Integer> blockingJob = LongRunningWrapper.getThread(blocker);
+		LongRunningWrapper.startJob(token, blockingJob);
+		assertTrue(blocker.started.await(10, TimeUnit.SECONDS));
+
+		final IRunner<Integer> job = LongRunningWrapper.getThread(new RecordingMethod(0, executed));
+		LongRunningWrapper.startJob(token, job);
+		blockingJob.join();
+		job.join();
+
+		assertEquals(JobStatus.FAILED, blockingJob.getStatus());
+		assertEquals(JobStatus.OK, job.getStatus());
+		assertEquals(Arrays.asList(0), executed);
+	}
+
+	@Test(timeout = 20000)
+	public void testSubmitCallable() throws InterruptedException {
+		final Future<Integer> result = LongRunningExecutor.submit(new Callable<Integer>() {
+
+			@Override
+			public Integer call() throws Exception {
+				return 42;
+			}
+		});
+		try {
+			assertEquals(Integer.valueOf(42), LongRunningExecutor.get(result));
+		} catch (final ExecutionException e) {
+			throw new AssertionError(e);
+		}
+
+		final Future<Integer> failure = LongRunningExecutor.submit(new Callable<Integer>() {
+
+			@Override
+			public Integer call() throws Exception {
+				throw new ParseException("test", 0);
+			}
+		});
+		try {
+			LongRunningExecutor.get(failure);
+			fail();
+		} catch (final ExecutionException e) {
+			assertTrue(e.getCause() instanceof ParseException);
+		}
+	}
+
+}
@@ -0,0 +1,241 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.ISatSolver.SatResult;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.specs.ContradictionException;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
+
+/**
+ * Tests for {@link TseitinTransformer}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TseitinTransformerTests {
+
+	private static final String[] VARIABLES = { "a", "b", "c", "d", "e" };
+
+	private static Node createRandomNode(Random random, int depth) {
+		if ((depth == 0) || (random.nextInt(4) == 0)) {
+			return new Literal(VARIABLES[random.nextInt(VARIABLES.length)], random.nextBoolean());
+		}
+		switch (random.nextInt(5)) {
+		case 0:
+			return new Not(createRandomNode(random, depth - 1));
+		case 1:
+			return new Implies(createRandomNode(random, depth - 1), createRandomNode(random, depth - 1));
+		case 2:
+			return new Equals(createRandomNode(random, depth - 1), createRandomNode(random, depth - 1));
+		case 3:
+			return new Or(createRandomNode(random, depth - 1), createRandomNode(random, depth - 1), createRandomNode(random, depth - 1));
+		default:
+			return new And(createRandomNode(random, depth - 1), createRandomNode(random, depth - 1), createRandomNode(random, depth - 1));
+		}
+	}
+
+	private static boolean isSatisfiable(SatInstance si, int... assumptions) {
+		final BasicSolver solver;
+		try {
+			solver = new BasicSolver(si);
+		} catch (final ContradictionException e) {
+			return false;
+		}
+		for (final int assumption : assumptions) {
+			solver.assignmentPush(assumption);
+		}
+		return solver.isSatisfiable() == SatResult.TRUE;
+	}
+
+	/**
+	 * Checks that each assignment of the original variables satisfies the node iff it can be extended to a model of the CNF.
+	 */
+	private static void checkEquisatisfiable(Node node, Node cnf) throws ContradictionException {
+		assertTrue(cnf.toString(), cnf.isConjunctiveNormalForm());
+		final SatInstance si = new SatInstance(toClauses(cnf));
+		for (int i = 0; i < (1 << VARIABLES.length); i++) {
+			final Map<Object, Boolean> assignment = new HashMap<>();
+			final int[] assumptions = new int[VARIABLES.length];
+			int numberOfAssumptions = 0;
+			for (int j = 0; j < VARIABLES.length; j++) {
+				final boolean value = (i & (1 << j)) != 0;
+				assignment.put(VARIABLES[j], value);
+				final Integer variable = getVariable(si, VARIABLES[j]);
+				if (variable != null) {
+					assumptions[numberOfAssumptions++] = value ? variable : -variable;
+				}
+			}
+			final int[] usedAssumptions = new int[numberOfAssumptions];
+			System.arraycopy(assumptions, 0, usedAssumptions, 0, numberOfAssumptions);
+			assertEquals(node.toString(), node.getValue(assignment), isSatisfiable(si, usedAssumptions));
+		}
+	}
+
+	/**
+	 * Converts a compact CNF into a conjunction of {@link Or clauses}.
+	 */
+	private static Node toClauses(Node cnf) {
+		final Node[] clauses = (cnf instanceof And) ? cnf.getChildren() : new Node[] { cnf };
+		final Node[] newClauses = new Node[clauses.length];
+		for (int i = 0; i < clauses.length; i++) {
+			newClauses[i] = (clauses[i] instanceof Or) ? clauses[i] : new Or(clauses[i]);
+		}
+		return new And(newClauses);
+	}
+
+	private static Integer getVariable(SatInstance si, String name) {
+		for (int i = 1; i <= si.getNumberOfVariables(); i++) {
+			if (name.equals(si.getVariableObject(i))) {
+				return i;
+			}
+		}
+		return null;
+	}
+
+	@Test
+	public void testRandomFormulas() throws ContradictionException {
+		final Random random = new Random(0);
+		for (int i = 0; i < 200; i++) {
+			final Node node = createRandomNode(random, 4);
+			final String original = node.toString();
+			checkEquisatisfiable(node, new TseitinTransformer().transform(node));
+			checkEquisatisfiable(node, node.toCNF(0));
+			checkEquisatisfiable(node, node.toCNF(Integer.MAX_VALUE));
+			assertEquals(original, node.toString());
+		}
+	}
+
+	@Test
+	public void testMemoization() {
+		final TseitinTransformer transformer = new TseitinTransformer(0);
+		final Node cnf = transformer.toCNF(new And(new Or(new And("a", "b"), "c"), new Or(new And("b", "a"), "d"), new Or(new And("a", "c"), "d")));
+		assertEquals(2, transformer.getNumberOfAuxiliaryVariables());
+		assertEquals(7, cnf.getChildren().length);
+
+		transformer.toCNF(new Or(new And("a", "b"), "e"));
+		assertEquals(2, transformer.getNumberOfAuxiliaryVariables());
+	}
+
+	@Test
+	public void testClauseBudget() {
+		final Node[] conjunctions = new Node[6];
+		for (int i = 0; i < conjunctions.length; i++) {
+			conjunctions[i] = new And("x" + i, "y" + i);
+		}
+		final Node node = new Or(conjunctions);
+		assertEquals(64, TseitinTransformer.estimateNumberOfClauses(node, 100));
+		assertEquals(11, TseitinTransformer.estimateNumberOfClauses(node, 10));
+
+		final TseitinTransformer distributive = new TseitinTransformer(64);
+		assertEquals(64, distributive.toCNF(node).getChildren().length);
+		assertEquals(0, distributive.getNumberOfAuxiliaryVariables());
+
+		final TseitinTransformer tseitin = new TseitinTransformer(63);
+		assertEquals(13, tseitin.toCNF(node).getChildren().length);
+		assertEquals(6, tseitin.getNumberOfAuxiliaryVariables());
+	}
+
+	@Test
+	public void testAuxiliaryVariablesHidden() throws ContradictionException {
+		final IFeatureModel fm = Commons.loadTestFeatureModelFromFile("car.xml");
+		fm.addConstraint(FMFactoryManager.getFactory(fm).createConstraint(fm,
+				new Or(new And("USB", "Bluetooth"), new And("Europe", new Not("CD")), new And("Manual", "Navigation"))));
+
+		final AdvancedNodeCreator nodeCreator = new AdvancedNodeCreator(fm);
+		nodeCreator.setCnfType(CNFType.Regular);
+		nodeCreator.setIncludeBooleanValues(false);
+		nodeCreator.setUseOldNames(false);
+		final SatInstance distributiveSi = nodeCreator.createSatInstance();
+		nodeCreator.setMaxNumberOfClauses(0);
+		final SatInstance tseitinSi = nodeCreator.createSatInstance();
+		final SatInstance tseitinNodeSi = new SatInstance(nodeCreator.createNodes(), FeatureUtils.getFeatureNamesPreorder(fm));
+
+		assertEquals(fm.getNumberOfFeatures(), distributiveSi.getNumberOfVariables());
+		assertTrue(tseitinSi.getNumberOfVariables() >= (fm.getNumberOfFeatures() + 3));
+		assertEquals(tseitinSi.getNumberOfVariables(), tseitinNodeSi.getNumberOfVariables());
+		for (int i = 1; i <= tseitinSi.getNumberOfVariables(); i++) {
+			assertEquals(i > fm.getNumberOfFeatures(), tseitinSi.isAuxiliary(i));
+			assertEquals(i > fm.getNumberOfFeatures(), tseitinNodeSi.isAuxiliary(i));
+		}
+
+		for (int i = 1; i <= distributiveSi.getNumberOfVariables(); i++) {
+			final int tseitinVariable = tseitinSi.getVariable(distributiveSi.getVariableObject(i));
+			assertEquals(isSatisfiable(distributiveSi, i), isSatisfiable(tseitinSi, tseitinVariable));
+			assertEquals(isSatisfiable(distributiveSi, -i), isSatisfiable(tseitinSi, -tseitinVariable));
+		}
+
+		final BasicSolver solver = new BasicSolver(tseitinSi);
+		assertEquals(SatResult.TRUE, solver.isSatisfiable());
+		final int[] model = solver.getModel();
+		assertEquals(tseitinSi.getNumberOfVariables(), model.length);
+		assertEquals(fm.getNumberOfFeatures(), tseitinSi.convertToString(model, true, true).size());
+		for (final String name : tseitinSi.convertToString(model, true, true)) {
+			assertNotNull(name, fm.getFeature(name.startsWith("-") ? name.substring(1) : name));
+		}
+	}
+
+	@Test
+	public void testAuxiliaryVariableNames() {
+		final Node cnf = new TseitinTransformer(0).toCNF(new Or(new And("a", "b"), new And("c", "d")));
+		final List<Object> auxiliaryVariables = new ArrayList<>(SatInstance.getDistinctVariableObjects(cnf));
+		auxiliaryVariables.removeAll(Arrays.asList("a", "b", "c", "d"));
+		assertEquals(2, auxiliaryVariables.size());
+
+		// a feature with the name of an auxiliary variable is a different variable
+		final String name = auxiliaryVariables.get(0).toString();
+		final SatInstance si = new SatInstance(cnf, Arrays.asList("a", "b", "c", "d", name));
+		assertEquals(7, si.getNumberOfVariables());
+		assertFalse(si.isAuxiliary(si.getVariable(name)));
+		assertTrue(si.isAuxiliary(si.getVariable(auxiliaryVariables.get(0))));
+		assertTrue(si.getVariable(name) != si.getVariable(auxiliaryVariables.get(0)));
+
+		// auxiliary variables of different transformers are different
+		final Node otherCnf = new TseitinTransformer(0).toCNF(new Or(new And("a", "b"), new And("c", "d")));
+		final List<Object> otherAuxiliaryVariables = new ArrayList<>(SatInstance.getDistinctVariableObjects(otherCnf));
+		otherAuxiliaryVariables.removeAll(Arrays.asList("a", "b", "c", "d"));
+		for (final Object variable : otherAuxiliaryVariables) {
+			assertFalse(auxiliaryVariables.contains(variable));
+			assertFalse(variable.toString().equals(auxiliaryVariables.get(0).toString()));
+			assertFalse(variable.toString().equals(auxiliaryVariables.get(1).toString()));
+		}
+	}
+
+}
@@ -0,0 +1,125 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.ISatSolver;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.specs.ContradictionException;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link BackboneAnalysis}.
+ *
+ * @author FeatureIDE Team
+ */
+public class BackboneAnalysisTests {
+
+	@Test
+	public void testCoreDead() {
+		for (final String model : Commons.ANALYSIS_BENCHMARK_MODELS) {
+			final SatInstance si = Commons.createSatInstance(Commons.loadBenchmarkFeatureModelFromFile(model));
+
+			final int[] expected = LongRunningWrapper.runMethod(new CoreDeadAnalysis(si));
+
+			final BackboneAnalysis backboneAnalysis = new BackboneAnalysis(si);
+			final int[] actual = LongRunningWrapper.runMethod(backboneAnalysis);
+
+			assertArrayEquals(model, expected, actual);
+			assertTrue(model, backboneAnalysis.getNumberOfSatCalls() > 0);
+			assertTrue(model, (backboneAnalysis.getNumberOfSatCalls() + backboneAnalysis.getNumberOfSavedSatCalls()) <= (si.getNumberOfVariables() + 2));
+		}
+	}
+
+	@Test
+	public void testWithoutRotation() {
+		for (final String model : Commons.ANALYSIS_BENCHMARK_MODELS) {
+			final SatInstance si = Commons.createSatInstance(Commons.loadBenchmarkFeatureModelFromFile(model));
+
+			final int[] expected = LongRunningWrapper.runMethod(new CoreDeadAnalysis(si));
+
+			final BackboneAnalysis backboneAnalysis = new BackboneAnalysis(si);
+			backboneAnalysis.setModelRotation(false);
+			final int[] actual = LongRunningWrapper.runMethod(backboneAnalysis);
+
+			assertArrayEquals(model, expected, actual);
+			assertEquals(model, 0, backboneAnalysis.getNumberOfFilteredByRotation());
+		}
+	}
+
+	@Test
+	public void testWithAssumptions() {
+		for (final String model : Commons.ANALYSIS_BENCHMARK_MODELS) {
+			final SatInstance si = Commons.createSatInstance(Commons.loadBenchmarkFeatureModelFromFile(model));
+			final int[] assumptions = new int[] { -si.getNumberOfVariables() };
+
+			final CoreDeadAnalysis coreDeadAnalysis = new CoreDeadAnalysis(si);
+			coreDeadAnalysis.setAssumptions(assumptions);
+			final int[] expected = LongRunningWrapper.runMethod(coreDeadAnalysis);
+
+			final BackboneAnalysis backboneAnalysis = new BackboneAnalysis(si);
+			backboneAnalysis.setAssumptions(assumptions);
+			final int[] actual = LongRunningWrapper.runMethod(backboneAnalysis);
+
+			assertArrayEquals(model, expected, actual);
+		}
+	}
+
+	@Test
+	public void testWithSolutionList() throws ContradictionException {
+		for (final String model : Commons.ANALYSIS_BENCHMARK_MODELS) {
+			final SatInstance si = Commons.createSatInstance(Commons.loadBenchmarkFeatureModelFromFile(model));
+
+			final int[] expected = LongRunningWrapper.runMethod(new CoreDeadAnalysis(si));
+
+			final ISatSolver solver = new BasicSolver(si);
+			solver.initSolutionList(ISatSolver.MAX_SOLUTION_BUFFER);
+			LongRunningWrapper.runMethod(new CoreDeadAnalysis(solver));
+			final int[] actual = LongRunningWrapper.runMethod(new BackboneAnalysis(solver));
+
+			assertArrayEquals(model, expected, actual);
+		}
+	}
+
+	@Test
+	public void testFeatures() {
+		for (final String model : Commons.ANALYSIS_BENCHMARK_MODELS) {
+			final SatInstance si = Commons.createSatInstance(Commons.loadBenchmarkFeatureModelFromFile(model));
+			final int[] features = new int[si.getNumberOfVariables() / 2];
+			for (int i = 0; i < features.length; i++) {
+				features[i] = 2 * i + 1;
+			}
+
+			final int[] expected = LongRunningWrapper.runMethod(new CoreDeadAnalysis(si, features));
+			final int[] actual = LongRunningWrapper.runMethod(new BackboneAnalysis(si, features));
+
+			assertArrayEquals(model, expected, actual);
+		}
+	}
+
+}
@@ -0,0 +1,146 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Or;
+import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.ISatSolver;
+import org.prop4j.solver.ISatSolver.SatResult;
+import org.prop4j.solver.ModelCounter;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.core.VecInt;
+import org.sat4j.specs.ContradictionException;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link CountSolutionAnalysis} and {@link ModelCounter}.
+ *
+ * @author FeatureIDE Team
+ */
+public class CountSolutionAnalysisTests {
+
+	private static long enumerate(SatInstance si, int... assumptions) throws ContradictionException {
+		final ISatSolver solver = new BasicSolver(si);
+		for (final int assumption : assumptions) {
+			solver.assignmentPush(assumption);
+		}
+		long count = 0;
+		while (solver.isSatisfiable() == SatResult.TRUE) {
+			count++;
+			try {
+				solver.getInternalSolver().addClause(new VecInt(SatInstance.negateModel(solver.getModel())));
+			} catch (final ContradictionException e) {
+				break;
+			}
+		}
+		return count;
+	}
+
+	@Test
+	public void testSmallModels() throws ContradictionException {
+		for (final String model : Commons.SMALL_TEST_MODELS) {
+			final SatInstance si = Commons.createSatInstance(Commons.loadTestFeatureModelFromFile(model));
+			final long expected = enumerate(si);
+
+			assertEquals(model, expected, (long) LongRunningWrapper.runMethod(new CountSolutionAnalysis(si, 0)));
+			assertEquals(model, BigInteger.valueOf(expected), new ModelCounter(si).count());
+		}
+	}
+
+	@Test
+	public void testAssumptions() throws ContradictionException {
+		for (final String model : Commons.SMALL_TEST_MODELS) {
+			final SatInstance si = Commons.createSatInstance(Commons.loadTestFeatureModelFromFile(model));
+			final ModelCounter counter = new ModelCounter(si);
+			for (int i = 1; i <= si.getNumberOfVariables(); i++) {
+				assertEquals(model, BigInteger.valueOf(enumerate(si, i)), counter.count(new int[] { i }, null));
+				assertEquals(model, BigInteger.valueOf(enumerate(si, -i)), counter.count(new int[] { -i }, null));
+			}
+
+			final CountSolutionAnalysis analysis = new CountSolutionAnalysis(si, 0);
+			analysis.setAssumptions(new int[] { -si.getNumberOfVariables() });
+			assertEquals(model, enumerate(si, -si.getNumberOfVariables()), (long) LongRunningWrapper.runMethod(analysis));
+		}
+	}
+
+	@Test
+	public void testLargeModels() {
+		for (final String model : Commons.LARGE_BENCHMARK_MODELS) {
+			final SatInstance si = Commons.createSatInstance(Commons.loadBenchmarkFeatureModelFromFile(model));
+			final ModelCounter counter = new ModelCounter(si);
+			final BigInteger total = counter.count();
+			assertTrue(model, counter.isExact());
+			assertTrue(model, total.signum() > 0);
+
+			// each solution either contains a variable or its complement
+			for (int i = 1; i <= si.getNumberOfVariables(); i += 7) {
+				final BigInteger positive = counter.count(new int[] { i }, null);
+				final BigInteger negative = counter.count(new int[] { -i }, null);
+				assertEquals(model, total, positive.add(negative));
+			}
+		}
+	}
+
+	@Test
+	public void testTimeout() {
+		// random 3-CNF near the phase transition, which cannot be counted within the time budget
+		final Random random = new Random(0);
+		final int numberOfVariables = 300;
+		final List<String> variables = new ArrayList<>();
+		for (int i = 1; i <= numberOfVariables; i++) {
+			variables.add("x" + i);
+		}
+		final Node[] clauses = new Node[(numberOfVariables * 4)];
+		for (int i = 0; i < clauses.length; i++) {
+			final Node[] literals = new Node[3];
+			for (int j = 0; j < literals.length; j++) {
+				literals[j] = new Literal(variables.get(random.nextInt(numberOfVariables)), random.nextBoolean());
+			}
+			clauses[i] = new Or(literals);
+		}
+		final SatInstance si = new SatInstance(new And(clauses), variables);
+
+		final CountSolutionAnalysis analysis = new CountSolutionAnalysis(si, 100);
+		final long start = System.currentTimeMillis();
+		final long result = LongRunningWrapper.runMethod(analysis);
+		assertTrue((System.currentTimeMillis() - start) < 10000);
+
+		assertFalse(analysis.isExact());
+		assertTrue(result < 0);
+		assertEquals(-1 - analysis.getCount().longValue(), result);
+	}
+
+}
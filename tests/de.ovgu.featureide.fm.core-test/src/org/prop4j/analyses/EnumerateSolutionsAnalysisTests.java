@@ -0,0 +1,193 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.ISatSolver.SatResult;
+import org.prop4j.solver.ModelCounter;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.specs.ContradictionException;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.functional.Functional.IConsumer;
+import de.ovgu.featureide.fm.core.io.SolutionListReader;
+import de.ovgu.featureide.fm.core.io.SolutionListWriter;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Tests for {@link EnumerateSolutionsAnalysis}, {@link SolutionListWriter}, and {@link SolutionListReader}.
+ *
+ * @author FeatureIDE Team
+ */
+public class EnumerateSolutionsAnalysisTests {
+
+	private static boolean isSolution(SatInstance si, int[] model) throws ContradictionException {
+		final BasicSolver solver = new BasicSolver(si);
+		for (final int literal : model) {
+			solver.assignmentPush(literal);
+		}
+		return solver.isSatisfiable() == SatResult.TRUE;
+	}
+
+	private static class SolutionCollector implements IConsumer<int[]> {
+
+		private final List<int[]> solutions = new ArrayList<>();
+
+		@Override
+		public void invoke(int[] solution) {
+			solutions.add(solution);
+		}
+
+	}
+
+	private static List<List<String>> toStrings(SatInstance si, List<int[]> solutions) {
+		final List<List<String>> solutionStrings = new ArrayList<>();
+		for (final int[] solution : solutions) {
+			solutionStrings.add(si.convertToString(solution));
+		}
+		return solutionStrings;
+	}
+
+	@Test
+	public void testAllSolutions() throws ContradictionException {
+		for (final String model : Commons.SMALL_TEST_MODELS) {
+			final SatInstance si = Commons.createSatInstance(Commons.loadTestFeatureModelFromFile(model));
+			final SolutionCollector collector = new SolutionCollector();
+			final EnumerateSolutionsAnalysis.Result result = LongRunningWrapper.runMethod(new EnumerateSolutionsAnalysis(si, collector));
+
+			final long numberOfSolutions = new ModelCounter(si).count().longValue();
+			assertEquals(model, numberOfSolutions, result.getNumberOfSolutions());
+			assertFalse(model, result.isTimeout());
+			assertEquals(model, numberOfSolutions, collector.solutions.size());
+			assertEquals(model, numberOfSolutions, new HashSet<>(toStrings(si, collector.solutions)).size());
+			for (final int[] solution : collector.solutions) {
+				assertEquals(model, si.getNumberOfVariables(), solution.length);
+				assertTrue(model, isSolution(si, solution));
+			}
+		}
+	}
+
+	@Test
+	public void testAssumptionsAndLimit() {
+		final SatInstance si = Commons.createSatInstance(Commons.loadBenchmarkFeatureModelFromFile("berkeley_db_model.xml"));
+		final BasicSolver solver;
+		try {
+			solver = new BasicSolver(si);
+		} catch (final ContradictionException e) {
+			fail(e.getMessage());
+			return;
+		}
+
+		final SolutionCollector collector = new SolutionCollector();
+		final EnumerateSolutionsAnalysis analysis = new EnumerateSolutionsAnalysis(solver, collector);
+		analysis.setMaxSolutions(100);
+		analysis.setAssumptions(new int[] { -5 });
+		assertEquals(100, LongRunningWrapper.runMethod(analysis).getNumberOfSolutions());
+		assertEquals(100, collector.solutions.size());
+		for (final int[] solution : collector.solutions) {
+			assertEquals(-5, solution[4]);
+		}
+
+		// the blocking clauses of the first run must not restrict the second run
+		final SolutionCollector secondCollector = new SolutionCollector();
+		final EnumerateSolutionsAnalysis secondAnalysis = new EnumerateSolutionsAnalysis(solver, secondCollector);
+		secondAnalysis.setMaxSolutions(100);
+		secondAnalysis.setAssumptions(new int[] { -5 });
+		LongRunningWrapper.runMethod(secondAnalysis);
+		assertEquals(toStrings(si, collector.solutions), toStrings(si, secondCollector.solutions));
+	}
+
+	@Test
+	public void testCancel() throws Exception {
+		final SatInstance si = Commons.createSatInstance(Commons.loadBenchmarkFeatureModelFromFile("berkeley_db_model.xml"));
+		final NullMonitor monitor = new NullMonitor();
+		final SolutionCollector collector = new SolutionCollector() {
+
+			@Override
+			public void invoke(int[] solution) {
+				super.invoke(solution);
+				if (super.solutions.size() == 10) {
+					monitor.cancel();
+				}
+			}
+		};
+		try {
+			new EnumerateSolutionsAnalysis(si, collector).execute(monitor);
+			fail();
+		} catch (final MethodCancelException e) {
+			assertEquals(10, collector.solutions.size());
+		}
+	}
+
+	@Test
+	public void testSolutionList() throws Exception {
+		final SatInstance si = Commons.createSatInstance(Commons.loadTestFeatureModelFromFile("car.xml"));
+		final SolutionCollector collector = new SolutionCollector();
+		LongRunningWrapper.runMethod(new EnumerateSolutionsAnalysis(si, collector));
+
+		final List<String> variableNames = new ArrayList<>();
+		for (int i = 1; i <= si.getNumberOfVariables(); i++) {
+			variableNames.add(String.valueOf(si.getVariableObject(i)));
+		}
+
+		final Path file = Files.createTempFile("solutions", ".bin");
+		try {
+			try (SolutionListWriter writer = new SolutionListWriter(file, variableNames)) {
+				final EnumerateSolutionsAnalysis.Result result = LongRunningWrapper.runMethod(new EnumerateSolutionsAnalysis(si, writer));
+				assertEquals(collector.solutions.size(), result.getNumberOfSolutions());
+				assertEquals(collector.solutions.size(), writer.getNumberOfSolutions());
+			}
+
+			final Set<List<String>> readSolutions = new HashSet<>();
+			try (SolutionListReader reader = new SolutionListReader(file)) {
+				assertEquals(variableNames, reader.getVariableNames());
+				int i = 0;
+				while (reader.hasNext()) {
+					final int[] solution = reader.next();
+					assertArrayEquals(collector.solutions.get(i++), solution);
+					readSolutions.add(si.convertToString(solution));
+				}
+				assertFalse(reader.hasNext());
+			}
+			assertEquals(new HashSet<>(toStrings(si, collector.solutions)), readSolutions);
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+}
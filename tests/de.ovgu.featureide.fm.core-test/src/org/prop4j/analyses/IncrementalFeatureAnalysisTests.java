@@ -0,0 +1,153 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+import org.prop4j.TseitinTransformer;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelFactory;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link IncrementalFeatureAnalysis}.
+ *
+ * @author FeatureIDE Team
+ */
+public class IncrementalFeatureAnalysisTests {
+
+	private static void assertSameResults(IFeatureModel fm, IncrementalFeatureAnalysis incrementalAnalysis) {
+		final Boolean valid = LongRunningWrapper.runMethod(incrementalAnalysis);
+
+		final FeatureModelAnalysis analysis = new FeatureModelAnalysis(fm);
+		analysis.setCalculateConstraints(false);
+		LongRunningWrapper.runMethod(analysis);
+
+		assertEquals(analysis.isValid(), valid);
+		if (valid) {
+			assertEquals(analysis.getCoreFeatures(), incrementalAnalysis.getCoreFeatures());
+			assertEquals(analysis.getDeadFeatures(), incrementalAnalysis.getDeadFeatures());
+			assertEquals(analysis.getFalseOptionalFeatures(), incrementalAnalysis.getFalseOptionalFeatures());
+		}
+	}
+
+	@Test
+	public void testConstraintChanges() {
+		final IFeatureModel fm = Commons.loadBenchmarkFeatureModelFromFile("berkeley_db_model.xml");
+		final IncrementalFeatureAnalysis incrementalAnalysis = new IncrementalFeatureAnalysis(fm);
+		assertSameResults(fm, incrementalAnalysis);
+		final int numberOfFeatures = fm.getNumberOfFeatures();
+		assertEquals(numberOfFeatures, incrementalAnalysis.getNumberOfCheckedFeatures());
+
+		// unchanged model
+		assertSameResults(fm, incrementalAnalysis);
+		assertEquals(0, incrementalAnalysis.getNumberOfCheckedFeatures());
+
+		// add constraints
+		IFeature deadCandidate = null;
+		for (final IFeature feature : fm.getFeatures()) {
+			if (!incrementalAnalysis.getCoreFeatures().contains(feature) && !incrementalAnalysis.getDeadFeatures().contains(feature)) {
+				deadCandidate = feature;
+			}
+		}
+		final IConstraint deadConstraint = FMFactoryManager.getFactory(fm).createConstraint(fm, new Not(new Literal(deadCandidate.getName())));
+		fm.addConstraint(deadConstraint);
+		assertSameResults(fm, incrementalAnalysis);
+		assertTrue(incrementalAnalysis.getDeadFeatures().contains(deadCandidate));
+		assertTrue(incrementalAnalysis.getNumberOfCheckedFeatures() < numberOfFeatures);
+
+		// modify constraint
+		deadConstraint.setNode(new Implies(new Literal(deadCandidate.getName()), new Literal(fm.getStructure().getRoot().getFeature().getName())));
+		assertSameResults(fm, incrementalAnalysis);
+		assertFalse(incrementalAnalysis.getDeadFeatures().contains(deadCandidate));
+
+		// void model
+		final IConstraint voidConstraint =
+			FMFactoryManager.getFactory(fm).createConstraint(fm, new Not(new Literal(fm.getStructure().getRoot().getFeature().getName())));
+		fm.addConstraint(voidConstraint);
+		assertSameResults(fm, incrementalAnalysis);
+
+		// remove constraints
+		fm.removeConstraint(voidConstraint);
+		assertSameResults(fm, incrementalAnalysis);
+		fm.removeConstraint(deadConstraint);
+		assertSameResults(fm, incrementalAnalysis);
+		fm.removeConstraint(fm.getConstraints().get(0));
+		assertSameResults(fm, incrementalAnalysis);
+		assertTrue(incrementalAnalysis.getNumberOfCheckedFeatures() < numberOfFeatures);
+	}
+
+	/**
+	 * Adds a constraint whose distributive transformation exceeds the clause budget after the first analysis. Its auxiliary variables are unknown to the
+	 * existing solver.
+	 */
+	@Test
+	public void testAddedAuxiliaryVariables() {
+		final IFeatureModelFactory factory = FMFactoryManager.getDefaultFactory();
+		final IFeatureModel fm = factory.createFeatureModel();
+		final IFeature root = factory.createFeature(fm, "Root");
+		fm.addFeature(root);
+		fm.getStructure().setRoot(root.getStructure());
+		for (int i = 0; i < 28; i++) {
+			final IFeature feature = factory.createFeature(fm, "F" + i);
+			fm.addFeature(feature);
+			root.getStructure().addChild(feature.getStructure());
+		}
+
+		final IncrementalFeatureAnalysis incrementalAnalysis = new IncrementalFeatureAnalysis(fm);
+		assertSameResults(fm, incrementalAnalysis);
+		assertTrue(incrementalAnalysis.getDeadFeatures().isEmpty());
+
+		final Node[] pairs = new Node[14];
+		for (int i = 0; i < pairs.length; i++) {
+			pairs[i] = new And("F" + (2 * i), "F" + ((2 * i) + 1));
+		}
+		final IConstraint constraint = factory.createConstraint(fm, new Or(pairs));
+		assertTrue(TseitinTransformer.estimateNumberOfClauses(constraint.getNode(), Long.MAX_VALUE) > TseitinTransformer.DEFAULT_MAX_NUMBER_OF_CLAUSES);
+		fm.addConstraint(constraint);
+		assertSameResults(fm, incrementalAnalysis);
+		assertTrue(incrementalAnalysis.getCoreFeatures().contains(root));
+
+		// the constraint is dead in combination with the first pair
+		fm.addConstraint(factory.createConstraint(fm, new Not("F1")));
+		fm.addConstraint(factory.createConstraint(fm, new Not("F3")));
+		assertSameResults(fm, incrementalAnalysis);
+
+		fm.removeConstraint(constraint);
+		assertSameResults(fm, incrementalAnalysis);
+		assertTrue(incrementalAnalysis.getDeadFeatures().contains(fm.getFeature("F1")));
+	}
+
+}
@@ -0,0 +1,88 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for the parallel mode of {@link PairWiseConfigurationGenerator}.
+ *
+ * @author FeatureIDE Team
+ */
+public class PairWiseConfigurationGeneratorTests {
+
+	private static final String[] MODELS = { "100-100.xml", "berkeley_db_model.xml", "issue_264_model_optional.xml" };
+
+	private static Set<String> getCoveredPairs(List<List<String>> configurations, List<String> features) {
+		final Set<String> pairs = new HashSet<>();
+		for (final List<String> configuration : configurations) {
+			final Set<String> selected = new HashSet<>(configuration);
+			for (int i = 0; i < features.size(); i++) {
+				final String a = (selected.contains(features.get(i)) ? "+" : "-") + features.get(i);
+				for (int j = i + 1; j < features.size(); j++) {
+					pairs.add(a + (selected.contains(features.get(j)) ? "+" : "-") + features.get(j));
+				}
+			}
+		}
+		return pairs;
+	}
+
+	@Test
+	public void testParallelCoverage() {
+		for (final String model : MODELS) {
+			final IFeatureModel fm = Commons.loadBenchmarkFeatureModelFromFile(model);
+			final List<String> features = FeatureUtils.getFeatureNamesPreorder(fm);
+
+			final List<List<String>> expected = LongRunningWrapper.runMethod(new PairWiseConfigurationGenerator(Commons.createSatInstance(fm), Integer.MAX_VALUE));
+
+			final PairWiseConfigurationGenerator parallelGenerator = new PairWiseConfigurationGenerator(Commons.createSatInstance(fm), Integer.MAX_VALUE);
+			parallelGenerator.setNumberOfThreads(4);
+			final List<List<String>> actual = LongRunningWrapper.runMethod(parallelGenerator);
+
+			assertEquals(model, getCoveredPairs(expected, features), getCoveredPairs(actual, features));
+			assertTrue(model, actual.size() <= (2 * expected.size()));
+		}
+	}
+
+	@Test
+	public void testParallelMaxNumber() {
+		final IFeatureModel fm = Commons.loadBenchmarkFeatureModelFromFile("100-100.xml");
+
+		final PairWiseConfigurationGenerator parallelGenerator = new PairWiseConfigurationGenerator(Commons.createSatInstance(fm), 5);
+		parallelGenerator.setNumberOfThreads(4);
+		final List<List<String>> actual = LongRunningWrapper.runMethod(parallelGenerator);
+
+		assertEquals(5, actual.size());
+	}
+
+}
@@ -0,0 +1,89 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link ParallelCoreDeadAnalysis} and {@link ParallelImplicationAnalysis}.
+ *
+ * @author FeatureIDE Team
+ */
+public class ParallelAnalysisTests {
+
+	@Test
+	public void testCoreDead() {
+		for (final String model : Commons.ANALYSIS_BENCHMARK_MODELS) {
+			final SatInstance si = Commons.createSatInstance(Commons.loadBenchmarkFeatureModelFromFile(model));
+
+			final int[] expected = LongRunningWrapper.runMethod(new CoreDeadAnalysis(si));
+
+			final ParallelCoreDeadAnalysis parallelAnalysis = new ParallelCoreDeadAnalysis(si);
+			parallelAnalysis.setNumberOfThreads(4);
+			parallelAnalysis.setMinimumTaskSize(1);
+			final int[] actual = LongRunningWrapper.runMethod(parallelAnalysis);
+
+			assertArrayEquals(model, expected, actual);
+		}
+	}
+
+	@Test
+	public void testImplication() {
+		for (final String model : Commons.ANALYSIS_BENCHMARK_MODELS) {
+			final IFeatureModel fm = Commons.loadBenchmarkFeatureModelFromFile(model);
+			final SatInstance si = Commons.createSatInstance(fm);
+
+			final List<int[]> pairs = new ArrayList<>();
+			for (final IFeature feature : fm.getFeatures()) {
+				final IFeature parent = FeatureUtils.getParent(feature);
+				if (parent != null) {
+					pairs.add(new int[] { -si.getVariable(parent.getName()), si.getVariable(feature.getName()) });
+				}
+			}
+
+			final List<int[]> expected = LongRunningWrapper.runMethod(new ImplicationAnalysis(si, pairs));
+
+			final ParallelImplicationAnalysis parallelAnalysis = new ParallelImplicationAnalysis(si, pairs);
+			parallelAnalysis.setNumberOfThreads(4);
+			parallelAnalysis.setMinimumTaskSize(1);
+			final List<int[]> actual = LongRunningWrapper.runMethod(parallelAnalysis);
+
+			assertEquals(model, expected.size(), actual.size());
+			for (int i = 0; i < expected.size(); i++) {
+				assertArrayEquals(model, expected.get(i), actual.get(i));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,140 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.ISatSolver.SatResult;
+import org.prop4j.solver.ModelCounter;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.specs.ContradictionException;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.functional.Functional.IConsumer;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link RandomConfigurationGenerator}.
+ *
+ * @author FeatureIDE Team
+ */
+public class RandomConfigurationGeneratorTests {
+
+	private static boolean isSolution(SatInstance si, int[] model) throws ContradictionException {
+		final BasicSolver solver = new BasicSolver(si);
+		for (final int literal : model) {
+			solver.assignmentPush(literal);
+		}
+		return solver.isSatisfiable() == SatResult.TRUE;
+	}
+
+	@Test
+	public void testAllSolutions() {
+		final SatInstance si = Commons.createSatInstance(Commons.loadTestFeatureModelFromFile("car.xml"));
+		final int numberOfSolutions = new ModelCounter(si).count().intValue();
+
+		final RandomConfigurationGenerator generator = new RandomConfigurationGenerator(si, numberOfSolutions + 10);
+		final List<List<String>> configurations = LongRunningWrapper.runMethod(generator);
+		assertEquals(numberOfSolutions, configurations.size());
+		assertEquals(numberOfSolutions, new HashSet<>(configurations).size());
+		assertEquals(numberOfSolutions, generator.getNumberOfSolutions().intValue());
+	}
+
+	@Test
+	public void testUniformity() {
+		final SatInstance si = Commons.createSatInstance(Commons.loadTestFeatureModelFromFile("car.xml"));
+		final int numberOfSolutions = new ModelCounter(si).count().intValue();
+		final int samplesPerSolution = 100;
+
+		final Map<List<String>, Integer> frequencies = new HashMap<>();
+		for (int i = 0; i < (samplesPerSolution * numberOfSolutions); i++) {
+			final RandomConfigurationGenerator generator = new RandomConfigurationGenerator(si, 1);
+			generator.setSeed(i);
+			final List<List<String>> configurations = LongRunningWrapper.runMethod(generator);
+			assertEquals(1, configurations.size());
+			final Integer frequency = frequencies.get(configurations.get(0));
+			frequencies.put(configurations.get(0), frequency == null ? 1 : frequency + 1);
+		}
+
+		assertEquals(numberOfSolutions, frequencies.size());
+		for (final Integer frequency : frequencies.values()) {
+			assertTrue(frequency.toString(), (frequency > (samplesPerSolution / 2)) && (frequency < (samplesPerSolution * 2)));
+		}
+	}
+
+	@Test
+	public void testParallelSink() throws ContradictionException {
+		final SatInstance si = Commons.createSatInstance(Commons.loadBenchmarkFeatureModelFromFile("berkeley_db_model.xml"));
+		final int maxNumber = 200;
+
+		final List<int[]> samples = new ArrayList<>();
+		final RandomConfigurationGenerator generator = new RandomConfigurationGenerator(si, maxNumber);
+		generator.setNumberOfThreads(4);
+		generator.setSink(new IConsumer<int[]>() {
+
+			@Override
+			public void invoke(int[] model) {
+				samples.add(model);
+			}
+		});
+		assertTrue(LongRunningWrapper.runMethod(generator).isEmpty());
+		assertTrue(generator.q.isEmpty());
+
+		assertEquals(maxNumber, samples.size());
+		for (final int[] model : samples) {
+			assertEquals(si.getNumberOfVariables(), model.length);
+			assertTrue(isSolution(si, model));
+		}
+	}
+
+	@Test
+	public void testSolverFallback() throws ContradictionException {
+		final SatInstance si = Commons.createSatInstance(Commons.loadBenchmarkFeatureModelFromFile("berkeley_db_model.xml"));
+		final int maxNumber = 50;
+
+		final RandomConfigurationGenerator generator = new RandomConfigurationGenerator(si, maxNumber);
+		generator.setMaxNumberOfNodes(1);
+		final List<List<String>> configurations = LongRunningWrapper.runMethod(generator);
+		assertNull(generator.getNumberOfSolutions());
+		assertEquals(maxNumber, configurations.size());
+		assertEquals(maxNumber, new HashSet<>(configurations).size());
+		for (final List<String> configuration : configurations) {
+			final Set<String> selectedFeatures = new HashSet<>(configuration);
+			final int[] model = new int[si.getNumberOfVariables()];
+			for (int i = 1; i <= model.length; i++) {
+				model[i - 1] = selectedFeatures.contains(String.valueOf(si.getVariableObject(i))) ? i : -i;
+			}
+			assertTrue(isSolution(si, model));
+		}
+	}
+
+}
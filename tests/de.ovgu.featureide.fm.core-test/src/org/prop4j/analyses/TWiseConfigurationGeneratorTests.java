@@ -0,0 +1,150 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.ISatSolver;
+import org.prop4j.solver.ISatSolver.SatResult;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.specs.ContradictionException;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link TWiseConfigurationGenerator}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TWiseConfigurationGeneratorTests {
+
+	/**
+	 * Checks that every interaction of t literals is either contained in one of the configurations or cannot occur in any valid configuration.
+	 */
+	private static void checkCoverage(SatInstance si, List<List<String>> configurations, int t) throws ContradictionException {
+		final List<int[]> models = new ArrayList<>();
+		for (final List<String> configuration : configurations) {
+			final Set<String> selected = new HashSet<>(configuration);
+			final int[] model = new int[si.getNumberOfVariables()];
+			for (int i = 0; i < model.length; i++) {
+				model[i] = selected.contains(si.getVariableObject(i + 1)) ? (i + 1) : -(i + 1);
+			}
+			models.add(model);
+		}
+
+		final ISatSolver solver = new BasicSolver(si);
+		for (final int[] model : models) {
+			for (final int literal : model) {
+				solver.assignmentPush(literal);
+			}
+			assertEquals(SatResult.TRUE, solver.isSatisfiable());
+			solver.assignmentClear(0);
+		}
+
+		final int n = si.getNumberOfVariables();
+		final int[] combination = new int[t];
+		for (int i = 0; i < t; i++) {
+			combination[i] = i;
+		}
+		final int[] interaction = new int[t];
+		while (true) {
+			for (int pattern = 0; pattern < (1 << t); pattern++) {
+				for (int i = 0; i < t; i++) {
+					interaction[i] = ((pattern >>> i) & 1) == 0 ? -(combination[i] + 1) : (combination[i] + 1);
+				}
+				boolean covered = false;
+				modelLoop: for (final int[] model : models) {
+					for (final int literal : interaction) {
+						if (model[Math.abs(literal) - 1] != literal) {
+							continue modelLoop;
+						}
+					}
+					covered = true;
+					break;
+				}
+				if (!covered) {
+					for (final int literal : interaction) {
+						solver.assignmentPush(literal);
+					}
+					assertEquals(SatResult.FALSE, solver.isSatisfiable());
+					solver.assignmentClear(0);
+				}
+			}
+			int i = t - 1;
+			while ((i >= 0) && (combination[i] == ((n - t) + i))) {
+				i--;
+			}
+			if (i < 0) {
+				break;
+			}
+			combination[i]++;
+			for (int j = i + 1; j < t; j++) {
+				combination[j] = combination[j - 1] + 1;
+			}
+		}
+	}
+
+	@Test
+	public void testPairWise() throws ContradictionException {
+		for (final String model : new String[] { "100-100.xml", "berkeley_db_model.xml", "issue_264_model_optional.xml" }) {
+			final SatInstance si = Commons.createSatInstance(Commons.loadBenchmarkFeatureModelFromFile(model));
+			final List<List<String>> configurations = LongRunningWrapper.runMethod(new TWiseConfigurationGenerator(si, 2, Integer.MAX_VALUE));
+			assertFalse(model, configurations.isEmpty());
+			checkCoverage(si, configurations, 2);
+		}
+	}
+
+	@Test
+	public void testThreeWise() throws ContradictionException {
+		for (final String model : new String[] { "car.xml", "apl_model.xml" }) {
+			final SatInstance si = Commons.createSatInstance(Commons.loadTestFeatureModelFromFile(model));
+			final List<List<String>> configurations = LongRunningWrapper.runMethod(new TWiseConfigurationGenerator(si, 3, Integer.MAX_VALUE));
+			checkCoverage(si, configurations, 3);
+		}
+	}
+
+	@Test
+	public void testFourWise() throws ContradictionException {
+		final SatInstance si = Commons.createSatInstance(Commons.loadTestFeatureModelFromFile("car.xml"));
+		final TWiseConfigurationGenerator generator = new TWiseConfigurationGenerator(si, 4, Integer.MAX_VALUE);
+		final List<List<String>> configurations = LongRunningWrapper.runMethod(generator);
+		checkCoverage(si, configurations, 4);
+		assertTrue(generator.getNumberOfInvalidInteractions() > 0);
+	}
+
+	@Test
+	public void testMaxNumber() {
+		final SatInstance si = Commons.createSatInstance(Commons.loadBenchmarkFeatureModelFromFile("100-100.xml"));
+		final List<List<String>> configurations = LongRunningWrapper.runMethod(new TWiseConfigurationGenerator(si, 3, 3));
+		assertTrue(configurations.size() <= 3);
+	}
+
+}
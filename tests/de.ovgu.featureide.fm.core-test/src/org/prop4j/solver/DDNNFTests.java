@@ -0,0 +1,202 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Or;
+import org.prop4j.analyses.ConditionallyCoreDeadAnalysis;
+import org.prop4j.solver.ISatSolver.SatResult;
+import org.sat4j.specs.ContradictionException;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.io.DDNNFFormat;
+import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link DDNNFCompiler}, {@link DDNNF}, and {@link DDNNFFormat}.
+ *
+ * @author FeatureIDE Team
+ */
+public class DDNNFTests {
+
+	private static DDNNF compile(SatInstance si) {
+		return LongRunningWrapper.runMethod(new DDNNFCompiler(si));
+	}
+
+	private static int[] getRandomAssumptions(SatInstance si, Random random, int size) {
+		final int[] assumptions = new int[size];
+		for (int i = 0; i < size; i++) {
+			final int var = random.nextInt(si.getNumberOfVariables()) + 1;
+			assumptions[i] = random.nextBoolean() ? var : -var;
+		}
+		return assumptions;
+	}
+
+	private static boolean isSatisfiable(SatInstance si, int... assumptions) throws ContradictionException {
+		final BasicSolver solver = new BasicSolver(si);
+		for (final int assumption : assumptions) {
+			solver.assignmentPush(assumption);
+		}
+		return solver.isSatisfiable() == SatResult.TRUE;
+	}
+
+	@Test
+	public void testCount() {
+		for (final String model : Commons.SMALL_TEST_MODELS) {
+			final SatInstance si = Commons.createSatInstance(Commons.loadTestFeatureModelFromFile(model));
+			final DDNNF ddnnf = compile(si);
+			final ModelCounter counter = new ModelCounter(si);
+			assertEquals(model, counter.count(), ddnnf.count(new int[0]));
+			for (int i = 1; i <= si.getNumberOfVariables(); i++) {
+				assertEquals(model, counter.count(new int[] { i }, null), ddnnf.count(new int[] { i }));
+				assertEquals(model, counter.count(new int[] { -i }, null), ddnnf.count(new int[] { -i }));
+			}
+		}
+		for (final String model : Commons.LARGE_BENCHMARK_MODELS) {
+			final SatInstance si = Commons.createSatInstance(Commons.loadBenchmarkFeatureModelFromFile(model));
+			assertEquals(model, new ModelCounter(si).count(), compile(si).count(new int[0]));
+		}
+	}
+
+	@Test
+	public void testSatisfiabilityAndPropagation() throws ContradictionException {
+		final Random random = new Random(0);
+		for (final String model : Commons.LARGE_BENCHMARK_MODELS) {
+			final SatInstance si = Commons.createSatInstance(Commons.loadBenchmarkFeatureModelFromFile(model));
+			final DDNNF ddnnf = compile(si);
+			for (int i = 0; i < 20; i++) {
+				final int[] assumptions = getRandomAssumptions(si, random, 1 + (i % 4));
+				assertEquals(model, isSatisfiable(si, assumptions), ddnnf.isSatisfiable(assumptions));
+
+				final ConditionallyCoreDeadAnalysis analysis = new ConditionallyCoreDeadAnalysis(si);
+				analysis.setAssumptions(assumptions);
+				final int[] expected = LongRunningWrapper.runMethod(analysis);
+				final int[] actual = ddnnf.getImpliedLiterals(assumptions);
+				final Set<Integer> assumptionVariables = new HashSet<>();
+				for (final int assumption : assumptions) {
+					assumptionVariables.add(Math.abs(assumption));
+				}
+				final Set<Integer> expectedSet = new HashSet<>();
+				for (final int literal : expected) {
+					if (!assumptionVariables.contains(Math.abs(literal))) {
+						expectedSet.add(literal);
+					}
+				}
+				final Set<Integer> actualSet = new HashSet<>();
+				for (final int literal : actual) {
+					actualSet.add(literal);
+				}
+				assertEquals(model, expectedSet, actualSet);
+			}
+		}
+	}
+
+	@Test
+	public void testSample() throws ContradictionException {
+		final Random random = new Random(0);
+		for (final String model : Commons.SMALL_TEST_MODELS) {
+			final SatInstance si = Commons.createSatInstance(Commons.loadTestFeatureModelFromFile(model));
+			final DDNNF ddnnf = compile(si);
+			final int numberOfSolutions = ddnnf.count(new int[0]).intValue();
+			final List<int[]> samples = ddnnf.sample(new int[0], 50 * numberOfSolutions, random);
+			assertEquals(model, 50 * numberOfSolutions, samples.size());
+
+			final Set<List<Integer>> distinctSamples = new HashSet<>();
+			for (final int[] sample : samples) {
+				for (int i = 0; i < sample.length; i++) {
+					assertEquals(model, i + 1, Math.abs(sample[i]));
+				}
+				assertTrue(model, isSatisfiable(si, sample));
+				final Integer[] boxedSample = new Integer[sample.length];
+				for (int i = 0; i < sample.length; i++) {
+					boxedSample[i] = sample[i];
+				}
+				distinctSamples.add(Arrays.asList(boxedSample));
+			}
+			assertEquals(model, numberOfSolutions, distinctSamples.size());
+		}
+
+		final SatInstance si = Commons.createSatInstance(Commons.loadBenchmarkFeatureModelFromFile("berkeley_db_model.xml"));
+		final DDNNF ddnnf = compile(si);
+		final int[] assumptions = ddnnf.sample(new int[0], 1, random).get(0);
+		final int[] partialAssumptions = Arrays.copyOf(assumptions, 5);
+		for (final int[] sample : ddnnf.sample(partialAssumptions, 100, random)) {
+			assertArrayEquals(partialAssumptions, Arrays.copyOf(sample, 5));
+			assertTrue(isSatisfiable(si, sample));
+		}
+	}
+
+	@Test
+	public void testContradiction() {
+		final SatInstance si = new SatInstance(new And(new Or(new Literal("A")), new Or(new Literal("A", false))));
+		final DDNNF ddnnf = compile(si);
+		assertEquals(BigInteger.ZERO, ddnnf.count(new int[0]));
+		assertFalse(ddnnf.isSatisfiable(new int[0]));
+		assertEquals(0, ddnnf.getImpliedLiterals(new int[0]).length);
+		assertTrue(ddnnf.sample(new int[0], 10, new Random(0)).isEmpty());
+	}
+
+	@Test
+	public void testFormat() {
+		for (final String model : Commons.LARGE_BENCHMARK_MODELS) {
+			final SatInstance si = Commons.createSatInstance(Commons.loadBenchmarkFeatureModelFromFile(model));
+			final DDNNF ddnnf = compile(si);
+			final DDNNFFormat format = new DDNNFFormat();
+			final DDNNF readDdnnf = new DDNNF();
+			assertFalse(model, SimpleFileHandler.loadFromString(SimpleFileHandler.saveToString(ddnnf, format), readDdnnf, format).containsError());
+
+			assertEquals(model, DDNNFCompiler.computeChecksum(si), readDdnnf.getChecksum());
+			assertEquals(model, ddnnf.getNumberOfNodes(), readDdnnf.getNumberOfNodes());
+			assertEquals(model, ddnnf.getNumberOfEdges(), readDdnnf.getNumberOfEdges());
+			assertEquals(model, ddnnf.count(new int[] { 2 }), readDdnnf.count(new int[] { 2 }));
+		}
+
+		assertTrue(SimpleFileHandler.loadFromString("nnf 2 0 1\nL 1\n", new DDNNF(), new DDNNFFormat()).containsError());
+	}
+
+	@Test
+	public void testMaxNumberOfNodes() {
+		final SatInstance si = Commons.createSatInstance(Commons.loadBenchmarkFeatureModelFromFile(Commons.LARGE_BENCHMARK_MODELS[0]));
+		final DDNNF ddnnf = compile(si);
+		final DDNNFCompiler compiler = new DDNNFCompiler(si);
+		compiler.setMaxNumberOfNodes(ddnnf.getNumberOfNodes() / 2);
+		assertNull(LongRunningWrapper.runMethod(compiler));
+		compiler.setMaxNumberOfNodes(ddnnf.getNumberOfNodes());
+		assertEquals(ddnnf.getNumberOfNodes(), LongRunningWrapper.runMethod(compiler).getNumberOfNodes());
+	}
+
+}
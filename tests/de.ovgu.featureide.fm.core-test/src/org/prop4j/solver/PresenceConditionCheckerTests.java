@@ -0,0 +1,232 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+import org.prop4j.SatSolver;
+import org.prop4j.solver.ISatSolver.SatResult;
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+
+/**
+ * Tests for {@link PresenceConditionChecker}.
+ *
+ * @author FeatureIDE Team
+ */
+public class PresenceConditionCheckerTests {
+
+	private static Node createCondition(List<String> names, Random random, int depth) {
+		if ((depth == 0) || random.nextInt(3) == 0) {
+			return new Literal(names.get(random.nextInt(names.size())), random.nextBoolean());
+		}
+		final Node left = createCondition(names, random, depth - 1);
+		final Node right = createCondition(names, random, depth - 1);
+		switch (random.nextInt(3)) {
+		case 0:
+			return new And(left, right);
+		case 1:
+			return new Or(left, right);
+		default:
+			return new Not(new Or(left, right));
+		}
+	}
+
+	private static List<Node[]> createQueries(IFeatureModel fm, int size) {
+		final List<String> names = new ArrayList<>(fm.getFeatureOrderList());
+		names.add("UNDEFINED_FEATURE");
+		final Random random = new Random(0);
+		final List<Node[]> queries = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			final Node[] conditions = new Node[1 + random.nextInt(3)];
+			for (int j = 0; j < conditions.length; j++) {
+				conditions[j] = createCondition(names, random, 3);
+			}
+			queries.add(conditions);
+		}
+		return queries;
+	}
+
+	private static SatResult isSatisfiable(Node... nodes) throws TimeoutException {
+		return new SatSolver(new And(nodes).clone(), 1000).isSatisfiable() ? SatResult.TRUE : SatResult.FALSE;
+	}
+
+	private static Node[] withFeatureModel(Node featureModel, Node[] conditions) {
+		final Node[] nodes = new Node[conditions.length + 1];
+		nodes[0] = featureModel;
+		System.arraycopy(conditions, 0, nodes, 1, conditions.length);
+		return nodes;
+	}
+
+	@Test
+	public void testConditions() throws TimeoutException {
+		final IFeatureModel fm = Commons.loadTestFeatureModelFromFile("car.xml");
+		final Node featureModel = AdvancedNodeCreator.createNodes(fm);
+		final PresenceConditionChecker checker = new PresenceConditionChecker(featureModel);
+		assertEquals(SatResult.TRUE, checker.isSatisfiableWithFeatureModel());
+		for (final Node[] conditions : createQueries(fm, 200)) {
+			assertEquals(isSatisfiable(conditions), checker.isSatisfiable(conditions));
+			assertEquals(isSatisfiable(withFeatureModel(featureModel, conditions)), checker.isSatisfiableWithFeatureModel(conditions));
+		}
+
+		final Node manual = new Literal("Manual");
+		final Node automatic = new Literal("Automatic");
+		assertEquals(SatResult.FALSE, checker.isSatisfiable(manual, new Not(manual)));
+		assertEquals(SatResult.TRUE, checker.isSatisfiable(manual, automatic));
+		assertEquals(SatResult.FALSE, checker.isSatisfiableWithFeatureModel(manual, automatic));
+		assertEquals(SatResult.FALSE, checker.isSatisfiableWithFeatureModel(automatic, manual));
+		assertEquals(SatResult.TRUE, checker.isSatisfiableWithFeatureModel(new Or(manual, automatic)));
+		assertEquals(SatResult.FALSE, checker.isSatisfiableWithFeatureModel(new Not(new Or(automatic, manual))));
+	}
+
+	@Test
+	public void testVoidFeatureModel() {
+		final PresenceConditionChecker checker = new PresenceConditionChecker(new And(new Literal("A"), new Literal("A", false)));
+		assertEquals(SatResult.FALSE, checker.isSatisfiableWithFeatureModel());
+		assertEquals(SatResult.FALSE, checker.isSatisfiableWithFeatureModel(new Literal("B")));
+		assertEquals(SatResult.TRUE, checker.isSatisfiable(new Literal("A")));
+	}
+
+	/**
+	 * Creates the pigeonhole formula, which is unsatisfiable and hard to solve for resolution-based solvers.
+	 */
+	private static Node createPigeonholeFormula(int holes) {
+		final List<Node> clauses = new ArrayList<>();
+		for (int p = 0; p <= holes; p++) {
+			final Node[] pigeonInSomeHole = new Node[holes];
+			for (int h = 0; h < holes; h++) {
+				pigeonInSomeHole[h] = new Literal("p" + p + "h" + h);
+			}
+			clauses.add(new Or(pigeonInSomeHole));
+		}
+		for (int h = 0; h < holes; h++) {
+			for (int p1 = 0; p1 <= holes; p1++) {
+				for (int p2 = p1 + 1; p2 <= holes; p2++) {
+					clauses.add(new Or(new Literal("p" + p1 + "h" + h, false), new Literal("p" + p2 + "h" + h, false)));
+				}
+			}
+		}
+		return new And(clauses.toArray(new Node[clauses.size()]));
+	}
+
+	@Test
+	public void testTimeout() {
+		final PresenceConditionChecker checker = new PresenceConditionChecker(new And());
+		final Node condition = createPigeonholeFormula(8);
+		checker.setTimeout(1);
+		assertEquals(SatResult.TIMEOUT, checker.isSatisfiable(condition));
+		assertEquals(SatResult.TIMEOUT, checker.isSatisfiableWithFeatureModel(condition));
+
+		// timeouts are not remembered
+		checker.setTimeout(60000);
+		assertEquals(SatResult.FALSE, checker.isSatisfiable(condition));
+		assertEquals(SatResult.TRUE, checker.isSatisfiable(new Literal("p0h0")));
+	}
+
+	@Test
+	public void testParallel() throws Exception {
+		final IFeatureModel fm = Commons.loadBenchmarkFeatureModelFromFile("berkeley_db_model.xml");
+		final Node featureModel = AdvancedNodeCreator.createNodes(fm);
+		final List<Node[]> queries = createQueries(fm, 100);
+		final SatResult[] expected = new SatResult[queries.size()];
+		for (int i = 0; i < expected.length; i++) {
+			expected[i] = isSatisfiable(withFeatureModel(featureModel, queries.get(i)));
+		}
+
+		final PresenceConditionChecker checker = new PresenceConditionChecker(featureModel);
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<SatResult[]>> futures = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				futures.add(executor.submit(new Callable<SatResult[]>() {
+
+					@Override
+					public SatResult[] call() {
+						final SatResult[] actual = new SatResult[queries.size()];
+						for (int i = 0; i < actual.length; i++) {
+							actual[i] = checker.isSatisfiableWithFeatureModel(queries.get(i));
+						}
+						return actual;
+					}
+				}));
+			}
+			for (final Future<SatResult[]> future : futures) {
+				final SatResult[] actual = future.get();
+				for (int i = 0; i < expected.length; i++) {
+					assertEquals(Integer.toString(i), expected[i], actual[i]);
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Runs a query in the given executor and returns a weak reference to the checker.
+	 */
+	private static WeakReference<PresenceConditionChecker> checkInThread(ExecutorService executor) throws Exception {
+		final PresenceConditionChecker checker = new PresenceConditionChecker(new Or(new Literal("A"), new Literal("B")));
+		assertEquals(SatResult.TRUE, executor.submit(new Callable<SatResult>() {
+
+			@Override
+			public SatResult call() {
+				return checker.isSatisfiableWithFeatureModel(new Literal("A", false));
+			}
+		}).get());
+		return new WeakReference<>(checker);
+	}
+
+	@Test
+	public void testGarbageCollection() throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(1);
+		try {
+			// the thread of the executor outlives the checker, like the threads of a build pool
+			final WeakReference<PresenceConditionChecker> reference = checkInThread(executor);
+			for (int i = 0; (i < 100) && (reference.get() != null); i++) {
+				System.gc();
+				Thread.sleep(10);
+			}
+			assertNull(reference.get());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+}
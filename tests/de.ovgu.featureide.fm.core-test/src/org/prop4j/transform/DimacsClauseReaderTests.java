@@ -0,0 +1,155 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.transform;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.prop4j.Node;
+import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.ClauseList;
+import org.prop4j.solver.ISatSolver.SatResult;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.specs.ContradictionException;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.io.dimacs.DimacsClauseReader;
+import de.ovgu.featureide.fm.core.io.dimacs.DimacsReader;
+import de.ovgu.featureide.fm.core.io.dimacs.DimacsWriter;
+
+/**
+ * Tests for {@link DimacsClauseReader} and {@link DimacsWriter#write(SatInstance, java.io.Writer)}.
+ *
+ * @author FeatureIDE Team
+ */
+public class DimacsClauseReaderTests {
+
+	private static DimacsClauseReader createReader(int chunkSize, int numberOfThreads) {
+		final DimacsClauseReader reader = new DimacsClauseReader();
+		reader.setChunkSize(chunkSize);
+		reader.setNumberOfThreads(numberOfThreads);
+		return reader;
+	}
+
+	/**
+	 * Compares the result with the one of {@link DimacsReader} for small and large chunks.
+	 */
+	private static void testEquals(String s) throws ParseException, IOException {
+		final DimacsReader dimacsReader = new DimacsReader();
+		dimacsReader.setReadingVariableDirectory(true);
+		final Node expected = dimacsReader.read(s);
+		for (final DimacsClauseReader reader : Arrays.asList(new DimacsClauseReader(), createReader(4, 3))) {
+			assertEquals(s, expected, reader.read(s).getCnf());
+		}
+	}
+
+	private static void testException(String s) {
+		for (final DimacsClauseReader reader : Arrays.asList(new DimacsClauseReader(), createReader(4, 3))) {
+			try {
+				reader.read(s);
+				fail(s);
+			} catch (final ParseException e) {}
+		}
+	}
+
+	@Test
+	public void testValid() throws ParseException, IOException {
+		testEquals("p cnf 3 2\n1 -3 0\n2 3 -1 0");
+		testEquals("p cnf 3 2\n1 -3 0\n2 3 -1 0\n");
+		testEquals("p cnf 3 2 1 -3 0 2 3 -1 0");
+		testEquals("p cnf 3 2\n1 -3 0\n\n\n \n \n\n2 3 -1 0");
+		testEquals("p cnf 3 2\n1\n-3 0\n2 3 -1 0");
+		testEquals("p\tcnf\t3\t2\n1\t-3\t0\t\n2\t3\t-1\t0");
+		testEquals("p cnf 3 2\r\n1 -3 0\r\n2 3 -1 0\r\n");
+		testEquals("c start\np cnf 3 2\nc middle\n1 -3 0\nc\n2 3 -1 0\nc end");
+		testEquals("p cnf 3 2\n1 -3 0\n2 3 -1");
+		testEquals("p cnf 3 2\n1 -3 0 2 3 -1 0");
+		testEquals("p cnf 1 1\n1 0");
+	}
+
+	@Test
+	public void testInvalid() {
+		testException("");
+		testException("1 -3 0\n2 3 -1 0");
+		testException("p cnf 3 2\np cnf 3 2\n1 -3 0\n2 3 -1 0");
+		testException("p cnf 3 2\n1 -3 0");
+		testException("p cnf 3 2\n1 -3 0\n2 3 -1 0\n1 0");
+		testException("p cnf 3 2\n1 -3 0\n0\n2 3 -1 0");
+		testException("p cnf 2 2\n1 -3 0\n2 3 -1 0");
+		testException("p cnf 3 2\n1 -3 0\n2 x -1 0");
+		testException("p cnf 3 2\n1 -0 -3 0\n2 3 -1 0");
+		testException("p dnf 3 2\n1 -3 0\n2 3 -1 0");
+		testException("p cnf -3 2\n1 -3 0\n2 3 -1 0");
+		testException("p cnf 3\n1 -3 0\n2 3 -1 0");
+		testException("p cnf 0 0");
+	}
+
+	@Test
+	public void testVariableDirectory() throws ParseException, IOException {
+		testEquals("c 1 Foo\nc 2 Bar\nc 3 Baz\np cnf 3 2\n1 -3 0\n2 3 -1 0");
+		testEquals("c 1 Foo\nc 3 Baz\np cnf 3 2\n1 -3 0\n2 3 -1 0");
+		testEquals("c 1 Foo\nc 2 Bar\nc 3 Baz\nc 1 Duplicate\np cnf 3 2\n1 -3 0\n2 3 -1 0");
+		testEquals("c 1 Foo\nc\t\t3 c 3 Foo\nc 1\np cnf 3 2\n1 -3 0\n2 3 -1 0");
+		testEquals("c 1   Surrounding whitespace  \nc 2  \np cnf 3 2\n1 -3 0\n2 3 -1 0");
+		testEquals("c 1 Foo\np cnf 3 2\nc 2 Straggler\n1 -3 0\n2 3 -1 0");
+	}
+
+	@Test
+	public void testRoundTrip() throws ParseException, IOException, ContradictionException {
+		final SatInstance si = Commons.createSatInstance(Commons.loadBenchmarkFeatureModelFromFile("berkeley_db_model.xml"));
+		final Path file = Files.createTempFile("model", ".dimacs");
+		try {
+			final DimacsWriter writer = new DimacsWriter();
+			writer.setWritingVariableDirectory(true);
+			try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+				writer.write(si, out);
+			}
+
+			final SatInstance readSi = createReader(64, 4).read(file);
+			final ClauseList expectedClauses = si.getClauses();
+			final ClauseList actualClauses = readSi.getClauses();
+			assertEquals(expectedClauses.size(), actualClauses.size());
+			for (int i = 0; i < expectedClauses.size(); i++) {
+				assertArrayEquals(expectedClauses.getClause(i), actualClauses.getClause(i));
+			}
+			assertEquals(si.getNumberOfVariables(), readSi.getNumberOfVariables());
+			for (int i = 1; i <= si.getNumberOfVariables(); i++) {
+				assertEquals(si.getVariableObject(i), readSi.getVariableObject(i));
+			}
+			assertEquals(si.getCnf(), readSi.getCnf());
+			assertTrue(new BasicSolver(readSi).isSatisfiable() == SatResult.TRUE);
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+}
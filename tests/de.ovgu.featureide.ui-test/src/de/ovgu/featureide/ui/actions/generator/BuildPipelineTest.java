@@ -0,0 +1,245 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.SubMonitor;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelFactory;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+import de.ovgu.featureide.ui.actions.generator.BuildPipeline.Stage;
+import de.ovgu.featureide.ui.actions.generator.IConfigurationBuilderBasics.BuildOrder;
+import de.ovgu.featureide.ui.actions.generator.IConfigurationBuilderBasics.BuildType;
+import de.ovgu.featureide.ui.actions.generator.sorter.AbstractConfigurationSorter;
+
+public class BuildPipelineTest {
+
+	private static final long TIMEOUT = 10000;
+
+	private static final int NUMBER_OF_CONFIGURATIONS = 100;
+	private static final int NUMBER_OF_WORKERS = 2;
+	private static final int NUMBER_OF_COMPILERS = 2 * NUMBER_OF_WORKERS;
+
+	private static final class StubSorter extends AbstractConfigurationSorter {
+
+		private int maxBufferSize = 0;
+
+		public StubSorter(IFeatureModel featureModel) {
+			super(featureModel);
+		}
+
+		@Override
+		public synchronized void addConfiguration(BuilderConfiguration configuration) {
+			super.addConfiguration(configuration);
+			maxBufferSize = Math.max(maxBufferSize, getBufferSize());
+		}
+
+	}
+
+	private static final class StubGenerator extends Generator {
+
+		public StubGenerator(ConfigurationBuilder builder) {
+			super(builder);
+		}
+
+		@Override
+		public void generate(BuilderConfiguration configuration) {}
+
+	}
+
+	/**
+	 * A pipeline whose compilation does nothing and whose tests wait until they are released.
+	 */
+	private final class StubPipeline extends BuildPipeline {
+
+		public StubPipeline(IMonitor monitor) {
+			super(builder, monitor, new StubGenerator(builder), NUMBER_OF_WORKERS, NUMBER_OF_WORKERS, NUMBER_OF_WORKERS);
+		}
+
+		@Override
+		protected void compile(JavaCompiler compiler, BuilderConfiguration configuration) {}
+
+		@Override
+		protected void runTests(JavaCompiler compiler, BuilderConfiguration configuration) {
+			try {
+				testsReleased.await();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+	}
+
+	private IFeatureModel featureModel;
+	private StubSorter sorter;
+	private ConfigurationBuilder builder;
+	private CountDownLatch testsReleased;
+
+	@Before
+	public void setUp() {
+		final IFeatureModelFactory factory = FMFactoryManager.getDefaultFactory();
+		featureModel = factory.createFeatureModel();
+		final IFeature root = factory.createFeature(featureModel, "Root");
+		featureModel.addFeature(root);
+		featureModel.getStructure().setRoot(root.getStructure());
+
+		// without configurations to build, the builder does not start a build job
+		builder = new ConfigurationBuilder(null, BuildType.ALL_VALID, false, "", 0, BuildOrder.DEFAULT, false, null, 0, 0);
+		sorter = new StubSorter(featureModel);
+		builder.sorter = sorter;
+		builder.configurationNumber = NUMBER_OF_CONFIGURATIONS;
+		builder.globalMonitor = SubMonitor.convert(new NullProgressMonitor());
+		builder.tmp = (IFolder) Proxy.newProxyInstance(IFolder.class.getClassLoader(), new Class<?>[] { IFolder.class }, new InvocationHandler() {
+
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				switch (method.getName()) {
+				case "getFolder":
+					return proxy;
+				case "exists":
+					return true;
+				default:
+					return null;
+				}
+			}
+		});
+		testsReleased = new CountDownLatch(1);
+	}
+
+	private void addConfigurations(int numberOfConfigurations) {
+		for (int i = 0; i < numberOfConfigurations; i++) {
+			builder.addConfiguration(new BuilderConfiguration(new Configuration(featureModel), "config" + i));
+		}
+	}
+
+	private static void awaitProcessed(Stage stage, int processed) throws InterruptedException {
+		final long end = System.currentTimeMillis() + TIMEOUT;
+		while ((stage.getProcessed() < processed) && (System.currentTimeMillis() < end)) {
+			Thread.sleep(10);
+		}
+		assertEquals(processed, stage.getProcessed());
+	}
+
+	/**
+	 * Waits until all workers of the given pipeline are blocked because no test finishes.
+	 */
+	private static void awaitBlocked(BuildPipeline pipeline) throws InterruptedException {
+		// the test workers and the test queue hold all compilers
+		awaitProcessed(pipeline.getStages().get(1), NUMBER_OF_COMPILERS);
+		// the compilation workers wait for a compiler, the compilation queue is full, and the composition workers wait for space in the queue
+		awaitProcessed(pipeline.getStages().get(0), NUMBER_OF_COMPILERS + NUMBER_OF_WORKERS + (2 * NUMBER_OF_WORKERS) + NUMBER_OF_WORKERS);
+	}
+
+	@Test
+	public void testBufferBackpressure() throws Exception {
+		final Thread sampler = new Thread() {
+
+			@Override
+			public void run() {
+				addConfigurations(ConfigurationBuilder.MAX_BUFFER_SIZE + 1);
+			}
+		};
+		sampler.start();
+		final long end = System.currentTimeMillis() + TIMEOUT;
+		while ((sorter.getBufferSize() < ConfigurationBuilder.MAX_BUFFER_SIZE) && (System.currentTimeMillis() < end)) {
+			Thread.sleep(10);
+		}
+		sampler.join(200);
+		assertTrue(sampler.isAlive());
+		assertEquals(ConfigurationBuilder.MAX_BUFFER_SIZE, sorter.getBufferSize());
+
+		builder.takeConfiguration();
+		sampler.join(TIMEOUT);
+		assertFalse(sampler.isAlive());
+		assertEquals(ConfigurationBuilder.MAX_BUFFER_SIZE, sorter.maxBufferSize);
+	}
+
+	@Test
+	public void testTermination() throws Exception {
+		testsReleased.countDown();
+		final BuildPipeline pipeline = new StubPipeline(new NullMonitor());
+		pipeline.start();
+		addConfigurations(NUMBER_OF_CONFIGURATIONS);
+		builder.finish();
+
+		assertTrue(pipeline.awaitTermination(TIMEOUT));
+		assertFalse(pipeline.isCanceled());
+		assertEquals(3, pipeline.getStages().size());
+		for (final Stage stage : pipeline.getStages()) {
+			assertEquals(NUMBER_OF_CONFIGURATIONS, stage.getProcessed());
+		}
+	}
+
+	@Test
+	public void testStageBackpressure() throws Exception {
+		final BuildPipeline pipeline = new StubPipeline(new NullMonitor());
+		addConfigurations(NUMBER_OF_CONFIGURATIONS);
+		builder.finish();
+		pipeline.start();
+
+		awaitBlocked(pipeline);
+		final int composed = pipeline.getStages().get(0).getProcessed();
+		assertFalse(pipeline.awaitTermination(200));
+		assertEquals(composed, pipeline.getStages().get(0).getProcessed());
+		assertEquals(NUMBER_OF_COMPILERS, pipeline.getStages().get(1).getProcessed());
+		assertEquals(0, pipeline.getStages().get(2).getProcessed());
+
+		pipeline.cancel();
+		assertTrue(pipeline.awaitTermination(TIMEOUT));
+	}
+
+	@Test
+	public void testCancel() throws Exception {
+		final NullMonitor monitor = new NullMonitor();
+		final BuildPipeline pipeline = new StubPipeline(monitor);
+		addConfigurations(NUMBER_OF_CONFIGURATIONS);
+		builder.finish();
+		pipeline.start();
+
+		awaitBlocked(pipeline);
+		monitor.cancel();
+		testsReleased.countDown();
+
+		assertTrue(pipeline.awaitTermination(TIMEOUT));
+		assertTrue(pipeline.isCanceled());
+		assertTrue(builder.cancelGeneratorJobs);
+		assertTrue(pipeline.getStages().get(2).getProcessed() < NUMBER_OF_CONFIGURATIONS);
+	}
+
+}
@@ -0,0 +1,267 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.IPath;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.ovgu.featureide.ui.actions.generator.ClassCache.CompilationUnit;
+
+public class ClassCacheTest {
+
+	private static final String A = "package pkg;\n\npublic class A {\n\tB b = new B();\n}\n";
+	private static final String B = "package pkg;\n\nclass B {\n\tint value = 1;\n}\n";
+	private static final String C = "package pkg;\n\nclass C {\n\tint value = 1;\n}\n";
+	private static final String MAIN = "public class Main {\n\tpublic static void main(String[] args) {\n\t\tnew pkg.A();\n\t}\n}\n";
+
+	private Path folder;
+
+	@Before
+	public void createFolder() throws IOException {
+		folder = Files.createTempDirectory("ClassCacheTest");
+	}
+
+	@After
+	public void deleteFolder() throws IOException {
+		new ClassCache(folder).close();
+	}
+
+	private static byte[] createClassFile(String sourceFile) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(0xCAFEBABE);
+		out.writeShort(0);
+		out.writeShort(51);
+
+		out.writeShort(14);
+		out.writeByte(1); // #1
+		out.writeUTF("Main");
+		out.writeByte(7); // #2
+		out.writeShort(1);
+		out.writeByte(1); // #3
+		out.writeUTF("java/lang/Object");
+		out.writeByte(7); // #4
+		out.writeShort(3);
+		out.writeByte(5); // #5 and #6
+		out.writeLong(42);
+		out.writeByte(1); // #7
+		out.writeUTF("value");
+		out.writeByte(1); // #8
+		out.writeUTF("J");
+		out.writeByte(1); // #9
+		out.writeUTF("ConstantValue");
+		out.writeByte(1); // #10
+		out.writeUTF("Deprecated");
+		out.writeByte(1); // #11
+		out.writeUTF("SourceFile");
+		out.writeByte(1); // #12
+		out.writeUTF(sourceFile == null ? "" : sourceFile);
+		out.writeByte(8); // #13
+		out.writeShort(12);
+
+		// access flags, this class, super class, interfaces
+		out.writeShort(0x21);
+		out.writeShort(2);
+		out.writeShort(4);
+		out.writeShort(0);
+
+		// public static final long value = 42;
+		out.writeShort(1);
+		out.writeShort(0x19);
+		out.writeShort(7);
+		out.writeShort(8);
+		out.writeShort(1);
+		out.writeShort(9);
+		out.writeInt(2);
+		out.writeShort(5);
+
+		// methods
+		out.writeShort(0);
+
+		out.writeShort(sourceFile == null ? 1 : 2);
+		out.writeShort(10);
+		out.writeInt(0);
+		if (sourceFile != null) {
+			out.writeShort(11);
+			out.writeInt(2);
+			out.writeShort(12);
+		}
+		out.close();
+		return bytes.toByteArray();
+	}
+
+	private static String readSourceFile(byte[] classFile) throws IOException {
+		return ClassCache.readSourceFile(new DataInputStream(new ByteArrayInputStream(classFile)));
+	}
+
+	private IFile createFile(String name, String content) throws IOException {
+		final File file = Files.write(folder.resolve(name), content.getBytes(StandardCharsets.UTF_8)).toFile();
+		final IPath location = (IPath) Proxy.newProxyInstance(IPath.class.getClassLoader(), new Class<?>[] { IPath.class }, new InvocationHandler() {
+
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				if ("toFile".equals(method.getName())) {
+					return file;
+				}
+				throw new UnsupportedOperationException(method.getName());
+			}
+		});
+		return (IFile) Proxy.newProxyInstance(IFile.class.getClassLoader(), new Class<?>[] { IFile.class }, new InvocationHandler() {
+
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				switch (method.getName()) {
+				case "getName":
+					return file.getName();
+				case "getLocation":
+					return location;
+				default:
+					throw new UnsupportedOperationException(method.getName());
+				}
+			}
+		});
+	}
+
+	private List<CompilationUnit> createCompilationUnits(String compilerSettings, String a, String b, String c) throws IOException {
+		final List<IFile> files = new ArrayList<>();
+		files.add(createFile("Main.java", MAIN));
+		files.add(createFile("A.java", a));
+		files.add(createFile("B.java", b));
+		files.add(createFile("C.java", c));
+		return ClassCache.createCompilationUnits(files, compilerSettings);
+	}
+
+	@Test
+	public void testReadSourceFile() throws IOException {
+		assertEquals("Main.java", readSourceFile(createClassFile("Main.java")));
+	}
+
+	@Test
+	public void testReadSourceFileFromPath() throws IOException {
+		final Path classFile = Files.write(folder.resolve("Main.class"), createClassFile("Main.java"));
+		assertEquals("Main.java", ClassCache.readSourceFile(classFile));
+	}
+
+	@Test
+	public void testReadSourceFileOfCompiledClass() throws IOException {
+		try (InputStream in = ClassCacheTest.class.getResourceAsStream("ClassCacheTest.class")) {
+			assertEquals("ClassCacheTest.java", ClassCache.readSourceFile(new DataInputStream(in)));
+		}
+	}
+
+	@Test
+	public void testReadSourceFileWithoutAttribute() throws IOException {
+		assertNull(readSourceFile(createClassFile(null)));
+	}
+
+	@Test
+	public void testReadSourceFileOfOtherFile() throws IOException {
+		assertNull(readSourceFile(A.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	@Test
+	public void testCompilationUnitIds() throws IOException {
+		final List<CompilationUnit> units = createCompilationUnits("", A, B, C);
+		assertEquals(4, units.size());
+		assertEquals("Main.java", units.get(0).getId());
+		assertEquals("pkg/A.java", units.get(1).getId());
+		assertEquals("pkg/B.java", units.get(2).getId());
+		assertEquals("pkg/C.java", units.get(3).getId());
+	}
+
+	@Test
+	public void testCompilationUnitKeys() throws IOException {
+		final List<CompilationUnit> units = createCompilationUnits("", A, B, C);
+		final List<CompilationUnit> sameUnits = createCompilationUnits("", A, B, C);
+		for (int i = 0; i < units.size(); i++) {
+			assertEquals(units.get(i).getKey(), sameUnits.get(i).getKey());
+			for (int j = i + 1; j < units.size(); j++) {
+				assertFalse(units.get(i).getKey().equals(units.get(j).getKey()));
+			}
+		}
+	}
+
+	@Test
+	public void testChangedDependency() throws IOException {
+		final List<CompilationUnit> units = createCompilationUnits("", A, B, C);
+		final List<CompilationUnit> changedUnits = createCompilationUnits("", A, B.replace("1", "2"), C);
+		// Main depends on B transitively via A
+		assertFalse(units.get(0).getKey().equals(changedUnits.get(0).getKey()));
+		assertFalse(units.get(1).getKey().equals(changedUnits.get(1).getKey()));
+		assertFalse(units.get(2).getKey().equals(changedUnits.get(2).getKey()));
+		assertEquals(units.get(3).getKey(), changedUnits.get(3).getKey());
+	}
+
+	@Test
+	public void testChangedUnrelatedUnit() throws IOException {
+		final List<CompilationUnit> units = createCompilationUnits("", A, B, C);
+		final List<CompilationUnit> changedUnits = createCompilationUnits("", A, B, C.replace("1", "2"));
+		assertEquals(units.get(0).getKey(), changedUnits.get(0).getKey());
+		assertEquals(units.get(1).getKey(), changedUnits.get(1).getKey());
+		assertEquals(units.get(2).getKey(), changedUnits.get(2).getKey());
+		assertFalse(units.get(3).getKey().equals(changedUnits.get(3).getKey()));
+	}
+
+	@Test
+	public void testChangedCompilerSettings() throws IOException {
+		final List<CompilationUnit> units = createCompilationUnits("-g", A, B, C);
+		final List<CompilationUnit> changedUnits = createCompilationUnits("-g:none", A, B, C);
+		for (int i = 0; i < units.size(); i++) {
+			assertFalse(units.get(i).getKey().equals(changedUnits.get(i).getKey()));
+		}
+	}
+
+	@Test
+	public void testClose() throws IOException {
+		final Path directory = folder.resolve("cache");
+		Files.createDirectories(directory.resolve("unit/pkg"));
+		Files.write(directory.resolve("unit/pkg/A.class"), createClassFile("A.java"));
+		final ClassCache classCache = new ClassCache(directory);
+		classCache.close();
+		assertFalse(Files.exists(directory));
+		assertTrue(Files.isDirectory(folder));
+	}
+
+}
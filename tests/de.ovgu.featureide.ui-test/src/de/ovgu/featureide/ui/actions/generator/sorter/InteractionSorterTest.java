@@ -0,0 +1,185 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator.sorter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelFactory;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.configuration.Selection;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+import de.ovgu.featureide.ui.actions.generator.BuilderConfiguration;
+
+public class InteractionSorterTest {
+
+	private static final IFeatureModelFactory FACTORY = FMFactoryManager.getDefaultFactory();
+
+	private static IFeatureModel createFeatureModel(int numberOfFeatures) {
+		final IFeatureModel featureModel = FACTORY.createFeatureModel();
+		final IFeature root = FACTORY.createFeature(featureModel, "Root");
+		root.getStructure().setAbstract(true);
+		featureModel.addFeature(root);
+		featureModel.getStructure().setRoot(root.getStructure());
+		for (int i = 0; i < numberOfFeatures; i++) {
+			final IFeature feature = FACTORY.createFeature(featureModel, "F" + i);
+			featureModel.addFeature(feature);
+			root.getStructure().addChild(feature.getStructure());
+		}
+		return featureModel;
+	}
+
+	private static List<BuilderConfiguration> createConfigurations(IFeatureModel featureModel, int numberOfConfigurations, long seed) {
+		final Random random = new Random(seed);
+		final List<BuilderConfiguration> configurations = new ArrayList<>();
+		for (int i = 0; i < numberOfConfigurations; i++) {
+			final Configuration configuration = new Configuration(featureModel, false);
+			for (final IFeature feature : featureModel.getFeatures()) {
+				if (!feature.getStructure().isRoot()) {
+					configuration.setManual(feature.getName(), random.nextBoolean() ? Selection.SELECTED : Selection.UNSELECTED);
+				}
+			}
+			configurations.add(new BuilderConfiguration(configuration, i));
+		}
+		return configurations;
+	}
+
+	private static List<String> sort(AbstractConfigurationSorter sorter, List<BuilderConfiguration> configurations) {
+		for (final BuilderConfiguration configuration : configurations) {
+			sorter.addConfiguration(configuration);
+		}
+		sorter.sortConfigurations(new NullMonitor());
+		final List<String> names = new ArrayList<>();
+		BuilderConfiguration configuration;
+		while ((configuration = sorter.getConfiguration()) != null) {
+			names.add(configuration.getName());
+		}
+		return names;
+	}
+
+	/**
+	 * Reference implementation that computes all interactions explicitly and chooses the configuration with the most uncovered interactions (ties by name)
+	 * in each step.
+	 */
+	private static List<String> sortByInteractions(int t, List<String> features, List<BuilderConfiguration> configurations, boolean skipConfigurations) {
+		final List<BuilderConfiguration> remaining = new ArrayList<>(configurations);
+		final Set<String> coveredInteractions = new HashSet<>();
+		final List<String> sorted = new ArrayList<>();
+		while (!remaining.isEmpty()) {
+			BuilderConfiguration mostCovering = null;
+			int maxUncovered = -1;
+			for (final BuilderConfiguration configuration : remaining) {
+				int uncovered = 0;
+				for (final String interaction : getInteractions(t, features, configuration)) {
+					if (!coveredInteractions.contains(interaction)) {
+						uncovered++;
+					}
+				}
+				if ((uncovered > maxUncovered) || ((uncovered == maxUncovered) && (configuration.getName().compareTo(mostCovering.getName()) < 0))) {
+					mostCovering = configuration;
+					maxUncovered = uncovered;
+				}
+			}
+			if (maxUncovered == 0) {
+				if (!skipConfigurations) {
+					for (final BuilderConfiguration configuration : remaining) {
+						sorted.add(configuration.getName());
+					}
+				}
+				break;
+			}
+			coveredInteractions.addAll(getInteractions(t, features, mostCovering));
+			sorted.add(mostCovering.getName());
+			remaining.remove(mostCovering);
+		}
+		return sorted;
+	}
+
+	/**
+	 * @return all interactions of 1 to t features of the configuration, e.g., "F0 -F2"
+	 */
+	private static Set<String> getInteractions(int t, List<String> features, BuilderConfiguration configuration) {
+		final Set<String> selectedFeatures = configuration.getSelectedFeatureNames();
+		final Set<String> interactions = new HashSet<>();
+		addInteractions(t, features, selectedFeatures, 0, "", interactions);
+		return interactions;
+	}
+
+	private static void addInteractions(int t, List<String> features, Set<String> selectedFeatures, int start, String interaction, Set<String> interactions) {
+		if (t == 0) {
+			return;
+		}
+		for (int i = start; i < features.size(); i++) {
+			final String feature = features.get(i);
+			final String newInteraction = interaction + " " + (selectedFeatures.contains(feature) ? "" : "-") + feature;
+			interactions.add(newInteraction);
+			addInteractions(t - 1, features, selectedFeatures, i + 1, newInteraction, interactions);
+		}
+	}
+
+	private static void testOrder(int t, int numberOfFeatures, int numberOfConfigurations, boolean skipConfigurations) {
+		final IFeatureModel featureModel = createFeatureModel(numberOfFeatures);
+		final List<String> features = new ArrayList<>();
+		for (int i = 0; i < numberOfFeatures; i++) {
+			features.add("F" + i);
+		}
+		final List<BuilderConfiguration> configurations = createConfigurations(featureModel, numberOfConfigurations, (31 * t) + numberOfFeatures);
+		assertEquals("t = " + t + ", " + numberOfFeatures + " features", sortByInteractions(t, features, configurations, skipConfigurations),
+				sort(new InteractionSorter(t, featureModel, skipConfigurations), configurations));
+	}
+
+	@Test
+	public void testOrder() {
+		for (int t = 0; t <= 3; t++) {
+			for (final int numberOfFeatures : new int[] { 0, 1, 2, 5, 8 }) {
+				testOrder(t, numberOfFeatures, 40, true);
+				testOrder(t, numberOfFeatures, 40, false);
+			}
+		}
+	}
+
+	@Test
+	public void testOrderOfManyConfigurations() {
+		testOrder(2, 6, 150, true);
+		testOrder(2, 6, 150, false);
+	}
+
+	@Test
+	public void testTooManyInteractions() {
+		final IFeatureModel featureModel = createFeatureModel(50);
+		try {
+			sort(new InteractionSorter(20, featureModel, true), createConfigurations(featureModel, 1, 0));
+			fail();
+		} catch (final IllegalArgumentException e) {}
+	}
+
+}